@@ -0,0 +1,77 @@
+package core.assertions;
+
+import core.benchmarks.StubPayloads;
+import io.restassured.response.Response;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for parsing stub responses through {@link JavaAssertions}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JavaAssertionsBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int itemCount;
+
+    private String body;
+    private Response response;
+    private Response freshResponse;
+
+    /**
+     * Build the stub body and a response that is parsed once before measuring.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        body = StubPayloads.listPayload(itemCount).toString();
+        response = StubPayloads.jsonResponse(body);
+        JavaAssertions.getResponseAsJsonObject(response);
+    }
+
+    /**
+     * Build a response that has not been parsed yet.
+     */
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        freshResponse = StubPayloads.jsonResponse(body);
+    }
+
+    /**
+     * Parse a response body into a JSONObject for the first time.
+     *
+     * @return The parsed body
+     */
+    @Benchmark
+    public JSONObject getResponseAsJsonObject() {
+        return JavaAssertions.getResponseAsJsonObject(freshResponse);
+    }
+
+    /**
+     * Check that every item has an id and name by streaming over a response that has not been parsed.
+     *
+     * @return The number of items
+     */
+    @Benchmark
+    public long streamingEachHasNonNull() {
+        return StreamingJsonAssertions.forEach(freshResponse, "$.data.items[*]")
+                .eachHasNonNull("id", "attributes.name")
+                .verify();
+    }
+
+    /**
+     * Get the JSONObject of a response that has already been parsed, which returns the cached tree.
+     *
+     * @return The cached parsed body
+     */
+    @Benchmark
+    public JSONObject getResponseAsJsonObjectCached() {
+        return JavaAssertions.getResponseAsJsonObject(response);
+    }
+}
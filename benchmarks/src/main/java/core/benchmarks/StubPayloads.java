@@ -0,0 +1,64 @@
+package core.benchmarks;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * In-process stub payloads and responses shared by the benchmarks, shaped like the
+ * list responses of the User, Product and Order APIs.
+ */
+public final class StubPayloads {
+
+    private StubPayloads() {
+    }
+
+    /**
+     * Build a JSON document with a page of items under {@code data.items}.
+     *
+     * @param itemCount Number of items
+     * @return The JSON document
+     */
+    public static JSONObject listPayload(int itemCount) {
+        JSONArray items = new JSONArray();
+        for (int i = 0; i < itemCount; i++) {
+            JSONObject attributes = new JSONObject();
+            attributes.put("name", "Product " + i);
+            attributes.put("category", i % 2 == 0 ? "test" : "demo");
+            attributes.put("tags", new JSONArray().put("a").put("b").put("c"));
+
+            JSONObject item = new JSONObject();
+            item.put("id", i);
+            item.put("price", 10.99 + i);
+            item.put("in_stock", i % 3 != 0);
+            item.put("attributes", attributes);
+            items.put(item);
+        }
+
+        JSONObject data = new JSONObject();
+        data.put("items", items);
+        data.put("total", itemCount);
+
+        JSONObject payload = new JSONObject();
+        payload.put("data", data);
+        payload.put("request_id", "5f0c7a52-2d1b-4c1e-9a55-0c2f4b8d1e7a");
+        payload.put("timestamp", "2024-01-01T00:00:00Z");
+        return payload;
+    }
+
+    /**
+     * Build a 200 JSON response without any network I/O.
+     *
+     * @param body The response body
+     * @return The response
+     */
+    public static Response jsonResponse(String body) {
+        return new ResponseBuilder()
+                .setStatusCode(200)
+                .setStatusLine("HTTP/1.1 200 OK")
+                .setContentType("application/json")
+                .setBody(body)
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package core.clients;
+
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the per-request overhead of {@link BaseApiClient}: building the request
+ * specification with its default headers, and a full GET against an in-process stub server
+ * through the RestAssured and JDK HttpClient transports.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BaseApiClientBenchmark {
+
+    private static final byte[] STUB_BODY = "{\"id\":1,\"name\":\"Test User\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Param({"0", "5", "20"})
+    public int headerCount;
+
+    private HttpServer server;
+    private BaseApiClient client;
+    private BaseApiClient jdkClient;
+
+    /**
+     * Start the stub server and create a client with the configured number of headers.
+     *
+     * @throws IOException If the stub server cannot be started
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, STUB_BODY.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(STUB_BODY);
+            }
+        });
+        server.start();
+
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        client = new BaseApiClient(baseUrl);
+        jdkClient = new BaseApiClient(baseUrl);
+        jdkClient.setTransport(new JdkHttpTransport(baseUrl));
+        for (int i = 0; i < headerCount; i++) {
+            client.addHeader("X-Benchmark-" + i, "value-" + i);
+            jdkClient.addHeader("X-Benchmark-" + i, "value-" + i);
+        }
+    }
+
+    /**
+     * Stop the stub server.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    /**
+     * Build a request specification, copying the default headers.
+     *
+     * @return The request specification
+     */
+    @Benchmark
+    public RequestSpecification createRequest() {
+        return client.createRequest();
+    }
+
+    /**
+     * Make a GET request to the stub server and read the body.
+     *
+     * @return The response
+     */
+    @Benchmark
+    public Response getAgainstStub() {
+        Response response = client.get("/users/1");
+        response.asByteArray();
+        return response;
+    }
+
+    /**
+     * Make the same GET request through the JDK HttpClient transport.
+     *
+     * @return The response
+     */
+    @Benchmark
+    public Response getAgainstStubJdkTransport() {
+        Response response = jdkClient.get("/users/1");
+        response.asByteArray();
+        return response;
+    }
+}
@@ -0,0 +1,44 @@
+package core.config;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for environment variable substitution in {@link EnvLoader}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnvLoaderBenchmark {
+
+    @Param({
+            "https://api-dev.example.com",
+            "${PATH}",
+            "${HOME}/config/${PATH}/client"
+    })
+    public String value;
+
+    private EnvLoader envLoader;
+
+    /**
+     * Get the loader. Substitution does not read the configuration file.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        envLoader = EnvLoader.getInstance();
+    }
+
+    /**
+     * Substitute the environment variable references in a configuration value.
+     *
+     * @return The substituted value
+     */
+    @Benchmark
+    public String substituteEnvVars() {
+        return envLoader.substituteEnvVars(value);
+    }
+}
@@ -0,0 +1,58 @@
+package core.utils;
+
+import core.benchmarks.StubPayloads;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the JSON helpers in {@link CommonHelpers}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommonHelpersBenchmark {
+
+    private static final List<String> IGNORE_KEYS = List.of("request_id", "timestamp");
+
+    @Param({"1", "100", "1000"})
+    public int itemCount;
+
+    private JSONObject payload;
+    private JSONObject otherPayload;
+
+    /**
+     * Build two equal payloads that differ only in ignored keys.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        payload = StubPayloads.listPayload(itemCount);
+        otherPayload = StubPayloads.listPayload(itemCount);
+        otherPayload.put("request_id", "another-request");
+    }
+
+    /**
+     * Extract a value nested inside an object, an array and another object.
+     *
+     * @return The extracted value
+     */
+    @Benchmark
+    public Object extractNestedValue() {
+        return CommonHelpers.extractNestedValue(payload, "data.items[0].attributes.name");
+    }
+
+    /**
+     * Compare two payloads while ignoring the request metadata.
+     *
+     * @return True if the payloads are equal
+     */
+    @Benchmark
+    public boolean compareJsonObjects() {
+        return CommonHelpers.compareJsonObjects(payload, otherPayload, IGNORE_KEYS);
+    }
+}
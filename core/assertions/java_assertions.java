@@ -1,6 +1,8 @@
 package core.assertions;
 
+import core.utils.ParsedResponseCache;
 import io.restassured.response.Response;
+import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -117,7 +119,8 @@ public class JavaAssertions {
      * @param key      Key to check
      */
     public static void assertJsonHasKey(Response response, String key) {
-        response.then().body(key, Matchers.notNullValue());
+        MatcherAssert.assertThat("JSON path '" + key + "'",
+                ParsedResponseCache.getJsonPath(response).get(key), Matchers.notNullValue());
     }
 
     /**
@@ -140,7 +143,8 @@ public class JavaAssertions {
      * @param expectedValue Expected value
      */
     public static void assertJsonValue(Response response, String key, Object expectedValue) {
-        response.then().body(key, Matchers.equalTo(expectedValue));
+        MatcherAssert.assertThat("JSON path '" + key + "'",
+                ParsedResponseCache.getJsonPath(response).get(key), Matchers.equalTo(expectedValue));
     }
 
     /**
@@ -173,7 +177,8 @@ public class JavaAssertions {
      * @param expectedLength Expected length of the list
      */
     public static void assertJsonListLength(Response response, String path, int expectedLength) {
-        response.then().body(path + ".size()", Matchers.equalTo(expectedLength));
+        MatcherAssert.assertThat("JSON path '" + path + ".size()'",
+                ParsedResponseCache.getJsonPath(response).get(path + ".size()"), Matchers.equalTo(expectedLength));
     }
 
     /**
@@ -205,7 +210,7 @@ public class JavaAssertions {
      */
     public static JSONObject getResponseAsJsonObject(Response response) {
         try {
-            return new JSONObject(response.getBody().asString());
+            return ParsedResponseCache.getJsonObject(response);
         } catch (JSONException e) {
             logger.error("Failed to parse response body as JSON", e);
             throw new AssertionError("Response body is not valid JSON", e);
@@ -220,7 +225,7 @@ public class JavaAssertions {
      */
     public static JSONArray getResponseAsJsonArray(Response response) {
         try {
-            return new JSONArray(response.getBody().asString());
+            return ParsedResponseCache.getJsonArray(response);
         } catch (JSONException e) {
             logger.error("Failed to parse response body as JSON array", e);
             throw new AssertionError("Response body is not a valid JSON array", e);
@@ -235,7 +240,8 @@ public class JavaAssertions {
      * @param value    Value to check for
      */
     public static void assertJsonListContains(Response response, String path, Object value) {
-        response.then().body(path, Matchers.hasItem(value));
+        List<Object> list = ParsedResponseCache.getJsonPath(response).getList(path);
+        MatcherAssert.assertThat("JSON path '" + path + "'", list, Matchers.hasItem(value));
     }
 
     /**
@@ -254,7 +260,7 @@ public class JavaAssertions {
      * @param response The Response object
      */
     public static void assertNonEmptyResponse(Response response) {
-        String responseBody = response.getBody().asString();
+        String responseBody = ParsedResponseCache.getBody(response);
         Assert.assertTrue("Response body should not be empty", responseBody != null && !responseBody.trim().isEmpty());
     }
 }
@@ -1,24 +1,36 @@
 package core.clients;
 
+import core.auth.OAuth2TokenProvider;
+import core.metrics.LatencyRecorder;
+import core.metrics.RequestLog;
+import core.utils.ParsedResponseCache;
 import io.restassured.RestAssured;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
+import org.apache.http.params.CoreConnectionPNames;
 import org.json.JSONObject;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Base API client for making HTTP requests to REST APIs.
  * Provides common functionality for all API interactions using RestAssured.
+ * <p>
+ * The client is safe to share between threads: every call builds its own request
+ * from an immutable snapshot of the default headers and timeout, and the last
+ * response is tracked per thread. Default headers are kept as a prebuilt
+ * {@link HeaderBlock}, so a request does not copy or re-validate them.
  */
 public class BaseApiClient {
-    private static final Logger logger = LoggerFactory.getLogger(BaseApiClient.class);
-    
     private final String baseUrl;
-    private final RequestSpecification requestSpec;
-    private Response lastResponse;
+    private volatile HeaderBlock defaultHeaders = HeaderBlock.EMPTY;
+    private volatile RestAssuredConfig requestConfig = RestAssured.config();
+    private final ThreadLocal<Response> lastResponse = new ThreadLocal<>();
+    private volatile Supplier<String> bearerToken;
     
     /**
      * Initialize the BaseApiClient with base URL and optional default headers.
@@ -27,8 +39,6 @@ public class BaseApiClient {
      */
     public BaseApiClient(String baseUrl) {
         this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
-        this.requestSpec = RestAssured.given();
-        this.requestSpec.baseUri(this.baseUrl);
     }
     
     /**
@@ -40,7 +50,7 @@ public class BaseApiClient {
     public BaseApiClient(String baseUrl, Map<String, String> headers) {
         this(baseUrl);
         if (headers != null) {
-            this.requestSpec.headers(headers);
+            setHeaders(headers);
         }
     }
     
@@ -55,13 +65,47 @@ public class BaseApiClient {
     }
     
     /**
-     * Log request information.
+     * Create a new request specification for a single call.
+     * The default headers and configuration are read once, so concurrent changes
+     * made by other threads never leak into a request that is being built.
+     *
+     * @return A fresh request specification
+     */
+    private RequestSpecification createRequest() {
+        HeaderBlock headers = defaultHeaders;
+        Supplier<String> token = bearerToken;
+        if (token != null) {
+            // Remembered by the block, so this only copies when the token changes
+            headers = headers.with("Authorization", "Bearer " + token.get());
+        }
+        return RestAssured.given()
+                .config(requestConfig)
+                .baseUri(baseUrl)
+                .headers(headers.toRestAssured())
+                .filter(LatencyRecorder.FILTER);
+    }
+    
+    /**
+     * Remember a response as the current thread's last response and record the request in
+     * the shared {@link RequestLog}. Nothing is formatted on the calling thread; sizes are
+     * only worked out for requests the log's sampling rules keep.
      *
      * @param method   HTTP method
      * @param endpoint Request endpoint
+     * @param body     The request body, or null for none
+     * @param response The response
+     * @param start    When the request was started, from {@link System#nanoTime()}
+     * @return The response
      */
-    private void logRequest(String method, String endpoint) {
-        logger.info("Making {} request to {}{}", method, baseUrl, buildEndpointPath(endpoint));
+    private Response completed(String method, String endpoint, String body, Response response, long start) {
+        lastResponse.set(response);
+        long latencyNanos = System.nanoTime() - start;
+        RequestLog log = RequestLog.getInstance();
+        if (log.sample(response.getStatusCode(), latencyNanos)) {
+            log.append(method, buildEndpointPath(endpoint), response.getStatusCode(), latencyNanos,
+                    body != null ? body.getBytes(StandardCharsets.UTF_8).length : 0, response.asByteArray().length);
+        }
+        return response;
     }
     
     /**
@@ -71,10 +115,9 @@ public class BaseApiClient {
      * @return The Response object
      */
     public Response get(String endpoint) {
-        logRequest("GET", endpoint);
-        lastResponse = requestSpec.get(buildEndpointPath(endpoint));
-        logger.debug("Response status code: {}", lastResponse.getStatusCode());
-        return lastResponse;
+        long start = System.nanoTime();
+        Response response = createRequest().get(buildEndpointPath(endpoint));
+        return completed("GET", endpoint, null, response, start);
     }
     
     /**
@@ -85,10 +128,9 @@ public class BaseApiClient {
      * @return The Response object
      */
     public Response get(String endpoint, Map<String, ?> params) {
-        logRequest("GET", endpoint);
-        lastResponse = requestSpec.params(params).get(buildEndpointPath(endpoint));
-        logger.debug("Response status code: {}", lastResponse.getStatusCode());
-        return lastResponse;
+        long start = System.nanoTime();
+        Response response = createRequest().params(params).get(buildEndpointPath(endpoint));
+        return completed("GET", endpoint, null, response, start);
     }
     
     /**
@@ -100,10 +142,9 @@ public class BaseApiClient {
      * @return The Response object
      */
     public Response get(String endpoint, Map<String, ?> params, Map<String, String> headers) {
-        logRequest("GET", endpoint);
-        lastResponse = requestSpec.params(params).headers(headers).get(buildEndpointPath(endpoint));
-        logger.debug("Response status code: {}", lastResponse.getStatusCode());
-        return lastResponse;
+        long start = System.nanoTime();
+        Response response = createRequest().params(params).headers(headers).get(buildEndpointPath(endpoint));
+        return completed("GET", endpoint, null, response, start);
     }
     
     /**
@@ -113,10 +154,9 @@ public class BaseApiClient {
      * @return The Response object
      */
     public Response post(String endpoint) {
-        logRequest("POST", endpoint);
-        lastResponse = requestSpec.post(buildEndpointPath(endpoint));
-        logger.debug("Response status code: {}", lastResponse.getStatusCode());
-        return lastResponse;
+        long start = System.nanoTime();
+        Response response = createRequest().post(buildEndpointPath(endpoint));
+        return completed("POST", endpoint, null, response, start);
     }
     
     /**
@@ -127,10 +167,10 @@ public class BaseApiClient {
      * @return The Response object
      */
     public Response post(String endpoint, JSONObject body) {
-        logRequest("POST", endpoint);
-        lastResponse = requestSpec.body(body.toString()).post(buildEndpointPath(endpoint));
-        logger.debug("Response status code: {}", lastResponse.getStatusCode());
-        return lastResponse;
+        String json = body.toString();
+        long start = System.nanoTime();
+        Response response = createRequest().body(json).post(buildEndpointPath(endpoint));
+        return completed("POST", endpoint, json, response, start);
     }
     
     /**
@@ -142,10 +182,10 @@ public class BaseApiClient {
      * @return The Response object
      */
     public Response post(String endpoint, JSONObject body, Map<String, String> headers) {
-        logRequest("POST", endpoint);
-        lastResponse = requestSpec.body(body.toString()).headers(headers).post(buildEndpointPath(endpoint));
-        logger.debug("Response status code: {}", lastResponse.getStatusCode());
-        return lastResponse;
+        String json = body.toString();
+        long start = System.nanoTime();
+        Response response = createRequest().body(json).headers(headers).post(buildEndpointPath(endpoint));
+        return completed("POST", endpoint, json, response, start);
     }
     
     /**
@@ -155,10 +195,9 @@ public class BaseApiClient {
      * @return The Response object
      */
     public Response put(String endpoint) {
-        logRequest("PUT", endpoint);
-        lastResponse = requestSpec.put(buildEndpointPath(endpoint));
-        logger.debug("Response status code: {}", lastResponse.getStatusCode());
-        return lastResponse;
+        long start = System.nanoTime();
+        Response response = createRequest().put(buildEndpointPath(endpoint));
+        return completed("PUT", endpoint, null, response, start);
     }
     
     /**
@@ -169,10 +208,10 @@ public class BaseApiClient {
      * @return The Response object
      */
     public Response put(String endpoint, JSONObject body) {
-        logRequest("PUT", endpoint);
-        lastResponse = requestSpec.body(body.toString()).put(buildEndpointPath(endpoint));
-        logger.debug("Response status code: {}", lastResponse.getStatusCode());
-        return lastResponse;
+        String json = body.toString();
+        long start = System.nanoTime();
+        Response response = createRequest().body(json).put(buildEndpointPath(endpoint));
+        return completed("PUT", endpoint, json, response, start);
     }
     
     /**
@@ -184,10 +223,10 @@ public class BaseApiClient {
      * @return The Response object
      */
     public Response put(String endpoint, JSONObject body, Map<String, String> headers) {
-        logRequest("PUT", endpoint);
-        lastResponse = requestSpec.body(body.toString()).headers(headers).put(buildEndpointPath(endpoint));
-        logger.debug("Response status code: {}", lastResponse.getStatusCode());
-        return lastResponse;
+        String json = body.toString();
+        long start = System.nanoTime();
+        Response response = createRequest().body(json).headers(headers).put(buildEndpointPath(endpoint));
+        return completed("PUT", endpoint, json, response, start);
     }
     
     /**
@@ -197,10 +236,9 @@ public class BaseApiClient {
      * @return The Response object
      */
     public Response delete(String endpoint) {
-        logRequest("DELETE", endpoint);
-        lastResponse = requestSpec.delete(buildEndpointPath(endpoint));
-        logger.debug("Response status code: {}", lastResponse.getStatusCode());
-        return lastResponse;
+        long start = System.nanoTime();
+        Response response = createRequest().delete(buildEndpointPath(endpoint));
+        return completed("DELETE", endpoint, null, response, start);
     }
     
     /**
@@ -211,10 +249,9 @@ public class BaseApiClient {
      * @return The Response object
      */
     public Response delete(String endpoint, Map<String, ?> params) {
-        logRequest("DELETE", endpoint);
-        lastResponse = requestSpec.params(params).delete(buildEndpointPath(endpoint));
-        logger.debug("Response status code: {}", lastResponse.getStatusCode());
-        return lastResponse;
+        long start = System.nanoTime();
+        Response response = createRequest().params(params).delete(buildEndpointPath(endpoint));
+        return completed("DELETE", endpoint, null, response, start);
     }
     
     /**
@@ -226,10 +263,9 @@ public class BaseApiClient {
      * @return The Response object
      */
     public Response delete(String endpoint, Map<String, ?> params, Map<String, String> headers) {
-        logRequest("DELETE", endpoint);
-        lastResponse = requestSpec.params(params).headers(headers).delete(buildEndpointPath(endpoint));
-        logger.debug("Response status code: {}", lastResponse.getStatusCode());
-        return lastResponse;
+        long start = System.nanoTime();
+        Response response = createRequest().params(params).headers(headers).delete(buildEndpointPath(endpoint));
+        return completed("DELETE", endpoint, null, response, start);
     }
     
     /**
@@ -239,10 +275,9 @@ public class BaseApiClient {
      * @return The Response object
      */
     public Response patch(String endpoint) {
-        logRequest("PATCH", endpoint);
-        lastResponse = requestSpec.patch(buildEndpointPath(endpoint));
-        logger.debug("Response status code: {}", lastResponse.getStatusCode());
-        return lastResponse;
+        long start = System.nanoTime();
+        Response response = createRequest().patch(buildEndpointPath(endpoint));
+        return completed("PATCH", endpoint, null, response, start);
     }
     
     /**
@@ -253,10 +288,10 @@ public class BaseApiClient {
      * @return The Response object
      */
     public Response patch(String endpoint, JSONObject body) {
-        logRequest("PATCH", endpoint);
-        lastResponse = requestSpec.body(body.toString()).patch(buildEndpointPath(endpoint));
-        logger.debug("Response status code: {}", lastResponse.getStatusCode());
-        return lastResponse;
+        String json = body.toString();
+        long start = System.nanoTime();
+        Response response = createRequest().body(json).patch(buildEndpointPath(endpoint));
+        return completed("PATCH", endpoint, json, response, start);
     }
     
     /**
@@ -268,23 +303,106 @@ public class BaseApiClient {
      * @return The Response object
      */
     public Response patch(String endpoint, JSONObject body, Map<String, String> headers) {
-        logRequest("PATCH", endpoint);
-        lastResponse = requestSpec.body(body.toString()).headers(headers).patch(buildEndpointPath(endpoint));
-        logger.debug("Response status code: {}", lastResponse.getStatusCode());
-        return lastResponse;
+        String json = body.toString();
+        long start = System.nanoTime();
+        Response response = createRequest().body(json).headers(headers).patch(buildEndpointPath(endpoint));
+        return completed("PATCH", endpoint, json, response, start);
+    }
+    
+    /**
+     * Send a GET request to a path built from a route template, e.g.
+     * {@code get(Route.of("/users/{id}"), userId)}. The request is recorded under the template.
+     *
+     * @param route  The route
+     * @param values The values of the route's variables
+     * @return The Response object
+     */
+    public Response get(Route route, Object... values) {
+        return send(route, "GET", values, null);
     }
     
     /**
-     * Get the Response object from the last request.
+     * Send a POST request with a JSON body to a path built from a route template.
+     *
+     * @param route  The route
+     * @param body   The JSON body as a JSONObject
+     * @param values The values of the route's variables
+     * @return The Response object
+     */
+    public Response post(Route route, JSONObject body, Object... values) {
+        return send(route, "POST", values, body.toString());
+    }
+    
+    /**
+     * Send a PUT request with a JSON body to a path built from a route template.
+     *
+     * @param route  The route
+     * @param body   The JSON body as a JSONObject
+     * @param values The values of the route's variables
+     * @return The Response object
+     */
+    public Response put(Route route, JSONObject body, Object... values) {
+        return send(route, "PUT", values, body.toString());
+    }
+    
+    /**
+     * Send a PATCH request with a JSON body to a path built from a route template.
+     *
+     * @param route  The route
+     * @param body   The JSON body as a JSONObject
+     * @param values The values of the route's variables
+     * @return The Response object
+     */
+    public Response patch(Route route, JSONObject body, Object... values) {
+        return send(route, "PATCH", values, body.toString());
+    }
+    
+    /**
+     * Send a DELETE request to a path built from a route template.
+     *
+     * @param route  The route
+     * @param values The values of the route's variables
+     * @return The Response object
+     */
+    public Response delete(Route route, Object... values) {
+        return send(route, "DELETE", values, null);
+    }
+    
+    /**
+     * Send a request to a path built from a route template, recording it under the template.
+     *
+     * @param route  The route
+     * @param method HTTP method
+     * @param values The values of the route's variables
+     * @param body   The request body, or null for none
+     * @return The Response object
+     */
+    private Response send(Route route, String method, Object[] values, String body) {
+        String path = route.expand(values);
+        return LatencyRecorder.withRoute(route.getTemplate(), () -> {
+            // The path is already percent-encoded
+            RequestSpecification request = createRequest().urlEncodingEnabled(false);
+            if (body != null) {
+                request.body(body);
+            }
+            long start = System.nanoTime();
+            Response response = request.request(method, path);
+            return completed(method, route.getTemplate(), body, response, start);
+        });
+    }
+    
+    /**
+     * Get the Response object from the last request made by the current thread.
      *
      * @return The last Response object
      * @throws IllegalStateException if no request has been made yet
      */
     public Response getLastResponse() {
-        if (lastResponse == null) {
+        Response response = lastResponse.get();
+        if (response == null) {
             throw new IllegalStateException("No response available. Make a request first.");
         }
-        return lastResponse;
+        return response;
     }
     
     /**
@@ -304,17 +422,18 @@ public class BaseApiClient {
      * @throws IllegalStateException if no request has been made yet
      */
     public String getResponseBody() {
-        return getLastResponse().getBody().asString();
+        return ParsedResponseCache.getBody(getLastResponse());
     }
     
     /**
      * Get the response body as a JSONObject from the last request.
+     * The body is parsed once per response and the parsed body is shared, so it is read-only.
      *
      * @return The response body as a JSONObject
      * @throws IllegalStateException if no request has been made yet
      */
     public JSONObject getResponseBodyAsJson() {
-        return new JSONObject(getResponseBody());
+        return ParsedResponseCache.getJsonObject(getLastResponse());
     }
     
     /**
@@ -324,14 +443,34 @@ public class BaseApiClient {
      * @param token    The authorization token
      */
     public void setAuthorization(String authType, String token) {
-        requestSpec.header("Authorization", authType + " " + token);
+        addHeader("Authorization", authType + " " + token);
+    }
+    
+    /**
+     * Send a bearer token from a token provider, for the default scope, with every request.
+     *
+     * @param provider The token provider, or null to stop sending tokens
+     */
+    public void setTokenProvider(OAuth2TokenProvider provider) {
+        setTokenProvider(provider, OAuth2TokenProvider.DEFAULT_SCOPE);
+    }
+
+    /**
+     * Send a bearer token from a token provider with every request. The token is looked up
+     * per request, so refreshed tokens are picked up; it replaces any Authorization header.
+     *
+     * @param provider The token provider, or null to stop sending tokens
+     * @param scope    The scope to request tokens for
+     */
+    public void setTokenProvider(OAuth2TokenProvider provider, String scope) {
+        this.bearerToken = provider == null ? null : () -> provider.getToken(scope);
     }
     
     /**
      * Clear the Authorization header.
      */
-    public void clearAuthorization() {
-        requestSpec.header("Authorization", "");
+    public synchronized void clearAuthorization() {
+        defaultHeaders = defaultHeaders.without("Authorization");
     }
     
     /**
@@ -339,8 +478,12 @@ public class BaseApiClient {
      *
      * @param headers Map of header names and values
      */
-    public void setHeaders(Map<String, String> headers) {
-        requestSpec.headers(headers);
+    public synchronized void setHeaders(Map<String, String> headers) {
+        HeaderBlock updated = defaultHeaders;
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            updated = updated.with(header.getKey(), header.getValue());
+        }
+        defaultHeaders = updated;
     }
     
     /**
@@ -349,20 +492,18 @@ public class BaseApiClient {
      * @param name  Header name
      * @param value Header value
      */
-    public void addHeader(String name, String value) {
-        requestSpec.header(name, value);
+    public synchronized void addHeader(String name, String value) {
+        defaultHeaders = defaultHeaders.with(name, value);
     }
     
     /**
-     * Set a request timeout.
+     * Set a request timeout for this client only.
      *
      * @param timeoutInMillis Timeout in milliseconds
      */
     public void setTimeout(int timeoutInMillis) {
-        RestAssured.config().httpConfig().requestConfig().setConfig(
-                org.apache.http.client.config.RequestConfig.custom()
-                        .setConnectTimeout(timeoutInMillis)
-                        .setSocketTimeout(timeoutInMillis)
-                        .build());
+        requestConfig = RestAssured.config().httpClient(HttpClientConfig.httpClientConfig()
+                .setParam(CoreConnectionPNames.CONNECTION_TIMEOUT, timeoutInMillis)
+                .setParam(CoreConnectionPNames.SO_TIMEOUT, timeoutInMillis));
     }
 }
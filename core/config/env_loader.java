@@ -75,7 +75,7 @@ public class EnvLoader {
         JSONObject rawConfig = new JSONObject(content);
 
         // Process environment variables in the configuration
-        config = processEnvVars(rawConfig);
+        config = (JSONObject) processEnvVars(rawConfig);
         return config;
     }
 
@@ -89,12 +89,7 @@ public class EnvLoader {
      * @throws RuntimeException If the specified environment does not exist in the configuration
      */
     public JSONObject getEnvironmentConfig(String env) throws IOException, JSONException {
-        if (env == null || env.isEmpty()) {
-            env = System.getenv("ENVIRONMENT");
-            if (env == null || env.isEmpty()) {
-                env = "dev";
-            }
-        }
+        env = resolveEnvironment(env);
 
         JSONObject fullConfig = loadConfig();
 
@@ -107,6 +102,22 @@ public class EnvLoader {
         return fullConfig.getJSONObject("environments").getJSONObject(env);
     }
 
+    /**
+     * Resolve the name of the environment to use.
+     *
+     * @param env Optional environment name
+     * @return The given name, or the ENVIRONMENT env var, or "dev"
+     */
+    public static String resolveEnvironment(String env) {
+        if (env == null || env.isEmpty()) {
+            env = System.getenv("ENVIRONMENT");
+            if (env == null || env.isEmpty()) {
+                env = "dev";
+            }
+        }
+        return env;
+    }
+
     /**
      * Get the test settings for the specified test type.
      *
@@ -256,9 +267,9 @@ public class EnvLoader {
             if (envVarValue == null) {
                 logger.warn("Environment variable '{}' not found", envVarName);
                 // Return the original reference if not found
-                matcher.appendReplacement(sb, matcher.group(0));
+                matcher.appendReplacement(sb, Matcher.quoteReplacement(matcher.group(0)));
             } else {
-                matcher.appendReplacement(sb, envVarValue);
+                matcher.appendReplacement(sb, Matcher.quoteReplacement(envVarValue));
             }
         }
 
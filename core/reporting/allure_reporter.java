@@ -3,6 +3,7 @@ package core.reporting;
 import io.qameta.allure.Allure;
 import io.qameta.allure.AllureLifecycle;
 import io.qameta.allure.model.*;
+import core.utils.ParsedResponseCache;
 import io.restassured.response.Response;
 import org.json.JSONObject;
 import org.slf4j.Logger;
@@ -168,11 +169,11 @@ public class AllureReporter {
             Allure.attachment("Response Headers", new JSONObject(sanitizedHeaders).toString(2));
             
             // Attach body
-            String responseBody = response.getBody().asString();
+            String responseBody = ParsedResponseCache.getBody(response);
             if (responseBody != null && !responseBody.isEmpty()) {
                 try {
-                    // Try to parse as JSON
-                    JSONObject jsonResponse = new JSONObject(responseBody);
+                    // Try to parse as JSON, reusing the tree parsed by assertions
+                    JSONObject jsonResponse = ParsedResponseCache.getJsonObject(response);
                     Allure.attachment("Response Body", jsonResponse.toString(2));
                 } catch (Exception e) {
                     // Not JSON, attach as text
@@ -1,10 +1,18 @@
 package core.assertions;
 
+import core.clients.DownloadResult;
+import core.metrics.LatencyHistogram;
+import core.metrics.LatencyRecorder;
+import core.utils.ParsedResponseCache;
 import io.restassured.response.Response;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.jupiter.api.Assertions;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Map;
+
 /**
  * Utility class for common API test assertions.
  */
@@ -43,23 +51,124 @@ public class JavaAssertions {
                 "Response time " + response.getTime() + "ms exceeded maximum " + maxTimeMs + "ms");
     }
 
+    /**
+     * Assert that a streamed download has the expected size.
+     *
+     * @param result The download result to check
+     * @param expectedSize The expected body size in bytes
+     */
+    public static void assertDownloadSize(DownloadResult result, long expectedSize) {
+        Assertions.assertEquals(expectedSize, result.getSize(),
+                "Expected a download of " + expectedSize + " bytes but got " + result.getSize());
+    }
+
+    /**
+     * Assert that a streamed download has the expected digest.
+     *
+     * @param result The download result to check
+     * @param expectedDigest The expected hex digest, compared case-insensitively
+     */
+    public static void assertDownloadDigest(DownloadResult result, String expectedDigest) {
+        Assertions.assertTrue(result.getDigest().equalsIgnoreCase(expectedDigest),
+                "Expected " + result.getDigestAlgorithm() + " " + expectedDigest + " but got " + result.getDigest());
+    }
+
+    /**
+     * Assert that a streamed download was transferred at a minimum rate.
+     *
+     * @param result The download result to check
+     * @param minBytesPerSecond The minimum acceptable transfer rate in bytes per second
+     */
+    public static void assertDownloadRate(DownloadResult result, double minBytesPerSecond) {
+        Assertions.assertTrue(result.getBytesPerSecond() >= minBytesPerSecond,
+                String.format("Transfer rate %.0f B/s was below minimum %.0f B/s",
+                        result.getBytesPerSecond(), minBytesPerSecond));
+    }
+
+    /**
+     * Assert that a latency percentile of an endpoint, across all methods, is within a maximum.
+     * Latencies are recorded by every client call since the last {@link LatencyRecorder#reset()}.
+     *
+     * @param endpoint The API endpoint path, e.g. "/users"
+     * @param percentile The percentile as a fraction, e.g. 0.99
+     * @param maxTimeMs The maximum acceptable latency in milliseconds
+     */
+    public static void assertPercentile(String endpoint, double percentile, long maxTimeMs) {
+        assertPercentile(endpoint, LatencyRecorder.getHistogram(endpoint), percentile, maxTimeMs);
+    }
+
+    /**
+     * Assert that a latency percentile of one method on an endpoint is within a maximum.
+     *
+     * @param method The HTTP method, e.g. "GET"
+     * @param endpoint The API endpoint path, e.g. "/users"
+     * @param percentile The percentile as a fraction, e.g. 0.99
+     * @param maxTimeMs The maximum acceptable latency in milliseconds
+     */
+    public static void assertPercentile(String method, String endpoint, double percentile, long maxTimeMs) {
+        assertPercentile(method + " " + endpoint, LatencyRecorder.getHistogram(method, endpoint), percentile, maxTimeMs);
+    }
+
+    /**
+     * Assert that every recorded method and endpoint meets the percentile_thresholds
+     * in the performance test settings of config.json.
+     *
+     * @throws IOException If the configuration file cannot be read
+     */
+    public static void assertPercentileThresholds() throws IOException {
+        Map<Double, Long> thresholds = LatencyRecorder.loadPercentileThresholds();
+        Assertions.assertAll(LatencyRecorder.getHistograms().entrySet().stream()
+                .flatMap(entry -> thresholds.entrySet().stream()
+                        .map(threshold -> () -> assertPercentile(entry.getKey(), entry.getValue(),
+                                threshold.getKey(), threshold.getValue()))));
+    }
+
+    /**
+     * Assert that a latency percentile of a histogram is within a maximum.
+     *
+     * @param name The name used in the failure message
+     * @param histogram The recorded latencies
+     * @param percentile The percentile as a fraction
+     * @param maxTimeMs The maximum acceptable latency in milliseconds
+     */
+    private static void assertPercentile(String name, LatencyHistogram histogram, double percentile, long maxTimeMs) {
+        Assertions.assertTrue(histogram != null && histogram.getTotalCount() > 0,
+                "No latencies recorded for " + name);
+        double actual = histogram.getPercentileMillis(percentile);
+        Assertions.assertTrue(actual <= maxTimeMs,
+                String.format("p%s of %s was %.1fms, exceeding maximum %dms (%d samples)",
+                        formatPercentile(percentile), name, actual, maxTimeMs, histogram.getTotalCount()));
+    }
+
+    /**
+     * Format a percentile fraction as a percentile number, e.g. 0.995 as "99.5".
+     *
+     * @param percentile The percentile as a fraction
+     * @return The formatted percentile
+     */
+    private static String formatPercentile(double percentile) {
+        return BigDecimal.valueOf(percentile * 100).stripTrailingZeros().toPlainString();
+    }
+
     /**
      * Get the response body as a JSONObject.
+     * The body is parsed once per response and the parsed body is shared, so it is read-only.
      *
      * @param response The response to convert
      * @return The response body as a JSONObject
      */
     public static JSONObject getResponseAsJsonObject(Response response) {
-        return new JSONObject(response.getBody().asString());
+        return ParsedResponseCache.getJsonObject(response);
     }
 
     /**
      * Get the response body as a JSONArray.
+     * The body is parsed once per response and the parsed body is shared, so it is read-only.
      *
      * @param response The response to convert
      * @return The response body as a JSONArray
      */
     public static JSONArray getResponseAsJsonArray(Response response) {
-        return new JSONArray(response.getBody().asString());
+        return ParsedResponseCache.getJsonArray(response);
     }
 }
\ No newline at end of file
@@ -0,0 +1,467 @@
+package core.assertions;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.Assertions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Assertions over the elements of a JSON response, evaluated in one pass with a token-level
+ * parser so memory stays constant however many elements the response holds.
+ * <p>
+ * Elements are selected with a path such as {@code $[*]}, {@code $.items[*]} or
+ * {@code $.data.pages[*].items[*]}; supported steps are {@code .field}, {@code [*]} and
+ * {@code [n]}. Checks on element fields use dotted names relative to the element, such as
+ * {@code id} or {@code attributes.name}. Only the checked fields of the current element are
+ * held in memory; nested objects and arrays are never built.
+ * <p>
+ * A {@link Response} has already been read into memory by the client, so for a response
+ * the saving is only the parsed tree. To keep memory constant over the whole exchange,
+ * read the body from {@link core.clients.BaseApiClient#stream(String, Map)} instead:
+ *
+ * <pre>
+ * StreamingJsonAssertions.forEach(client.stream("/exports/users", null), "$[*]")
+ *         .eachHasNonNull("id")
+ *         .verify();
+ * </pre>
+ *
+ * <pre>
+ * long count = StreamingJsonAssertions.forEach(response, "$.items[*]")
+ *         .hasCountAtLeast(1)
+ *         .eachHasNonNull("id", "name")
+ *         .eachMatches("price", price -&gt; ((Number) price).doubleValue() &gt; 0, "positive price")
+ *         .verify();
+ * </pre>
+ */
+public class StreamingJsonAssertions {
+    /**
+     * Value passed to checks for a field that holds an object or array, which is not materialized.
+     */
+    public static final Object NESTED_VALUE = new Object() {
+        @Override
+        public String toString() {
+            return "<object or array>";
+        }
+    };
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int MAX_REPORTED_FAILURES = 10;
+
+    private final InputStream source;
+    private final String path;
+    private final List<Step> steps;
+
+    private final Map<String, Integer> fieldIndexes = new HashMap<>();
+    private final Set<String> fieldPrefixes = new HashSet<>();
+    private final List<ElementCheck> elementChecks = new ArrayList<>();
+    private Long expectedCount;
+    private Long minimumCount;
+
+    private Object[] values;
+    private boolean[] present;
+    private long count;
+    private boolean pathFound;
+    private long failureCount;
+    private final List<String> failures = new ArrayList<>();
+
+    /**
+     * Create assertions over the elements selected by a path.
+     *
+     * @param source The JSON input, closed by {@link #verify()}
+     * @param path   The element path, e.g. "$.items[*]"
+     */
+    private StreamingJsonAssertions(InputStream source, String path) {
+        this.source = source;
+        this.path = path;
+        this.steps = parsePath(path);
+    }
+
+    /**
+     * Start assertions over the elements of a response body. The body is already buffered,
+     * so only the parsed tree is avoided; see {@link #forEach(InputStream, String)} for
+     * bodies too large to hold in memory.
+     *
+     * @param response The response
+     * @param path     The element path, e.g. "$.items[*]"
+     * @return The assertions, evaluated by {@link #verify()}
+     */
+    public static StreamingJsonAssertions forEach(Response response, String path) {
+        return new StreamingJsonAssertions(response.asInputStream(), path);
+    }
+
+    /**
+     * Start assertions over the elements of a JSON stream.
+     *
+     * @param input The JSON input, closed by {@link #verify()}
+     * @param path  The element path, e.g. "$.items[*]"
+     * @return The assertions, evaluated by {@link #verify()}
+     */
+    public static StreamingJsonAssertions forEach(InputStream input, String path) {
+        return new StreamingJsonAssertions(input, path);
+    }
+
+    /**
+     * Require exactly the given number of elements.
+     *
+     * @param expected The expected number of elements
+     * @return These assertions
+     */
+    public StreamingJsonAssertions hasCount(long expected) {
+        this.expectedCount = expected;
+        return this;
+    }
+
+    /**
+     * Require at least the given number of elements.
+     *
+     * @param minimum The minimum number of elements
+     * @return These assertions
+     */
+    public StreamingJsonAssertions hasCountAtLeast(long minimum) {
+        this.minimumCount = minimum;
+        return this;
+    }
+
+    /**
+     * Require every element to have the given fields with non-null values.
+     *
+     * @param fields Field names relative to the element, e.g. "id" or "attributes.name"
+     * @return These assertions
+     */
+    public StreamingJsonAssertions eachHasNonNull(String... fields) {
+        for (String field : fields) {
+            addCheck(field, Objects::nonNull, "is null");
+        }
+        return this;
+    }
+
+    /**
+     * Require every element to have a field equal to the expected value.
+     * Numbers are compared by value, so 5, 5L and 5.0 are equal.
+     *
+     * @param field    Field name relative to the element
+     * @param expected The expected value, or null
+     * @return These assertions
+     */
+    public StreamingJsonAssertions eachEquals(String field, Object expected) {
+        return addCheck(field, value -> valuesEqual(value, expected), "is not equal to " + expected);
+    }
+
+    /**
+     * Require every element to have a field matching a predicate.
+     * String, number and boolean values are passed as Java objects, JSON null as null and
+     * objects or arrays as {@link #NESTED_VALUE}.
+     *
+     * @param field       Field name relative to the element
+     * @param predicate   The condition the value must meet
+     * @param description Description of the condition, used in failure messages
+     * @return These assertions
+     */
+    public StreamingJsonAssertions eachMatches(String field, Predicate<Object> predicate, String description) {
+        return addCheck(field, predicate, "does not match " + description);
+    }
+
+    /**
+     * Read the input once, evaluate every assertion and close the input.
+     *
+     * @return The number of elements found at the path
+     * @throws AssertionError If any assertion fails or the input is not valid JSON
+     */
+    public long verify() {
+        values = new Object[fieldIndexes.size()];
+        present = new boolean[fieldIndexes.size()];
+
+        try (InputStream in = source; JsonParser parser = JSON_FACTORY.createParser(in)) {
+            if (parser.nextToken() == null) {
+                Assertions.fail("Response body is empty, expected JSON at " + path);
+            }
+            match(parser, 0);
+        } catch (IOException e) {
+            throw new AssertionError("Failed to read JSON at " + path + ": " + e.getMessage(), e);
+        }
+
+        if (!pathFound) {
+            Assertions.fail("No value found at " + path);
+        }
+        if (expectedCount != null) {
+            Assertions.assertEquals(expectedCount.longValue(), count,
+                    "Expected " + expectedCount + " elements at " + path + " but found " + count);
+        }
+        if (minimumCount != null) {
+            Assertions.assertTrue(count >= minimumCount,
+                    "Expected at least " + minimumCount + " elements at " + path + " but found " + count);
+        }
+        if (failureCount > 0) {
+            Assertions.fail(failureCount + " check(s) failed across " + count + " elements at " + path + ": "
+                    + String.join("; ", failures) + (failureCount > failures.size() ? "; ..." : ""));
+        }
+        return count;
+    }
+
+    /**
+     * Register a per-element check.
+     *
+     * @param field       Field name relative to the element
+     * @param predicate   The condition the value must meet
+     * @param description Failure description
+     * @return These assertions
+     */
+    private StreamingJsonAssertions addCheck(String field, Predicate<Object> predicate, String description) {
+        int index = fieldIndexes.computeIfAbsent(field, key -> fieldIndexes.size());
+        for (int dot = field.indexOf('.'); dot > 0; dot = field.indexOf('.', dot + 1)) {
+            fieldPrefixes.add(field.substring(0, dot));
+        }
+        elementChecks.add(new ElementCheck(field, index, predicate, description));
+        return this;
+    }
+
+    /**
+     * Follow the path from the current token, checking every element it selects.
+     *
+     * @param parser The parser, positioned on the value for this step
+     * @param step   Index of the next path step
+     * @throws IOException If the input cannot be read
+     */
+    private void match(JsonParser parser, int step) throws IOException {
+        if (step == steps.size()) {
+            pathFound = true;
+            checkElement(parser);
+            return;
+        }
+
+        Step current = steps.get(step);
+        JsonToken token = parser.currentToken();
+        if (current.field != null) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                return;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                boolean selected = current.field.equals(parser.currentName());
+                parser.nextToken();
+                if (selected) {
+                    match(parser, step + 1);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } else {
+            if (token != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                return;
+            }
+            if (step == steps.size() - 1) {
+                pathFound = true;
+            }
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (current.index < 0 || current.index == index) {
+                    match(parser, step + 1);
+                } else {
+                    parser.skipChildren();
+                }
+                index++;
+            }
+        }
+    }
+
+    /**
+     * Count one element and run the per-element checks against it.
+     *
+     * @param parser The parser, positioned on the element's first token
+     * @throws IOException If the input cannot be read
+     */
+    private void checkElement(JsonParser parser) throws IOException {
+        long element = count++;
+        if (elementChecks.isEmpty()) {
+            parser.skipChildren();
+            return;
+        }
+
+        Arrays.fill(values, null);
+        Arrays.fill(present, false);
+        if (parser.currentToken() == JsonToken.START_OBJECT) {
+            readFields(parser, "");
+        } else {
+            parser.skipChildren();
+        }
+
+        for (ElementCheck check : elementChecks) {
+            if (!present[check.index]) {
+                recordFailure(element, check.field + " is missing");
+            } else if (!check.predicate.test(values[check.index])) {
+                recordFailure(element, check.field + " " + check.description + " (was " + values[check.index] + ")");
+            }
+        }
+    }
+
+    /**
+     * Read the checked fields of an object, descending only into objects on a checked path.
+     *
+     * @param parser The parser, positioned on START_OBJECT
+     * @param prefix Dotted path of the object relative to the element, or empty for the element
+     * @throws IOException If the input cannot be read
+     */
+    private void readFields(JsonParser parser, String prefix) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = prefix.isEmpty() ? parser.currentName() : prefix + "." + parser.currentName();
+            JsonToken token = parser.nextToken();
+
+            Integer index = fieldIndexes.get(field);
+            if (index != null) {
+                present[index] = true;
+                values[index] = scalarValue(parser, token);
+            }
+            if (token == JsonToken.START_OBJECT && fieldPrefixes.contains(field)) {
+                readFields(parser, field);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Convert the current token to a Java value.
+     *
+     * @param parser The parser
+     * @param token  The current token
+     * @return The value, null for JSON null, or {@link #NESTED_VALUE} for an object or array
+     * @throws IOException If the input cannot be read
+     */
+    private static Object scalarValue(JsonParser parser, JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getNumberValue();
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return parser.getBooleanValue();
+            case VALUE_NULL:
+                return null;
+            default:
+                return NESTED_VALUE;
+        }
+    }
+
+    /**
+     * Record a failed check, keeping the first few messages.
+     *
+     * @param element Index of the failing element
+     * @param message Failure message
+     */
+    private void recordFailure(long element, String message) {
+        failureCount++;
+        if (failures.size() < MAX_REPORTED_FAILURES) {
+            failures.add("[" + element + "] " + message);
+        }
+    }
+
+    /**
+     * Compare a parsed value with an expected value, comparing numbers by value.
+     *
+     * @param actual   The parsed value
+     * @param expected The expected value
+     * @return True if equal
+     */
+    private static boolean valuesEqual(Object actual, Object expected) {
+        if (actual instanceof Number && expected instanceof Number) {
+            return new BigDecimal(actual.toString()).compareTo(new BigDecimal(expected.toString())) == 0;
+        }
+        return Objects.equals(actual, expected);
+    }
+
+    /**
+     * Parse an element path into steps.
+     *
+     * @param path The path, e.g. "$.items[*]"
+     * @return The steps
+     */
+    private static List<Step> parsePath(String path) {
+        if (path == null || !path.startsWith("$")) {
+            throw new IllegalArgumentException("Path must start with '$' but was " + path);
+        }
+
+        List<Step> steps = new ArrayList<>();
+        int i = 1;
+        while (i < path.length()) {
+            char c = path.charAt(i);
+            if (c == '.') {
+                int end = i + 1;
+                while (end < path.length() && ".[]".indexOf(path.charAt(end)) < 0) {
+                    end++;
+                }
+                if (end == i + 1) {
+                    throw new IllegalArgumentException("Empty field name in path " + path);
+                }
+                steps.add(new Step(path.substring(i + 1, end), -1));
+                i = end;
+            } else if (c == '[') {
+                int end = path.indexOf(']', i);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unclosed '[' in path " + path);
+                }
+                String index = path.substring(i + 1, end).trim();
+                int position;
+                try {
+                    position = "*".equals(index) ? -1 : Integer.parseInt(index);
+                } catch (NumberFormatException e) {
+                    position = -2;
+                }
+                if (position < -1 || (position == -1 && !"*".equals(index))) {
+                    throw new IllegalArgumentException("Unsupported index '" + index + "' in path " + path);
+                }
+                steps.add(new Step(null, position));
+                i = end + 1;
+            } else {
+                throw new IllegalArgumentException("Unexpected '" + c + "' in path " + path);
+            }
+        }
+        return steps;
+    }
+
+    /**
+     * One path step: a field name, or an array index where -1 selects every element.
+     */
+    private static class Step {
+        private final String field;
+        private final int index;
+
+        Step(String field, int index) {
+            this.field = field;
+            this.index = index;
+        }
+    }
+
+    /**
+     * A condition checked against one field of every element.
+     */
+    private static class ElementCheck {
+        private final String field;
+        private final int index;
+        private final Predicate<Object> predicate;
+        private final String description;
+
+        ElementCheck(String field, int index, Predicate<Object> predicate, String description) {
+            this.field = field;
+            this.index = index;
+            this.predicate = predicate;
+            this.description = description;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package core.auth;
+
+import core.config.EnvLoader;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide OAuth2 client-credentials token cache, one provider per environment.
+ * <p>
+ * Tokens are cached per scope. A token that is close to expiry is still handed out while a
+ * replacement is fetched in the background; only an expired or missing token makes callers
+ * wait. However many tests ask for a token at once, at most one request per scope goes to
+ * the authorization server, and all waiting callers share its result.
+ */
+public class OAuth2TokenProvider {
+    private static final Logger logger = LoggerFactory.getLogger(OAuth2TokenProvider.class);
+
+    /**
+     * Scope used when none is given; no scope parameter is sent.
+     */
+    public static final String DEFAULT_SCOPE = "";
+
+    /**
+     * Longest time before expiry at which a token is refreshed.
+     */
+    public static final Duration DEFAULT_REFRESH_MARGIN = Duration.ofSeconds(60);
+
+    /**
+     * Token lifetime assumed when the server does not send expires_in, in seconds.
+     */
+    public static final long DEFAULT_EXPIRES_IN_SECONDS = 3600;
+
+    private static final Map<String, OAuth2TokenProvider> PROVIDERS = new ConcurrentHashMap<>();
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+
+    private final String tokenUrl;
+    private final String clientId;
+    private final String clientSecret;
+    private final Duration timeout;
+    private final Map<String, Token> tokens = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Token>> refreshes = new ConcurrentHashMap<>();
+    private final LongAdder fetches = new LongAdder();
+
+    /**
+     * Create a provider.
+     *
+     * @param tokenUrl     URL of the token endpoint
+     * @param clientId     OAuth2 client ID
+     * @param clientSecret OAuth2 client secret
+     * @param timeout      Timeout of token requests
+     */
+    public OAuth2TokenProvider(String tokenUrl, String clientId, String clientSecret, Duration timeout) {
+        this.tokenUrl = tokenUrl;
+        this.clientId = clientId;
+        this.clientSecret = clientSecret;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Get the shared provider for an environment, created from its auth block on first use.
+     *
+     * @param env Optional environment name (default: from ENVIRONMENT env var or "dev")
+     * @return The shared provider
+     * @throws IllegalStateException If the environment has no oauth2 auth block
+     */
+    public static OAuth2TokenProvider forEnvironment(String env) {
+        return PROVIDERS.computeIfAbsent(EnvLoader.resolveEnvironment(env), OAuth2TokenProvider::fromConfig);
+    }
+
+    /**
+     * Check whether an environment is configured for OAuth2.
+     *
+     * @param envConfig The environment configuration
+     * @return True if the environment has an auth block of type oauth2
+     */
+    public static boolean isConfigured(JSONObject envConfig) {
+        JSONObject auth = envConfig.optJSONObject("auth");
+        return auth != null && "oauth2".equalsIgnoreCase(auth.optString("type"));
+    }
+
+    /**
+     * Create a provider from the auth block of an environment.
+     *
+     * @param env The environment name
+     * @return The provider
+     */
+    private static OAuth2TokenProvider fromConfig(String env) {
+        JSONObject envConfig;
+        try {
+            envConfig = EnvLoader.getInstance().getEnvironmentConfig(env);
+        } catch (IOException | JSONException e) {
+            throw new IllegalStateException("Could not load configuration for environment '" + env + "'", e);
+        }
+        if (!isConfigured(envConfig)) {
+            throw new IllegalStateException("Environment '" + env + "' has no oauth2 auth configuration");
+        }
+
+        JSONObject auth = envConfig.getJSONObject("auth");
+        String clientId = auth.getString("client_id");
+        if (clientId.contains("${")) {
+            logger.warn("OAuth2 client_id for environment '{}' is unresolved: {}", env, clientId);
+        }
+        logger.debug("Creating OAuth2 token provider for environment '{}'", env);
+        return new OAuth2TokenProvider(auth.getString("auth_url"), clientId, auth.getString("client_secret"),
+                Duration.ofMillis(envConfig.optLong("timeout", 30000)));
+    }
+
+    /**
+     * Get a token for the default scope.
+     *
+     * @return The access token
+     */
+    public String getToken() {
+        return getToken(DEFAULT_SCOPE);
+    }
+
+    /**
+     * Get a token for a scope, fetching one only if there is no usable cached token.
+     *
+     * @param scope The scope, or {@link #DEFAULT_SCOPE}
+     * @return The access token
+     * @throws IllegalStateException If a token is needed and cannot be fetched
+     */
+    public String getToken(String scope) {
+        Token token = tokens.get(scope);
+        long now = System.nanoTime();
+        if (token != null && now - token.refreshAt < 0) {
+            return token.value;
+        }
+        if (token != null && now - token.expiresAt < 0) {
+            // Still valid: hand it out and refresh in the background
+            refresh(scope);
+            return token.value;
+        }
+
+        try {
+            return refresh(scope).join().value;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Could not fetch OAuth2 token from " + tokenUrl + ": "
+                    + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Drop the cached token for a scope, e.g. after the API rejected it.
+     * The next call to {@link #getToken(String)} fetches a new one.
+     *
+     * @param scope The scope
+     */
+    public void invalidate(String scope) {
+        tokens.remove(scope);
+    }
+
+    /**
+     * Get the number of token requests sent to the authorization server.
+     *
+     * @return The number of token requests
+     */
+    public long getFetchCount() {
+        return fetches.sum();
+    }
+
+    /**
+     * Get the refresh in flight for a scope, starting one if there is none.
+     *
+     * @param scope The scope
+     * @return A future completed with the new token
+     */
+    private CompletableFuture<Token> refresh(String scope) {
+        CompletableFuture<Token> pending = refreshes.get(scope);
+        if (pending != null) {
+            return pending;
+        }
+        CompletableFuture<Token> created = new CompletableFuture<>();
+        pending = refreshes.putIfAbsent(scope, created);
+        if (pending != null) {
+            return pending;
+        }
+
+        CompletableFuture<Token> fetched;
+        try {
+            fetched = fetch(scope);
+        } catch (RuntimeException e) {
+            // E.g. a malformed token URL: fail this flight instead of leaving it in the map
+            refreshes.remove(scope, created);
+            logger.error("Could not fetch OAuth2 token from {}: {}", tokenUrl, e.getMessage());
+            created.completeExceptionally(e);
+            return created;
+        }
+        fetched.whenComplete((token, error) -> {
+            // Publish the token before ending the flight, so late callers see it
+            if (error == null) {
+                tokens.put(scope, token);
+            }
+            refreshes.remove(scope, created);
+            if (error == null) {
+                created.complete(token);
+            } else {
+                logger.error("Could not fetch OAuth2 token from {}: {}", tokenUrl, error.getMessage());
+                created.completeExceptionally(error);
+            }
+        });
+        return created;
+    }
+
+    /**
+     * Request a token with the client credentials grant.
+     *
+     * @param scope The scope
+     * @return A future completed with the token
+     */
+    private CompletableFuture<Token> fetch(String scope) {
+        StringBuilder form = new StringBuilder("grant_type=client_credentials")
+                .append("&client_id=").append(URLEncoder.encode(clientId, StandardCharsets.UTF_8))
+                .append("&client_secret=").append(URLEncoder.encode(clientSecret, StandardCharsets.UTF_8));
+        if (!scope.isEmpty()) {
+            form.append("&scope=").append(URLEncoder.encode(scope, StandardCharsets.UTF_8));
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(tokenUrl))
+                .timeout(timeout)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(form.toString()))
+                .build();
+
+        fetches.increment();
+        long sentAt = System.nanoTime();
+        return HTTP_CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Token request to " + tokenUrl + " failed with status "
+                                + response.statusCode() + ": " + response.body());
+                    }
+                    JSONObject json = new JSONObject(response.body());
+                    long expiresIn = json.optLong("expires_in", DEFAULT_EXPIRES_IN_SECONDS);
+                    logger.info("Fetched OAuth2 token for scope '{}' from {}, expires in {}s", scope, tokenUrl, expiresIn);
+                    return new Token(json.getString("access_token"), sentAt, expiresIn);
+                });
+    }
+
+    /**
+     * A cached access token. Times are System.nanoTime() values measured from when the
+     * token was requested, so expiry is never overestimated.
+     */
+    private static class Token {
+        private final String value;
+        private final long refreshAt;
+        private final long expiresAt;
+
+        /**
+         * Create a token.
+         *
+         * @param value     The access token
+         * @param sentAt    When the token was requested
+         * @param expiresIn Lifetime of the token in seconds
+         */
+        Token(String value, long sentAt, long expiresIn) {
+            long lifetime = TimeUnit.SECONDS.toNanos(expiresIn);
+            // Refresh a minute before expiry, or a fifth of the lifetime for short-lived tokens
+            long margin = Math.min(DEFAULT_REFRESH_MARGIN.toNanos(), lifetime / 5);
+            this.value = value;
+            this.expiresAt = sentAt + lifetime;
+            this.refreshAt = expiresAt - margin;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package core.clients;
+
+import core.metrics.LatencyRecorder;
+import core.metrics.TransferRecorder;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.time.TimingFilter;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.internal.RestAssuredResponseImpl;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking HTTP engine used by the asynchronous methods of {@link BaseApiClient}.
+ * Requests are sent with the JDK {@link HttpClient}, so no thread is parked while a
+ * request is on the wire. The number of requests in flight is bounded by a window;
+ * once the window is full, new requests are queued and sent in order as earlier ones
+ * complete. Submitting a request therefore never blocks the calling thread.
+ */
+public class AsyncHttpEngine {
+    /**
+     * Default number of requests allowed in flight per engine.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 256;
+
+    private static final HttpClient SHARED_CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(30))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    private final HttpClient httpClient;
+    private final Semaphore window;
+    private final int maxInFlight;
+    private final Queue<Runnable> queued = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Create an engine with the default in-flight window.
+     */
+    public AsyncHttpEngine() {
+        this(DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Create an engine with a specific in-flight window.
+     *
+     * @param maxInFlight Maximum number of requests allowed in flight at once
+     */
+    public AsyncHttpEngine(int maxInFlight) {
+        this(maxInFlight, SHARED_CLIENT);
+    }
+
+    /**
+     * Create an engine with a specific in-flight window on a specific HttpClient.
+     *
+     * @param maxInFlight Maximum number of requests allowed in flight at once
+     * @param httpClient  The client to send requests with
+     */
+    public AsyncHttpEngine(int maxInFlight, HttpClient httpClient) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1 but was " + maxInFlight);
+        }
+        this.httpClient = httpClient;
+        this.maxInFlight = maxInFlight;
+        this.window = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Send a request without blocking. If the window is full, the request is queued and
+     * sent once a slot frees up; its response time does not include the time queued.
+     *
+     * @param method  HTTP method
+     * @param url     Absolute request URL
+     * @param headers Request headers
+     * @param body    Request body, or null for no body
+     * @return A future completed with the response
+     * @throws IllegalArgumentException If the URL or a header is not valid
+     */
+    public CompletableFuture<Response> send(String method, String url, Map<String, String> headers, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url));
+        HeaderBlock.of(headers).addTo(builder);
+        builder.method(method, body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(body));
+        HttpRequest request = builder.build();
+
+        // Taken on the calling thread, where a route set by LatencyRecorder.withRoute is visible
+        String endpoint = LatencyRecorder.endpointFor(url);
+        CompletableFuture<Response> result = new CompletableFuture<>();
+        queued.add(() -> dispatch(request, endpoint, result));
+        drain();
+        return result;
+    }
+
+    /**
+     * Get the number of requests currently in flight.
+     *
+     * @return The number of in-flight requests
+     */
+    public int getInFlight() {
+        return maxInFlight - window.availablePermits();
+    }
+
+    /**
+     * Get the number of requests waiting for a slot in the window.
+     *
+     * @return The number of queued requests
+     */
+    public int getQueued() {
+        return queued.size();
+    }
+
+    /**
+     * Get the maximum number of requests allowed in flight.
+     *
+     * @return The in-flight window size
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Send queued requests while the window has free slots. Called after every request is
+     * queued and after every slot is freed, so a request cannot stay queued while a slot is free.
+     */
+    private void drain() {
+        while (!queued.isEmpty() && window.tryAcquire()) {
+            Runnable next = queued.poll();
+            if (next == null) {
+                // Another thread took the last request
+                window.release();
+            } else {
+                next.run();
+            }
+        }
+    }
+
+    /**
+     * Send a request that holds a slot in the window, and free the slot when it completes.
+     *
+     * @param request  The request
+     * @param endpoint The endpoint the response is recorded under
+     * @param result   The future to complete with the response
+     */
+    private void dispatch(HttpRequest request, String endpoint, CompletableFuture<Response> result) {
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<byte[]>> future;
+        try {
+            future = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (RuntimeException e) {
+            window.release();
+            result.completeExceptionally(e);
+            drain();
+            return;
+        }
+
+        future.whenComplete((response, error) -> {
+            window.release();
+            drain();
+            if (error != null) {
+                result.completeExceptionally(error);
+                return;
+            }
+            try {
+                result.complete(toResponse(response, endpoint,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+    }
+
+    /**
+     * Convert a JDK response into a RestAssured response so that existing assertions keep working.
+     * A gzip or deflate encoded body is decoded, and its wire and decoded sizes are recorded
+     * with {@link TransferRecorder}.
+     *
+     * @param httpResponse  The JDK response
+     * @param endpoint      The endpoint the transfer is recorded under
+     * @param elapsedMillis Time taken by the request in milliseconds
+     * @return The RestAssured response
+     * @throws IllegalStateException If the body cannot be decoded
+     */
+    static Response toResponse(HttpResponse<byte[]> httpResponse, String endpoint, long elapsedMillis) {
+        byte[] wire = httpResponse.body();
+        byte[] body;
+        try {
+            body = Compression.decode(contentEncoding(httpResponse), wire);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not decode response body of " + httpResponse.request().method()
+                    + " " + httpResponse.uri() + ": " + e.getMessage(), e);
+        }
+        Response response = toResponse(httpResponse, body, elapsedMillis);
+        recordTransfer(response, httpResponse, endpoint, wire.length, body.length);
+        return response;
+    }
+
+    /**
+     * Record the wire and decoded sizes of a response body with {@link TransferRecorder}.
+     *
+     * @param response     The RestAssured response
+     * @param httpResponse The JDK response it was converted from
+     * @param endpoint     The endpoint the transfer is recorded under
+     * @param wireBytes    Size of the body as received
+     * @param decodedBytes Size of the body after decoding
+     */
+    static void recordTransfer(Response response, HttpResponse<?> httpResponse, String endpoint,
+                               long wireBytes, long decodedBytes) {
+        TransferRecorder.recordResponse(response, httpResponse.request().method(), endpoint, wireBytes, decodedBytes);
+    }
+
+    /**
+     * Get the Content-Encoding of a JDK response.
+     *
+     * @param httpResponse The JDK response
+     * @return The Content-Encoding, or null if there is none
+     */
+    static String contentEncoding(HttpResponse<?> httpResponse) {
+        return httpResponse.headers().firstValue("Content-Encoding").orElse(null);
+    }
+
+    /**
+     * Convert a JDK response with an already decoded body into a RestAssured response.
+     *
+     * @param httpResponse  The JDK response
+     * @param body          The decoded response body
+     * @param elapsedMillis Time taken by the request in milliseconds
+     * @return The RestAssured response
+     */
+    static Response toResponse(HttpResponse<?> httpResponse, byte[] body, long elapsedMillis) {
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(httpResponse.statusCode())
+                .setStatusLine(statusLine(httpResponse))
+                .setHeaders(toHeaders(httpResponse.headers()))
+                .setBody(body);
+        httpResponse.headers().firstValue("Content-Type").ifPresent(builder::setContentType);
+
+        Response response = builder.build();
+        if (response instanceof RestAssuredResponseImpl) {
+            // Lets response.getTime() and assertResponseTime work as they do for RestAssured calls
+            Map<String, Object> properties = new HashMap<>();
+            properties.put(TimingFilter.RESPONSE_TIME_MILLISECONDS, elapsedMillis);
+            ((RestAssuredResponseImpl) response).setFilterContextProperties(properties);
+        }
+        return response;
+    }
+
+    /**
+     * Convert JDK response headers into RestAssured headers.
+     *
+     * @param httpHeaders The JDK headers
+     * @return The RestAssured headers
+     */
+    static Headers toHeaders(HttpHeaders httpHeaders) {
+        List<Header> headers = new ArrayList<>();
+        httpHeaders.map().forEach((name, values) -> {
+            for (String value : values) {
+                headers.add(new Header(name, value));
+            }
+        });
+        return new Headers(headers);
+    }
+
+    /**
+     * Build an HTTP status line for a JDK response.
+     *
+     * @param httpResponse The JDK response
+     * @return The status line (e.g., "HTTP/1.1 200")
+     */
+    private static String statusLine(HttpResponse<?> httpResponse) {
+        String version = httpResponse.version() == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+        return version + " " + httpResponse.statusCode();
+    }
+}
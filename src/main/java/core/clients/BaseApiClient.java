@@ -1,20 +1,57 @@
 package core.clients;
 
-import io.restassured.RestAssured;
+import core.auth.OAuth2TokenProvider;
+import core.config.EnvLoader;
+import core.execution.TestExecutor;
+import core.execution.VirtualThreads;
+import core.metrics.LatencyRecorder;
+import core.metrics.RequestLog;
+import core.metrics.TransferRecorder;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 import org.json.JSONObject;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Base API client for making HTTP requests.
+ * Headers are held in an immutable {@link HeaderBlock} that is replaced on every change, so a
+ * client can be shared by tests running in parallel and requests send a prebuilt block.
+ * Synchronous requests are sent by the client's {@link HttpTransport}, RestAssured by default.
  */
 public class BaseApiClient {
     private final String baseUrl;
-    private final Map<String, String> headers;
+    private volatile HeaderBlock headers;
+    private final ConnectionPool connectionPool;
+    private final RestAssuredTransport restAssuredTransport;
+    private final JdkHttpTransport streamingTransport;
+    private volatile HttpTransport transport;
+    private volatile AsyncHttpEngine asyncEngine;
+    private volatile BearerToken bearerToken;
+    private volatile RetryPolicy retryPolicy = RetryPolicy.NONE;
+    private volatile boolean circuitBreakerEnabled = true;
+    private volatile RateLimiter rateLimiter;
+    private volatile Compression compression = Compression.NONE;
+    private volatile RequestCoalescer coalescer;
 
     /**
      * Constructor with base URL.
@@ -23,20 +60,25 @@ public class BaseApiClient {
      */
     public BaseApiClient(String baseUrl) {
         this.baseUrl = baseUrl;
-        this.headers = new HashMap<>();
+        this.connectionPool = ConnectionPool.forBaseUrl(baseUrl);
+        this.restAssuredTransport = new RestAssuredTransport(baseUrl, connectionPool);
+        this.transport = restAssuredTransport;
+        this.streamingTransport = new JdkHttpTransport(baseUrl);
         // Set default headers
-        headers.put("Content-Type", "application/json");
-        headers.put("Accept", "application/json");
+        this.headers = HeaderBlock.EMPTY
+                .with("Content-Type", "application/json")
+                .with("Accept", "application/json");
+        this.asyncEngine = new AsyncHttpEngine();
     }
 
     /**
      * Set headers for requests.
      *
      * @param headers Map of headers
+     * @throws IllegalArgumentException If a header name or value is not valid
      */
-    public void setHeaders(Map<String, String> headers) {
-        this.headers.clear();
-        this.headers.putAll(headers);
+    public synchronized void setHeaders(Map<String, String> headers) {
+        this.headers = HeaderBlock.of(headers);
     }
 
     /**
@@ -44,9 +86,495 @@ public class BaseApiClient {
      *
      * @param name Header name
      * @param value Header value
+     * @throws IllegalArgumentException If the name or value is not valid
      */
-    public void addHeader(String name, String value) {
-        this.headers.put(name, value);
+    public synchronized void addHeader(String name, String value) {
+        this.headers = this.headers.with(name, value);
+    }
+
+    /**
+     * Set the Authorization header. A token provider, if set, replaces it on every request.
+     *
+     * @param authType The authorization type (e.g., "Bearer", "Basic")
+     * @param token The authorization token
+     * @throws IllegalArgumentException If the value is not a valid header value
+     */
+    public void setAuthorization(String authType, String token) {
+        addHeader("Authorization", authType + " " + token);
+    }
+
+    /**
+     * Clear the Authorization header.
+     */
+    public synchronized void clearAuthorization() {
+        this.headers = this.headers.without("Authorization");
+    }
+
+    /**
+     * Get the headers sent with every request, without the bearer token and Accept-Encoding.
+     *
+     * @return The headers
+     */
+    public HeaderBlock getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Create a client for an environment in the configuration. Requests are retried as set
+     * by the environment's retry_attempts and retry_delay, paced by its rate_limit block if
+     * it has one, and compressed as set by its compression block if it has one. Identical
+     * concurrent GETs are coalesced if its coalescing block is enabled. If the environment
+     * has an oauth2 auth block, every request carries a bearer token from the environment's shared
+     * {@link OAuth2TokenProvider}.
+     *
+     * @param env Optional environment name (default: from ENVIRONMENT env var or "dev")
+     * @return The client
+     * @throws IOException If the configuration file cannot be read
+     */
+    public static BaseApiClient forEnvironment(String env) throws IOException {
+        JSONObject envConfig = EnvLoader.getInstance().getEnvironmentConfig(env);
+        BaseApiClient client = new BaseApiClient(envConfig.getString("base_url"));
+        if (OAuth2TokenProvider.isConfigured(envConfig)) {
+            client.setTokenProvider(OAuth2TokenProvider.forEnvironment(env));
+        }
+        client.setRetryPolicy(RetryPolicy.forEnvironment(env));
+        client.setRateLimiter(RateLimiter.forEnvironment(env));
+        client.setCompression(Compression.fromConfig(envConfig));
+        JSONObject coalescing = envConfig.optJSONObject("coalescing");
+        client.setCoalescingEnabled(coalescing != null && coalescing.optBoolean("enabled", false));
+        return client;
+    }
+
+    /**
+     * Send a bearer token from a token provider, for the default scope, with every request.
+     *
+     * @param provider The token provider, or null to stop sending tokens
+     */
+    public void setTokenProvider(OAuth2TokenProvider provider) {
+        setTokenProvider(provider, OAuth2TokenProvider.DEFAULT_SCOPE);
+    }
+
+    /**
+     * Send a bearer token from a token provider with every request. The token is looked up
+     * per request, so refreshed tokens are picked up; it replaces any Authorization header.
+     *
+     * @param provider The token provider, or null to stop sending tokens
+     * @param scope The scope to request tokens for
+     */
+    public void setTokenProvider(OAuth2TokenProvider provider, String scope) {
+        this.bearerToken = provider == null ? null : new BearerToken(provider, scope);
+    }
+
+    /**
+     * Set the retry policy for synchronous requests and batches. Only idempotent methods are
+     * retried; asynchronous requests and streamed uploads and downloads are never retried.
+     *
+     * @param retryPolicy The retry policy, or null to stop retrying
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy != null ? retryPolicy : RetryPolicy.NONE;
+    }
+
+    /**
+     * Get the retry policy.
+     *
+     * @return The retry policy, {@link RetryPolicy#NONE} if requests are not retried
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Send requests through the {@link CircuitBreaker} of their host and route, so that once
+     * a route keeps failing, requests to it fail immediately with a
+     * {@link CircuitOpenException} instead of waiting for their own timeouts. Enabled by
+     * default; applies to synchronous, batch and asynchronous requests.
+     *
+     * @param enabled True to use circuit breakers, false to always send requests
+     */
+    public void setCircuitBreakerEnabled(boolean enabled) {
+        this.circuitBreakerEnabled = enabled;
+    }
+
+    /**
+     * Check whether requests go through circuit breakers.
+     *
+     * @return True if circuit breakers are enabled
+     */
+    public boolean isCircuitBreakerEnabled() {
+        return circuitBreakerEnabled;
+    }
+
+    /**
+     * Pace requests with a token-bucket rate limiter. Every request, including each retry,
+     * takes a token first and waits if none is available; asynchronous requests are delayed
+     * without blocking the caller. Clients created for the same environment share its limiter.
+     *
+     * @param rateLimiter The rate limiter, or null to send requests as fast as they come
+     */
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Get the rate limiter.
+     *
+     * @return The rate limiter, or null if requests are not rate limited
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Set how requests and responses are compressed. With negotiation on, every request
+     * asks for gzip or deflate responses; with request compression on, synchronous and batch
+     * request bodies above the threshold are gzipped. Wire and decoded sizes are recorded
+     * with {@link TransferRecorder} either way.
+     *
+     * @param compression The compression settings, or null for {@link Compression#NONE}
+     */
+    public void setCompression(Compression compression) {
+        this.compression = compression != null ? compression : Compression.NONE;
+    }
+
+    /**
+     * Get the compression settings.
+     *
+     * @return The compression settings
+     */
+    public Compression getCompression() {
+        return compression;
+    }
+
+    /**
+     * Coalesce identical concurrent GET and HEAD requests: while one is in flight, the same
+     * request from any client with this base URL waits for it and gets the same response
+     * instead of being sent again. Applies to synchronous and asynchronous requests; the
+     * requests must match in path, query string and headers. Off by default.
+     *
+     * @param enabled True to coalesce identical concurrent reads
+     */
+    public void setCoalescingEnabled(boolean enabled) {
+        this.coalescer = enabled ? RequestCoalescer.forBaseUrl(baseUrl) : null;
+    }
+
+    /**
+     * Check whether identical concurrent reads are coalesced.
+     *
+     * @return True if coalescing is enabled
+     */
+    public boolean isCoalescingEnabled() {
+        return coalescer != null;
+    }
+
+    /**
+     * Get the coalescer shared by clients with this base URL, which holds the hit and miss counts.
+     *
+     * @return The coalescer
+     */
+    public RequestCoalescer getCoalescer() {
+        return RequestCoalescer.forBaseUrl(baseUrl);
+    }
+
+    /**
+     * Wait for a rate limit token for a request, if a rate limiter is set.
+     *
+     * @param path The API endpoint path
+     */
+    private void pace(String path) {
+        RateLimiter limiter = rateLimiter;
+        if (limiter != null) {
+            limiter.acquire(path);
+        }
+    }
+
+    /**
+     * Send a request through the transport, retrying it as the retry policy allows.
+     * Headers are read again for every attempt, so a refreshed token is picked up.
+     *
+     * @param method HTTP method
+     * @param path The API endpoint path
+     * @param queryParams Map of query parameters, or null for none
+     * @param body The request body, or null for none
+     * @return The response
+     */
+    private Response execute(String method, String path, Map<String, String> queryParams, String body) {
+        return execute(method, path, path, queryParams, body);
+    }
+
+    /**
+     * Send a request to a path expanded from a route template. Retries, the circuit breaker,
+     * the rate limiter, latency and the request log all see the template instead of the path.
+     *
+     * @param route The route
+     * @param method HTTP method
+     * @param values The values of the route's variables
+     * @param queryParams Map of query parameters, or null for none
+     * @param body The request body, or null for none
+     * @return The response
+     */
+    Response execute(Route route, String method, Object[] values, Map<String, String> queryParams, String body) {
+        String path = route.expand(values);
+        String template = route.getTemplate();
+        return LatencyRecorder.withRoute(template, () -> execute(method, template, path, queryParams, body));
+    }
+
+    /**
+     * Send a request through the transport, retrying it as the retry policy allows. If
+     * coalescing is enabled, an identical read already in flight is waited for instead.
+     * Headers are read again for every attempt, so a retry carries a refreshed token; the
+     * coalescing key leaves the token out and names its provider instead.
+     *
+     * @param method HTTP method
+     * @param route The route template, or the path if the request was not made through a route
+     * @param path The API endpoint path
+     * @param queryParams Map of query parameters, or null for none
+     * @param body The request body, or null for none
+     * @return The response
+     */
+    private Response execute(String method, String route, String path, Map<String, String> queryParams, String body) {
+        HttpTransport current = transport;
+        Supplier<Response> call = () -> retryPolicy.execute(method, route,
+                () -> attempt(current, method, route, path, queryParams, body));
+        RequestCoalescer shared = coalescer;
+        if (shared == null || body != null || !RequestCoalescer.isCoalescable(method)) {
+            return call.get();
+        }
+        return shared.execute(method, path + JdkHttpTransport.queryString(queryParams), identityHeaders(),
+                bearerToken, call);
+    }
+
+    /**
+     * Send one attempt of a request through the circuit breaker for its route. The headers
+     * are read before the attempt, so a token that cannot be fetched does not count against
+     * the route.
+     *
+     * @param current The transport to send the request with
+     * @param method HTTP method
+     * @param route The route template, or the path if the request was not made through a route
+     * @param path The API endpoint path
+     * @param queryParams Map of query parameters, or null for none
+     * @param body The request body, or null for none
+     * @return The response
+     */
+    private Response attempt(HttpTransport current, String method, String route, String path,
+                             Map<String, String> queryParams, String body) {
+        HeaderBlock requestHeaders = requestHeaders();
+        return guarded(current, method, route,
+                () -> send(current, method, route, path, queryParams, requestHeaders, body)).get();
+    }
+
+    /**
+     * Send a request once it is allowed by the rate limiter, and record it in the request log.
+     *
+     * @param current The transport to send the request with
+     * @param method HTTP method
+     * @param route The route template, or the path if the request was not made through a route
+     * @param path The API endpoint path
+     * @param queryParams Map of query parameters, or null for none
+     * @param requestHeaders Request headers
+     * @param body The request body, or null for none
+     * @return The response
+     */
+    private Response send(HttpTransport current, String method, String route, String path,
+                          Map<String, String> queryParams, HeaderBlock requestHeaders, String body) {
+        pace(route);
+        long start = System.nanoTime();
+        Response response = null;
+        try {
+            response = transmit(current, method, path, queryParams, requestHeaders, body);
+            return response;
+        } finally {
+            logRequest(method, route, response, System.nanoTime() - start, body, 0);
+        }
+    }
+
+    /**
+     * Send a request, gzipping its body if it is large enough.
+     *
+     * @param current The transport to send the request with
+     * @param method HTTP method
+     * @param path The API endpoint path
+     * @param queryParams Map of query parameters, or null for none
+     * @param requestHeaders Request headers
+     * @param body The request body, or null for none
+     * @return The response
+     */
+    private Response transmit(HttpTransport current, String method, String path, Map<String, String> queryParams,
+                              HeaderBlock requestHeaders, String body) {
+        Compression settings = compression;
+        if (body == null || settings.getRequestThreshold() < 0) {
+            return current.execute(method, path, queryParams, requestHeaders, body);
+        }
+
+        byte[] raw = body.getBytes(StandardCharsets.UTF_8);
+        if (!settings.shouldCompress(raw.length)) {
+            TransferRecorder.recordRequest(method, LatencyRecorder.endpointFor(path), raw.length, raw.length);
+            return current.execute(method, path, queryParams, requestHeaders, body);
+        }
+        byte[] compressed = Compression.gzip(raw);
+        TransferRecorder.recordRequest(method, LatencyRecorder.endpointFor(path), raw.length, compressed.length);
+        return current.execute(method, path, queryParams, requestHeaders.with("Content-Encoding", "gzip"), compressed);
+    }
+
+    /**
+     * Record a request in the shared {@link RequestLog}. Sizes are only worked out for
+     * requests the log's sampling rules keep.
+     *
+     * @param method HTTP method
+     * @param path The API endpoint path
+     * @param response The response, or null if the request failed
+     * @param latencyNanos Latency of the request
+     * @param body The request body, or null if it was not a string
+     * @param bodyBytes Size of the request body if it was not a string
+     */
+    private static void logRequest(String method, String path, Response response, long latencyNanos,
+                                   String body, long bodyBytes) {
+        RequestLog log = RequestLog.getInstance();
+        int status = response != null ? response.getStatusCode() : 0;
+        if (log.sample(status, latencyNanos)) {
+            log.append(method, path, status, latencyNanos,
+                    body != null ? body.getBytes(StandardCharsets.UTF_8).length : bodyBytes,
+                    response != null ? response.asByteArray().length : 0);
+        }
+    }
+
+    /**
+     * Send a request with a binary body through the streaming transport once the rate
+     * limiter allows, and record it in the request log.
+     *
+     * @param method HTTP method
+     * @param path The API endpoint path
+     * @param body The request body
+     * @return The response
+     */
+    private Response sendStreaming(String method, String path, RequestBody body) {
+        pace(path);
+        long start = System.nanoTime();
+        Response response = null;
+        try {
+            response = streamingTransport().execute(method, path, null, requestHeaders(), body);
+            return response;
+        } finally {
+            logRequest(method, path, response, System.nanoTime() - start, null, body.getContentLength());
+        }
+    }
+
+    /**
+     * Wrap a request attempt in the circuit breaker for its route, if circuit breakers are enabled.
+     *
+     * @param current The transport the request is sent with
+     * @param method HTTP method
+     * @param path The API endpoint path
+     * @param attempt Sends the request once
+     * @return The guarded attempt
+     */
+    private Supplier<Response> guarded(HttpTransport current, String method, String path, Supplier<Response> attempt) {
+        if (!circuitBreakerEnabled) {
+            return attempt;
+        }
+        CircuitBreaker breaker = CircuitBreaker.forRoute(current.getBaseUrl(), path);
+        return () -> breaker.execute(method, attempt);
+    }
+
+    /**
+     * Get the headers for a request: the client headers, plus the bearer token if a token
+     * provider is set and Accept-Encoding if compression is negotiated. The extended blocks
+     * are remembered by {@link HeaderBlock#with}, so nothing is copied while the headers
+     * and the token stay the same.
+     *
+     * @return The request headers
+     */
+    private HeaderBlock requestHeaders() {
+        HeaderBlock current = identityHeaders();
+        BearerToken token = bearerToken;
+        return token != null ? current.with("Authorization", "Bearer " + token.get()) : current;
+    }
+
+    /**
+     * Get the headers that identify a request for coalescing: the request headers without
+     * the bearer token, which changes whenever it is refreshed.
+     *
+     * @return The client headers, plus Accept-Encoding if compression is negotiated
+     */
+    private HeaderBlock identityHeaders() {
+        HeaderBlock current = headers;
+        if (compression.isNegotiated() && !current.containsKey("Accept-Encoding")) {
+            current = current.with("Accept-Encoding", Compression.ACCEPT_ENCODING);
+        }
+        return current;
+    }
+
+    /**
+     * Get the keep-alive connection pool shared by all clients for this base URL.
+     *
+     * @return The connection pool
+     */
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    /**
+     * Set the transport synchronous requests are sent with.
+     *
+     * @param transport The transport, or null to go back to RestAssured
+     */
+    public void setTransport(HttpTransport transport) {
+        this.transport = transport != null ? transport : restAssuredTransport;
+    }
+
+    /**
+     * Get the transport synchronous requests are sent with.
+     *
+     * @return The transport
+     */
+    public HttpTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Send requests over HTTP/2 instead of RestAssured's HTTP/1.1 stack.
+     * Concurrent requests are multiplexed as streams over the {@link Http2Transport}
+     * shared by all clients with this base URL; plain HTTP base URLs use h2c.
+     *
+     * @param enabled True to use HTTP/2, false to go back to RestAssured
+     */
+    public void setHttp2Enabled(boolean enabled) {
+        setTransport(enabled ? Http2Transport.forBaseUrl(baseUrl) : null);
+    }
+
+    /**
+     * Check whether requests are sent over HTTP/2.
+     *
+     * @return True if HTTP/2 is enabled
+     */
+    public boolean isHttp2Enabled() {
+        return transport instanceof Http2Transport;
+    }
+
+    /**
+     * Get a route of this client, for requests that are recorded per route rather than per path:
+     * <pre>
+     * client.route("/orders/{id}").get(orderId);
+     * </pre>
+     * The template is compiled once and shared by all clients.
+     *
+     * @param template The path template, with variables in braces
+     * @return The route bound to this client
+     * @throws IllegalArgumentException If the template is not valid
+     */
+    public BoundRoute route(String template) {
+        return new BoundRoute(this, Route.of(template));
+    }
+
+    /**
+     * Get a compiled route bound to this client.
+     *
+     * @param route The route
+     * @return The route bound to this client
+     */
+    public BoundRoute route(Route route) {
+        return new BoundRoute(this, route);
     }
 
     /**
@@ -67,13 +595,7 @@ public class BaseApiClient {
      * @return The response
      */
     public Response get(String path, Map<String, String> queryParams) {
-        RequestSpecification request = createRequest();
-        
-        if (queryParams != null) {
-            request.queryParams(queryParams);
-        }
-        
-        return request.get(baseUrl + path);
+        return execute("GET", path, queryParams, null);
     }
 
     /**
@@ -84,9 +606,7 @@ public class BaseApiClient {
      * @return The response
      */
     public Response post(String path, JSONObject body) {
-        return createRequest()
-                .body(body.toString())
-                .post(baseUrl + path);
+        return execute("POST", path, null, body.toString());
     }
 
     /**
@@ -97,9 +617,7 @@ public class BaseApiClient {
      * @return The response
      */
     public Response put(String path, JSONObject body) {
-        return createRequest()
-                .body(body.toString())
-                .put(baseUrl + path);
+        return execute("PUT", path, null, body.toString());
     }
 
     /**
@@ -110,9 +628,145 @@ public class BaseApiClient {
      * @return The response
      */
     public Response patch(String path, JSONObject body) {
-        return createRequest()
-                .body(body.toString())
-                .patch(baseUrl + path);
+        return execute("PATCH", path, null, body.toString());
+    }
+
+    /**
+     * Make a POST request with a binary body, sent with the JDK HttpClient even when
+     * RestAssured is the transport. The body's content type replaces the Content-Type header.
+     *
+     * @param path The API endpoint path
+     * @param body The request body
+     * @return The response
+     */
+    public Response post(String path, RequestBody body) {
+        return sendStreaming("POST", path, body);
+    }
+
+    /**
+     * Make a POST request with the content of a file, memory-mapped rather than read into the heap.
+     *
+     * @param path The API endpoint path
+     * @param file The file to send
+     * @return The response
+     * @throws IOException If the file size cannot be read
+     */
+    public Response post(String path, Path file) throws IOException {
+        return post(path, RequestBody.ofFile(file));
+    }
+
+    /**
+     * Make a POST request with the remaining bytes of a buffer, without copying them.
+     *
+     * @param path The API endpoint path
+     * @param body The buffer to send
+     * @return The response
+     */
+    public Response post(String path, ByteBuffer body) {
+        return post(path, RequestBody.ofByteBuffer(body));
+    }
+
+    /**
+     * Make a POST request with the content of a stream, using chunked transfer encoding.
+     *
+     * @param path The API endpoint path
+     * @param body The stream to send
+     * @return The response
+     */
+    public Response post(String path, InputStream body) {
+        return post(path, RequestBody.ofInputStream(body));
+    }
+
+    /**
+     * Make a PUT request with a binary body, sent with the JDK HttpClient even when
+     * RestAssured is the transport. The body's content type replaces the Content-Type header.
+     *
+     * @param path The API endpoint path
+     * @param body The request body
+     * @return The response
+     */
+    public Response put(String path, RequestBody body) {
+        return sendStreaming("PUT", path, body);
+    }
+
+    /**
+     * Make a PUT request with the content of a file, memory-mapped rather than read into the heap.
+     *
+     * @param path The API endpoint path
+     * @param file The file to send
+     * @return The response
+     * @throws IOException If the file size cannot be read
+     */
+    public Response put(String path, Path file) throws IOException {
+        return put(path, RequestBody.ofFile(file));
+    }
+
+    /**
+     * Make a PUT request with the remaining bytes of a buffer, without copying them.
+     *
+     * @param path The API endpoint path
+     * @param body The buffer to send
+     * @return The response
+     */
+    public Response put(String path, ByteBuffer body) {
+        return put(path, RequestBody.ofByteBuffer(body));
+    }
+
+    /**
+     * Make a PUT request with the content of a stream, using chunked transfer encoding.
+     *
+     * @param path The API endpoint path
+     * @param body The stream to send
+     * @return The response
+     */
+    public Response put(String path, InputStream body) {
+        return put(path, RequestBody.ofInputStream(body));
+    }
+
+    /**
+     * Make a PATCH request with a binary body, sent with the JDK HttpClient even when
+     * RestAssured is the transport. The body's content type replaces the Content-Type header.
+     *
+     * @param path The API endpoint path
+     * @param body The request body
+     * @return The response
+     */
+    public Response patch(String path, RequestBody body) {
+        return sendStreaming("PATCH", path, body);
+    }
+
+    /**
+     * Make a PATCH request with the content of a file, memory-mapped rather than read into the heap.
+     *
+     * @param path The API endpoint path
+     * @param file The file to send
+     * @return The response
+     * @throws IOException If the file size cannot be read
+     */
+    public Response patch(String path, Path file) throws IOException {
+        return patch(path, RequestBody.ofFile(file));
+    }
+
+    /**
+     * Make a PATCH request with the remaining bytes of a buffer, without copying them.
+     *
+     * @param path The API endpoint path
+     * @param body The buffer to send
+     * @return The response
+     */
+    public Response patch(String path, ByteBuffer body) {
+        return patch(path, RequestBody.ofByteBuffer(body));
+    }
+
+    /**
+     * Make a PATCH request with the content of a stream, using chunked transfer encoding.
+     *
+     * @param path The API endpoint path
+     * @param body The stream to send
+     * @return The response
+     */
+    public Response patch(String path, InputStream body) {
+        return patch(path, RequestBody.ofInputStream(body));
     }
 
     /**
@@ -122,8 +776,347 @@ public class BaseApiClient {
      * @return The response
      */
     public Response delete(String path) {
-        return createRequest()
-                .delete(baseUrl + path);
+        return execute("DELETE", path, null, null);
+    }
+
+    /**
+     * Stream the body of a GET request into a file, replacing its content.
+     * See {@link #download(String, Map, WritableByteChannel)}.
+     *
+     * @param path The API endpoint path
+     * @param target The file to write
+     * @return The download result
+     * @throws IOException If the request fails or the file cannot be written
+     */
+    public DownloadResult download(String path, Path target) throws IOException {
+        return download(path, null, target);
+    }
+
+    /**
+     * Stream the body of a GET request with query parameters into a file, replacing its
+     * content. Missing parent directories are created.
+     *
+     * @param path The API endpoint path
+     * @param queryParams Map of query parameters
+     * @param target The file to write
+     * @return The download result
+     * @throws IOException If the request fails or the file cannot be written
+     */
+    public DownloadResult download(String path, Map<String, String> queryParams, Path target) throws IOException {
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            return download(path, queryParams, channel);
+        }
+    }
+
+    /**
+     * Stream the body of a GET request into a channel.
+     *
+     * @param path The API endpoint path
+     * @param target The channel to write; it is not closed
+     * @return The download result
+     * @throws IOException If the request fails or the channel cannot be written
+     */
+    public DownloadResult download(String path, WritableByteChannel target) throws IOException {
+        return download(path, null, target);
+    }
+
+    /**
+     * Stream the body of a GET request with query parameters into a channel.
+     * The body goes through a fixed-size buffer and is never held in memory as a
+     * whole; its size, SHA-256 digest and transfer rate are computed on the way.
+     * Downloads are always sent with the JDK HttpClient, even when RestAssured is the transport.
+     *
+     * @param path The API endpoint path
+     * @param queryParams Map of query parameters
+     * @param target The channel to write; it is not closed
+     * @return The download result
+     * @throws IOException If the request fails or the channel cannot be written
+     */
+    public DownloadResult download(String path, Map<String, String> queryParams, WritableByteChannel target)
+            throws IOException {
+        pace(path);
+        long start = System.nanoTime();
+        DownloadResult result = null;
+        try {
+            result = streamingTransport().download(path, queryParams, requestHeaders(), target);
+            return result;
+        } finally {
+            RequestLog.getInstance().record("GET", path, result != null ? result.getStatusCode() : 0,
+                    System.nanoTime() - start, 0, result != null ? result.getSize() : 0);
+        }
+    }
+
+    /**
+     * Send a GET request and return its body as a stream read straight from the connection,
+     * for responses too large to buffer, e.g. with
+     * {@link core.assertions.StreamingJsonAssertions#forEach(InputStream, String)}.
+     * Like downloads, streams are always sent with the JDK HttpClient.
+     *
+     * @param path The API endpoint path
+     * @param queryParams Map of query parameters, or null for none
+     * @return The decoded body; the caller must close it
+     * @throws IOException If the request fails or the response status is not 2xx
+     */
+    public InputStream stream(String path, Map<String, String> queryParams) throws IOException {
+        pace(path);
+        return streamingTransport().stream(path, queryParams, requestHeaders());
+    }
+
+    /**
+     * Get the transport used for streamed uploads and downloads: the client's transport if
+     * it is a JDK transport, otherwise a JDK transport for this base URL.
+     *
+     * @return The transport
+     */
+    private JdkHttpTransport streamingTransport() {
+        HttpTransport current = transport;
+        return current instanceof JdkHttpTransport ? (JdkHttpTransport) current : streamingTransport;
+    }
+
+    /**
+     * Send a batch of requests concurrently, with at most
+     * {@link TestExecutor#DEFAULT_MAX_CONCURRENCY} in flight at once.
+     *
+     * @param requests The requests to send
+     * @return One result per request, in the same order as the requests
+     */
+    public List<BatchResult> batch(List<BatchRequest> requests) {
+        return batch(requests, TestExecutor.DEFAULT_MAX_CONCURRENCY);
+    }
+
+    /**
+     * Send a batch of requests concurrently through this client's transport and wait
+     * for all of them. A request that fails does not affect the others; its exception
+     * is returned in its result.
+     *
+     * @param requests    The requests to send
+     * @param parallelism Maximum number of requests in flight at once
+     * @return One result per request, in the same order as the requests
+     */
+    public List<BatchResult> batch(List<BatchRequest> requests, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1 but was " + parallelism);
+        }
+        if (requests.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        HttpTransport current = transport;
+        RetryPolicy policy = retryPolicy;
+        List<CompletableFuture<BatchResult>> futures = new ArrayList<>(requests.size());
+
+        try (TestExecutor executor = new TestExecutor(VirtualThreads.isAvailable(),
+                Math.min(parallelism, requests.size()))) {
+            for (BatchRequest request : requests) {
+                futures.add(executor.submit(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        Response response = policy.execute(request.getMethod(), request.getPath(),
+                                () -> attempt(current, request.getMethod(), request.getPath(), request.getPath(),
+                                        request.getQueryParams(), request.getBody()));
+                        return new BatchResult(request, response, null, System.nanoTime() - start);
+                    } catch (Exception e) {
+                        // RestAssured rethrows checked IO exceptions undeclared
+                        return new BatchResult(request, null, e, System.nanoTime() - start);
+                    }
+                }));
+            }
+
+            List<BatchResult> results = new ArrayList<>(futures.size());
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).join());
+                } catch (CompletionException e) {
+                    // Only reachable if the task was interrupted while waiting for a slot
+                    results.add(new BatchResult(requests.get(i), null, e.getCause(), 0));
+                }
+            }
+            return results;
+        }
+    }
+
+    /**
+     * Set the maximum number of asynchronous requests this client keeps in flight.
+     * Once the limit is reached, the async methods still return at once; their requests are
+     * queued and sent as earlier ones complete.
+     *
+     * @param maxInFlight Maximum number of in-flight requests
+     */
+    public void setMaxInFlight(int maxInFlight) {
+        this.asyncEngine = new AsyncHttpEngine(maxInFlight);
+    }
+
+    /**
+     * Send a non-blocking request to a path expanded from a route template, recorded under
+     * the template like {@link #execute(Route, String, Object[], Map, String)}.
+     *
+     * @param route The route
+     * @param method HTTP method
+     * @param values The values of the route's variables
+     * @param queryParams Map of query parameters, or null for none
+     * @param body The request body, or null for none
+     * @return A future completed with the response
+     */
+    CompletableFuture<Response> sendAsync(Route route, String method, Object[] values,
+                                          Map<String, String> queryParams, String body) {
+        String path;
+        try {
+            path = route.expand(values);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return sendAsync(method, route.getTemplate(), path, JdkHttpTransport.queryString(queryParams), body);
+    }
+
+    /**
+     * Make a non-blocking GET request.
+     *
+     * @param path The API endpoint path
+     * @return A future completed with the response
+     */
+    public CompletableFuture<Response> getAsync(String path) {
+        return getAsync(path, null);
+    }
+
+    /**
+     * Make a non-blocking GET request with query parameters.
+     *
+     * @param path The API endpoint path
+     * @param queryParams Map of query parameters
+     * @return A future completed with the response
+     */
+    public CompletableFuture<Response> getAsync(String path, Map<String, String> queryParams) {
+        return sendAsync("GET", path, path, JdkHttpTransport.queryString(queryParams), null);
+    }
+
+    /**
+     * Make a non-blocking POST request.
+     *
+     * @param path The API endpoint path
+     * @param body The request body
+     * @return A future completed with the response
+     */
+    public CompletableFuture<Response> postAsync(String path, JSONObject body) {
+        return sendAsync("POST", path, path, "", body.toString());
+    }
+
+    /**
+     * Make a non-blocking PUT request.
+     *
+     * @param path The API endpoint path
+     * @param body The request body
+     * @return A future completed with the response
+     */
+    public CompletableFuture<Response> putAsync(String path, JSONObject body) {
+        return sendAsync("PUT", path, path, "", body.toString());
+    }
+
+    /**
+     * Make a non-blocking PATCH request.
+     *
+     * @param path The API endpoint path
+     * @param body The request body
+     * @return A future completed with the response
+     */
+    public CompletableFuture<Response> patchAsync(String path, JSONObject body) {
+        return sendAsync("PATCH", path, path, "", body.toString());
+    }
+
+    /**
+     * Make a non-blocking DELETE request.
+     *
+     * @param path The API endpoint path
+     * @return A future completed with the response
+     */
+    public CompletableFuture<Response> deleteAsync(String path) {
+        return sendAsync("DELETE", path, path, "", null);
+    }
+
+    /**
+     * Send a request without blocking, sharing the response of an identical read already in
+     * flight if coalescing is enabled. The coalescing key leaves the bearer token out and
+     * names its provider instead, so a refreshed token does not split the flight.
+     *
+     * @param method HTTP method
+     * @param route The route template, or the path if the request was not made through a route
+     * @param path The API endpoint path
+     * @param query The query string including the leading '?', or an empty string
+     * @param body The request body, or null for none
+     * @return A future completed with the response
+     */
+    private CompletableFuture<Response> sendAsync(String method, String route, String path, String query,
+                                                  String body) {
+        RequestCoalescer shared = coalescer;
+        if (shared == null || body != null || !RequestCoalescer.isCoalescable(method)) {
+            return transmitAsync(method, route, path, query, requestHeaders(), body);
+        }
+        return shared.executeAsync(method, path + query, identityHeaders(), bearerToken,
+                () -> transmitAsync(method, route, path, query, requestHeaders(), body));
+    }
+
+    /**
+     * Send a request through the HTTP/2 transport if enabled, otherwise the async engine,
+     * once the rate limiter allows, and record its latency and circuit breaker outcome
+     * when it completes.
+     *
+     * @param method HTTP method
+     * @param route The route template, or the path if the request was not made through a route
+     * @param path The API endpoint path
+     * @param query The query string including the leading '?', or an empty string
+     * @param requestHeaders Request headers
+     * @param body The request body, or null for none
+     * @return A future completed with the response
+     */
+    private CompletableFuture<Response> transmitAsync(String method, String route, String path, String query,
+                                                      HeaderBlock requestHeaders, String body) {
+        HttpTransport current = transport;
+        CircuitBreaker breaker = circuitBreakerEnabled ? CircuitBreaker.forRoute(current.getBaseUrl(), route) : null;
+        CircuitBreaker.Permission permission;
+        try {
+            permission = breaker != null ? breaker.acquirePermission(method) : null;
+        } catch (CircuitOpenException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        RateLimiter limiter = rateLimiter;
+        long waitNanos = limiter != null ? limiter.reserve(route) : 0;
+        // Latency is measured from when the request is allowed out
+        long start = System.nanoTime() + waitNanos;
+        String endpoint = LatencyRecorder.endpointOf(route);
+        // The route is set on the thread that sends, which is a timer thread if the request had to wait
+        Supplier<CompletableFuture<Response>> send = () -> {
+            CompletableFuture<Response> sent;
+            try {
+                sent = LatencyRecorder.withRoute(endpoint,
+                        () -> current instanceof Http2Transport
+                                ? ((Http2Transport) current).send(method, current.getBaseUrl() + path + query,
+                                        requestHeaders, body)
+                                : asyncEngine.send(method, baseUrl + path + query, requestHeaders, body));
+            } catch (RuntimeException e) {
+                // Never sent, e.g. no token or a malformed URL: says nothing about the route
+                if (breaker != null) {
+                    breaker.release(permission);
+                }
+                return CompletableFuture.failedFuture(e);
+            }
+            return sent.whenComplete((response, error) -> {
+                if (breaker != null) {
+                    breaker.record(permission, response, error);
+                }
+                long latencyNanos = System.nanoTime() - start;
+                if (error == null) {
+                    LatencyRecorder.record(method, endpoint, latencyNanos);
+                }
+                logRequest(method, route, response, latencyNanos, body, 0);
+            });
+        };
+        return waitNanos > 0
+                ? CompletableFuture.supplyAsync(send, CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS))
+                        .thenCompose(Function.identity())
+                : send.get();
     }
 
     /**
@@ -131,13 +1124,54 @@ public class BaseApiClient {
      *
      * @return The request specification
      */
-    private RequestSpecification createRequest() {
-        RequestSpecification request = RestAssured.given();
-        
-        for (Map.Entry<String, String> header : headers.entrySet()) {
-            request.header(header.getKey(), header.getValue());
+    RequestSpecification createRequest() {
+        return restAssuredTransport.createRequest(requestHeaders());
+    }
+
+    /**
+     * A token provider and the scope to request tokens for. Two bearer tokens are equal when
+     * they come from the same provider for the same scope, whatever token is current, so
+     * coalesced requests can be matched on who they are sent as.
+     */
+    private static final class BearerToken {
+        private final OAuth2TokenProvider provider;
+        private final String scope;
+
+        /**
+         * Create a bearer token source.
+         *
+         * @param provider The token provider
+         * @param scope    The scope to request tokens for
+         */
+        BearerToken(OAuth2TokenProvider provider, String scope) {
+            this.provider = provider;
+            this.scope = scope;
+        }
+
+        /**
+         * Get the current token, fetching a new one if it has expired.
+         *
+         * @return The token
+         */
+        String get() {
+            return provider.getToken(scope);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BearerToken)) {
+                return false;
+            }
+            BearerToken other = (BearerToken) o;
+            return provider == other.provider && Objects.equals(scope, other.scope);
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(provider) * 31 + Objects.hashCode(scope);
         }
-        
-        return request;
     }
 }
\ No newline at end of file
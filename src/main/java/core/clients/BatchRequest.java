@@ -0,0 +1,141 @@
+package core.clients;
+
+import org.json.JSONObject;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Description of one request in a {@link BaseApiClient#batch(java.util.List)} call.
+ * Instances are immutable.
+ */
+public final class BatchRequest {
+    private final String method;
+    private final String path;
+    private final Map<String, String> queryParams;
+    private final String body;
+
+    /**
+     * Create a request description.
+     *
+     * @param method      HTTP method
+     * @param path        The API endpoint path
+     * @param queryParams Map of query parameters, or null for none
+     * @param body        Request body, or null for no body
+     */
+    public BatchRequest(String method, String path, Map<String, String> queryParams, String body) {
+        if (method == null || path == null) {
+            throw new IllegalArgumentException("method and path are required");
+        }
+        this.method = method.toUpperCase();
+        this.path = path;
+        this.queryParams = queryParams == null ? null : Collections.unmodifiableMap(new LinkedHashMap<>(queryParams));
+        this.body = body;
+    }
+
+    /**
+     * Describe a GET request.
+     *
+     * @param path The API endpoint path
+     * @return The request description
+     */
+    public static BatchRequest get(String path) {
+        return new BatchRequest("GET", path, null, null);
+    }
+
+    /**
+     * Describe a GET request with query parameters.
+     *
+     * @param path        The API endpoint path
+     * @param queryParams Map of query parameters
+     * @return The request description
+     */
+    public static BatchRequest get(String path, Map<String, String> queryParams) {
+        return new BatchRequest("GET", path, queryParams, null);
+    }
+
+    /**
+     * Describe a POST request.
+     *
+     * @param path The API endpoint path
+     * @param body The request body
+     * @return The request description
+     */
+    public static BatchRequest post(String path, JSONObject body) {
+        return new BatchRequest("POST", path, null, body.toString());
+    }
+
+    /**
+     * Describe a PUT request.
+     *
+     * @param path The API endpoint path
+     * @param body The request body
+     * @return The request description
+     */
+    public static BatchRequest put(String path, JSONObject body) {
+        return new BatchRequest("PUT", path, null, body.toString());
+    }
+
+    /**
+     * Describe a PATCH request.
+     *
+     * @param path The API endpoint path
+     * @param body The request body
+     * @return The request description
+     */
+    public static BatchRequest patch(String path, JSONObject body) {
+        return new BatchRequest("PATCH", path, null, body.toString());
+    }
+
+    /**
+     * Describe a DELETE request.
+     *
+     * @param path The API endpoint path
+     * @return The request description
+     */
+    public static BatchRequest delete(String path) {
+        return new BatchRequest("DELETE", path, null, null);
+    }
+
+    /**
+     * Get the HTTP method.
+     *
+     * @return The HTTP method
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Get the API endpoint path.
+     *
+     * @return The path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Get the query parameters.
+     *
+     * @return The query parameters, or null for none
+     */
+    public Map<String, String> getQueryParams() {
+        return queryParams;
+    }
+
+    /**
+     * Get the request body.
+     *
+     * @return The body, or null for no body
+     */
+    public String getBody() {
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + path;
+    }
+}
@@ -0,0 +1,81 @@
+package core.clients;
+
+import io.restassured.response.Response;
+
+/**
+ * Outcome of one request in a {@link BaseApiClient#batch(java.util.List)} call:
+ * either a response or the exception the request failed with, plus its timing.
+ */
+public final class BatchResult {
+    private final BatchRequest request;
+    private final Response response;
+    private final Throwable error;
+    private final long elapsedNanos;
+
+    /**
+     * Create a result.
+     *
+     * @param request      The request
+     * @param response     The response, or null if the request failed
+     * @param error        The failure, or null if a response was received
+     * @param elapsedNanos Time from sending the request until it completed
+     */
+    BatchResult(BatchRequest request, Response response, Throwable error, long elapsedNanos) {
+        this.request = request;
+        this.response = response;
+        this.error = error;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Get the request this result belongs to.
+     *
+     * @return The request
+     */
+    public BatchRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * Get the response.
+     *
+     * @return The response, or null if the request failed
+     */
+    public Response getResponse() {
+        return response;
+    }
+
+    /**
+     * Get the exception the request failed with.
+     *
+     * @return The failure, or null if a response was received
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * Check whether a response was received, whatever its status code.
+     *
+     * @return True if a response was received
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * Get the time from sending the request until it completed, excluding time spent
+     * waiting for a free slot.
+     *
+     * @return Elapsed time in milliseconds
+     */
+    public double getElapsedMillis() {
+        return elapsedNanos / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        String outcome = error == null ? String.valueOf(response.getStatusCode()) : error.toString();
+        return String.format("%s -> %s (%.2fms)", request, outcome, getElapsedMillis());
+    }
+}
@@ -0,0 +1,172 @@
+package core.clients;
+
+import io.restassured.response.Response;
+import org.json.JSONObject;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link Route} bound to a {@link BaseApiClient}, returned by {@link BaseApiClient#route(String)}.
+ * Requests take the values of the route's variables in template order; latency, retries,
+ * circuit breakers, rate limiting and the request log record them under the template.
+ * Instances are immutable and can be kept in fields and shared between threads.
+ */
+public final class BoundRoute {
+    private final BaseApiClient client;
+    private final Route route;
+
+    /**
+     * Bind a route to a client.
+     *
+     * @param client The client
+     * @param route  The route
+     */
+    BoundRoute(BaseApiClient client, Route route) {
+        this.client = client;
+        this.route = route;
+    }
+
+    /**
+     * Get the route.
+     *
+     * @return The route
+     */
+    public Route getRoute() {
+        return route;
+    }
+
+    /**
+     * Make a GET request.
+     *
+     * @param values The values of the route's variables
+     * @return The response
+     */
+    public Response get(Object... values) {
+        return client.execute(route, "GET", values, null, null);
+    }
+
+    /**
+     * Make a GET request with query parameters. Not an overload of {@link #get(Object...)},
+     * which would take a map meant as query parameters as the value of a variable.
+     *
+     * @param queryParams Map of query parameters
+     * @param values      The values of the route's variables
+     * @return The response
+     */
+    public Response getWithQuery(Map<String, String> queryParams, Object... values) {
+        return client.execute(route, "GET", values, queryParams, null);
+    }
+
+    /**
+     * Make a POST request.
+     *
+     * @param body   The request body
+     * @param values The values of the route's variables
+     * @return The response
+     */
+    public Response post(JSONObject body, Object... values) {
+        return client.execute(route, "POST", values, null, body.toString());
+    }
+
+    /**
+     * Make a PUT request.
+     *
+     * @param body   The request body
+     * @param values The values of the route's variables
+     * @return The response
+     */
+    public Response put(JSONObject body, Object... values) {
+        return client.execute(route, "PUT", values, null, body.toString());
+    }
+
+    /**
+     * Make a PATCH request.
+     *
+     * @param body   The request body
+     * @param values The values of the route's variables
+     * @return The response
+     */
+    public Response patch(JSONObject body, Object... values) {
+        return client.execute(route, "PATCH", values, null, body.toString());
+    }
+
+    /**
+     * Make a DELETE request.
+     *
+     * @param values The values of the route's variables
+     * @return The response
+     */
+    public Response delete(Object... values) {
+        return client.execute(route, "DELETE", values, null, null);
+    }
+
+    /**
+     * Make a non-blocking GET request.
+     *
+     * @param values The values of the route's variables
+     * @return A future completed with the response
+     */
+    public CompletableFuture<Response> getAsync(Object... values) {
+        return client.sendAsync(route, "GET", values, null, null);
+    }
+
+    /**
+     * Make a non-blocking GET request with query parameters.
+     *
+     * @param queryParams Map of query parameters
+     * @param values      The values of the route's variables
+     * @return A future completed with the response
+     */
+    public CompletableFuture<Response> getWithQueryAsync(Map<String, String> queryParams, Object... values) {
+        return client.sendAsync(route, "GET", values, queryParams, null);
+    }
+
+    /**
+     * Make a non-blocking POST request.
+     *
+     * @param body   The request body
+     * @param values The values of the route's variables
+     * @return A future completed with the response
+     */
+    public CompletableFuture<Response> postAsync(JSONObject body, Object... values) {
+        return client.sendAsync(route, "POST", values, null, body.toString());
+    }
+
+    /**
+     * Make a non-blocking PUT request.
+     *
+     * @param body   The request body
+     * @param values The values of the route's variables
+     * @return A future completed with the response
+     */
+    public CompletableFuture<Response> putAsync(JSONObject body, Object... values) {
+        return client.sendAsync(route, "PUT", values, null, body.toString());
+    }
+
+    /**
+     * Make a non-blocking PATCH request.
+     *
+     * @param body   The request body
+     * @param values The values of the route's variables
+     * @return A future completed with the response
+     */
+    public CompletableFuture<Response> patchAsync(JSONObject body, Object... values) {
+        return client.sendAsync(route, "PATCH", values, null, body.toString());
+    }
+
+    /**
+     * Make a non-blocking DELETE request.
+     *
+     * @param values The values of the route's variables
+     * @return A future completed with the response
+     */
+    public CompletableFuture<Response> deleteAsync(Object... values) {
+        return client.sendAsync(route, "DELETE", values, null, null);
+    }
+
+    @Override
+    public String toString() {
+        return route.getTemplate();
+    }
+}
@@ -0,0 +1,159 @@
+package core.clients;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Request body publisher that hands out ByteBuffers from a {@link Source} as the HTTP
+ * client asks for them, without copying them. Each subscription opens its own source, so
+ * the body can be sent again on a redirect or retry.
+ */
+class BufferPublisher implements HttpRequest.BodyPublisher {
+
+    /**
+     * Sequence of buffers making up one transmission of a body.
+     */
+    interface Source extends Closeable {
+        /**
+         * Get the next buffer.
+         *
+         * @return The next buffer, or null at the end of the body
+         * @throws IOException If the body cannot be read
+         */
+        ByteBuffer next() throws IOException;
+    }
+
+    private final Callable<Source> opener;
+    private final long contentLength;
+
+    /**
+     * Create a publisher.
+     *
+     * @param opener        Opens a new source for each subscription
+     * @param contentLength Length of the body, or -1 to send it with chunked transfer encoding
+     */
+    BufferPublisher(Callable<Source> opener, long contentLength) {
+        this.opener = opener;
+        this.contentLength = contentLength;
+    }
+
+    @Override
+    public long contentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        Source source;
+        try {
+            source = opener.call();
+        } catch (Exception e) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(e);
+            return;
+        }
+        subscriber.onSubscribe(new BufferSubscription(source, subscriber));
+    }
+
+    /**
+     * Emits buffers from a source as demand arrives. Emission is serialized by a
+     * work-in-progress counter, so request() may be called from onNext().
+     */
+    private static class BufferSubscription implements Flow.Subscription {
+        private final Source source;
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        /**
+         * Create a subscription.
+         *
+         * @param source     The buffer source
+         * @param subscriber The subscriber
+         */
+        BufferSubscription(Source source, Flow.Subscriber<? super ByteBuffer> subscriber) {
+            this.source = source;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                if (finish()) {
+                    subscriber.onError(new IllegalArgumentException("Demand must be positive but was " + n));
+                }
+                return;
+            }
+            demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            finish();
+        }
+
+        /**
+         * Emit buffers while there is demand.
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                while (!done.get() && demand.get() > 0) {
+                    ByteBuffer next;
+                    try {
+                        next = source.next();
+                    } catch (IOException e) {
+                        if (finish()) {
+                            subscriber.onError(e);
+                        }
+                        return;
+                    }
+                    if (next == null) {
+                        if (finish()) {
+                            subscriber.onComplete();
+                        }
+                        return;
+                    }
+                    demand.decrementAndGet();
+                    subscriber.onNext(next);
+                }
+            } while (wip.decrementAndGet() != 0);
+        }
+
+        /**
+         * Mark the subscription as finished and close the source.
+         *
+         * @return True if this call finished the subscription
+         */
+        private boolean finish() {
+            if (!done.compareAndSet(false, true)) {
+                return false;
+            }
+            try {
+                source.close();
+            } catch (IOException e) {
+                // Nothing left to read from it
+            }
+            return true;
+        }
+    }
+}
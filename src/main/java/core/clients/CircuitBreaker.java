@@ -0,0 +1,433 @@
+package core.clients;
+
+import core.metrics.LatencyRecorder;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Circuit breaker for the requests to one route of one host.
+ * <p>
+ * The outcomes of the last {@code windowSize} calls are kept in a ring buffer. Once at least
+ * {@code minimumCalls} have been seen and the share of failures reaches
+ * {@code failureRateThreshold}, the breaker opens and calls fail immediately with a
+ * {@link CircuitOpenException} instead of waiting for their own timeouts. After
+ * {@code openDuration} the breaker lets {@code halfOpenProbes} calls through: if they all
+ * succeed it closes again, if any fails it stays open for another period.
+ * <p>
+ * Each call that is let through gets a {@link Permission} tied to the state it was let
+ * through in, and its outcome is recorded with that permission. A slow call let through
+ * while closed that finishes after the breaker opened therefore cannot count as a probe.
+ * <p>
+ * A call fails if it throws an I/O exception or gets a 502, 503 or 504 response, the
+ * statuses that mean the service is not there to answer. Any other response, including
+ * client and server errors, shows the route is up. Calls are let through without locking
+ * while the breaker is closed.
+ */
+public class CircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    /**
+     * Default number of recent calls the failure rate is computed over.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 20;
+
+    /**
+     * Default number of calls needed before the breaker can open.
+     */
+    public static final int DEFAULT_MINIMUM_CALLS = 5;
+
+    /**
+     * Default share of failed calls at which the breaker opens.
+     */
+    public static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+
+    /**
+     * Default time the breaker stays open before probing the route again.
+     */
+    public static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+
+    /**
+     * Default number of probe calls let through while half open.
+     */
+    public static final int DEFAULT_HALF_OPEN_PROBES = 1;
+
+    private static final Map<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+
+    // Numeric IDs, UUIDs and hex object IDs are collapsed so each route has one breaker
+    private static final Pattern ID_SEGMENT = Pattern.compile(
+            "\\d+|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|[0-9a-fA-F]{24}");
+
+    /**
+     * Breaker states.
+     */
+    public enum State {
+        /** Calls go through and their outcomes are recorded. */
+        CLOSED,
+        /** Calls fail immediately. */
+        OPEN,
+        /** A limited number of probe calls go through. */
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenProbes;
+
+    // Guarded by this
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+    private int probesInFlight;
+    private int probeSuccesses;
+    private long openedAt;
+    private int lastFailures;
+    private int lastCalls;
+    // Incremented on every state change, so permissions from an earlier state are recognised
+    private long generation;
+
+    private volatile State state = State.CLOSED;
+    // Handed out without locking while closed; replaced whenever the breaker closes
+    private volatile Permission closedPermission = new Permission(0, false);
+
+    /**
+     * Create a breaker.
+     *
+     * @param name                 Name used in logs and errors, usually "host route"
+     * @param windowSize           Number of recent calls the failure rate is computed over
+     * @param minimumCalls         Number of calls needed before the breaker can open
+     * @param failureRateThreshold Share of failed calls at which the breaker opens, between 0 and 1
+     * @param openDuration         Time the breaker stays open before probing again
+     * @param halfOpenProbes       Number of probe calls let through while half open
+     */
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          Duration openDuration, int halfOpenProbes) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("Need 1 <= minimumCalls <= windowSize but got minimumCalls="
+                    + minimumCalls + ", windowSize=" + windowSize);
+        }
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("failureRateThreshold must be in (0, 1] but was " + failureRateThreshold);
+        }
+        if (halfOpenProbes < 1) {
+            throw new IllegalArgumentException("halfOpenProbes must be at least 1 but was " + halfOpenProbes);
+        }
+        this.name = name;
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenProbes = halfOpenProbes;
+        this.window = new boolean[windowSize];
+    }
+
+    /**
+     * Get the shared breaker for a route of a host, created with the default settings on
+     * first use. Paths are reduced to their route, so {@code /users/42?expand=true} and
+     * {@code /users/7} share a breaker.
+     *
+     * @param baseUrl The base URL of the host
+     * @param path    The request path
+     * @return The shared breaker
+     */
+    public static CircuitBreaker forRoute(String baseUrl, String path) {
+        return LatencyRecorder.boundedEntry(BREAKERS, hostOf(baseUrl) + " ", routeOf(path),
+                key -> new CircuitBreaker(key, DEFAULT_WINDOW_SIZE, DEFAULT_MINIMUM_CALLS,
+                        DEFAULT_FAILURE_RATE_THRESHOLD, DEFAULT_OPEN_DURATION, DEFAULT_HALF_OPEN_PROBES));
+    }
+
+    /**
+     * Get the state of every shared breaker.
+     *
+     * @return States keyed by "host route", sorted
+     */
+    public static Map<String, State> getAllStates() {
+        Map<String, State> states = new TreeMap<>();
+        BREAKERS.forEach((key, breaker) -> states.put(key, breaker.getState()));
+        return Collections.unmodifiableMap(states);
+    }
+
+    /**
+     * Forget every shared breaker, closing all circuits.
+     */
+    public static void resetAll() {
+        BREAKERS.clear();
+    }
+
+    /**
+     * Reduce a path to its route: the query string is dropped and ID segments are
+     * replaced with {@code {id}}.
+     *
+     * @param path The request path
+     * @return The route
+     */
+    public static String routeOf(String path) {
+        String endpoint = LatencyRecorder.endpointOf(path);
+        String[] segments = endpoint.split("/", -1);
+        StringBuilder route = new StringBuilder(endpoint.length());
+        for (int i = 0; i < segments.length; i++) {
+            if (i > 0) {
+                route.append('/');
+            }
+            route.append(ID_SEGMENT.matcher(segments[i]).matches() ? "{id}" : segments[i]);
+        }
+        return route.toString();
+    }
+
+    /**
+     * Send a call through the breaker and record its outcome.
+     *
+     * @param method HTTP method, for the error message
+     * @param call   Sends the request
+     * @return The response
+     * @throws CircuitOpenException If the breaker is open
+     */
+    public Response execute(String method, Supplier<Response> call) {
+        Permission permission = acquirePermission(method);
+        Response response;
+        try {
+            response = call.get();
+        } catch (Throwable t) {
+            // RestAssured rethrows checked IO exceptions undeclared
+            record(permission, null, t);
+            throw Failures.sneakyThrow(t);
+        }
+        record(permission, response, null);
+        return response;
+    }
+
+    /**
+     * Let a call through or reject it. A permission that is granted must be followed by
+     * exactly one call to {@link #record(Permission, boolean)}, or to
+     * {@link #release(Permission)} if the call is not made after all.
+     *
+     * @param method HTTP method, for the error message
+     * @return The permission
+     * @throws CircuitOpenException If the breaker is open, or half open with all probes taken
+     */
+    public Permission acquirePermission(String method) {
+        Permission closed = closedPermission;
+        if (state == State.CLOSED) {
+            return closed;
+        }
+        synchronized (this) {
+            if (state == State.OPEN && System.nanoTime() - openedAt >= openDurationNanos) {
+                logger.info("Circuit {} half open, probing", name);
+                state = State.HALF_OPEN;
+                generation++;
+                probesInFlight = 0;
+                probeSuccesses = 0;
+            }
+            if (state == State.CLOSED) {
+                return closedPermission;
+            }
+            if (state == State.HALF_OPEN && probesInFlight < halfOpenProbes) {
+                probesInFlight++;
+                return new Permission(generation, true);
+            }
+            long retryInNanos = Math.max(0, openDurationNanos - (System.nanoTime() - openedAt));
+            throw new CircuitOpenException(name, method, lastFailures, lastCalls,
+                    Duration.ofNanos(retryInNanos));
+        }
+    }
+
+    /**
+     * Record the outcome of a call that was let through. Outcomes of calls let through in
+     * an earlier state are ignored: a call that started before the breaker opened says
+     * nothing about whether the route has recovered since.
+     *
+     * @param permission The permission the call was let through with
+     * @param success    True if the call succeeded
+     */
+    public synchronized void record(Permission permission, boolean success) {
+        if (permission.generation != generation) {
+            return;
+        }
+        if (permission.probe) {
+            probesInFlight--;
+            if (!success) {
+                open(1, 1);
+            } else if (++probeSuccesses >= halfOpenProbes) {
+                logger.info("Circuit {} closed after {} successful probe(s)", name, probeSuccesses);
+                close();
+            }
+            return;
+        }
+
+        if (windowCount == windowSize) {
+            if (!window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = success;
+        if (!success) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % windowSize;
+
+        if (windowCount >= minimumCalls && windowFailures >= failureRateThreshold * windowCount) {
+            open(windowFailures, windowCount);
+        }
+    }
+
+    /**
+     * Record the outcome of a call that was let through.
+     *
+     * @param permission The permission the call was let through with
+     * @param response   The response, or null if the call failed
+     * @param failure    The failure, or null if a response was received
+     */
+    void record(Permission permission, Response response, Throwable failure) {
+        record(permission, failure == null ? isSuccess(response.getStatusCode()) : !Failures.isIoFailure(failure));
+    }
+
+    /**
+     * Give back a permission whose call was never sent, e.g. because its request could not
+     * be built. Nothing is recorded, and a probe slot is freed for another call.
+     *
+     * @param permission The permission
+     */
+    public synchronized void release(Permission permission) {
+        if (permission.probe && permission.generation == generation) {
+            probesInFlight--;
+        }
+    }
+
+    /**
+     * Get the state of the breaker. An open breaker whose open period has passed is
+     * reported as open until the next call probes it.
+     *
+     * @return The state
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Get the share of failed calls in the window.
+     *
+     * @return The failure rate, between 0 and 1
+     */
+    public synchronized double getFailureRate() {
+        return windowCount == 0 ? 0 : windowFailures / (double) windowCount;
+    }
+
+    /**
+     * Get the name of the breaker.
+     *
+     * @return The name, usually "host route"
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Open the breaker. Must be called while holding the lock.
+     *
+     * @param failures Number of failed calls that caused it
+     * @param calls    Number of calls they were among
+     */
+    private void open(int failures, int calls) {
+        logger.warn("Circuit {} open for {}ms: {} of {} recent calls failed", name,
+                TimeUnit.NANOSECONDS.toMillis(openDurationNanos), failures, calls);
+        lastFailures = failures;
+        lastCalls = calls;
+        openedAt = System.nanoTime();
+        state = State.OPEN;
+        generation++;
+        clearWindow();
+    }
+
+    /**
+     * Close the breaker. Must be called while holding the lock.
+     */
+    private void close() {
+        clearWindow();
+        generation++;
+        closedPermission = new Permission(generation, false);
+        state = State.CLOSED;
+    }
+
+    /**
+     * Forget the recorded outcomes. Must be called while holding the lock.
+     */
+    private void clearWindow() {
+        windowIndex = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+
+    /**
+     * Check whether a status code shows the route is up.
+     *
+     * @param statusCode The status code
+     * @return False for 502, 503 and 504
+     */
+    private static boolean isSuccess(int statusCode) {
+        return statusCode != 502 && statusCode != 503 && statusCode != 504;
+    }
+
+    /**
+     * Get the host and port of a base URL.
+     *
+     * @param baseUrl The base URL
+     * @return "host:port", or the base URL itself if it cannot be parsed
+     */
+    private static String hostOf(String baseUrl) {
+        try {
+            URI uri = URI.create(baseUrl);
+            if (uri.getHost() == null) {
+                return baseUrl;
+            }
+            int port = uri.getPort() != -1 ? uri.getPort() : "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+            return uri.getHost() + ":" + port;
+        } catch (IllegalArgumentException e) {
+            return baseUrl;
+        }
+    }
+
+    /**
+     * Permission for one call to go through the breaker, returned by
+     * {@link #acquirePermission(String)}.
+     */
+    public static final class Permission {
+        private final long generation;
+        private final boolean probe;
+
+        /**
+         * Create a permission.
+         *
+         * @param generation The state the call was let through in
+         * @param probe      True if the call is a half-open probe
+         */
+        private Permission(long generation, boolean probe) {
+            this.generation = generation;
+            this.probe = probe;
+        }
+
+        /**
+         * Check whether the call is a half-open probe.
+         *
+         * @return True for a probe
+         */
+        public boolean isProbe() {
+            return probe;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package core.clients;
+
+import java.time.Duration;
+
+/**
+ * Thrown instead of sending a request when the {@link CircuitBreaker} for its route is open.
+ */
+public class CircuitOpenException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    private final String circuit;
+    private final Duration retryIn;
+
+    /**
+     * Create the exception.
+     *
+     * @param circuit  Name of the open breaker
+     * @param method   HTTP method of the rejected request
+     * @param failures Number of failed calls that opened the breaker
+     * @param calls    Number of calls they were among
+     * @param retryIn  Time until the breaker lets a probe through
+     */
+    public CircuitOpenException(String circuit, String method, int failures, int calls, Duration retryIn) {
+        super("Circuit open for " + method + " " + circuit + ": " + failures + " of the last " + calls
+                + " calls failed; not sending requests for another " + retryIn.toSeconds() + "s");
+        this.circuit = circuit;
+        this.retryIn = retryIn;
+    }
+
+    /**
+     * Get the name of the open breaker.
+     *
+     * @return The breaker name, usually "host route"
+     */
+    public String getCircuit() {
+        return circuit;
+    }
+
+    /**
+     * Get the time until the breaker lets a probe through.
+     *
+     * @return The remaining open time
+     */
+    public Duration getRetryIn() {
+        return retryIn;
+    }
+}
@@ -0,0 +1,284 @@
+package core.clients;
+
+import org.json.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compression settings of a {@link BaseApiClient}.
+ * <p>
+ * With negotiation on, requests carry {@code Accept-Encoding: gzip, deflate}. Compressed
+ * responses are decoded by every transport whether or not they were asked for; the JDK
+ * transport inflates them while reading, without buffering the compressed body first.
+ * Request bodies of at least {@code requestThreshold} bytes can be gzipped and sent with
+ * {@code Content-Encoding: gzip}. Instances are immutable.
+ */
+public final class Compression {
+    /**
+     * Value of the Accept-Encoding header sent when negotiation is on.
+     */
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    /**
+     * Request bodies smaller than this are not worth compressing by default, in bytes.
+     */
+    public static final int DEFAULT_REQUEST_THRESHOLD = 8 * 1024;
+
+    /**
+     * No negotiation and no request compression.
+     */
+    public static final Compression NONE = new Compression(false, -1);
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final boolean negotiated;
+    private final int requestThreshold;
+
+    /**
+     * Create compression settings.
+     *
+     * @param negotiated       True to send Accept-Encoding
+     * @param requestThreshold Smallest request body to gzip in bytes, or -1 to never gzip
+     */
+    private Compression(boolean negotiated, int requestThreshold) {
+        this.negotiated = negotiated;
+        this.requestThreshold = requestThreshold;
+    }
+
+    /**
+     * Get settings that ask for compressed responses but send request bodies as they are.
+     *
+     * @return The settings
+     */
+    public static Compression negotiate() {
+        return new Compression(true, -1);
+    }
+
+    /**
+     * Get the compression settings of an environment from its compression block:
+     * <pre>
+     * "compression": { "negotiate": true, "request_threshold": 8192 }
+     * </pre>
+     * negotiate defaults to true; request bodies are only gzipped if request_threshold is set.
+     *
+     * @param envConfig The environment configuration
+     * @return The settings, {@link #NONE} if the environment has no compression block
+     */
+    public static Compression fromConfig(JSONObject envConfig) {
+        JSONObject config = envConfig.optJSONObject("compression");
+        if (config == null) {
+            return NONE;
+        }
+        int threshold = config.optInt("request_threshold", -1);
+        Compression settings = new Compression(config.optBoolean("negotiate", true), -1);
+        return threshold >= 0 ? settings.withRequestCompression(threshold) : settings;
+    }
+
+    /**
+     * Get a copy of these settings that also gzips request bodies of at least
+     * {@link #DEFAULT_REQUEST_THRESHOLD} bytes.
+     *
+     * @return The new settings
+     */
+    public Compression withRequestCompression() {
+        return withRequestCompression(DEFAULT_REQUEST_THRESHOLD);
+    }
+
+    /**
+     * Get a copy of these settings that also gzips request bodies above a size. Only use
+     * this against servers that accept {@code Content-Encoding: gzip} requests.
+     *
+     * @param thresholdBytes Smallest request body to gzip, in bytes
+     * @return The new settings
+     */
+    public Compression withRequestCompression(int thresholdBytes) {
+        if (thresholdBytes < 0) {
+            throw new IllegalArgumentException("thresholdBytes must not be negative but was " + thresholdBytes);
+        }
+        return new Compression(negotiated, thresholdBytes);
+    }
+
+    /**
+     * Check whether compressed responses are asked for.
+     *
+     * @return True if Accept-Encoding is sent
+     */
+    public boolean isNegotiated() {
+        return negotiated;
+    }
+
+    /**
+     * Get the smallest request body that is gzipped.
+     *
+     * @return The threshold in bytes, or -1 if request bodies are never gzipped
+     */
+    public int getRequestThreshold() {
+        return requestThreshold;
+    }
+
+    /**
+     * Check whether a request body should be gzipped.
+     *
+     * @param bodyBytes Size of the body
+     * @return True if the body is at least the request threshold
+     */
+    boolean shouldCompress(int bodyBytes) {
+        return requestThreshold >= 0 && bodyBytes >= requestThreshold;
+    }
+
+    /**
+     * Gzip a request body.
+     *
+     * @param body The body
+     * @return The compressed body
+     */
+    static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed, BUFFER_SIZE)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            // Writing to memory does not fail
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Decode a response body held in memory.
+     *
+     * @param contentEncoding The Content-Encoding of the body, or null
+     * @param body            The body as received
+     * @return The decoded body, or the body itself if it is not gzip or deflate encoded
+     * @throws IOException If the body is not validly encoded
+     */
+    static byte[] decode(String contentEncoding, byte[] body) throws IOException {
+        if (!isDecodable(contentEncoding) || body.length == 0) {
+            return body;
+        }
+        try (InputStream decoded = decoding(contentEncoding, new ByteArrayInputStream(body))) {
+            return decoded.readAllBytes();
+        }
+    }
+
+    /**
+     * Wrap a response body stream so that it is decoded while it is read.
+     *
+     * @param contentEncoding The Content-Encoding of the body, or null
+     * @param body            The body as received
+     * @return A stream of the decoded body, or the stream itself if it is not gzip or deflate encoded
+     * @throws IOException If the gzip header cannot be read
+     */
+    static InputStream decoding(String contentEncoding, InputStream body) throws IOException {
+        if (!isDecodable(contentEncoding)) {
+            return body;
+        }
+        PushbackInputStream peek = new PushbackInputStream(body, 2);
+        int first = peek.read();
+        if (first < 0) {
+            // HEAD and 204 responses carry the encoding but no body
+            return peek;
+        }
+        int second = peek.read();
+        if (second >= 0) {
+            peek.unread(second);
+        }
+        peek.unread(first);
+
+        if (contentEncoding.trim().equalsIgnoreCase("gzip")) {
+            return new GZIPInputStream(peek, BUFFER_SIZE);
+        }
+        // "deflate" is meant to be zlib-wrapped, but some servers send raw deflate
+        boolean zlib = second >= 0 && (first & 0x0F) == 8 && ((first << 8) | second) % 31 == 0;
+        Inflater inflater = new Inflater(!zlib);
+        return new InflaterInputStream(peek, inflater, BUFFER_SIZE) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    // InflaterInputStream only ends inflaters it created itself
+                    inflater.end();
+                }
+            }
+        };
+    }
+
+    /**
+     * Check whether a Content-Encoding is one that is decoded.
+     *
+     * @param contentEncoding The Content-Encoding, or null
+     * @return True for gzip and deflate
+     */
+    static boolean isDecodable(String contentEncoding) {
+        if (contentEncoding == null) {
+            return false;
+        }
+        String encoding = contentEncoding.trim();
+        return encoding.equalsIgnoreCase("gzip") || encoding.equalsIgnoreCase("deflate");
+    }
+
+    @Override
+    public String toString() {
+        return "Compression[negotiated=" + negotiated + ", requestThreshold=" + requestThreshold + "]";
+    }
+
+    /**
+     * Stream that counts the bytes read through it.
+     */
+    static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        /**
+         * Create a counting stream.
+         *
+         * @param in The stream to count
+         */
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        /**
+         * Get the number of bytes read so far.
+         *
+         * @return The byte count
+         */
+        long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package core.clients;
+
+import io.restassured.config.HttpClientConfig;
+import io.restassured.filter.Filter;
+import io.restassured.response.Response;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.BasicHttpContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide keep-alive connection pools, one per base URL.
+ * Every {@link BaseApiClient} created for the same base URL shares the same pool, so
+ * connections (and their TCP/TLS handshakes) are reused across clients and tests.
+ * Idle connections are evicted by a background daemon thread, and host names are resolved
+ * through {@link DnsCache}. Connections can be opened ahead of the first request with
+ * {@link #preOpen(int)}.
+ * <p>
+ * A pooled connection stays leased until its response body has been read, so requests
+ * made through a pool must add {@link #RELEASE_CONNECTION_FILTER}. The filter reads every
+ * response body into memory before the caller sees it. That returns the connection even
+ * when a test never reads the body, at the cost of holding each whole body in memory, so
+ * bodies too large for that should be streamed by a client that does not use this pool.
+ */
+@SuppressWarnings("deprecation")
+public class ConnectionPool {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+
+    /**
+     * Default maximum number of connections per route.
+     */
+    public static final int DEFAULT_MAX_PER_ROUTE = 20;
+
+    /**
+     * Default maximum number of connections in a pool.
+     */
+    public static final int DEFAULT_MAX_TOTAL = 200;
+
+    /**
+     * Default time after which an idle connection is closed, in milliseconds.
+     */
+    public static final long DEFAULT_IDLE_TIMEOUT_MS = 30_000;
+
+    /**
+     * Default time a request waits for a free connection before failing, in milliseconds.
+     */
+    public static final long DEFAULT_LEASE_TIMEOUT_MS = 30_000;
+
+    /**
+     * Filter that buffers the response body so the connection goes back to the pool
+     * as soon as the request completes, rather than when (or if) the test reads the body.
+     */
+    public static final Filter RELEASE_CONNECTION_FILTER = (requestSpec, responseSpec, context) -> {
+        Response response = context.next(requestSpec, responseSpec);
+        response.asByteArray();
+        return response;
+    };
+
+    private static final long EVICTION_INTERVAL_MS = 5_000;
+    private static final int PRE_OPEN_CONNECT_TIMEOUT_MS = 10_000;
+
+    private static final Map<String, ConnectionPool> POOLS = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService EVICTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "connection-pool-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        EVICTOR.scheduleWithFixedDelay(ConnectionPool::evictIdleConnections,
+                EVICTION_INTERVAL_MS, EVICTION_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private final String baseUrl;
+    private final PoolingClientConnectionManager connectionManager;
+    private final HttpClientConfig httpClientConfig;
+    private volatile long idleTimeoutMillis = DEFAULT_IDLE_TIMEOUT_MS;
+
+    /**
+     * Create a pool for a base URL.
+     *
+     * @param baseUrl The base URL served by this pool
+     */
+    private ConnectionPool(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.connectionManager = new PoolingClientConnectionManager(SchemeRegistryFactory.createDefault(),
+                DnsCache.RESOLVER);
+        this.connectionManager.setDefaultMaxPerRoute(DEFAULT_MAX_PER_ROUTE);
+        this.connectionManager.setMaxTotal(DEFAULT_MAX_TOTAL);
+        // A fresh client per request is cheap; the pooled connections behind it are what get reused
+        this.httpClientConfig = HttpClientConfig.httpClientConfig()
+                .httpClientFactory(() -> {
+                    DefaultHttpClient client = new DefaultHttpClient(connectionManager);
+                    client.addResponseInterceptor((response, context) -> releaseEmptyBody(response));
+                    client.addResponseInterceptor(RestAssuredTransport.COUNT_WIRE_BYTES);
+                    return client;
+                })
+                .setParam(ClientPNames.CONN_MANAGER_TIMEOUT, DEFAULT_LEASE_TIMEOUT_MS);
+    }
+
+    /**
+     * Get the shared pool for a base URL, creating it on first use.
+     *
+     * @param baseUrl The base URL
+     * @return The pool for the base URL
+     */
+    public static ConnectionPool forBaseUrl(String baseUrl) {
+        return POOLS.computeIfAbsent(normalize(baseUrl), ConnectionPool::new);
+    }
+
+    /**
+     * Get the statistics of every pool, keyed by base URL.
+     *
+     * @return Map of base URL to pool statistics
+     */
+    public static Map<String, PoolStats> getAllStats() {
+        Map<String, PoolStats> stats = new HashMap<>();
+        for (ConnectionPool pool : POOLS.values()) {
+            stats.put(pool.baseUrl, pool.getStats());
+        }
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Close every pool and the connections they hold.
+     */
+    public static void shutdownAll() {
+        for (ConnectionPool pool : POOLS.values()) {
+            pool.connectionManager.shutdown();
+        }
+        POOLS.clear();
+    }
+
+    /**
+     * Get the RestAssured HTTP client configuration that leases connections from this pool.
+     *
+     * @return The HTTP client configuration
+     */
+    public HttpClientConfig getHttpClientConfig() {
+        return httpClientConfig;
+    }
+
+    /**
+     * Set the maximum number of connections per route.
+     *
+     * @param maxPerRoute Maximum connections per route
+     */
+    public void setMaxPerRoute(int maxPerRoute) {
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        if (connectionManager.getMaxTotal() < maxPerRoute) {
+            connectionManager.setMaxTotal(maxPerRoute);
+        }
+    }
+
+    /**
+     * Set the time after which idle connections are evicted.
+     *
+     * @param idleTimeoutMillis Idle timeout in milliseconds
+     */
+    public void setIdleTimeout(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Open connections to the base URL and leave them idle in the pool, so the first
+     * requests skip the TCP connect and TLS handshake. Connections that are already idle in
+     * the pool count towards the number; no HTTP requests are sent.
+     *
+     * @param connections Number of idle connections wanted, capped at the per-route maximum
+     * @return The number of connections opened
+     * @throws IOException If a connection cannot be opened
+     */
+    public int preOpen(int connections) throws IOException {
+        HttpRoute route = route();
+        int wanted = Math.min(connections, connectionManager.getDefaultMaxPerRoute());
+        HttpParams params = new BasicHttpParams();
+        HttpConnectionParams.setConnectionTimeout(params, PRE_OPEN_CONNECT_TIMEOUT_MS);
+
+        // Connections are held until all are leased, otherwise the pool would hand back the same one
+        List<ManagedClientConnection> leased = new ArrayList<>(wanted);
+        int opened = 0;
+        try {
+            for (int i = 0; i < wanted; i++) {
+                ManagedClientConnection connection = connectionManager.requestConnection(route, null)
+                        .getConnection(DEFAULT_LEASE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                leased.add(connection);
+                if (!connection.isOpen()) {
+                    connection.open(route, new BasicHttpContext(), params);
+                    opened++;
+                }
+                connection.markReusable();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while opening connections to " + baseUrl, e);
+        } finally {
+            for (ManagedClientConnection connection : leased) {
+                connectionManager.releaseConnection(connection, idleTimeoutMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        logger.debug("Opened {} connection(s) to {}", opened, baseUrl);
+        return opened;
+    }
+
+    /**
+     * Get the base URL served by this pool.
+     *
+     * @return The base URL
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Get the current pool statistics.
+     *
+     * @return The pool statistics
+     */
+    public PoolStats getStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * Get the number of connections currently leased to requests.
+     *
+     * @return The number of leased connections
+     */
+    public int getLeased() {
+        return getStats().getLeased();
+    }
+
+    /**
+     * Get the number of idle connections available for reuse.
+     *
+     * @return The number of available connections
+     */
+    public int getAvailable() {
+        return getStats().getAvailable();
+    }
+
+    /**
+     * Get the number of requests waiting for a connection.
+     *
+     * @return The number of pending requests
+     */
+    public int getPending() {
+        return getStats().getPending();
+    }
+
+    /**
+     * Replace an empty streamed response body with an in-memory one. RestAssured never reads
+     * a body with Content-Length: 0, so its stream would never reach EOF and the connection
+     * would stay leased; a non-streaming body lets the client release it straight away.
+     *
+     * @param response The response
+     */
+    private static void releaseEmptyBody(HttpResponse response) {
+        HttpEntity entity = response.getEntity();
+        if (entity != null && entity.isStreaming() && entity.getContentLength() == 0) {
+            ByteArrayEntity empty = new ByteArrayEntity(new byte[0]);
+            empty.setContentType(entity.getContentType());
+            empty.setContentEncoding(entity.getContentEncoding());
+            response.setEntity(empty);
+        }
+    }
+
+    /**
+     * Close expired connections and connections idle for longer than the idle timeout.
+     */
+    private static void evictIdleConnections() {
+        for (ConnectionPool pool : POOLS.values()) {
+            pool.connectionManager.closeExpiredConnections();
+            pool.connectionManager.closeIdleConnections(pool.idleTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Get the route that requests to the base URL lease their connections for.
+     *
+     * @return The route
+     */
+    private HttpRoute route() {
+        URI uri = URI.create(baseUrl);
+        if (uri.getHost() == null) {
+            throw new IllegalArgumentException("Base URL has no host: " + baseUrl);
+        }
+        HttpHost target = new HttpHost(uri.getHost(), uri.getPort(), uri.getScheme());
+        return new HttpRoute(target, null, "https".equalsIgnoreCase(uri.getScheme()));
+    }
+
+    /**
+     * Normalize a base URL so that equivalent URLs share a pool.
+     *
+     * @param baseUrl The base URL
+     * @return The normalized base URL
+     */
+    private static String normalize(String baseUrl) {
+        return baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+}
@@ -0,0 +1,202 @@
+package core.clients;
+
+import core.config.EnvLoader;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm-up of an environment before its first test: every host named in the environment's
+ * configuration is resolved into {@link DnsCache}, and connections to its base_url are
+ * opened into the shared {@link ConnectionPool}. The first test then starts on a resolved
+ * host and an established TCP/TLS connection instead of paying for both inside its own
+ * response time.
+ * <p>
+ * Warm-up sends no HTTP requests, so nothing it does is recorded by
+ * {@link core.metrics.LatencyRecorder}. Each environment is warmed up once per process;
+ * callers that arrive while a warm-up is running wait for it, and a warm-up that fails is
+ * forgotten so the next caller tries again. The number of connections is set by the
+ * environment's warmup block:
+ * <pre>
+ * "warmup": { "connections": 4 }
+ * </pre>
+ */
+public class ConnectionWarmup {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionWarmup.class);
+
+    /**
+     * Default number of connections opened per environment.
+     */
+    public static final int DEFAULT_CONNECTIONS = 4;
+
+    private static final Map<String, CompletableFuture<Integer>> WARMED = new ConcurrentHashMap<>();
+
+    private ConnectionWarmup() {
+    }
+
+    /**
+     * Warm up an environment unless it has already been warmed up. Network failures are
+     * logged and otherwise ignored, so the tests report them against the request that
+     * actually failed.
+     *
+     * @param env Optional environment name (default: from ENVIRONMENT env var or "dev")
+     * @return The number of connections opened by the warm-up of the environment
+     * @throws IllegalStateException If the environment's configuration cannot be loaded
+     */
+    public static int forEnvironment(String env) {
+        String name = EnvLoader.resolveEnvironment(env);
+        CompletableFuture<Integer> warmUp = new CompletableFuture<>();
+        CompletableFuture<Integer> running = WARMED.putIfAbsent(name, warmUp);
+        if (running != null) {
+            return await(running);
+        }
+        // The warm-up runs outside the map, so other environments are not held up by its I/O
+        try {
+            int opened = warmUpEnvironment(name);
+            warmUp.complete(opened);
+            return opened;
+        } catch (RuntimeException | Error e) {
+            WARMED.remove(name, warmUp);
+            warmUp.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Check whether an environment has been warmed up.
+     *
+     * @param env Optional environment name (default: from ENVIRONMENT env var or "dev")
+     * @return True if the environment's warm-up has completed
+     */
+    public static boolean isWarmedUp(String env) {
+        CompletableFuture<Integer> warmUp = WARMED.get(EnvLoader.resolveEnvironment(env));
+        return warmUp != null && warmUp.isDone() && !warmUp.isCompletedExceptionally();
+    }
+
+    /**
+     * Wait for a warm-up started by another caller.
+     *
+     * @param warmUp The running warm-up
+     * @return The number of connections it opened
+     */
+    private static int await(CompletableFuture<Integer> warmUp) {
+        try {
+            return warmUp.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Resolve the hosts of a base URL and open connections to it.
+     *
+     * @param baseUrl     The base URL
+     * @param connections Number of connections to open
+     * @return The number of connections opened
+     */
+    public static int warmUp(String baseUrl, int connections) {
+        String host = URI.create(baseUrl).getHost();
+        if (host == null || !DnsCache.prefetch(host)) {
+            return 0;
+        }
+        try {
+            return ConnectionPool.forBaseUrl(baseUrl).preOpen(connections);
+        } catch (IOException e) {
+            logger.warn("Could not open connections to {}: {}", baseUrl, e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Warm up an environment.
+     *
+     * @param env The environment name
+     * @return The number of connections opened
+     */
+    private static int warmUpEnvironment(String env) {
+        JSONObject envConfig;
+        try {
+            envConfig = EnvLoader.getInstance().getEnvironmentConfig(env);
+        } catch (IOException | JSONException e) {
+            throw new IllegalStateException("Could not load configuration for environment '" + env + "'", e);
+        }
+        long start = System.nanoTime();
+        String baseUrl = envConfig.optString("base_url", "");
+        String baseHost = hostOf(baseUrl);
+
+        // Other hosts (e.g. the auth server) are only resolved; their clients have their own pools
+        Set<String> hosts = new LinkedHashSet<>();
+        collectHosts(envConfig, hosts);
+        hosts.remove(baseHost);
+        for (String host : hosts) {
+            DnsCache.prefetch(host);
+        }
+
+        int opened = 0;
+        if (baseHost != null) {
+            JSONObject warmup = envConfig.optJSONObject("warmup");
+            int connections = warmup != null ? warmup.optInt("connections", DEFAULT_CONNECTIONS) : DEFAULT_CONNECTIONS;
+            opened = warmUp(baseUrl, connections);
+        }
+        logger.info("Warmed up environment '{}': {} host(s), {} connection(s) opened in {} ms",
+                env, hosts.size() + (baseHost != null ? 1 : 0), opened,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return opened;
+    }
+
+    /**
+     * Collect the hosts of every HTTP URL in a configuration value.
+     *
+     * @param value The configuration value
+     * @param hosts The set to add the hosts to
+     */
+    private static void collectHosts(Object value, Set<String> hosts) {
+        if (value instanceof JSONObject) {
+            JSONObject object = (JSONObject) value;
+            for (String key : object.keySet()) {
+                collectHosts(object.get(key), hosts);
+            }
+        } else if (value instanceof JSONArray) {
+            for (Object item : (JSONArray) value) {
+                collectHosts(item, hosts);
+            }
+        } else if (value instanceof String) {
+            String host = hostOf((String) value);
+            if (host != null) {
+                hosts.add(host);
+            }
+        }
+    }
+
+    /**
+     * Get the host of an HTTP URL.
+     *
+     * @param url The URL
+     * @return The host, or null if the value is not an HTTP URL (e.g. an unset ${VARIABLE})
+     */
+    private static String hostOf(String url) {
+        if (!url.startsWith("http://") && !url.startsWith("https://")) {
+            return null;
+        }
+        try {
+            return URI.create(url).getHost();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package core.clients;
+
+import org.apache.http.conn.DnsResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide cache of host name lookups, used by every {@link ConnectionPool} so that a
+ * host is resolved once per {@link #DEFAULT_TTL_MS} rather than whenever a new connection
+ * is opened. Hosts can be resolved ahead of the first request with {@link #prefetch(String)}.
+ * Failed lookups are not cached.
+ */
+public class DnsCache {
+    private static final Logger logger = LoggerFactory.getLogger(DnsCache.class);
+
+    /**
+     * Default time a lookup is reused for, in milliseconds.
+     */
+    public static final long DEFAULT_TTL_MS = 60_000;
+
+    /**
+     * Resolver for Apache HTTP client connection managers that answers from the cache.
+     */
+    public static final DnsResolver RESOLVER = DnsCache::resolve;
+
+    private static final Map<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+    private static volatile long ttlNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_TTL_MS);
+
+    private DnsCache() {
+    }
+
+    /**
+     * Get the addresses of a host, looking them up if they are not cached or have expired.
+     *
+     * @param host The host name
+     * @return The addresses of the host
+     * @throws UnknownHostException If the host cannot be resolved
+     */
+    public static InetAddress[] resolve(String host) throws UnknownHostException {
+        String key = host.toLowerCase();
+        Entry entry = ENTRIES.get(key);
+        long now = System.nanoTime();
+        if (entry != null && now - entry.resolvedAt < ttlNanos) {
+            return entry.addresses.clone();
+        }
+        InetAddress[] addresses = InetAddress.getAllByName(host);
+        ENTRIES.put(key, new Entry(addresses, now));
+        return addresses.clone();
+    }
+
+    /**
+     * Resolve a host ahead of its first request. The lookup also warms the JVM's own
+     * address cache, which the JDK HTTP client uses.
+     *
+     * @param host The host name
+     * @return True if the host was resolved, false if the lookup failed
+     */
+    public static boolean prefetch(String host) {
+        try {
+            InetAddress[] addresses = resolve(host);
+            logger.debug("Resolved {} to {} address(es)", host, addresses.length);
+            return true;
+        } catch (UnknownHostException e) {
+            logger.warn("Could not resolve {}: {}", host, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Set the time a lookup is reused for.
+     *
+     * @param ttlMillis Time to live in milliseconds
+     */
+    public static void setTtl(long ttlMillis) {
+        if (ttlMillis < 0) {
+            throw new IllegalArgumentException("ttlMillis must not be negative but was " + ttlMillis);
+        }
+        ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /**
+     * Check whether a host has a lookup in the cache that has not expired.
+     *
+     * @param host The host name
+     * @return True if the next {@link #resolve(String)} of the host is answered from the cache
+     */
+    public static boolean isCached(String host) {
+        Entry entry = ENTRIES.get(host.toLowerCase());
+        return entry != null && System.nanoTime() - entry.resolvedAt < ttlNanos;
+    }
+
+    /**
+     * Get the number of hosts in the cache, expired or not.
+     *
+     * @return The number of cached hosts
+     */
+    public static int size() {
+        return ENTRIES.size();
+    }
+
+    /**
+     * Discard all cached lookups.
+     */
+    public static void clear() {
+        ENTRIES.clear();
+    }
+
+    /**
+     * Addresses of a host and when they were looked up.
+     */
+    private static class Entry {
+        private final InetAddress[] addresses;
+        private final long resolvedAt;
+
+        /**
+         * Create an entry.
+         *
+         * @param addresses  The addresses of the host
+         * @param resolvedAt When the lookup was made, from {@link System#nanoTime()}
+         */
+        Entry(InetAddress[] addresses, long resolvedAt) {
+            this.addresses = addresses;
+            this.resolvedAt = resolvedAt;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package core.clients;
+
+import io.restassured.http.Headers;
+
+/**
+ * Summary of a response body streamed by {@link BaseApiClient#download}: the status and
+ * headers, plus the size, digest and transfer rate computed while the body was written.
+ * A gzip or deflate encoded body is decoded before it is written; the size, digest and
+ * rate describe the decoded body. The body itself is not kept.
+ */
+public final class DownloadResult {
+    private final int statusCode;
+    private final Headers headers;
+    private final long size;
+    private final long wireBytes;
+    private final String digestAlgorithm;
+    private final String digest;
+    private final long headersNanos;
+    private final long totalNanos;
+
+    /**
+     * Create a download result.
+     *
+     * @param statusCode      HTTP status code
+     * @param headers         Response headers
+     * @param size            Number of body bytes written
+     * @param wireBytes       Number of body bytes received, before decoding
+     * @param digestAlgorithm Name of the digest algorithm
+     * @param digest          Lowercase hex digest of the body
+     * @param headersNanos    Time from sending until the response headers arrived
+     * @param totalNanos      Time from sending until the body was written
+     */
+    DownloadResult(int statusCode, Headers headers, long size, long wireBytes, String digestAlgorithm, String digest,
+                   long headersNanos, long totalNanos) {
+        this.statusCode = statusCode;
+        this.headers = headers;
+        this.size = size;
+        this.wireBytes = wireBytes;
+        this.digestAlgorithm = digestAlgorithm;
+        this.digest = digest;
+        this.headersNanos = headersNanos;
+        this.totalNanos = totalNanos;
+    }
+
+    /**
+     * Get the HTTP status code.
+     *
+     * @return The status code
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Get the response headers.
+     *
+     * @return The headers
+     */
+    public Headers getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Get the value of a response header.
+     *
+     * @param name Header name
+     * @return The first value of the header, or null if absent
+     */
+    public String getHeader(String name) {
+        return headers.getValue(name);
+    }
+
+    /**
+     * Get the number of body bytes written.
+     *
+     * @return The body size in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Get the number of body bytes received, before decoding.
+     *
+     * @return The wire size in bytes; equal to the size for an uncompressed body
+     */
+    public long getWireBytes() {
+        return wireBytes;
+    }
+
+    /**
+     * Get the name of the digest algorithm.
+     *
+     * @return The algorithm, e.g. "SHA-256"
+     */
+    public String getDigestAlgorithm() {
+        return digestAlgorithm;
+    }
+
+    /**
+     * Get the digest of the body.
+     *
+     * @return The lowercase hex digest
+     */
+    public String getDigest() {
+        return digest;
+    }
+
+    /**
+     * Get the time until the response headers arrived.
+     *
+     * @return Time to headers in milliseconds
+     */
+    public double getTimeToHeadersMillis() {
+        return headersNanos / 1e6;
+    }
+
+    /**
+     * Get the total time of the download.
+     *
+     * @return Total time in milliseconds
+     */
+    public double getElapsedMillis() {
+        return totalNanos / 1e6;
+    }
+
+    /**
+     * Get the body transfer rate, measured from the arrival of the headers.
+     *
+     * @return The transfer rate in bytes per second
+     */
+    public double getBytesPerSecond() {
+        long bodyNanos = totalNanos - headersNanos;
+        return bodyNanos > 0 ? size * 1e9 / bodyNanos : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DownloadResult{status=%d, size=%d, %s=%s, elapsed=%.2fms, rate=%.1fMB/s}",
+                statusCode, size, digestAlgorithm, digest, getElapsedMillis(), getBytesPerSecond() / 1e6);
+    }
+}
@@ -0,0 +1,42 @@
+package core.clients;
+
+import java.io.IOException;
+
+/**
+ * Helpers for the failures of request attempts, shared by the retry policy and the
+ * circuit breaker.
+ */
+final class Failures {
+
+    private Failures() {
+    }
+
+    /**
+     * Check whether a failure was caused by I/O, such as a refused connection or a timeout.
+     *
+     * @param failure The failure
+     * @return True if an IOException is in the cause chain
+     */
+    static boolean isIoFailure(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Rethrow an exception without wrapping it, even if it is checked. RestAssured throws
+     * checked IO exceptions undeclared, and callers expect to see them unchanged.
+     *
+     * @param failure The exception
+     * @param <E>     Inferred as an unchecked type
+     * @return Never returns
+     * @throws E Always
+     */
+    @SuppressWarnings("unchecked")
+    static <E extends Throwable> RuntimeException sneakyThrow(Throwable failure) throws E {
+        throw (E) failure;
+    }
+}
@@ -0,0 +1,331 @@
+package core.clients;
+
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+
+import java.net.http.HttpRequest;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable block of request headers, validated once and kept in the forms the
+ * transports send: a RestAssured {@link Headers} list and name/value pairs for the JDK
+ * client. Sending a block therefore costs no map iteration and no per-header checks.
+ * <p>
+ * Header names are matched ignoring case. Changes are copy-on-write: {@link #with} returns
+ * a new block, and remembers it, so overriding the same header with the same value on every
+ * request (e.g. a bearer token) returns the same block without copying anything. A block is
+ * also a read-only {@code Map}, so it can be passed anywhere request headers are expected.
+ * <p>
+ * {@code equals} and {@code hashCode} are those of {@link AbstractMap}, so a block equals any
+ * map with the same headers. As with a {@code TreeMap} ordered by
+ * {@link String#CASE_INSENSITIVE_ORDER}, lookups ignore case but hash codes do not, so maps
+ * whose names differ only in case can be equal with different hash codes. Code that needs
+ * request identity compares blocks with {@link #equalsIgnoreCase} and
+ * {@link #hashCodeIgnoreCase} instead.
+ */
+public final class HeaderBlock extends AbstractMap<String, String> {
+    /**
+     * A block without headers.
+     */
+    public static final HeaderBlock EMPTY = new HeaderBlock(new String[0], new String[0]);
+
+    private final String[] names;
+    private final String[] values;
+    private final String[] pairs;
+    private final Headers restAssuredHeaders;
+    private final Set<Entry<String, String>> entries;
+    private final int hash;
+    private final int hashIgnoreCase;
+    // Last block derived with with(), reused while the same header and value are asked for
+    private volatile Derived lastDerived;
+
+    /**
+     * Create a block from validated headers.
+     *
+     * @param names  The header names, without duplicates
+     * @param values The header values
+     */
+    private HeaderBlock(String[] names, String[] values) {
+        this.names = names;
+        this.values = values;
+        this.pairs = new String[names.length * 2];
+        List<Header> list = new ArrayList<>(names.length);
+        Set<Entry<String, String>> set = new LinkedHashSet<>();
+        int h = 0;
+        int hIgnoreCase = 0;
+        for (int i = 0; i < names.length; i++) {
+            pairs[2 * i] = names[i];
+            pairs[2 * i + 1] = values[i];
+            list.add(new Header(names[i], values[i]));
+            set.add(new SimpleImmutableEntry<>(names[i], values[i]));
+            h += names[i].hashCode() ^ values[i].hashCode();
+            // Names are ASCII tokens, so lower-casing them matches equalsIgnoreCase
+            hIgnoreCase += names[i].toLowerCase(Locale.ROOT).hashCode() ^ values[i].hashCode();
+        }
+        this.restAssuredHeaders = new Headers(Collections.unmodifiableList(list));
+        this.entries = Collections.unmodifiableSet(set);
+        this.hash = h;
+        this.hashIgnoreCase = hIgnoreCase;
+    }
+
+    /**
+     * Get a block holding headers. A later header replaces an earlier one whose name differs
+     * only in case.
+     *
+     * @param headers Map of header names and values
+     * @return The block, the same object if the headers already are a block
+     * @throws IllegalArgumentException If a header name or value is not valid
+     */
+    public static HeaderBlock of(Map<String, String> headers) {
+        if (headers instanceof HeaderBlock) {
+            return (HeaderBlock) headers;
+        }
+        String[] names = new String[headers.size()];
+        String[] values = new String[headers.size()];
+        int count = 0;
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            String name = header.getKey();
+            validate(name, header.getValue());
+            int index = 0;
+            while (index < count && !names[index].equalsIgnoreCase(name)) {
+                index++;
+            }
+            names[index] = name;
+            values[index] = header.getValue();
+            if (index == count) {
+                count++;
+            }
+        }
+        return count == 0 ? EMPTY : new HeaderBlock(Arrays.copyOf(names, count), Arrays.copyOf(values, count));
+    }
+
+    /**
+     * Get a block with a header added, or replaced if the block already has it.
+     *
+     * @param name  Header name
+     * @param value Header value
+     * @return The new block, or this block if the header already has the value
+     * @throws IllegalArgumentException If the name or value is not valid
+     */
+    public HeaderBlock with(String name, String value) {
+        Derived derived = lastDerived;
+        if (derived != null && derived.name.equals(name) && derived.value.equals(value)) {
+            return derived.block;
+        }
+        HeaderBlock block = copyWith(name, value);
+        lastDerived = new Derived(name, value, block);
+        return block;
+    }
+
+    /**
+     * Get a block without a header.
+     *
+     * @param name Header name
+     * @return The new block, or this block if it does not have the header
+     */
+    public HeaderBlock without(String name) {
+        int index = indexOf(name);
+        if (index < 0) {
+            return this;
+        }
+        String[] newNames = new String[names.length - 1];
+        String[] newValues = new String[names.length - 1];
+        System.arraycopy(names, 0, newNames, 0, index);
+        System.arraycopy(values, 0, newValues, 0, index);
+        System.arraycopy(names, index + 1, newNames, index, names.length - index - 1);
+        System.arraycopy(values, index + 1, newValues, index, names.length - index - 1);
+        return new HeaderBlock(newNames, newValues);
+    }
+
+    /**
+     * Get the headers as a RestAssured header list, built when the block was created.
+     *
+     * @return The headers
+     */
+    public Headers toRestAssured() {
+        return restAssuredHeaders;
+    }
+
+    /**
+     * Add the headers to a JDK request.
+     *
+     * @param builder The request builder
+     */
+    public void addTo(HttpRequest.Builder builder) {
+        if (pairs.length > 0) {
+            builder.headers(pairs);
+        }
+    }
+
+    /**
+     * Get the value of a header, matching its name ignoring case.
+     *
+     * @param name Header name
+     * @return The value, or null if the block does not have the header
+     */
+    @Override
+    public String get(Object name) {
+        int index = name instanceof String ? indexOf((String) name) : -1;
+        return index >= 0 ? values[index] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+        return name instanceof String && indexOf((String) name) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return names.length;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return entries;
+    }
+
+    /**
+     * Get the hash code {@link AbstractMap#hashCode} would compute, worked out once when the
+     * block was created.
+     *
+     * @return The hash code
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * Compare the headers with those of another block, matching names ignoring case.
+     *
+     * @param other The block to compare with
+     * @return True if the other block has the same header values
+     */
+    public boolean equalsIgnoreCase(HeaderBlock other) {
+        if (this == other) {
+            return true;
+        }
+        if (hashIgnoreCase != other.hashIgnoreCase || names.length != other.names.length) {
+            return false;
+        }
+        for (int i = 0; i < names.length; i++) {
+            if (!values[i].equals(other.get(names[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get a hash code consistent with {@link #equalsIgnoreCase}, from the header names in
+     * lower case and their values.
+     *
+     * @return The hash code
+     */
+    public int hashCodeIgnoreCase() {
+        return hashIgnoreCase;
+    }
+
+    /**
+     * Copy the block with a header added or replaced.
+     *
+     * @param name  Header name
+     * @param value Header value
+     * @return The new block, or this block if the header already has the value
+     * @throws IllegalArgumentException If the name or value is not valid
+     */
+    private HeaderBlock copyWith(String name, String value) {
+        validate(name, value);
+        int index = indexOf(name);
+        if (index >= 0 && names[index].equals(name) && values[index].equals(value)) {
+            return this;
+        }
+        String[] newNames;
+        String[] newValues;
+        if (index >= 0) {
+            newNames = names.clone();
+            newValues = values.clone();
+        } else {
+            index = names.length;
+            newNames = Arrays.copyOf(names, index + 1);
+            newValues = Arrays.copyOf(values, index + 1);
+        }
+        newNames[index] = name;
+        newValues[index] = value;
+        return new HeaderBlock(newNames, newValues);
+    }
+
+    /**
+     * Find a header by name, ignoring case.
+     *
+     * @param name Header name
+     * @return The index of the header, or -1 if the block does not have it
+     */
+    private int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Check that a header can be sent: the name is a non-empty token and the value has no
+     * line breaks.
+     *
+     * @param name  Header name
+     * @param value Header value
+     * @throws IllegalArgumentException If the name or value is not valid
+     */
+    private static void validate(String name, String value) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Header name must not be empty");
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c <= ' ' || c >= 0x7F || c == ':') {
+                throw new IllegalArgumentException("Invalid character in header name: " + name);
+            }
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Value of header " + name + " must not be null");
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\r' || c == '\n' || c == 0) {
+                throw new IllegalArgumentException("Invalid character in value of header " + name);
+            }
+        }
+    }
+
+    /**
+     * A block derived from this one by overriding one header.
+     */
+    private static class Derived {
+        private final String name;
+        private final String value;
+        private final HeaderBlock block;
+
+        /**
+         * Create a derived block entry.
+         *
+         * @param name  The overridden header name
+         * @param value The header value
+         * @param block The derived block
+         */
+        Derived(String name, String value, HeaderBlock block) {
+            this.name = name;
+            this.value = value;
+            this.block = block;
+        }
+    }
+}
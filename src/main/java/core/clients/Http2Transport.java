@@ -0,0 +1,320 @@
+package core.clients;
+
+import core.metrics.LatencyRecorder;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP/2 transport for {@link BaseApiClient} built on the JDK {@link HttpClient}.
+ * <p>
+ * Requests are multiplexed as concurrent streams over a small, fixed number of connections
+ * per base URL instead of one connection per in-flight request. HTTPS endpoints negotiate h2
+ * with ALPN; plain HTTP endpoints such as local mocks are upgraded to h2c by the first
+ * request without a body. The first request on each connection is sent alone, so a burst of
+ * requests at start-up does not open a connection per request while the upgrade is pending.
+ * Servers that do not support HTTP/2 are served over HTTP/1.1, which shows up in
+ * {@link #getHttp11Responses()}.
+ * <p>
+ * Like {@link ConnectionPool}, transports are shared by every client with the same base URL.
+ */
+public class Http2Transport implements HttpTransport {
+    private static final Logger logger = LoggerFactory.getLogger(Http2Transport.class);
+
+    /**
+     * Default number of HTTP/2 connections per base URL.
+     */
+    public static final int DEFAULT_CONNECTIONS = 2;
+
+    private static final Map<String, Http2Transport> TRANSPORTS = new ConcurrentHashMap<>();
+    private static final Map<Response, StreamTiming> TIMINGS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final String baseUrl;
+    private final HttpClient[] connections;
+    private final AtomicReferenceArray<CompletableFuture<Void>> established;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder http2Responses = new LongAdder();
+    private final LongAdder http11Responses = new LongAdder();
+
+    /**
+     * Create a transport with its own connections.
+     *
+     * @param baseUrl     The base URL served by this transport
+     * @param connections Number of HTTP/2 connections to spread streams over
+     */
+    public Http2Transport(String baseUrl, int connections) {
+        if (connections < 1) {
+            throw new IllegalArgumentException("connections must be at least 1 but was " + connections);
+        }
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.connections = new HttpClient[connections];
+        this.established = new AtomicReferenceArray<>(connections);
+        for (int i = 0; i < connections; i++) {
+            // Each HttpClient keeps its own connection to the origin
+            this.connections[i] = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .build();
+        }
+    }
+
+    /**
+     * Get the shared transport for a base URL, creating it on first use.
+     *
+     * @param baseUrl The base URL
+     * @return The shared transport
+     */
+    public static Http2Transport forBaseUrl(String baseUrl) {
+        String key = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        return TRANSPORTS.computeIfAbsent(key, url -> {
+            logger.debug("Creating HTTP/2 transport for {}", url);
+            return new Http2Transport(url, DEFAULT_CONNECTIONS);
+        });
+    }
+
+    /**
+     * Get the stream-level timing of a response sent through any HTTP/2 transport.
+     *
+     * @param response The response
+     * @return The timing, or null if the response did not come from an HTTP/2 transport
+     */
+    public static StreamTiming getStreamTiming(Response response) {
+        return TIMINGS.get(response);
+    }
+
+    @Override
+    public Response execute(String method, String path, Map<String, String> queryParams,
+                            Map<String, String> headers, String body) {
+        return execute(method, path, queryParams, headers, body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    @Override
+    public Response execute(String method, String path, Map<String, String> queryParams,
+                            Map<String, String> headers, byte[] body) {
+        return execute(method, path, queryParams, headers, HttpRequest.BodyPublishers.ofByteArray(body));
+    }
+
+    /**
+     * Send a request as a new stream and wait for the response.
+     *
+     * @param method      HTTP method
+     * @param path        The API endpoint path
+     * @param queryParams Map of query parameters, or null for none
+     * @param headers     Request headers
+     * @param body        Publishes the request body
+     * @return The response
+     */
+    private Response execute(String method, String path, Map<String, String> queryParams,
+                             Map<String, String> headers, HttpRequest.BodyPublisher body) {
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = send(method, baseUrl + path + JdkHttpTransport.queryString(queryParams), headers, body).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Request failed: " + method + " " + path + ": "
+                    + e.getCause().getMessage(), e.getCause());
+        }
+        LatencyRecorder.record(method, LatencyRecorder.endpointFor(path), System.nanoTime() - start);
+        return response;
+    }
+
+    /**
+     * Send a request as a new stream without blocking on the response.
+     *
+     * @param method  HTTP method
+     * @param url     Absolute request URL
+     * @param headers Request headers
+     * @param body    Request body, or null for no body
+     * @return A future completed with the response
+     */
+    public CompletableFuture<Response> send(String method, String url, Map<String, String> headers, String body) {
+        return send(method, url, headers, body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    /**
+     * Send a request as a new stream without blocking on the response.
+     *
+     * @param method  HTTP method
+     * @param url     Absolute request URL
+     * @param headers Request headers
+     * @param body    Publishes the request body
+     * @return A future completed with the response
+     */
+    private CompletableFuture<Response> send(String method, String url, Map<String, String> headers,
+                                             HttpRequest.BodyPublisher body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url));
+        HeaderBlock.of(headers).addTo(builder);
+        builder.method(method, body);
+        // Taken on the calling thread, where a route set by LatencyRecorder.withRoute is visible
+        String endpoint = LatencyRecorder.endpointFor(url);
+
+        int slot = Math.floorMod(next.getAndIncrement(), connections.length);
+        CompletableFuture<Void> gate = established.get(slot);
+        if (gate == null) {
+            CompletableFuture<Void> opening = new CompletableFuture<>();
+            if (established.compareAndSet(slot, null, opening)) {
+                // First request on this connection: send it alone so the connection is
+                // established (and upgraded to h2c) before other streams are opened on it
+                return sendStream(connections[slot], builder.build(), endpoint)
+                        .whenComplete((response, error) -> opening.complete(null));
+            }
+            gate = established.get(slot);
+        }
+        if (!gate.isDone()) {
+            return gate.thenCompose(ignored -> sendStream(connections[slot], builder.build(), endpoint));
+        }
+        return sendStream(connections[slot], builder.build(), endpoint);
+    }
+
+    /**
+     * Send a request as a stream on a connection and record its timing.
+     *
+     * @param connection The client owning the connection
+     * @param request    The request
+     * @param endpoint   The endpoint the transfer is recorded under
+     * @return A future completed with the response
+     */
+    private CompletableFuture<Response> sendStream(HttpClient connection, HttpRequest request, String endpoint) {
+        long start = System.nanoTime();
+        long[] headersAt = new long[1];
+        HttpResponse.BodyHandler<byte[]> handler = responseInfo -> {
+            headersAt[0] = System.nanoTime();
+            return HttpResponse.BodySubscribers.ofByteArray();
+        };
+
+        return connection.sendAsync(request, handler).thenApply(httpResponse -> {
+            long end = System.nanoTime();
+            if (httpResponse.version() == HttpClient.Version.HTTP_2) {
+                http2Responses.increment();
+            } else {
+                http11Responses.increment();
+            }
+
+            Response response = AsyncHttpEngine.toResponse(httpResponse, endpoint,
+                    TimeUnit.NANOSECONDS.toMillis(end - start));
+            TIMINGS.put(response, new StreamTiming(httpResponse.version(), headersAt[0] - start, end - start));
+            return response;
+        });
+    }
+
+    @Override
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Get the number of connections streams are spread over.
+     *
+     * @return The number of connections
+     */
+    public int getConnections() {
+        return connections.length;
+    }
+
+    /**
+     * Get the number of responses received over HTTP/2.
+     *
+     * @return The number of HTTP/2 responses
+     */
+    public long getHttp2Responses() {
+        return http2Responses.sum();
+    }
+
+    /**
+     * Get the number of responses received over HTTP/1.1 because the server did not
+     * negotiate HTTP/2.
+     *
+     * @return The number of HTTP/1.1 responses
+     */
+    public long getHttp11Responses() {
+        return http11Responses.sum();
+    }
+
+    /**
+     * Timing of one request stream.
+     */
+    public static class StreamTiming {
+        private final HttpClient.Version version;
+        private final long headersNanos;
+        private final long totalNanos;
+
+        /**
+         * Create a stream timing.
+         *
+         * @param version      Protocol the response was received over
+         * @param headersNanos Time from sending until the response headers arrived
+         * @param totalNanos   Time from sending until the body was complete
+         */
+        StreamTiming(HttpClient.Version version, long headersNanos, long totalNanos) {
+            this.version = version;
+            this.headersNanos = headersNanos;
+            this.totalNanos = totalNanos;
+        }
+
+        /**
+         * Get the protocol the response was received over.
+         *
+         * @return HTTP_2, or HTTP_1_1 if the server did not negotiate HTTP/2
+         */
+        public HttpClient.Version getVersion() {
+            return version;
+        }
+
+        /**
+         * Get the time until the response headers arrived.
+         *
+         * @return Time to headers in milliseconds
+         */
+        public double getHeadersMillis() {
+            return headersNanos / 1e6;
+        }
+
+        /**
+         * Get the time spent receiving the body after the headers.
+         *
+         * @return Body time in milliseconds
+         */
+        public double getBodyMillis() {
+            return (totalNanos - headersNanos) / 1e6;
+        }
+
+        /**
+         * Get the total stream time.
+         *
+         * @return Total time in milliseconds
+         */
+        public double getTotalMillis() {
+            return totalNanos / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("StreamTiming{version=%s, headers=%.2fms, body=%.2fms, total=%.2fms}",
+                    version, getHeadersMillis(), getBodyMillis(), getTotalMillis());
+        }
+    }
+}
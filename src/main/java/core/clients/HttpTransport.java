@@ -0,0 +1,92 @@
+package core.clients;
+
+import io.restassured.response.Response;
+
+import java.util.Map;
+
+/**
+ * Sends the requests made through {@link BaseApiClient}.
+ * <p>
+ * Every transport returns a RestAssured {@link Response}, so assertions, extractors and
+ * reporters work the same whichever transport produced it. {@link RestAssuredTransport}
+ * is the default; {@link JdkHttpTransport} and {@link Http2Transport} skip RestAssured's
+ * request pipeline and are meant for load and bulk data runs where per-request CPU and
+ * allocation matter more than request logging and filters.
+ * <p>
+ * Implementations are shared by clients running in parallel and must be thread-safe.
+ * Each transport records the latency of the requests it sends with
+ * {@link core.metrics.LatencyRecorder}, decodes gzip and deflate response bodies, and
+ * records their wire and decoded sizes with {@link core.metrics.TransferRecorder}.
+ */
+public interface HttpTransport {
+    /**
+     * Name of the RestAssured transport.
+     */
+    String REST_ASSURED = "restassured";
+
+    /**
+     * Name of the JDK HttpClient transport.
+     */
+    String JDK = "jdk";
+
+    /**
+     * Name of the HTTP/2 transport.
+     */
+    String HTTP2 = "http2";
+
+    /**
+     * Send a request and wait for the response.
+     *
+     * @param method      HTTP method
+     * @param path        The API endpoint path, relative to the transport's base URL
+     * @param queryParams Map of query parameters, or null for none
+     * @param headers     Request headers
+     * @param body        Request body, or null for no body
+     * @return The response
+     */
+    Response execute(String method, String path, Map<String, String> queryParams,
+                     Map<String, String> headers, String body);
+
+    /**
+     * Send a request with a body that is already encoded, such as a gzipped body,
+     * and wait for the response. The body is sent as it is.
+     *
+     * @param method      HTTP method
+     * @param path        The API endpoint path, relative to the transport's base URL
+     * @param queryParams Map of query parameters, or null for none
+     * @param headers     Request headers, including any Content-Encoding
+     * @param body        Request body
+     * @return The response
+     */
+    Response execute(String method, String path, Map<String, String> queryParams,
+                     Map<String, String> headers, byte[] body);
+
+    /**
+     * Get the base URL requests are sent to.
+     *
+     * @return The base URL
+     */
+    String getBaseUrl();
+
+    /**
+     * Get a transport by name.
+     *
+     * @param name    One of {@link #REST_ASSURED}, {@link #JDK} or {@link #HTTP2}
+     * @param baseUrl The base URL requests are sent to
+     * @return The transport
+     * @throws IllegalArgumentException If the name is unknown
+     */
+    static HttpTransport forName(String name, String baseUrl) {
+        switch (name.toLowerCase()) {
+            case REST_ASSURED:
+                return new RestAssuredTransport(baseUrl, ConnectionPool.forBaseUrl(baseUrl));
+            case JDK:
+                return new JdkHttpTransport(baseUrl);
+            case HTTP2:
+                return Http2Transport.forBaseUrl(baseUrl);
+            default:
+                throw new IllegalArgumentException("Unknown transport '" + name + "', expected one of "
+                        + REST_ASSURED + ", " + JDK + ", " + HTTP2);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package core.clients;
+
+import core.metrics.LatencyRecorder;
+import core.metrics.TransferRecorder;
+import io.restassured.response.Response;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lean HTTP/1.1 transport built on the JDK {@link HttpClient}.
+ * <p>
+ * Requests bypass RestAssured's request specification and filter chain. The response
+ * is still converted to a RestAssured {@link Response}. All instances share one
+ * HttpClient and its keep-alive connections. Blocking calls are cheap on virtual threads.
+ * Compressed response bodies are inflated as they are read, so the compressed body is
+ * never buffered as a whole.
+ */
+public class JdkHttpTransport implements HttpTransport {
+    /**
+     * Size of the buffer downloads are copied through.
+     */
+    public static final int DOWNLOAD_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Digest algorithm applied to downloaded bodies.
+     */
+    public static final String DOWNLOAD_DIGEST_ALGORITHM = "SHA-256";
+
+    private static final HttpClient SHARED_CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(30))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    private final String baseUrl;
+    private final HttpClient httpClient;
+
+    /**
+     * Create a transport on the shared HttpClient.
+     *
+     * @param baseUrl The base URL requests are sent to
+     */
+    public JdkHttpTransport(String baseUrl) {
+        this(baseUrl, SHARED_CLIENT);
+    }
+
+    /**
+     * Create a transport on a specific HttpClient.
+     *
+     * @param baseUrl    The base URL requests are sent to
+     * @param httpClient The client to send requests with
+     */
+    public JdkHttpTransport(String baseUrl, HttpClient httpClient) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public Response execute(String method, String path, Map<String, String> queryParams,
+                            Map<String, String> headers, String body) {
+        return send(method, path, newRequest(method, path, queryParams, headers, body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    @Override
+    public Response execute(String method, String path, Map<String, String> queryParams,
+                            Map<String, String> headers, byte[] body) {
+        return send(method, path, newRequest(method, path, queryParams, headers,
+                HttpRequest.BodyPublishers.ofByteArray(body)));
+    }
+
+    /**
+     * Send a request with a binary body and wait for the response. The body's content type
+     * replaces any Content-Type header.
+     *
+     * @param method      HTTP method
+     * @param path        The API endpoint path
+     * @param queryParams Map of query parameters, or null for none
+     * @param headers     Request headers
+     * @param body        Request body
+     * @return The response
+     */
+    public Response execute(String method, String path, Map<String, String> queryParams,
+                            Map<String, String> headers, RequestBody body) {
+        Map<String, String> requestHeaders = new LinkedHashMap<>();
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (!header.getKey().equalsIgnoreCase("Content-Type")) {
+                requestHeaders.put(header.getKey(), header.getValue());
+            }
+        }
+        requestHeaders.put("Content-Type", body.getContentType());
+        return send(method, path, newRequest(method, path, queryParams, requestHeaders, body.getPublisher()));
+    }
+
+    /**
+     * Send a request, wait for the response, decoding its body while it is read, and
+     * record its latency and transfer size.
+     *
+     * @param method  HTTP method
+     * @param path    The API endpoint path
+     * @param request The request
+     * @return The response
+     */
+    private Response send(String method, String path, HttpRequest request) {
+        long start = System.nanoTime();
+        HttpResponse<InputStream> httpResponse;
+        Compression.CountingInputStream wire;
+        byte[] body;
+        try {
+            httpResponse = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            wire = new Compression.CountingInputStream(httpResponse.body());
+            try (InputStream decoded = Compression.decoding(AsyncHttpEngine.contentEncoding(httpResponse), wire)) {
+                body = decoded.readAllBytes();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Request failed: " + method + " " + path + ": " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + method + " " + path, e);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        String endpoint = LatencyRecorder.endpointFor(path);
+        LatencyRecorder.record(method, endpoint, elapsed);
+        Response response = AsyncHttpEngine.toResponse(httpResponse, body, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        AsyncHttpEngine.recordTransfer(response, httpResponse, endpoint, wire.getCount(), body.length);
+        return response;
+    }
+
+    /**
+     * Send a GET request and stream the response body into a channel through one reused
+     * heap buffer, computing its size and digest on the way. The body is never held in
+     * memory as a whole; a compressed body is inflated on the way. The body arrives as an
+     * InputStream, which can only read into an array, so a direct buffer would just add a copy.
+     *
+     * @param path        The API endpoint path
+     * @param queryParams Map of query parameters, or null for none
+     * @param headers     Request headers
+     * @param target      The channel the body is written to; it is not closed
+     * @return The download result
+     * @throws IOException If the request fails or the body cannot be written
+     */
+    public DownloadResult download(String path, Map<String, String> queryParams, Map<String, String> headers,
+                                   WritableByteChannel target) throws IOException {
+        HttpRequest request = newRequest("GET", path, queryParams, headers, HttpRequest.BodyPublishers.noBody());
+        MessageDigest digest = newDigest();
+
+        long start = System.nanoTime();
+        HttpResponse<InputStream> httpResponse;
+        try {
+            httpResponse = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for GET " + path);
+        }
+        long headersNanos = System.nanoTime() - start;
+
+        long size = 0;
+        byte[] buffer = new byte[DOWNLOAD_BUFFER_SIZE];
+        ByteBuffer chunk = ByteBuffer.wrap(buffer);
+        Compression.CountingInputStream wire = new Compression.CountingInputStream(httpResponse.body());
+        try (InputStream source = Compression.decoding(AsyncHttpEngine.contentEncoding(httpResponse), wire)) {
+            // Fill the buffer before writing, so the channel sees full buffers rather than every small read
+            int filled;
+            while ((filled = source.readNBytes(buffer, 0, buffer.length)) > 0) {
+                size += filled;
+                digest.update(buffer, 0, filled);
+                chunk.clear().limit(filled);
+                while (chunk.hasRemaining()) {
+                    target.write(chunk);
+                }
+            }
+        }
+        long totalNanos = System.nanoTime() - start;
+
+        String endpoint = LatencyRecorder.endpointFor(path);
+        LatencyRecorder.record("GET", endpoint, totalNanos);
+        TransferRecorder.recordResponse(null, "GET", endpoint, wire.getCount(), size);
+        return new DownloadResult(httpResponse.statusCode(), AsyncHttpEngine.toHeaders(httpResponse.headers()),
+                size, wire.getCount(), DOWNLOAD_DIGEST_ALGORITHM, HexFormat.of().formatHex(digest.digest()),
+                headersNanos, totalNanos);
+    }
+
+    /**
+     * Send a GET request and return its body as a stream that reads from the connection.
+     * Nothing is buffered beyond the HttpClient's own chunks, and a compressed body is
+     * inflated as it is read. Latency and transfer size are recorded when the stream is
+     * closed, so the caller must close it.
+     *
+     * @param path        The API endpoint path
+     * @param queryParams Map of query parameters, or null for none
+     * @param headers     Request headers
+     * @return The decoded response body
+     * @throws IOException If the request fails or the response status is not 2xx
+     */
+    public InputStream stream(String path, Map<String, String> queryParams, Map<String, String> headers)
+            throws IOException {
+        HttpRequest request = newRequest("GET", path, queryParams, headers, HttpRequest.BodyPublishers.noBody());
+
+        long start = System.nanoTime();
+        HttpResponse<InputStream> httpResponse;
+        try {
+            httpResponse = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for GET " + path);
+        }
+        if (httpResponse.statusCode() / 100 != 2) {
+            httpResponse.body().close();
+            throw new IOException("GET " + path + " returned status " + httpResponse.statusCode());
+        }
+
+        Compression.CountingInputStream wire = new Compression.CountingInputStream(httpResponse.body());
+        Compression.CountingInputStream decoded = new Compression.CountingInputStream(
+                Compression.decoding(AsyncHttpEngine.contentEncoding(httpResponse), wire));
+        String endpoint = LatencyRecorder.endpointFor(path);
+        return new FilterInputStream(decoded) {
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                super.close();
+                LatencyRecorder.record("GET", endpoint, System.nanoTime() - start);
+                TransferRecorder.recordResponse(null, "GET", endpoint, wire.getCount(), decoded.getCount());
+            }
+        };
+    }
+
+    @Override
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Build a JDK request.
+     *
+     * @param method      HTTP method
+     * @param path        The API endpoint path
+     * @param queryParams Map of query parameters, or null for none
+     * @param headers     Request headers
+     * @param body        Publishes the request body
+     * @return The request
+     */
+    private HttpRequest newRequest(String method, String path, Map<String, String> queryParams,
+                                   Map<String, String> headers, HttpRequest.BodyPublisher body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path + queryString(queryParams)));
+        HeaderBlock.of(headers).addTo(builder);
+        return builder.method(method, body).build();
+    }
+
+    /**
+     * Create a digest for download bodies.
+     *
+     * @return The digest
+     */
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DOWNLOAD_DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to provide SHA-256
+            throw new IllegalStateException(DOWNLOAD_DIGEST_ALGORITHM + " is not available", e);
+        }
+    }
+
+    /**
+     * Build a URL-encoded query string.
+     *
+     * @param queryParams Map of query parameters, may be null
+     * @return The query string including the leading '?', or an empty string
+     */
+    static String queryString(Map<String, String> queryParams) {
+        if (queryParams == null || queryParams.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder query = new StringBuilder("?");
+        for (Map.Entry<String, String> param : queryParams.entrySet()) {
+            if (query.length() > 1) {
+                query.append('&');
+            }
+            query.append(URLEncoder.encode(param.getKey(), StandardCharsets.UTF_8))
+                    .append('=')
+                    .append(URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8));
+        }
+        return query.toString();
+    }
+}
@@ -0,0 +1,239 @@
+package core.clients;
+
+import core.config.EnvLoader;
+import core.metrics.LatencyRecorder;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client-side token bucket that paces requests to the rate an environment allows.
+ * <p>
+ * A bucket holds up to {@code burst} tokens and refills at {@code requestsPerSecond}. Each
+ * request takes a token; when the bucket is empty, the request reserves the next token and
+ * waits for it, so callers are served in the order they arrive at exactly the configured
+ * rate rather than being rejected. A bucket is a single {@link AtomicLong} holding the time
+ * at which it will next be full (the "theoretical arrival time"), updated with
+ * compare-and-set, so acquiring a token never takes a lock.
+ * <p>
+ * A limiter has either one bucket for all requests or one bucket per route.
+ */
+public class RateLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    private static final Map<String, Optional<RateLimiter>> LIMITERS = new ConcurrentHashMap<>();
+
+    private final double requestsPerSecond;
+    private final int burst;
+    private final boolean perRoute;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong globalBucket;
+    private final Map<String, AtomicLong> routeBuckets = new ConcurrentHashMap<>();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder waitedNanos = new LongAdder();
+
+    /**
+     * Create a limiter.
+     *
+     * @param requestsPerSecond Sustained request rate
+     * @param burst             Number of requests that may be sent at once after a quiet period
+     * @param perRoute          True for one bucket per route, false for one bucket for all requests
+     */
+    public RateLimiter(double requestsPerSecond, int burst, boolean perRoute) {
+        if (!(requestsPerSecond > 0)) {
+            throw new IllegalArgumentException("requestsPerSecond must be positive but was " + requestsPerSecond);
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be at least 1 but was " + burst);
+        }
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = burst;
+        this.perRoute = perRoute;
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond));
+        this.toleranceNanos = intervalNanos * (burst - 1);
+        this.globalBucket = perRoute ? null : newBucket();
+    }
+
+    /**
+     * Get the shared limiter for an environment, created on first use from the rate_limit
+     * block of its configuration:
+     * <pre>
+     * "rate_limit": { "requests_per_second": 20, "burst": 10, "per_route": false }
+     * </pre>
+     * burst defaults to one second's worth of requests and per_route to false.
+     *
+     * @param env Optional environment name (default: from ENVIRONMENT env var or "dev")
+     * @return The shared limiter, or null if the environment has no rate limit
+     */
+    public static RateLimiter forEnvironment(String env) {
+        return LIMITERS.computeIfAbsent(EnvLoader.resolveEnvironment(env), RateLimiter::fromConfig).orElse(null);
+    }
+
+    /**
+     * Create a limiter from the rate_limit block of an environment.
+     *
+     * @param env The environment name
+     * @return The limiter, or empty if the environment has no rate limit
+     */
+    private static Optional<RateLimiter> fromConfig(String env) {
+        JSONObject envConfig;
+        try {
+            envConfig = EnvLoader.getInstance().getEnvironmentConfig(env);
+        } catch (IOException | JSONException e) {
+            throw new IllegalStateException("Could not load configuration for environment '" + env + "'", e);
+        }
+        JSONObject rateLimit = envConfig.optJSONObject("rate_limit");
+        if (rateLimit == null) {
+            return Optional.empty();
+        }
+        double rate = rateLimit.getDouble("requests_per_second");
+        int burst = rateLimit.optInt("burst", (int) Math.max(1, Math.ceil(rate)));
+        boolean perRoute = rateLimit.optBoolean("per_route", false);
+        logger.debug("Rate limiting environment '{}' to {}/s, burst {}{}", env, rate, burst,
+                perRoute ? " per route" : "");
+        return Optional.of(new RateLimiter(rate, burst, perRoute));
+    }
+
+    /**
+     * Take a token for a request, waiting for one if the bucket is empty.
+     *
+     * @param path The request path, used to pick the bucket of a per-route limiter
+     * @throws IllegalStateException If the thread is interrupted while waiting
+     */
+    public void acquire(String path) {
+        long waitNanos = reserve(path);
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a rate limit token for " + path, e);
+            }
+        }
+    }
+
+    /**
+     * Reserve a token for a request without waiting for it. The request must not be sent
+     * before the returned time has passed.
+     *
+     * @param path The request path, used to pick the bucket of a per-route limiter
+     * @return The time to wait before sending, in nanoseconds; zero if a token was available
+     */
+    public long reserve(String path) {
+        AtomicLong bucket = bucketFor(path);
+        long now = System.nanoTime();
+        long tat;
+        long next;
+        do {
+            tat = bucket.get();
+            next = (tat - now < 0 ? now : tat) + intervalNanos;
+        } while (!bucket.compareAndSet(tat, next));
+
+        long waitNanos = next - now - intervalNanos - toleranceNanos;
+        if (waitNanos <= 0) {
+            return 0;
+        }
+        throttled.increment();
+        waitedNanos.add(waitNanos);
+        return waitNanos;
+    }
+
+    /**
+     * Take a token for a request if one is available now.
+     *
+     * @param path The request path, used to pick the bucket of a per-route limiter
+     * @return True if a token was taken
+     */
+    public boolean tryAcquire(String path) {
+        AtomicLong bucket = bucketFor(path);
+        long now = System.nanoTime();
+        long tat;
+        long next;
+        do {
+            tat = bucket.get();
+            next = (tat - now < 0 ? now : tat) + intervalNanos;
+            if (next - now - intervalNanos - toleranceNanos > 0) {
+                return false;
+            }
+        } while (!bucket.compareAndSet(tat, next));
+        return true;
+    }
+
+    /**
+     * Get the sustained request rate.
+     *
+     * @return Requests per second
+     */
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    /**
+     * Get the burst size.
+     *
+     * @return Number of requests that may be sent at once
+     */
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * Check whether each route has its own bucket.
+     *
+     * @return True for one bucket per route
+     */
+    public boolean isPerRoute() {
+        return perRoute;
+    }
+
+    /**
+     * Get the number of requests that had to wait for a token.
+     *
+     * @return The number of throttled requests
+     */
+    public long getThrottledCount() {
+        return throttled.sum();
+    }
+
+    /**
+     * Get the total time requests waited for tokens.
+     *
+     * @return The total wait in milliseconds
+     */
+    public long getTotalWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(waitedNanos.sum());
+    }
+
+    /**
+     * Get the bucket for a request, capping the number of route buckets.
+     *
+     * @param path The request path
+     * @return The bucket
+     */
+    private AtomicLong bucketFor(String path) {
+        if (!perRoute) {
+            return globalBucket;
+        }
+        return LatencyRecorder.boundedEntry(routeBuckets, "", CircuitBreaker.routeOf(path), route -> newBucket());
+    }
+
+    /**
+     * Create a full bucket.
+     *
+     * @return The bucket
+     */
+    private AtomicLong newBucket() {
+        // A theoretical arrival time in the past means every token is available
+        return new AtomicLong(System.nanoTime() - intervalNanos * burst);
+    }
+}
@@ -0,0 +1,316 @@
+package core.clients;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Binary request body for {@link BaseApiClient} uploads.
+ * <p>
+ * File bodies are memory-mapped in windows of {@link #MAP_WINDOW_SIZE} bytes and handed to
+ * the JDK HttpClient as they are, so a multi-gigabyte file is sent without being copied
+ * into the heap. ByteBuffer bodies are sent without copying either. Bodies of unknown length,
+ * such as input streams, use chunked transfer encoding. Instances are immutable; file and
+ * buffer bodies can be sent any number of times.
+ */
+public final class RequestBody {
+    /**
+     * Size of the file regions mapped at a time.
+     */
+    public static final int MAP_WINDOW_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * Content type used when none is given.
+     */
+    public static final String OCTET_STREAM = "application/octet-stream";
+
+    private final HttpRequest.BodyPublisher publisher;
+    private final String contentType;
+
+    /**
+     * Create a body.
+     *
+     * @param publisher   Publishes the body bytes
+     * @param contentType Content type of the body
+     */
+    private RequestBody(HttpRequest.BodyPublisher publisher, String contentType) {
+        this.publisher = publisher;
+        this.contentType = contentType;
+    }
+
+    /**
+     * Create a body from a file. The file is read each time the body is sent.
+     *
+     * @param file The file
+     * @return The body, with content type application/octet-stream
+     * @throws IOException If the file size cannot be read
+     */
+    public static RequestBody ofFile(Path file) throws IOException {
+        long size = Files.size(file);
+        return new RequestBody(new BufferPublisher(() -> new MappedFileSource(file, size), size), OCTET_STREAM);
+    }
+
+    /**
+     * Create a body from a buffer. The bytes between the buffer's position and limit are
+     * sent; the buffer itself is not modified.
+     *
+     * @param buffer The buffer
+     * @return The body, with content type application/octet-stream
+     */
+    public static RequestBody ofByteBuffer(ByteBuffer buffer) {
+        ByteBuffer content = buffer.asReadOnlyBuffer();
+        return new RequestBody(new BufferPublisher(() -> new BufferSource(content.duplicate()), content.remaining()),
+                OCTET_STREAM);
+    }
+
+    /**
+     * Create a body from a stream of unknown length, sent with chunked transfer encoding.
+     * The stream can only be read once, so the body cannot be resent on a redirect.
+     *
+     * @param stream The stream; it is closed once the body has been sent
+     * @return The body, with content type application/octet-stream
+     */
+    public static RequestBody ofInputStream(InputStream stream) {
+        return ofInputStream(() -> stream);
+    }
+
+    /**
+     * Create a body from streams of unknown length, sent with chunked transfer encoding.
+     *
+     * @param streams Opens a new stream each time the body is sent
+     * @return The body, with content type application/octet-stream
+     */
+    public static RequestBody ofInputStream(Supplier<InputStream> streams) {
+        return new RequestBody(HttpRequest.BodyPublishers.ofInputStream(streams), OCTET_STREAM);
+    }
+
+    /**
+     * Create a UTF-8 text body.
+     *
+     * @param text        The text
+     * @param contentType Content type of the text
+     * @return The body
+     */
+    public static RequestBody ofString(String text, String contentType) {
+        return new RequestBody(HttpRequest.BodyPublishers.ofString(text, StandardCharsets.UTF_8), contentType);
+    }
+
+    /**
+     * Start building a multipart/form-data body.
+     *
+     * @return The builder
+     */
+    public static MultipartBuilder multipart() {
+        return new MultipartBuilder();
+    }
+
+    /**
+     * Get a copy of this body with a different content type.
+     *
+     * @param contentType The content type
+     * @return The new body
+     */
+    public RequestBody withContentType(String contentType) {
+        return new RequestBody(publisher, contentType);
+    }
+
+    /**
+     * Get a copy of this body that is sent with chunked transfer encoding instead of
+     * a Content-Length header.
+     *
+     * @return The new body
+     */
+    public RequestBody chunked() {
+        return new RequestBody(HttpRequest.BodyPublishers.fromPublisher(publisher), contentType);
+    }
+
+    /**
+     * Get the content type of the body.
+     *
+     * @return The content type
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Get the length of the body.
+     *
+     * @return The length in bytes, or -1 if it is sent with chunked transfer encoding
+     */
+    public long getContentLength() {
+        return publisher.contentLength();
+    }
+
+    /**
+     * Get the publisher that sends the body.
+     *
+     * @return The publisher
+     */
+    HttpRequest.BodyPublisher getPublisher() {
+        return publisher;
+    }
+
+    /**
+     * Builder for multipart/form-data bodies. Parts are sent in the order they are added;
+     * file parts are memory-mapped like {@link #ofFile(Path)}.
+     */
+    public static final class MultipartBuilder {
+        private final String boundary = "----ApiFrameworkBoundary" + UUID.randomUUID().toString().replace("-", "");
+        private final List<HttpRequest.BodyPublisher> parts = new ArrayList<>();
+
+        /**
+         * Create a builder.
+         */
+        private MultipartBuilder() {
+        }
+
+        /**
+         * Add a text field.
+         *
+         * @param name  Field name
+         * @param value Field value
+         * @return This builder
+         */
+        public MultipartBuilder field(String name, String value) {
+            return part(name, null, ofString(value, "text/plain; charset=UTF-8"));
+        }
+
+        /**
+         * Add a file, named after the file.
+         *
+         * @param name        Field name
+         * @param file        The file
+         * @param contentType Content type of the file
+         * @return This builder
+         * @throws IOException If the file size cannot be read
+         */
+        public MultipartBuilder file(String name, Path file, String contentType) throws IOException {
+            return part(name, file.getFileName().toString(), ofFile(file).withContentType(contentType));
+        }
+
+        /**
+         * Add a part.
+         *
+         * @param name     Field name
+         * @param filename File name to report, or null for none
+         * @param body     Part body; its content type is used for the part
+         * @return This builder
+         */
+        public MultipartBuilder part(String name, String filename, RequestBody body) {
+            StringBuilder header = new StringBuilder()
+                    .append("--").append(boundary).append("\r\n")
+                    .append("Content-Disposition: form-data; name=\"").append(escape(name)).append('"');
+            if (filename != null) {
+                header.append("; filename=\"").append(escape(filename)).append('"');
+            }
+            header.append("\r\nContent-Type: ").append(body.getContentType()).append("\r\n\r\n");
+
+            parts.add(HttpRequest.BodyPublishers.ofString(header.toString(), StandardCharsets.UTF_8));
+            parts.add(body.getPublisher());
+            parts.add(HttpRequest.BodyPublishers.ofString("\r\n"));
+            return this;
+        }
+
+        /**
+         * Build the body.
+         *
+         * @return The multipart body
+         * @throws IllegalStateException If no parts were added
+         */
+        public RequestBody build() {
+            if (parts.isEmpty()) {
+                throw new IllegalStateException("A multipart body needs at least one part");
+            }
+            List<HttpRequest.BodyPublisher> all = new ArrayList<>(parts);
+            all.add(HttpRequest.BodyPublishers.ofString("--" + boundary + "--\r\n"));
+            return new RequestBody(HttpRequest.BodyPublishers.concat(all.toArray(new HttpRequest.BodyPublisher[0])),
+                    "multipart/form-data; boundary=" + boundary);
+        }
+
+        /**
+         * Escape a value for a quoted Content-Disposition parameter.
+         *
+         * @param value The value
+         * @return The escaped value
+         */
+        private static String escape(String value) {
+            return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\r", "").replace("\n", "");
+        }
+    }
+
+    /**
+     * Source that emits a single buffer.
+     */
+    private static class BufferSource implements BufferPublisher.Source {
+        private ByteBuffer buffer;
+
+        /**
+         * Create a source.
+         *
+         * @param buffer The buffer to emit
+         */
+        BufferSource(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public ByteBuffer next() {
+            ByteBuffer next = buffer;
+            buffer = null;
+            return next;
+        }
+
+        @Override
+        public void close() {
+            buffer = null;
+        }
+    }
+
+    /**
+     * Source that maps a file one window at a time.
+     */
+    private static class MappedFileSource implements BufferPublisher.Source {
+        private final FileChannel channel;
+        private final long size;
+        private long position;
+
+        /**
+         * Open a file.
+         *
+         * @param file The file
+         * @param size Number of bytes to send
+         * @throws IOException If the file cannot be opened
+         */
+        MappedFileSource(Path file, long size) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.size = size;
+        }
+
+        @Override
+        public ByteBuffer next() throws IOException {
+            if (position >= size) {
+                return null;
+            }
+            long length = Math.min(MAP_WINDOW_SIZE, size - position);
+            ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            position += length;
+            return window;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
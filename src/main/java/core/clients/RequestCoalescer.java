@@ -0,0 +1,324 @@
+package core.clients;
+
+import io.restassured.response.Response;
+import org.json.JSONObject;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing of identical concurrent reads to one base URL. While a GET or
+ * HEAD request is in flight, an identical request (same method, path, query string and
+ * headers, with header names matched ignoring case) does not go to the server: it waits
+ * for the first one and gets the same response. Once a request completes, the next
+ * identical request is sent again, so responses are never reused after the fact.
+ * <p>
+ * One coalescer is shared by all clients with the same base URL, so tests running in
+ * parallel with their own clients are coalesced too. Coalesced responses are shared
+ * between threads; JSON read from them through {@code ParsedResponseCache} is parsed once
+ * and read-only. Because a waiter may get a response to a request sent just before its own,
+ * coalescing suits reference data rather than reads that must see a write made by the
+ * same test.
+ */
+public class RequestCoalescer {
+    private static final Map<String, RequestCoalescer> COALESCERS = new ConcurrentHashMap<>();
+
+    private final String baseUrl;
+    private final Map<Key, CompletableFuture<Response>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Create a coalescer.
+     *
+     * @param baseUrl The base URL requests are sent to
+     */
+    private RequestCoalescer(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Get the coalescer shared by all clients for a base URL.
+     *
+     * @param baseUrl The base URL
+     * @return The coalescer
+     */
+    public static RequestCoalescer forBaseUrl(String baseUrl) {
+        String key = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        return COALESCERS.computeIfAbsent(key, RequestCoalescer::new);
+    }
+
+    /**
+     * Check whether requests with a method can be coalesced.
+     *
+     * @param method HTTP method
+     * @return True for GET and HEAD
+     */
+    public static boolean isCoalescable(String method) {
+        return "GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method);
+    }
+
+    /**
+     * Send a request unless an identical one is in flight, in which case wait for its response.
+     *
+     * @param method  HTTP method
+     * @param target  The path and query string
+     * @param headers The request headers
+     * @param call    Sends the request
+     * @return The response
+     * @throws IllegalArgumentException If a header name or value is not valid
+     */
+    public Response execute(String method, String target, Map<String, String> headers, Supplier<Response> call) {
+        return execute(method, target, headers, null, call);
+    }
+
+    /**
+     * Send a request unless an identical one is in flight for the same credentials, in which
+     * case wait for its response. Credentials stand in for headers that change while the
+     * identity behind them does not, such as a bearer token that is refreshed.
+     *
+     * @param method      HTTP method
+     * @param target      The path and query string
+     * @param headers     The request headers, without any the credentials stand in for
+     * @param credentials Who the request is sent as, compared with equals, or null for nobody
+     * @param call        Sends the request
+     * @return The response
+     * @throws IllegalArgumentException If a header name or value is not valid
+     */
+    public Response execute(String method, String target, Map<String, String> headers, Object credentials,
+                            Supplier<Response> call) {
+        Key key = new Key(method, target, headers, credentials);
+        CompletableFuture<Response> flight = new CompletableFuture<>();
+        CompletableFuture<Response> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            hits.increment();
+            return await(existing);
+        }
+
+        misses.increment();
+        Response response;
+        try {
+            response = call.get();
+            // Read the body before other threads share the response
+            response.asByteArray();
+        } catch (Throwable t) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(t);
+            throw t;
+        }
+        inFlight.remove(key, flight);
+        flight.complete(response);
+        return response;
+    }
+
+    /**
+     * Send a request without blocking unless an identical one is in flight, in which case
+     * complete with its response.
+     *
+     * @param method  HTTP method
+     * @param target  The path and query string
+     * @param headers The request headers
+     * @param call    Sends the request
+     * @return A future completed with the response; completing or cancelling it does not affect other callers
+     * @throws IllegalArgumentException If a header name or value is not valid
+     */
+    public CompletableFuture<Response> executeAsync(String method, String target, Map<String, String> headers,
+                                                    Supplier<CompletableFuture<Response>> call) {
+        return executeAsync(method, target, headers, null, call);
+    }
+
+    /**
+     * Send a request without blocking unless an identical one is in flight for the same
+     * credentials, in which case complete with its response.
+     *
+     * @param method      HTTP method
+     * @param target      The path and query string
+     * @param headers     The request headers, without any the credentials stand in for
+     * @param credentials Who the request is sent as, compared with equals, or null for nobody
+     * @param call        Sends the request
+     * @return A future completed with the response; completing or cancelling it does not affect other callers
+     * @throws IllegalArgumentException If a header name or value is not valid
+     */
+    public CompletableFuture<Response> executeAsync(String method, String target, Map<String, String> headers,
+                                                    Object credentials, Supplier<CompletableFuture<Response>> call) {
+        Key key = new Key(method, target, headers, credentials);
+        CompletableFuture<Response> flight = new CompletableFuture<>();
+        CompletableFuture<Response> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            hits.increment();
+            return existing.copy();
+        }
+
+        misses.increment();
+        CompletableFuture<Response> sent;
+        try {
+            sent = call.get();
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        sent.whenComplete((response, error) -> {
+            inFlight.remove(key, flight);
+            if (error != null) {
+                flight.completeExceptionally(error);
+            } else {
+                flight.complete(response);
+            }
+        });
+        return flight.copy();
+    }
+
+    /**
+     * Get the base URL this coalescer is for.
+     *
+     * @return The base URL
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Get the number of requests that were served by an identical request already in flight.
+     *
+     * @return The number of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of requests that were sent to the server.
+     *
+     * @return The number of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the fraction of requests that were served by an identical request in flight.
+     *
+     * @return The hit rate, 0 if no requests were made
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Get the number of distinct requests currently in flight.
+     *
+     * @return The number of in-flight requests
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * Reset the hit and miss counts.
+     */
+    public void reset() {
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * Convert the counts to JSON for reporting.
+     *
+     * @return The hit and miss counts and the hit rate
+     */
+    public JSONObject toJson() {
+        return new JSONObject()
+                .put("hits", getHits())
+                .put("misses", getMisses())
+                .put("hit_rate", getHitRate());
+    }
+
+    /**
+     * Get the counts of every coalescer, keyed by base URL.
+     *
+     * @return Map of base URL to counts
+     */
+    public static JSONObject allToJson() {
+        JSONObject json = new JSONObject();
+        for (RequestCoalescer coalescer : COALESCERS.values()) {
+            json.put(coalescer.baseUrl, coalescer.toJson());
+        }
+        return json;
+    }
+
+    /**
+     * Wait for the response of a request sent by another caller.
+     *
+     * @param flight The in-flight request
+     * @return The response
+     */
+    private static Response await(CompletableFuture<Response> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            // RestAssured rethrows checked IO exceptions undeclared
+            throw new IllegalStateException("Coalesced request failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Identity of a request: method, path with query string, headers, whose names are
+     * matched ignoring case, and credentials.
+     */
+    private static final class Key {
+        private final String method;
+        private final String target;
+        private final HeaderBlock headers;
+        private final Object credentials;
+        private final int hash;
+
+        /**
+         * Create a key.
+         *
+         * @param method      HTTP method
+         * @param target      The path and query string
+         * @param headers     The request headers
+         * @param credentials Who the request is sent as, or null for nobody
+         * @throws IllegalArgumentException If a header name or value is not valid
+         */
+        Key(String method, String target, Map<String, String> headers, Object credentials) {
+            this.method = method;
+            this.target = target;
+            this.headers = HeaderBlock.of(headers);
+            this.credentials = credentials;
+            this.hash = ((method.hashCode() * 31 + target.hashCode()) * 31 + this.headers.hashCodeIgnoreCase()) * 31
+                    + Objects.hashCode(credentials);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && method.equals(other.method) && target.equals(other.target)
+                    && headers.equalsIgnoreCase(other.headers) && Objects.equals(credentials, other.credentials);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
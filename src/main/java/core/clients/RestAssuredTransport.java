@@ -0,0 +1,184 @@
+package core.clients;
+
+import core.metrics.LatencyRecorder;
+import core.metrics.TransferRecorder;
+import io.restassured.RestAssured;
+import io.restassured.filter.Filter;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.entity.HttpEntityWrapper;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Transport that sends requests through RestAssured over a shared keep-alive
+ * {@link ConnectionPool}. This is the default transport: requests go through RestAssured
+ * filters, so request logging and Allure integration keep working.
+ * <p>
+ * RestAssured asks for and decodes gzip and deflate responses itself. To record wire
+ * sizes, {@link #COUNT_WIRE_BYTES} counts the raw body bytes underneath RestAssured's
+ * decoder and {@link #TRANSFER_FILTER} records them next to the decoded size.
+ */
+public class RestAssuredTransport implements HttpTransport {
+    // Wire byte counter of the request being sent on this thread, set by TRANSFER_FILTER
+    private static final ThreadLocal<long[]> WIRE_BYTES = new ThreadLocal<>();
+
+    /**
+     * Response interceptor that counts the body bytes read off the connection. It must be
+     * added to the HTTP client before RestAssured adds its decoders, so it sees the body as
+     * received.
+     */
+    static final HttpResponseInterceptor COUNT_WIRE_BYTES = (response, context) -> {
+        long[] counter = WIRE_BYTES.get();
+        HttpEntity entity = response.getEntity();
+        if (counter != null && entity != null) {
+            response.setEntity(new CountingEntity(entity, counter));
+        }
+    };
+
+    /**
+     * Filter that records the wire and decoded sizes of the response body with
+     * {@link TransferRecorder}. Add it before {@link ConnectionPool#RELEASE_CONNECTION_FILTER}.
+     */
+    static final Filter TRANSFER_FILTER = (requestSpec, responseSpec, context) -> {
+        long[] counter = new long[1];
+        WIRE_BYTES.set(counter);
+        try {
+            Response response = context.next(requestSpec, responseSpec);
+            TransferRecorder.recordResponse(response, requestSpec.getMethod(),
+                    LatencyRecorder.endpointFor(requestSpec.getUserDefinedPath()), counter[0],
+                    response.asByteArray().length);
+            return response;
+        } finally {
+            WIRE_BYTES.remove();
+        }
+    };
+
+    private final String baseUrl;
+    private final ConnectionPool connectionPool;
+
+    /**
+     * Create a RestAssured transport.
+     *
+     * @param baseUrl        The base URL requests are sent to
+     * @param connectionPool The connection pool to send requests over
+     */
+    public RestAssuredTransport(String baseUrl, ConnectionPool connectionPool) {
+        this.baseUrl = baseUrl;
+        this.connectionPool = connectionPool;
+    }
+
+    @Override
+    public Response execute(String method, String path, Map<String, String> queryParams,
+                            Map<String, String> headers, String body) {
+        RequestSpecification request = createRequest(headers);
+        if (body != null) {
+            request.body(body);
+        }
+        return send(request, method, path, queryParams);
+    }
+
+    @Override
+    public Response execute(String method, String path, Map<String, String> queryParams,
+                            Map<String, String> headers, byte[] body) {
+        return send(createRequest(headers).body(body), method, path, queryParams);
+    }
+
+    /**
+     * Send a request with its query parameters.
+     *
+     * @param request     The request specification
+     * @param method      HTTP method
+     * @param path        The API endpoint path
+     * @param queryParams Map of query parameters, or null for none
+     * @return The response
+     */
+    private static Response send(RequestSpecification request, String method, String path,
+                                 Map<String, String> queryParams) {
+        if (LatencyRecorder.getRoute() != null) {
+            // Paths expanded from a Route are already percent-encoded
+            return request.urlEncodingEnabled(false)
+                    .request(method, path + JdkHttpTransport.queryString(queryParams));
+        }
+        if (queryParams != null) {
+            request.queryParams(queryParams);
+        }
+        return request.request(method, path);
+    }
+
+    @Override
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Get the connection pool requests are sent over.
+     *
+     * @return The connection pool
+     */
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    /**
+     * Create a request specification with headers.
+     *
+     * @param headers Request headers
+     * @return The request specification
+     */
+    RequestSpecification createRequest(Map<String, String> headers) {
+        RequestSpecification request = RestAssured.given()
+                .config(RestAssured.config().httpClient(connectionPool.getHttpClientConfig()))
+                .baseUri(baseUrl)
+                .filter(LatencyRecorder.FILTER)
+                .filter(TRANSFER_FILTER)
+                .filter(ConnectionPool.RELEASE_CONNECTION_FILTER);
+        return request.headers(HeaderBlock.of(headers).toRestAssured());
+    }
+
+    /**
+     * Entity that counts the bytes read from its content.
+     */
+    private static class CountingEntity extends HttpEntityWrapper {
+        private final long[] counter;
+
+        /**
+         * Wrap an entity.
+         *
+         * @param entity  The entity as received
+         * @param counter Counter the bytes read are added to
+         */
+        CountingEntity(HttpEntity entity, long[] counter) {
+            super(entity);
+            this.counter = counter;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return new FilterInputStream(super.getContent()) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b >= 0) {
+                        counter[0]++;
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int n = super.read(b, off, len);
+                    if (n > 0) {
+                        counter[0] += n;
+                    }
+                    return n;
+                }
+            };
+        }
+    }
+}
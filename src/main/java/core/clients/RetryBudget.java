@@ -0,0 +1,105 @@
+package core.clients;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits retries to a fraction of requests, so a failing service sees at most a bounded
+ * amount of extra load instead of every request being multiplied by the retry count.
+ * <p>
+ * Every request deposits {@code ratio} of a retry into the budget and every retry withdraws
+ * a whole one. The balance starts at, and never exceeds, {@code reserve} retries, so a short
+ * burst of failures can be retried in full while a sustained outage adds at most
+ * {@code reserve + ratio * requests} retries. The budget is lock-free.
+ */
+public class RetryBudget {
+    /**
+     * Default fraction of requests that may be retried.
+     */
+    public static final double DEFAULT_RATIO = 0.1;
+
+    /**
+     * Default number of retries available before any request has deposited into the budget.
+     */
+    public static final int DEFAULT_RESERVE = 10;
+
+    // Balances are kept in thousandths of a retry
+    private static final long SCALE = 1000;
+
+    private static final RetryBudget GLOBAL = new RetryBudget(DEFAULT_RATIO, DEFAULT_RESERVE);
+
+    private final double ratio;
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    /**
+     * Create a budget.
+     *
+     * @param ratio   Fraction of requests that may be retried, between 0 and 1
+     * @param reserve Number of retries available up front, and the most that can be saved up
+     */
+    public RetryBudget(double ratio, int reserve) {
+        if (ratio < 0 || ratio > 1) {
+            throw new IllegalArgumentException("ratio must be between 0 and 1 but was " + ratio);
+        }
+        if (reserve < 0) {
+            throw new IllegalArgumentException("reserve must not be negative but was " + reserve);
+        }
+        this.ratio = ratio;
+        this.deposit = Math.round(ratio * SCALE);
+        this.capacity = Math.max(reserve * SCALE, SCALE);
+        this.balance = new AtomicLong(reserve * SCALE);
+    }
+
+    /**
+     * Get the budget shared by all retry policies created from the configuration.
+     *
+     * @return The process-wide budget
+     */
+    public static RetryBudget global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Record a request, adding its share to the budget.
+     */
+    public void recordRequest() {
+        if (deposit > 0) {
+            balance.getAndUpdate(current -> Math.min(capacity, current + deposit));
+        }
+    }
+
+    /**
+     * Take one retry out of the budget if one is available.
+     *
+     * @return True if the retry may go ahead
+     */
+    public boolean tryAcquireRetry() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    /**
+     * Get the number of retries currently available.
+     *
+     * @return The available retries
+     */
+    public double getAvailableRetries() {
+        return balance.get() / (double) SCALE;
+    }
+
+    /**
+     * Get the fraction of requests that may be retried.
+     *
+     * @return The ratio
+     */
+    public double getRatio() {
+        return ratio;
+    }
+}
@@ -0,0 +1,272 @@
+package core.clients;
+
+import core.config.EnvLoader;
+import core.metrics.LatencyRecorder;
+import io.restassured.response.Response;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Retry policy for {@link BaseApiClient} requests.
+ * <p>
+ * Only idempotent methods are retried, and only after an I/O failure or a retryable status
+ * code. The wait before retry {@code n} is drawn uniformly from zero to
+ * {@code min(maxDelay, baseDelay * 2^n)} ("full jitter"), so clients that failed together do
+ * not retry together. A {@code Retry-After} header replaces the computed wait; if it asks for
+ * longer than {@code maxDelay}, the response is returned instead. Every retry must also be
+ * allowed by the {@link RetryBudget}. Retries are counted per method and endpoint.
+ */
+public class RetryPolicy {
+    private static final Logger logger = LoggerFactory.getLogger(RetryPolicy.class);
+
+    /**
+     * Methods that are safe to send more than once.
+     */
+    public static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE", "TRACE");
+
+    /**
+     * Status codes that indicate a transient failure.
+     */
+    public static final Set<Integer> RETRYABLE_STATUS_CODES = Set.of(429, 502, 503, 504);
+
+    /**
+     * Default longest wait before a retry.
+     */
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(30);
+
+    /**
+     * Policy that never retries.
+     */
+    public static final RetryPolicy NONE = new RetryPolicy(0, Duration.ZERO, Duration.ZERO, RetryBudget.global());
+
+    private static final Map<String, RetryPolicy> POLICIES = new ConcurrentHashMap<>();
+
+    private final int maxRetries;
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+    private final RetryBudget budget;
+    private final Map<String, LongAdder> retries = new ConcurrentHashMap<>();
+    private final LongAdder budgetExhausted = new LongAdder();
+
+    /**
+     * Create a retry policy.
+     *
+     * @param maxRetries Maximum number of retries per request
+     * @param baseDelay  Wait before the first retry, before jitter; doubles with each retry
+     * @param maxDelay   Longest wait before a retry
+     * @param budget     Budget every retry must be allowed by
+     */
+    public RetryPolicy(int maxRetries, Duration baseDelay, Duration maxDelay, RetryBudget budget) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries must not be negative but was " + maxRetries);
+        }
+        this.maxRetries = maxRetries;
+        this.baseDelayNanos = baseDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.budget = budget;
+    }
+
+    /**
+     * Get the shared policy for an environment, created on first use from its
+     * retry_attempts and retry_delay settings and the global retry budget.
+     *
+     * @param env Optional environment name (default: from ENVIRONMENT env var or "dev")
+     * @return The shared policy
+     */
+    public static RetryPolicy forEnvironment(String env) {
+        return POLICIES.computeIfAbsent(EnvLoader.resolveEnvironment(env), name -> {
+            JSONObject envConfig;
+            try {
+                envConfig = EnvLoader.getInstance().getEnvironmentConfig(name);
+            } catch (IOException | JSONException e) {
+                throw new IllegalStateException("Could not load configuration for environment '" + name + "'", e);
+            }
+            return new RetryPolicy(envConfig.optInt("retry_attempts", 0),
+                    Duration.ofMillis(envConfig.optLong("retry_delay", 1000)),
+                    DEFAULT_MAX_DELAY, RetryBudget.global());
+        });
+    }
+
+    /**
+     * Send a request, retrying it as the policy allows.
+     *
+     * @param method  HTTP method
+     * @param path    The API endpoint path
+     * @param attempt Sends the request once
+     * @return The last response received
+     */
+    public Response execute(String method, String path, Supplier<Response> attempt) {
+        if (maxRetries == 0 || !IDEMPOTENT_METHODS.contains(method)) {
+            return attempt.get();
+        }
+
+        budget.recordRequest();
+        for (int retry = 0; ; retry++) {
+            Response response = null;
+            Exception failure = null;
+            try {
+                response = attempt.get();
+            } catch (Exception e) {
+                // RestAssured rethrows checked IO exceptions undeclared
+                failure = e;
+            }
+
+            long delayNanos;
+            if (failure != null) {
+                if (retry >= maxRetries || !Failures.isIoFailure(failure)) {
+                    throw Failures.sneakyThrow(failure);
+                }
+                delayNanos = backoffNanos(retry);
+            } else {
+                if (retry >= maxRetries || !RETRYABLE_STATUS_CODES.contains(response.getStatusCode())) {
+                    return response;
+                }
+                delayNanos = retryAfterNanos(response, retry);
+                if (delayNanos > maxDelayNanos) {
+                    logger.debug("Not retrying {} {}: Retry-After exceeds {}ms", method, path,
+                            TimeUnit.NANOSECONDS.toMillis(maxDelayNanos));
+                    return response;
+                }
+            }
+
+            if (!budget.tryAcquireRetry()) {
+                budgetExhausted.increment();
+                logger.warn("Retry budget exhausted, not retrying {} {}", method, path);
+                if (failure != null) {
+                    throw Failures.sneakyThrow(failure);
+                }
+                return response;
+            }
+
+            counter(method, path).increment();
+            logger.debug("Retrying {} {} in {}ms after {}", method, path, TimeUnit.NANOSECONDS.toMillis(delayNanos),
+                    failure != null ? failure.toString() : "status " + response.getStatusCode());
+            try {
+                TimeUnit.NANOSECONDS.sleep(delayNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting to retry " + method + " " + path, e);
+            }
+        }
+    }
+
+    /**
+     * Get the number of retries of requests to an endpoint.
+     *
+     * @param method   HTTP method
+     * @param endpoint The API endpoint path, without query string
+     * @return The number of retries
+     */
+    public long getRetryCount(String method, String endpoint) {
+        LongAdder count = retries.get(method + " " + endpoint);
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * Get the number of retries per method and endpoint.
+     *
+     * @return Retry counts keyed by "METHOD endpoint", sorted
+     */
+    public Map<String, Long> getRetryCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        retries.forEach((key, count) -> counts.put(key, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Get the number of retries that were skipped because the budget was exhausted.
+     *
+     * @return The number of skipped retries
+     */
+    public long getBudgetExhaustedCount() {
+        return budgetExhausted.sum();
+    }
+
+    /**
+     * Get the maximum number of retries per request.
+     *
+     * @return The maximum number of retries
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Get the budget retries are taken from.
+     *
+     * @return The retry budget
+     */
+    public RetryBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * Draw a full-jitter wait before a retry: uniform between zero and
+     * {@code min(maxDelay, baseDelay * 2^retry)}.
+     *
+     * @param retry Number of retries already made
+     * @return The wait in nanoseconds
+     */
+    public long backoffNanos(int retry) {
+        long ceiling = baseDelayNanos << Math.min(retry, 30);
+        if (ceiling <= 0 || ceiling > maxDelayNanos) {
+            ceiling = maxDelayNanos;
+        }
+        return ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+    }
+
+    /**
+     * Get the retry counter for a request, capping the number of endpoints tracked.
+     *
+     * @param method HTTP method
+     * @param path   The API endpoint path
+     * @return The counter
+     */
+    private LongAdder counter(String method, String path) {
+        return LatencyRecorder.boundedEntry(retries, method + " ", LatencyRecorder.endpointOf(path),
+                key -> new LongAdder());
+    }
+
+    /**
+     * Get the wait requested by a Retry-After header, falling back to the backoff.
+     *
+     * @param response The response
+     * @param retry    Number of retries already made
+     * @return The wait in nanoseconds
+     */
+    private long retryAfterNanos(Response response, int retry) {
+        String retryAfter = response.getHeader("Retry-After");
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return backoffNanos(retry);
+        }
+        retryAfter = retryAfter.trim();
+        try {
+            return TimeUnit.SECONDS.toNanos(Long.parseLong(retryAfter));
+        } catch (NumberFormatException e) {
+            // Not delta-seconds, so it should be an HTTP date
+        }
+        try {
+            ZonedDateTime at = ZonedDateTime.parse(retryAfter, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(at.getZone()), at).toNanos());
+        } catch (DateTimeParseException e) {
+            logger.debug("Ignoring malformed Retry-After header: {}", retryAfter);
+            return backoffNanos(retry);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package core.clients;
+
+import core.metrics.LatencyRecorder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A request path template such as {@code /orders/{id}}, compiled once into its literal
+ * parts and variable names. Expanding it with values only appends the pre-encoded literals
+ * and the percent-encoded values, with no parsing or slash handling per request.
+ * <p>
+ * Requests made through a route are tagged with its template, so latency histograms,
+ * rate limiters, circuit breakers, retry counters and the request log aggregate per route
+ * rather than per ID. Instances are immutable; {@link #of(String)} returns the same
+ * instance for the same template.
+ */
+public final class Route {
+    private static final Map<String, Route> COMPILED = new ConcurrentHashMap<>();
+
+    private final String template;
+    // literals.length == variables.length + 1: literal, variable, literal, ..., literal
+    private final String[] literals;
+    private final String[] variables;
+    private final int literalLength;
+
+    /**
+     * Compile a template.
+     *
+     * @param template The template
+     * @throws IllegalArgumentException If the template is not valid
+     */
+    private Route(String template) {
+        if (template.indexOf('?') >= 0 || template.indexOf('#') >= 0) {
+            throw new IllegalArgumentException("Route template must not contain a query or fragment: " + template);
+        }
+        String normalized = template.startsWith("/") ? template : "/" + template;
+        List<String> literalParts = new ArrayList<>();
+        List<String> variableNames = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = normalized.indexOf('{', position);
+            int end = open < 0 ? normalized.length() : open;
+            if (normalized.lastIndexOf('}', end - 1) >= position) {
+                throw new IllegalArgumentException("Unmatched '}' in route template " + template);
+            }
+            if (open < 0) {
+                literalParts.add(encode(normalized.substring(position), true));
+                break;
+            }
+            int close = normalized.indexOf('}', open);
+            if (close < 0 || close == open + 1 || normalized.lastIndexOf('{', close) != open) {
+                throw new IllegalArgumentException("Malformed variable at index " + open + " of route template "
+                        + template);
+            }
+            String name = normalized.substring(open + 1, close);
+            if (variableNames.contains(name)) {
+                throw new IllegalArgumentException("Duplicate variable {" + name + "} in route template " + template);
+            }
+            literalParts.add(encode(normalized.substring(position, open), true));
+            variableNames.add(name);
+            position = close + 1;
+        }
+        this.template = normalized;
+        this.literals = literalParts.toArray(new String[0]);
+        this.variables = variableNames.toArray(new String[0]);
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Get the compiled route for a template, compiling it on first use. A leading slash is
+     * added if missing; literal text is percent-encoded once, here.
+     *
+     * @param template The template, with variables in braces, e.g. {@code /users/{userId}/orders}
+     * @return The route
+     * @throws IllegalArgumentException If the template is not valid
+     */
+    public static Route of(String template) {
+        Route route = COMPILED.get(template);
+        if (route == null) {
+            route = new Route(template);
+            // Templates are normally constants; stop caching if paths are passed in by mistake.
+            // Unlike per-endpoint counters there is no shared overflow entry: a route is its template.
+            if (!LatencyRecorder.isFull(COMPILED)) {
+                Route existing = COMPILED.putIfAbsent(template, route);
+                if (existing != null) {
+                    route = existing;
+                }
+            }
+        }
+        return route;
+    }
+
+    /**
+     * Build the request path for values of the variables, in the order they appear in the
+     * template. Each value is percent-encoded as a path segment, so a value containing
+     * {@code /} or {@code ?} cannot change the route.
+     *
+     * @param values The values of the variables
+     * @return The request path
+     * @throws IllegalArgumentException If the number of values does not match the variables, or a value is null
+     */
+    public String expand(Object... values) {
+        if (values.length != variables.length) {
+            throw new IllegalArgumentException("Route " + template + " takes " + variables.length
+                    + " value(s) but got " + values.length);
+        }
+        if (variables.length == 0) {
+            return literals[0];
+        }
+        StringBuilder path = new StringBuilder(literalLength + 16 * variables.length);
+        for (int i = 0; i < variables.length; i++) {
+            if (values[i] == null) {
+                throw new IllegalArgumentException("Value of {" + variables[i] + "} in route " + template
+                        + " must not be null");
+            }
+            path.append(literals[i]).append(encode(values[i].toString(), false));
+        }
+        return path.append(literals[variables.length]).toString();
+    }
+
+    /**
+     * Build the request path for named values of the variables.
+     *
+     * @param values The values keyed by variable name
+     * @return The request path
+     * @throws IllegalArgumentException If a variable has no value
+     */
+    public String expand(Map<String, ?> values) {
+        Object[] ordered = new Object[variables.length];
+        for (int i = 0; i < variables.length; i++) {
+            ordered[i] = values.get(variables[i]);
+        }
+        return expand(ordered);
+    }
+
+    /**
+     * Get the template, which is also the name requests through this route are recorded under.
+     *
+     * @return The template, starting with a slash
+     */
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * Get the names of the variables.
+     *
+     * @return The names, in the order they appear in the template
+     */
+    public List<String> getVariables() {
+        return Collections.unmodifiableList(Arrays.asList(variables));
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+
+    /**
+     * Percent-encode text for a path, leaving it as it is if nothing needs encoding.
+     *
+     * @param text    The text
+     * @param literal True for template text, in which slashes and existing escapes are kept
+     * @return The encoded text
+     */
+    private static String encode(String text, boolean literal) {
+        int i = 0;
+        while (i < text.length() && isAllowed(text.charAt(i), literal)) {
+            i++;
+        }
+        if (i == text.length()) {
+            return text;
+        }
+
+        StringBuilder encoded = new StringBuilder(text.length() + 16).append(text, 0, i);
+        for (byte b : text.substring(i).getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if (c < 0x80 && isAllowed(c, literal)) {
+                encoded.append(c);
+            } else {
+                encoded.append('%').append(Character.toUpperCase(Character.forDigit(c >> 4, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(c & 0xF, 16)));
+            }
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * Check whether a character may appear unencoded in a path segment (RFC 3986 pchar).
+     *
+     * @param c       The character
+     * @param literal True for template text, which may also contain slashes and escapes
+     * @return True if the character needs no encoding
+     */
+    private static boolean isAllowed(char c, boolean literal) {
+        if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+            return true;
+        }
+        switch (c) {
+            case '-': case '.': case '_': case '~':
+            case '!': case '$': case '&': case '\'': case '(': case ')':
+            case '*': case '+': case ',': case ';': case '=': case ':': case '@':
+                return true;
+            case '/': case '%':
+                return literal;
+            default:
+                return false;
+        }
+    }
+}
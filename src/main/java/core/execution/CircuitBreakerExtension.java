@@ -0,0 +1,101 @@
+package core.execution;
+
+import core.clients.CircuitOpenException;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.LifecycleMethodExecutionExceptionHandler;
+import org.junit.jupiter.api.extension.TestExecutionExceptionHandler;
+import org.opentest4j.TestAbortedException;
+
+/**
+ * JUnit 5 extension that reports tests as aborted rather than failed when a request was
+ * rejected by an open {@link core.clients.CircuitBreaker}. Opt in with
+ * {@code @ExtendWith(CircuitBreakerExtension.class)}. Once an environment is down, the
+ * remaining tests abort in milliseconds with the breaker's message instead of each one
+ * waiting for its own timeout, and the report shows them as not run rather than broken.
+ * Cleanup in {@code @AfterEach} and {@code @AfterAll} methods that hits an open circuit
+ * is skipped quietly.
+ */
+public class CircuitBreakerExtension implements TestExecutionExceptionHandler, LifecycleMethodExecutionExceptionHandler {
+
+    /**
+     * Abort a test that hit an open circuit.
+     */
+    @Override
+    public void handleTestExecutionException(ExtensionContext context, Throwable throwable) throws Throwable {
+        throw abortIfCircuitOpen(throwable);
+    }
+
+    /**
+     * Abort the tests of a class whose setup hit an open circuit.
+     */
+    @Override
+    public void handleBeforeAllMethodExecutionException(ExtensionContext context, Throwable throwable)
+            throws Throwable {
+        throw abortIfCircuitOpen(throwable);
+    }
+
+    /**
+     * Abort a test whose setup hit an open circuit.
+     */
+    @Override
+    public void handleBeforeEachMethodExecutionException(ExtensionContext context, Throwable throwable)
+            throws Throwable {
+        throw abortIfCircuitOpen(throwable);
+    }
+
+    /**
+     * Skip cleanup that hit an open circuit.
+     */
+    @Override
+    public void handleAfterEachMethodExecutionException(ExtensionContext context, Throwable throwable)
+            throws Throwable {
+        rethrowUnlessCircuitOpen(throwable);
+    }
+
+    /**
+     * Skip class-level cleanup that hit an open circuit.
+     */
+    @Override
+    public void handleAfterAllMethodExecutionException(ExtensionContext context, Throwable throwable)
+            throws Throwable {
+        rethrowUnlessCircuitOpen(throwable);
+    }
+
+    /**
+     * Turn a failure caused by an open circuit into an aborted test.
+     *
+     * @param throwable The failure
+     * @return A TestAbortedException if the failure was caused by an open circuit, otherwise the failure
+     */
+    private static Throwable abortIfCircuitOpen(Throwable throwable) {
+        CircuitOpenException open = findCircuitOpen(throwable);
+        return open != null ? new TestAbortedException(open.getMessage(), open) : throwable;
+    }
+
+    /**
+     * Rethrow a failure unless it was caused by an open circuit.
+     *
+     * @param throwable The failure
+     * @throws Throwable The failure, if it was not caused by an open circuit
+     */
+    private static void rethrowUnlessCircuitOpen(Throwable throwable) throws Throwable {
+        if (findCircuitOpen(throwable) == null) {
+            throw throwable;
+        }
+    }
+
+    /**
+     * Find an open circuit in the cause chain of a failure.
+     *
+     * @param throwable The failure
+     * @return The CircuitOpenException, or null if there is none
+     */
+    private static CircuitOpenException findCircuitOpen(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CircuitOpenException) {
+                return (CircuitOpenException) cause;
+            }
+        }
+        return null;
+    }
+}
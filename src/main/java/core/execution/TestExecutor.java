@@ -0,0 +1,173 @@
+package core.execution;
+
+import core.clients.ConnectionPool;
+import core.config.EnvLoader;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs IO-bound test work, such as {@code BaseApiClient} calls, with a concurrency cap.
+ * In virtual thread mode every task gets its own virtual thread and the cap is enforced
+ * with a semaphore, so thousands of blocking calls can be outstanding without sizing a
+ * thread pool. Without virtual threads a fixed pool of platform threads is used instead.
+ *
+ * <p>The mode is read from {@code test_settings.<type>} in config.json:
+ * {@code virtual_threads} (boolean) and {@code max_concurrency} (int).
+ *
+ * <p>Apache HttpClient 4, which RestAssured uses, holds a monitor while it waits for a
+ * pooled connection, and that pins the virtual thread to its carrier. Keep
+ * {@code max_concurrency} at or below the connection pool's per-route limit so calls
+ * never wait for a lease; HTTP/1.1 cannot use more concurrency than connections anyway.
+ */
+public class TestExecutor implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(TestExecutor.class);
+
+    /**
+     * Default maximum number of tasks running at once.
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY = ConnectionPool.DEFAULT_MAX_PER_ROUTE;
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final boolean virtual;
+
+    /**
+     * Create an executor.
+     *
+     * @param useVirtualThreads Whether to run tasks on virtual threads (ignored if the JVM does not support them)
+     * @param maxConcurrency    Maximum number of tasks running at once
+     */
+    public TestExecutor(boolean useVirtualThreads, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1 but was " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency);
+
+        if (useVirtualThreads && !VirtualThreads.isAvailable()) {
+            logger.warn("Virtual threads requested but not supported by this JVM, using platform threads");
+        }
+        this.virtual = useVirtualThreads && VirtualThreads.isAvailable();
+        this.executor = virtual
+                ? VirtualThreads.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(maxConcurrency, platformThreadFactory());
+    }
+
+    /**
+     * Create an executor configured from the settings of a test type.
+     *
+     * @param testType Test type (e.g., "functional", "integration", "performance")
+     * @return The executor
+     */
+    public static TestExecutor forTestType(String testType) {
+        boolean useVirtualThreads = false;
+        int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
+        try {
+            JSONObject settings = EnvLoader.getInstance().getTestSettings(testType);
+            useVirtualThreads = settings.optBoolean("virtual_threads", false);
+            maxConcurrency = settings.optInt("max_concurrency", DEFAULT_MAX_CONCURRENCY);
+        } catch (Exception e) {
+            logger.warn("Could not load execution settings for '{}', using defaults: {}", testType, e.getMessage());
+        }
+
+        return new TestExecutor(useVirtualThreads, maxConcurrency);
+    }
+
+    /**
+     * Submit a task.
+     * The caller never blocks; the task waits for a free slot on its own thread.
+     *
+     * @param task The task to run
+     * @param <T>  Result type of the task
+     * @return A future completed with the task's result
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return task.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    /**
+     * Check whether tasks run on virtual threads.
+     *
+     * @return True in virtual thread mode
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Get the maximum number of tasks running at once.
+     *
+     * @return The concurrency cap
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Get the number of tasks currently running.
+     *
+     * @return The number of running tasks
+     */
+    public int getActiveCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    /**
+     * Stop accepting tasks and wait for running tasks to finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Create a factory for named daemon platform threads.
+     *
+     * @return The thread factory
+     */
+    private static ThreadFactory platformThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "test-executor-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
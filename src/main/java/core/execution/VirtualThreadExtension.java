@@ -0,0 +1,85 @@
+package core.execution;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * JUnit 5 extension that runs each test method body on the shared {@link TestExecutor}.
+ * Opt in with {@code @ExtendWith(VirtualThreadExtension.class)}; the test type whose
+ * {@code test_settings} are used is taken from the {@code test.type} system property
+ * (default "functional"). When virtual threads are not enabled for that test type, test
+ * methods run on the JUnit worker thread as usual.
+ */
+public class VirtualThreadExtension implements InvocationInterceptor {
+    private static volatile TestExecutor executor;
+
+    /**
+     * Run a test method on the shared executor.
+     */
+    @Override
+    public void interceptTestMethod(Invocation<Void> invocation,
+                                    ReflectiveInvocationContext<Method> invocationContext,
+                                    ExtensionContext extensionContext) throws Throwable {
+        runOnExecutor(invocation);
+    }
+
+    /**
+     * Run a parameterized or repeated test method on the shared executor.
+     */
+    @Override
+    public void interceptTestTemplateMethod(Invocation<Void> invocation,
+                                            ReflectiveInvocationContext<Method> invocationContext,
+                                            ExtensionContext extensionContext) throws Throwable {
+        runOnExecutor(invocation);
+    }
+
+    /**
+     * Get the executor shared by all tests using this extension.
+     *
+     * @return The shared executor
+     */
+    public static TestExecutor getExecutor() {
+        if (executor == null) {
+            synchronized (VirtualThreadExtension.class) {
+                if (executor == null) {
+                    executor = TestExecutor.forTestType(System.getProperty("test.type", "functional"));
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Proceed with the invocation on the executor and wait for it to finish.
+     *
+     * @param invocation The test invocation
+     * @throws Throwable Whatever the test method threw
+     */
+    private static void runOnExecutor(Invocation<Void> invocation) throws Throwable {
+        TestExecutor testExecutor = getExecutor();
+        if (!testExecutor.isVirtual()) {
+            invocation.proceed();
+            return;
+        }
+
+        try {
+            testExecutor.submit(() -> {
+                try {
+                    return invocation.proceed();
+                } catch (Exception | Error e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new CompletionException(t);
+                }
+            }).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof CompletionException && cause.getCause() != null ? cause.getCause() : cause;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package core.execution;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to virtual threads without requiring a JDK 21 compile target.
+ * The build targets Java 17, so the virtual thread API is looked up reflectively and
+ * callers can fall back to platform threads when it is not available.
+ */
+public final class VirtualThreads {
+    private static final Method NEW_EXECUTOR = findMethod(Executors.class, "newVirtualThreadPerTaskExecutor");
+    private static final Method IS_VIRTUAL = findMethod(Thread.class, "isVirtual");
+    private static final boolean AVAILABLE = probe();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Check whether the running JVM supports virtual threads.
+     *
+     * @return True if virtual threads can be created
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Create an executor that starts a new virtual thread for each task.
+     *
+     * @return The executor
+     * @throws UnsupportedOperationException If the JVM does not support virtual threads
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (!AVAILABLE) {
+            throw new UnsupportedOperationException("Virtual threads require JDK 21 or later");
+        }
+        return invokeNewExecutor();
+    }
+
+    /**
+     * Check whether a thread is a virtual thread.
+     *
+     * @param thread The thread to check
+     * @return True if the thread is virtual
+     */
+    public static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (Boolean) IS_VIRTUAL.invoke(thread);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Check that virtual threads can actually be created (they are a preview feature on JDK 19 and 20).
+     *
+     * @return True if a virtual thread executor could be created
+     */
+    private static boolean probe() {
+        if (NEW_EXECUTOR == null) {
+            return false;
+        }
+        try {
+            invokeNewExecutor().shutdown();
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Invoke Executors.newVirtualThreadPerTaskExecutor().
+     *
+     * @return The executor
+     */
+    private static ExecutorService invokeNewExecutor() {
+        try {
+            return (ExecutorService) NEW_EXECUTOR.invoke(null);
+        } catch (IllegalAccessException e) {
+            throw new UnsupportedOperationException("Virtual threads are not accessible", e);
+        } catch (InvocationTargetException e) {
+            throw new UnsupportedOperationException("Virtual threads are not enabled", e.getCause());
+        }
+    }
+
+    /**
+     * Look up a public method, returning null if it does not exist.
+     *
+     * @param type The class declaring the method
+     * @param name The method name
+     * @return The method, or null
+     */
+    private static Method findMethod(Class<?> type, String name) {
+        try {
+            return type.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package core.execution;
+
+import core.clients.ConnectionWarmup;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * JUnit 5 extension that warms up the test environment before the first test class that
+ * uses it, resolving the environment's hosts and opening connections to its base URL with
+ * {@link ConnectionWarmup}. Opt in with {@code @ExtendWith(WarmupExtension.class)}; the
+ * environment is taken from the ENVIRONMENT env var (default "dev"). Later test classes
+ * find the environment already warm and start straight away.
+ */
+public class WarmupExtension implements BeforeAllCallback {
+
+    /**
+     * Warm up the environment unless an earlier test class already did.
+     */
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        ConnectionWarmup.forEnvironment(null);
+    }
+}
@@ -0,0 +1,182 @@
+package core.metrics;
+
+import org.json.JSONObject;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with HdrHistogram-style log-linear buckets.
+ * <p>
+ * Values are recorded in microseconds from 0 to about 71 minutes. Each power of two is
+ * split into 128 linear sub-buckets, so every recorded value is kept within 1% of its
+ * true value, and memory is fixed at about 26 KB no matter how many values are recorded.
+ * Recording uses a single atomic increment and is safe from any number of threads.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final long MAX_TRACKABLE_MICROS = (1L << 32) - 1;
+    private static final int BUCKET_COUNT = bucketIndex(MAX_TRACKABLE_MICROS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * Record a latency in nanoseconds.
+     *
+     * @param nanos The latency in nanoseconds
+     */
+    public void recordNanos(long nanos) {
+        recordMicros(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    /**
+     * Record a latency in microseconds. Values above the trackable range are clamped.
+     *
+     * @param micros The latency in microseconds
+     */
+    public void recordMicros(long micros) {
+        long value = Math.min(Math.max(micros, 0), MAX_TRACKABLE_MICROS);
+        counts.incrementAndGet(bucketIndex(value));
+        totalCount.increment();
+        totalMicros.add(value);
+        maxMicros.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Add all values recorded in another histogram to this one.
+     *
+     * @param other The histogram to add
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = other.counts.get(i);
+            if (count > 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalCount.add(other.totalCount.sum());
+        totalMicros.add(other.totalMicros.sum());
+        maxMicros.accumulateAndGet(other.maxMicros.get(), Math::max);
+    }
+
+    /**
+     * Get the number of recorded values.
+     *
+     * @return The count
+     */
+    public long getTotalCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * Get the value at a percentile.
+     *
+     * @param percentile The percentile as a fraction, e.g. 0.99
+     * @return The highest value equivalent to the percentile in microseconds, or 0 if empty
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (!(percentile > 0 && percentile <= 1)) {
+            throw new IllegalArgumentException("percentile must be in (0, 1] but was " + percentile);
+        }
+
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(percentile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    /**
+     * Get the value at a percentile in milliseconds.
+     *
+     * @param percentile The percentile as a fraction, e.g. 0.99
+     * @return The value in milliseconds, or 0 if empty
+     */
+    public double getPercentileMillis(double percentile) {
+        return getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * Get the mean recorded value in milliseconds.
+     *
+     * @return The mean in milliseconds, or 0 if empty
+     */
+    public double getMeanMillis() {
+        long count = totalCount.sum();
+        return count == 0 ? 0 : totalMicros.sum() / (double) count / 1000.0;
+    }
+
+    /**
+     * Get the largest recorded value in milliseconds.
+     *
+     * @return The maximum in milliseconds
+     */
+    public double getMaxMillis() {
+        return maxMicros.get() / 1000.0;
+    }
+
+    /**
+     * Convert the histogram summary to JSON for reporting.
+     *
+     * @return Count, mean, p50, p90, p95, p99 and max in milliseconds
+     */
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("count", getTotalCount());
+        json.put("mean_ms", getMeanMillis());
+        if (getTotalCount() > 0) {
+            json.put("p50_ms", getPercentileMillis(0.50));
+            json.put("p90_ms", getPercentileMillis(0.90));
+            json.put("p95_ms", getPercentileMillis(0.95));
+            json.put("p99_ms", getPercentileMillis(0.99));
+        }
+        json.put("max_ms", getMaxMillis());
+        return json;
+    }
+
+    /**
+     * Get the bucket index for a value. Values below 256 map to their own bucket; above
+     * that, each power of two is split into 128 equal sub-buckets.
+     *
+     * @param value The value in microseconds
+     * @return The bucket index
+     */
+    private static int bucketIndex(long value) {
+        int magnitude = 63 - Long.numberOfLeadingZeros(value | 1);
+        int shift = Math.max(0, magnitude - SUB_BUCKET_BITS);
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    /**
+     * Get the highest value that maps to a bucket.
+     *
+     * @param index The bucket index
+     * @return The highest value in microseconds
+     */
+    private static long highestEquivalentValue(int index) {
+        if (index < 2 * SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long subBucket = index - ((long) shift << SUB_BUCKET_BITS);
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,263 @@
+package core.metrics;
+
+import core.config.EnvLoader;
+import io.restassured.filter.Filter;
+import io.restassured.response.Response;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide latency recorder with one {@link LatencyHistogram} per method and endpoint.
+ * <p>
+ * Every {@code BaseApiClient} call is recorded, synchronous calls through {@link #FILTER}
+ * and asynchronous calls when their future completes. The endpoint is the route template
+ * the request was made through (see {@link #withRoute}), or else the request path without
+ * the query string. The number of tracked endpoints is capped so memory stays
+ * bounded; calls beyond the cap are recorded under {@link #OTHER_ENDPOINT}.
+ */
+public class LatencyRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(LatencyRecorder.class);
+
+    /**
+     * Maximum number of method and endpoint combinations tracked individually.
+     */
+    public static final int MAX_ENDPOINTS = 500;
+
+    /**
+     * Endpoint name used once {@link #MAX_ENDPOINTS} is reached.
+     */
+    public static final String OTHER_ENDPOINT = "(other)";
+
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<String> ROUTE = new ThreadLocal<>();
+
+    /**
+     * Filter that records the time from sending a request until its body has been read.
+     * Add it before any filter that reads the body so the download is included.
+     */
+    public static final Filter FILTER = (requestSpec, responseSpec, ctx) -> {
+        long start = System.nanoTime();
+        Response response = ctx.next(requestSpec, responseSpec);
+        record(requestSpec.getMethod(), endpointFor(requestSpec.getUserDefinedPath()), System.nanoTime() - start);
+        return response;
+    };
+
+    private LatencyRecorder() {
+    }
+
+    /**
+     * Record the latency of one call.
+     *
+     * @param method   HTTP method
+     * @param endpoint Request path without the query string
+     * @param nanos    Latency in nanoseconds
+     */
+    public static void record(String method, String endpoint, long nanos) {
+        boundedEntry(HISTOGRAMS, method + " ", endpoint, key -> new LatencyHistogram()).recordNanos(nanos);
+    }
+
+    /**
+     * Get the entry for an endpoint from a map keyed by endpoint, creating it on first use.
+     * Once the map is full (see {@link #isFull}), endpoints without an entry share the
+     * entry for {@link #OTHER_ENDPOINT}, so per-endpoint state stays bounded however many
+     * distinct paths a test suite sends.
+     *
+     * @param map      The map
+     * @param prefix   Prepended to the endpoint to form the key, e.g. the method and a space; may be empty
+     * @param endpoint The endpoint
+     * @param factory  Creates the entry for a key
+     * @param <V>      The entry type
+     * @return The entry
+     */
+    public static <V> V boundedEntry(Map<String, V> map, String prefix, String endpoint,
+                                     Function<String, ? extends V> factory) {
+        String key = prefix + endpoint;
+        V entry = map.get(key);
+        if (entry == null) {
+            if (isFull(map)) {
+                logger.debug("Endpoint limit of {} reached, recording {} as {}", MAX_ENDPOINTS, key, OTHER_ENDPOINT);
+                key = prefix + OTHER_ENDPOINT;
+            }
+            entry = map.computeIfAbsent(key, factory);
+        }
+        return entry;
+    }
+
+    /**
+     * Check whether a map keyed by endpoint has reached {@link #MAX_ENDPOINTS} entries.
+     *
+     * @param map The map
+     * @return True if no more endpoints should be added
+     */
+    public static boolean isFull(Map<String, ?> map) {
+        return map.size() >= MAX_ENDPOINTS;
+    }
+
+    /**
+     * Get the histogram for a method and endpoint.
+     *
+     * @param method   HTTP method
+     * @param endpoint Request path
+     * @return The histogram, or null if nothing was recorded
+     */
+    public static LatencyHistogram getHistogram(String method, String endpoint) {
+        return HISTOGRAMS.get(key(method, endpoint));
+    }
+
+    /**
+     * Get a histogram of an endpoint across all methods.
+     *
+     * @param endpoint Request path
+     * @return A snapshot combining all methods, empty if nothing was recorded
+     */
+    public static LatencyHistogram getHistogram(String endpoint) {
+        LatencyHistogram combined = new LatencyHistogram();
+        for (Map.Entry<String, LatencyHistogram> entry : HISTOGRAMS.entrySet()) {
+            String key = entry.getKey();
+            if (key.substring(key.indexOf(' ') + 1).equals(endpoint)) {
+                combined.add(entry.getValue());
+            }
+        }
+        return combined;
+    }
+
+    /**
+     * Get all histograms keyed by "METHOD endpoint".
+     *
+     * @return The histograms in key order
+     */
+    public static Map<String, LatencyHistogram> getHistograms() {
+        return Collections.unmodifiableMap(new TreeMap<>(HISTOGRAMS));
+    }
+
+    /**
+     * Discard all recorded latencies.
+     */
+    public static void reset() {
+        HISTOGRAMS.clear();
+    }
+
+    /**
+     * Load {@code test_settings.performance.percentile_thresholds} from config.json.
+     * Keys such as {@code "95%"} are converted to fractions such as 0.95.
+     *
+     * @return Maximum latency in milliseconds keyed by percentile, in percentile order
+     * @throws IOException   If the configuration file cannot be read
+     * @throws JSONException If the configuration file is not valid JSON
+     */
+    public static Map<Double, Long> loadPercentileThresholds() throws IOException, JSONException {
+        JSONObject settings = EnvLoader.getInstance().getTestSettings("performance");
+        JSONObject thresholds = settings.optJSONObject("percentile_thresholds");
+
+        Map<Double, Long> result = new TreeMap<>();
+        if (thresholds != null) {
+            for (String key : thresholds.keySet()) {
+                double percentile = Double.parseDouble(key.replace("%", "").trim()) / 100.0;
+                result.put(percentile, thresholds.getLong(key));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Convert all histograms to JSON for reporting.
+     *
+     * @return Histogram summaries keyed by "METHOD endpoint"
+     */
+    public static JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        for (Map.Entry<String, LatencyHistogram> entry : getHistograms().entrySet()) {
+            json.put(entry.getKey(), entry.getValue().toJson());
+        }
+        return json;
+    }
+
+    /**
+     * Tag everything recorded on the current thread while a call runs with a route template,
+     * so requests to {@code /orders/1} and {@code /orders/2} are recorded together under
+     * {@code /orders/{id}}.
+     *
+     * @param route The route template
+     * @param call  The call to run
+     * @param <T>   The result type of the call
+     * @return The result of the call
+     */
+    public static <T> T withRoute(String route, Supplier<T> call) {
+        String previous = ROUTE.get();
+        ROUTE.set(route);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                ROUTE.remove();
+            } else {
+                ROUTE.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Get the route template set for the current thread by {@link #withRoute}.
+     *
+     * @return The route template, or null if the current thread is not running a call through a route
+     */
+    public static String getRoute() {
+        return ROUTE.get();
+    }
+
+    /**
+     * Get the endpoint a request made by the current thread is recorded under: the route
+     * template set by {@link #withRoute}, or else the endpoint of the request path.
+     *
+     * @param path The request path or URL
+     * @return The endpoint
+     */
+    public static String endpointFor(String path) {
+        String route = ROUTE.get();
+        return route != null ? route : endpointOf(path);
+    }
+
+    /**
+     * Get the endpoint of a request path or URL, without scheme, host or query string.
+     *
+     * @param path The request path or URL
+     * @return The endpoint
+     */
+    public static String endpointOf(String path) {
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        int query = path.indexOf('?');
+        String endpoint = query >= 0 ? path.substring(0, query) : path;
+        if (endpoint.startsWith("http://") || endpoint.startsWith("https://")) {
+            try {
+                endpoint = URI.create(endpoint).getRawPath();
+            } catch (IllegalArgumentException e) {
+                return endpoint;
+            }
+        }
+        return endpoint == null || endpoint.isEmpty() ? "/" : endpoint;
+    }
+
+    /**
+     * Build the histogram key.
+     *
+     * @param method   HTTP method
+     * @param endpoint Request path
+     * @return The key
+     */
+    private static String key(String method, String endpoint) {
+        return method + " " + endpoint;
+    }
+}
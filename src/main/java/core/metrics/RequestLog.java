@@ -0,0 +1,462 @@
+package core.metrics;
+
+import core.config.EnvLoader;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Structured log of the requests made by {@code BaseApiClient}, written off the test thread.
+ * <p>
+ * A request that passes the {@link RequestSampling} rules is copied into a preallocated
+ * ring buffer: claiming a slot is a compare-and-set and filling it stores a few fields, so
+ * recording neither formats text nor takes a lock. A daemon writer thread drains the
+ * buffer into a file, one tab-separated line per request:
+ * <pre>
+ * epoch_ms  method  route  status  latency_us  request_bytes  response_bytes
+ * </pre>
+ * Status 0 means the request got no response. If the writer falls behind and the buffer
+ * is full, further requests are dropped and counted rather than slowing the tests down.
+ * <p>
+ * The shared log is configured by the request_log block of the logging configuration and
+ * is disabled if there is none:
+ * <pre>
+ * "request_log": { "enabled": true, "path": "logs/requests.tsv", "buffer_size": 8192,
+ *                  "error_sample_rate": 1.0, "success_sample_rate": 0.01 }
+ * </pre>
+ */
+public class RequestLog implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(RequestLog.class);
+
+    /**
+     * Default number of requests the buffer holds.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    /**
+     * First line of every log file.
+     */
+    public static final String HEADER = "# epoch_ms\tmethod\troute\tstatus\tlatency_us\trequest_bytes\tresponse_bytes";
+
+    /**
+     * Log that records nothing.
+     */
+    public static final RequestLog DISABLED = new RequestLog();
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FLUSH_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private static volatile RequestLog instance;
+
+    private final Path file;
+    private final RequestSampling sampling;
+    private final int capacity;
+    private final int mask;
+
+    // One slot per index; a slot is readable once its published value is its sequence + 1
+    private final AtomicLongArray published;
+    private final long[] timestamps;
+    private final String[] methods;
+    private final String[] paths;
+    private final int[] statuses;
+    private final long[] latencies;
+    private final long[] requestSizes;
+    private final long[] responseSizes;
+
+    private final AtomicLong head = new AtomicLong();
+    private volatile long tail;
+    private volatile long flushed;
+    private volatile boolean running;
+    private final Thread writerThread;
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+
+    /**
+     * Create a log and start its writer thread.
+     *
+     * @param file       The file to append to; it and its directories are created on the first write
+     * @param bufferSize Number of requests the buffer holds, rounded up to a power of two
+     * @param sampling   Rules deciding which requests are kept
+     */
+    public RequestLog(Path file, int bufferSize, RequestSampling sampling) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must be at least 1 but was " + bufferSize);
+        }
+        this.file = file;
+        this.sampling = sampling;
+        this.capacity = Math.max(2, Integer.highestOneBit(bufferSize - 1) << 1);
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        this.timestamps = new long[capacity];
+        this.methods = new String[capacity];
+        this.paths = new String[capacity];
+        this.statuses = new int[capacity];
+        this.latencies = new long[capacity];
+        this.requestSizes = new long[capacity];
+        this.responseSizes = new long[capacity];
+        this.running = true;
+        this.writerThread = new Thread(this::writeLoop, "request-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Create the disabled log.
+     */
+    private RequestLog() {
+        this.file = null;
+        this.sampling = RequestSampling.of(0, 0);
+        this.capacity = 0;
+        this.mask = 0;
+        this.published = null;
+        this.timestamps = null;
+        this.methods = null;
+        this.paths = null;
+        this.statuses = null;
+        this.latencies = null;
+        this.requestSizes = null;
+        this.responseSizes = null;
+        this.writerThread = null;
+    }
+
+    /**
+     * Get the log shared by all clients, created on first use from the request_log block of
+     * the logging configuration. It is closed, and its remaining entries written, when the
+     * JVM shuts down.
+     *
+     * @return The shared log, {@link #DISABLED} if request logging is not configured
+     */
+    public static RequestLog getInstance() {
+        RequestLog log = instance;
+        if (log == null) {
+            synchronized (RequestLog.class) {
+                log = instance;
+                if (log == null) {
+                    log = fromConfig();
+                    if (log != DISABLED) {
+                        RequestLog shared = log;
+                        Runtime.getRuntime().addShutdownHook(new Thread(shared::close, "request-log-shutdown"));
+                    }
+                    instance = log;
+                }
+            }
+        }
+        return log;
+    }
+
+    /**
+     * Create the shared log from the logging configuration.
+     *
+     * @return The log, or {@link #DISABLED} if request logging is not configured
+     */
+    private static RequestLog fromConfig() {
+        JSONObject config;
+        try {
+            config = EnvLoader.getInstance().getLoggingConfig().optJSONObject("request_log");
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Request log disabled, no logging configuration: {}", e.getMessage());
+            return DISABLED;
+        }
+        if (config == null || !config.optBoolean("enabled", true)) {
+            return DISABLED;
+        }
+        RequestSampling sampling = RequestSampling.fromConfig(config);
+        Path path = Paths.get(config.optString("path", "logs/requests.tsv"));
+        logger.debug("Logging requests to {} with {}", path, sampling);
+        return new RequestLog(path, config.optInt("buffer_size", DEFAULT_BUFFER_SIZE), sampling);
+    }
+
+    /**
+     * Check whether this log records anything.
+     *
+     * @return False for {@link #DISABLED}
+     */
+    public boolean isEnabled() {
+        return writerThread != null;
+    }
+
+    /**
+     * Record a request if the sampling rules keep it.
+     *
+     * @param method        HTTP method
+     * @param route         Request path or route; the query string is not written
+     * @param status        Response status, or 0 if there was no response
+     * @param latencyNanos  Latency of the request
+     * @param requestBytes  Size of the request body
+     * @param responseBytes Size of the response body
+     */
+    public void record(String method, String route, int status, long latencyNanos,
+                       long requestBytes, long responseBytes) {
+        if (sample(status, latencyNanos)) {
+            append(method, route, status, latencyNanos, requestBytes, responseBytes);
+        }
+    }
+
+    /**
+     * Apply the sampling rules to a request. Callers that have to do work to find the sizes
+     * of a request can call this first and {@link #append} only if it returns true.
+     *
+     * @param status       Response status, or 0 if there was no response
+     * @param latencyNanos Latency of the request
+     * @return True if the request should be appended
+     */
+    public boolean sample(int status, long latencyNanos) {
+        if (writerThread == null) {
+            return false;
+        }
+        if (sampling.shouldLog(status, latencyNanos)) {
+            return true;
+        }
+        sampledOut.increment();
+        return false;
+    }
+
+    /**
+     * Append a request to the buffer regardless of the sampling rules.
+     *
+     * @param method        HTTP method
+     * @param route         Request path or route; the query string is not written
+     * @param status        Response status, or 0 if there was no response
+     * @param latencyNanos  Latency of the request
+     * @param requestBytes  Size of the request body
+     * @param responseBytes Size of the response body
+     * @return True if the request was appended, false if the buffer was full or the log is closed
+     */
+    public boolean append(String method, String route, int status, long latencyNanos,
+                          long requestBytes, long responseBytes) {
+        if (!running) {
+            return false;
+        }
+        long sequence;
+        do {
+            sequence = head.get();
+            if (sequence - tail >= capacity) {
+                dropped.increment();
+                return false;
+            }
+        } while (!head.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) sequence & mask;
+        timestamps[slot] = System.currentTimeMillis();
+        methods[slot] = method;
+        paths[slot] = route;
+        statuses[slot] = status;
+        latencies[slot] = latencyNanos;
+        requestSizes[slot] = requestBytes;
+        responseSizes[slot] = responseBytes;
+        published.set(slot, sequence + 1);
+        recorded.increment();
+
+        if (sequence - tail >= capacity / 2) {
+            // Wake the writer early rather than let the buffer fill up
+            LockSupport.unpark(writerThread);
+        }
+        return true;
+    }
+
+    /**
+     * Wait until every request appended so far has been written to the file.
+     *
+     * @return True if everything was written, false if the writer did not catch up within 5 seconds
+     */
+    public boolean flush() {
+        if (writerThread == null) {
+            return true;
+        }
+        long target = head.get();
+        long deadline = System.nanoTime() + FLUSH_TIMEOUT_NANOS;
+        while (flushed < target && writerThread.isAlive()) {
+            if (System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return flushed >= target;
+    }
+
+    /**
+     * Stop recording, write what is left in the buffer and close the file.
+     */
+    @Override
+    public void close() {
+        if (writerThread == null || !running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(TimeUnit.NANOSECONDS.toMillis(FLUSH_TIMEOUT_NANOS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Get the file the log is written to.
+     *
+     * @return The file, or null for {@link #DISABLED}
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Get the sampling rules.
+     *
+     * @return The sampling rules
+     */
+    public RequestSampling getSampling() {
+        return sampling;
+    }
+
+    /**
+     * Get the number of requests appended to the buffer.
+     *
+     * @return The number of recorded requests
+     */
+    public long getRecordedCount() {
+        return recorded.sum();
+    }
+
+    /**
+     * Get the number of requests left out by the sampling rules.
+     *
+     * @return The number of sampled-out requests
+     */
+    public long getSampledOutCount() {
+        return sampledOut.sum();
+    }
+
+    /**
+     * Get the number of requests lost because the buffer was full.
+     *
+     * @return The number of dropped requests
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Get the number of requests written to the file.
+     *
+     * @return The number of written requests
+     */
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    /**
+     * Convert the counters to JSON for reporting.
+     *
+     * @return The counters
+     */
+    public JSONObject toJson() {
+        return new JSONObject()
+                .put("enabled", isEnabled())
+                .put("recorded", getRecordedCount())
+                .put("sampled_out", getSampledOutCount())
+                .put("dropped", getDroppedCount())
+                .put("written", getWrittenCount());
+    }
+
+    /**
+     * Drain the buffer into the file until the log is closed.
+     */
+    private void writeLoop() {
+        Writer out = null;
+        boolean dirty = false;
+        try {
+            while (true) {
+                boolean stopping = !running;
+                long next = tail;
+                StringBuilder line = new StringBuilder(128);
+                while (published.get((int) next & mask) == next + 1) {
+                    int slot = (int) next & mask;
+                    line.setLength(0);
+                    format(slot, line);
+                    methods[slot] = null;
+                    paths[slot] = null;
+                    tail = ++next;
+                    if (out == null) {
+                        out = open();
+                    }
+                    out.append(line);
+                    written.increment();
+                    dirty = true;
+                }
+                if (dirty) {
+                    out.flush();
+                    dirty = false;
+                }
+                flushed = next;
+                if (stopping) {
+                    return;
+                }
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        } catch (IOException e) {
+            logger.warn("Request log stopped, could not write {}: {}", file, e.getMessage());
+            running = false;
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    logger.debug("Could not close {}: {}", file, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Format one buffered request as a log line.
+     *
+     * @param slot The buffer slot
+     * @param line The builder to append the line to
+     */
+    private void format(int slot, StringBuilder line) {
+        line.append(timestamps[slot]).append('\t')
+                .append(methods[slot]).append('\t')
+                .append(LatencyRecorder.endpointOf(paths[slot])).append('\t')
+                .append(statuses[slot]).append('\t')
+                .append(TimeUnit.NANOSECONDS.toMicros(latencies[slot])).append('\t')
+                .append(requestSizes[slot]).append('\t')
+                .append(responseSizes[slot]).append('\n');
+    }
+
+    /**
+     * Open the log file for appending, writing the header if the file is new.
+     *
+     * @return The writer
+     * @throws IOException If the file cannot be opened
+     */
+    private Writer open() throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        boolean isNew = !Files.exists(file) || Files.size(file) == 0;
+        Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (isNew) {
+            out.append(HEADER).append('\n');
+        }
+        return out;
+    }
+}
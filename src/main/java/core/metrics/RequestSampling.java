@@ -0,0 +1,142 @@
+package core.metrics;
+
+import org.json.JSONObject;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rules deciding which requests the {@link RequestLog} keeps: a fraction of errors, a
+ * fraction of successes, and optionally every request slower than a threshold. A request
+ * is an error if it got no response (status 0) or a 4xx or 5xx status. Instances are
+ * immutable.
+ */
+public final class RequestSampling {
+    /**
+     * Keep every request.
+     */
+    public static final RequestSampling ALL = new RequestSampling(1, 1, -1);
+
+    private final double errorRate;
+    private final double successRate;
+    private final long slowThresholdNanos;
+
+    /**
+     * Create sampling rules.
+     *
+     * @param errorRate          Fraction of errors kept, from 0 to 1
+     * @param successRate        Fraction of successes kept, from 0 to 1
+     * @param slowThresholdNanos Latency above which a request is always kept, or -1 for none
+     */
+    private RequestSampling(double errorRate, double successRate, long slowThresholdNanos) {
+        this.errorRate = errorRate;
+        this.successRate = successRate;
+        this.slowThresholdNanos = slowThresholdNanos;
+    }
+
+    /**
+     * Get rules that keep a fraction of errors and a fraction of successes, e.g.
+     * {@code of(1, 0.01)} for all errors and 1% of successes.
+     *
+     * @param errorRate   Fraction of errors kept, from 0 to 1
+     * @param successRate Fraction of successes kept, from 0 to 1
+     * @return The rules
+     */
+    public static RequestSampling of(double errorRate, double successRate) {
+        return new RequestSampling(checkRate("errorRate", errorRate), checkRate("successRate", successRate), -1);
+    }
+
+    /**
+     * Get the sampling rules from a request_log configuration block:
+     * <pre>
+     * { "error_sample_rate": 1.0, "success_sample_rate": 0.01, "slow_threshold_ms": 2000 }
+     * </pre>
+     * Both rates default to 1; without slow_threshold_ms slow requests are sampled like
+     * any other.
+     *
+     * @param config The request_log configuration
+     * @return The rules
+     */
+    public static RequestSampling fromConfig(JSONObject config) {
+        RequestSampling sampling = of(config.optDouble("error_sample_rate", 1), config.optDouble("success_sample_rate", 1));
+        long slowMillis = config.optLong("slow_threshold_ms", -1);
+        return slowMillis >= 0 ? sampling.withSlowThreshold(slowMillis) : sampling;
+    }
+
+    /**
+     * Get a copy of these rules that also keeps every request slower than a threshold.
+     *
+     * @param thresholdMillis Latency threshold in milliseconds
+     * @return The new rules
+     */
+    public RequestSampling withSlowThreshold(long thresholdMillis) {
+        if (thresholdMillis < 0) {
+            throw new IllegalArgumentException("thresholdMillis must not be negative but was " + thresholdMillis);
+        }
+        return new RequestSampling(errorRate, successRate, TimeUnit.MILLISECONDS.toNanos(thresholdMillis));
+    }
+
+    /**
+     * Decide whether to keep a request.
+     *
+     * @param status       The response status, or 0 if there was no response
+     * @param latencyNanos The latency of the request
+     * @return True if the request should be logged
+     */
+    public boolean shouldLog(int status, long latencyNanos) {
+        if (slowThresholdNanos >= 0 && latencyNanos > slowThresholdNanos) {
+            return true;
+        }
+        double rate = isError(status) ? errorRate : successRate;
+        return rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    /**
+     * Check whether a status counts as an error.
+     *
+     * @param status The response status, or 0 if there was no response
+     * @return True for no response and 4xx or 5xx statuses
+     */
+    public static boolean isError(int status) {
+        return status == 0 || status >= 400;
+    }
+
+    /**
+     * Get the fraction of errors kept.
+     *
+     * @return The error rate
+     */
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    /**
+     * Get the fraction of successes kept.
+     *
+     * @return The success rate
+     */
+    public double getSuccessRate() {
+        return successRate;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestSampling[errors=" + errorRate + ", successes=" + successRate
+                + (slowThresholdNanos >= 0 ? ", slow>" + TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos) + "ms" : "")
+                + "]";
+    }
+
+    /**
+     * Check that a sampling rate is between 0 and 1.
+     *
+     * @param name The name of the rate
+     * @param rate The rate
+     * @return The rate
+     */
+    private static double checkRate(String name, double rate) {
+        if (!(rate >= 0 && rate <= 1)) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1 but was " + rate);
+        }
+        return rate;
+    }
+}
@@ -0,0 +1,190 @@
+package core.metrics;
+
+import io.restassured.response.Response;
+import org.json.JSONObject;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide record of how many bytes {@code BaseApiClient} calls put on the wire compared
+ * to the size of their bodies, so the bandwidth saved by compression can be reported.
+ * <p>
+ * Totals are kept per method and endpoint in a {@link TransferStats}, capped like
+ * {@link LatencyRecorder}. The transfer of an individual response can be looked up for as
+ * long as the response is reachable.
+ */
+public class TransferRecorder {
+    private static final Map<String, TransferStats> STATS = new ConcurrentHashMap<>();
+    private static final Map<Response, Transfer> TRANSFERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private TransferRecorder() {
+    }
+
+    /**
+     * Record the body of a response.
+     *
+     * @param response     The response, or null if the body was not kept (e.g. a download)
+     * @param method       HTTP method
+     * @param endpoint     Request path without the query string
+     * @param wireBytes    Size of the body as received
+     * @param decodedBytes Size of the body after decompression
+     */
+    public static void recordResponse(Response response, String method, String endpoint,
+                                      long wireBytes, long decodedBytes) {
+        stats(method, endpoint).recordResponse(wireBytes, decodedBytes);
+        if (response != null) {
+            TRANSFERS.put(response, new Transfer(wireBytes, decodedBytes));
+        }
+    }
+
+    /**
+     * Record the body of a request.
+     *
+     * @param method    HTTP method
+     * @param endpoint  Request path without the query string
+     * @param bodyBytes Size of the body before compression
+     * @param wireBytes Size of the body as sent
+     */
+    public static void recordRequest(String method, String endpoint, long bodyBytes, long wireBytes) {
+        stats(method, endpoint).recordRequest(bodyBytes, wireBytes);
+    }
+
+    /**
+     * Get the transfer of a response body.
+     *
+     * @param response The response
+     * @return The transfer, or null if the response was not recorded
+     */
+    public static Transfer getTransfer(Response response) {
+        return TRANSFERS.get(response);
+    }
+
+    /**
+     * Get the byte counts of a method and endpoint.
+     *
+     * @param method   HTTP method
+     * @param endpoint Request path
+     * @return The counts, or null if nothing was recorded
+     */
+    public static TransferStats getStats(String method, String endpoint) {
+        return STATS.get(method + " " + endpoint);
+    }
+
+    /**
+     * Get all byte counts keyed by "METHOD endpoint".
+     *
+     * @return The counts in key order
+     */
+    public static Map<String, TransferStats> getStats() {
+        return Collections.unmodifiableMap(new TreeMap<>(STATS));
+    }
+
+    /**
+     * Get the number of bytes compression kept off the wire across all endpoints.
+     *
+     * @return The saved bytes
+     */
+    public static long getTotalSavedBytes() {
+        long saved = 0;
+        for (TransferStats stats : STATS.values()) {
+            saved += stats.getSavedBytes();
+        }
+        return saved;
+    }
+
+    /**
+     * Discard all recorded byte counts.
+     */
+    public static void reset() {
+        STATS.clear();
+        TRANSFERS.clear();
+    }
+
+    /**
+     * Convert all byte counts to JSON for reporting.
+     *
+     * @return Byte counts keyed by "METHOD endpoint"
+     */
+    public static JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        for (Map.Entry<String, TransferStats> entry : getStats().entrySet()) {
+            json.put(entry.getKey(), entry.getValue().toJson());
+        }
+        return json;
+    }
+
+    /**
+     * Get the counts for a method and endpoint, capping the number of endpoints tracked.
+     *
+     * @param method   HTTP method
+     * @param endpoint Request path
+     * @return The counts
+     */
+    private static TransferStats stats(String method, String endpoint) {
+        return LatencyRecorder.boundedEntry(STATS, method + " ", endpoint, key -> new TransferStats());
+    }
+
+    /**
+     * Size of one response body on the wire and after decompression.
+     */
+    public static class Transfer {
+        private final long wireBytes;
+        private final long decodedBytes;
+
+        /**
+         * Create a transfer.
+         *
+         * @param wireBytes    Size of the body as received
+         * @param decodedBytes Size of the body after decompression
+         */
+        Transfer(long wireBytes, long decodedBytes) {
+            this.wireBytes = wireBytes;
+            this.decodedBytes = decodedBytes;
+        }
+
+        /**
+         * Get the size of the body as received.
+         *
+         * @return The wire bytes
+         */
+        public long getWireBytes() {
+            return wireBytes;
+        }
+
+        /**
+         * Get the size of the body after decompression.
+         *
+         * @return The decoded bytes
+         */
+        public long getDecodedBytes() {
+            return decodedBytes;
+        }
+
+        /**
+         * Get the number of bytes compression kept off the wire.
+         *
+         * @return The saved bytes, zero for an uncompressed body
+         */
+        public long getSavedBytes() {
+            return decodedBytes - wireBytes;
+        }
+
+        /**
+         * Get the compression ratio.
+         *
+         * @return Decoded size divided by wire size, 1 for an uncompressed or empty body
+         */
+        public double getRatio() {
+            return wireBytes == 0 ? 1 : decodedBytes / (double) wireBytes;
+        }
+
+        @Override
+        public String toString() {
+            return wireBytes + " wire bytes, " + decodedBytes + " decoded bytes";
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package core.metrics;
+
+import org.json.JSONObject;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Byte counts of the requests and responses of one endpoint: what crossed the wire versus
+ * what the test saw after compression was removed. Safe for concurrent updates.
+ */
+public class TransferStats {
+    private final LongAdder responses = new LongAdder();
+    private final LongAdder responseWireBytes = new LongAdder();
+    private final LongAdder responseDecodedBytes = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder requestBodyBytes = new LongAdder();
+    private final LongAdder requestWireBytes = new LongAdder();
+
+    /**
+     * Record a response body.
+     *
+     * @param wireBytes    Size of the body as received
+     * @param decodedBytes Size of the body after decompression
+     */
+    void recordResponse(long wireBytes, long decodedBytes) {
+        responses.increment();
+        responseWireBytes.add(wireBytes);
+        responseDecodedBytes.add(decodedBytes);
+    }
+
+    /**
+     * Record a request body.
+     *
+     * @param bodyBytes Size of the body before compression
+     * @param wireBytes Size of the body as sent
+     */
+    void recordRequest(long bodyBytes, long wireBytes) {
+        requests.increment();
+        requestBodyBytes.add(bodyBytes);
+        requestWireBytes.add(wireBytes);
+    }
+
+    /**
+     * Get the number of responses recorded.
+     *
+     * @return The number of responses
+     */
+    public long getResponses() {
+        return responses.sum();
+    }
+
+    /**
+     * Get the total size of the response bodies as received.
+     *
+     * @return The wire bytes
+     */
+    public long getResponseWireBytes() {
+        return responseWireBytes.sum();
+    }
+
+    /**
+     * Get the total size of the response bodies after decompression.
+     *
+     * @return The decoded bytes
+     */
+    public long getResponseDecodedBytes() {
+        return responseDecodedBytes.sum();
+    }
+
+    /**
+     * Get the number of request bodies recorded.
+     *
+     * @return The number of request bodies
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Get the total size of the request bodies before compression.
+     *
+     * @return The body bytes
+     */
+    public long getRequestBodyBytes() {
+        return requestBodyBytes.sum();
+    }
+
+    /**
+     * Get the total size of the request bodies as sent.
+     *
+     * @return The wire bytes
+     */
+    public long getRequestWireBytes() {
+        return requestWireBytes.sum();
+    }
+
+    /**
+     * Get the number of bytes compression kept off the wire, in both directions.
+     *
+     * @return The saved bytes
+     */
+    public long getSavedBytes() {
+        return getResponseDecodedBytes() - getResponseWireBytes() + getRequestBodyBytes() - getRequestWireBytes();
+    }
+
+    /**
+     * Convert the counts to JSON for reporting.
+     *
+     * @return The counts
+     */
+    public JSONObject toJson() {
+        return new JSONObject()
+                .put("responses", getResponses())
+                .put("response_wire_bytes", getResponseWireBytes())
+                .put("response_decoded_bytes", getResponseDecodedBytes())
+                .put("requests", getRequests())
+                .put("request_body_bytes", getRequestBodyBytes())
+                .put("request_wire_bytes", getRequestWireBytes())
+                .put("saved_bytes", getSavedBytes());
+    }
+}
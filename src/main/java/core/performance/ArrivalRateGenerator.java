@@ -0,0 +1,177 @@
+package core.performance;
+
+import core.clients.BaseApiClient;
+import core.execution.TestExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator that starts weighted scenarios at a constant arrival rate.
+ * <p>
+ * Arrival {@code i} is scheduled at an absolute time {@code start + i / rate}, so a slow
+ * dispatch never shifts later arrivals. Iteration time is measured from the scheduled
+ * time rather than the actual start, which avoids coordinated omission: if the server
+ * stalls, the waiting time shows up in the results. Arrivals dispatched later than the
+ * late threshold are counted as late, and arrivals that find {@code maxConcurrency}
+ * iterations already in progress are dropped and counted rather than queued.
+ */
+public class ArrivalRateGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(ArrivalRateGenerator.class);
+
+    /**
+     * Wait remaining below which the dispatcher spins instead of parking, to avoid timer slack.
+     */
+    private static final long SPIN_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final BaseApiClient client;
+    private final ArrivalRateProfile profile;
+    private final List<LoadScenario> scenarios = new ArrayList<>();
+    private int totalWeight;
+
+    /**
+     * Create an arrival-rate generator.
+     *
+     * @param client  The client shared by all iterations
+     * @param profile The arrival-rate profile
+     */
+    public ArrivalRateGenerator(BaseApiClient client, ArrivalRateProfile profile) {
+        this.client = client;
+        this.profile = profile;
+    }
+
+    /**
+     * Add a weighted scenario.
+     *
+     * @param name   Name of the scenario
+     * @param weight Relative weight of the scenario
+     * @param action The work performed by one iteration
+     * @return This generator
+     */
+    public ArrivalRateGenerator addScenario(String name, int weight, LoadScenario.Action action) {
+        return addScenario(new LoadScenario(name, weight, action));
+    }
+
+    /**
+     * Add a weighted scenario.
+     *
+     * @param scenario The scenario
+     * @return This generator
+     */
+    public ArrivalRateGenerator addScenario(LoadScenario scenario) {
+        scenarios.add(scenario);
+        totalWeight += scenario.getWeight();
+        return this;
+    }
+
+    /**
+     * Run the profile and wait for all started iterations to finish.
+     *
+     * @return The aggregated results, including dropped and late arrivals
+     * @throws InterruptedException If the dispatcher is interrupted
+     */
+    public LoadTestResult run() throws InterruptedException {
+        if (scenarios.isEmpty()) {
+            throw new IllegalStateException("No scenarios added. Add a scenario before running.");
+        }
+
+        logger.info("Starting arrival-rate run: {}", profile);
+        LoadTestResult result = new LoadTestResult();
+        int maxConcurrency = profile.getMaxConcurrency();
+        Semaphore slots = new Semaphore(maxConcurrency);
+        double intervalNanos = 1e9 / profile.getRate();
+        long lateThresholdNanos = profile.getLateThreshold().toNanos();
+        long scheduled = profile.getScheduledCount();
+        long start = System.nanoTime();
+
+        try (TestExecutor executor = new TestExecutor(profile.isVirtualThreads(), maxConcurrency)) {
+            for (long arrival = 0; arrival < scheduled; arrival++) {
+                long intendedStart = start + Math.round(arrival * intervalNanos);
+                waitUntil(intendedStart);
+
+                LoadScenario scenario = pickScenario();
+                if (System.nanoTime() - intendedStart > lateThresholdNanos) {
+                    result.recordLate(scenario.getName());
+                }
+                if (!slots.tryAcquire()) {
+                    result.recordDropped(scenario.getName());
+                    continue;
+                }
+                executor.submit(() -> {
+                    try {
+                        runIteration(scenario, intendedStart, result);
+                    } finally {
+                        slots.release();
+                    }
+                    return null;
+                });
+            }
+            slots.acquire(maxConcurrency);
+        }
+
+        result.setElapsed(Duration.ofNanos(System.nanoTime() - start));
+        logger.info("Arrival-rate run finished: {} iterations, {} failures, {} dropped, {} late",
+                result.getTotalCount(), result.getTotalFailures(), result.getTotalDropped(), result.getTotalLate());
+        return result;
+    }
+
+    /**
+     * Run one iteration and record its time from the scheduled start.
+     *
+     * @param scenario      The scenario to run
+     * @param intendedStart Scheduled start, from {@link System#nanoTime()}
+     * @param result        Where the iteration is recorded
+     */
+    private void runIteration(LoadScenario scenario, long intendedStart, LoadTestResult result) {
+        boolean success = true;
+        try {
+            scenario.getAction().execute(client);
+        } catch (Exception | AssertionError e) {
+            success = false;
+            logger.debug("Scenario '{}' failed: {}", scenario.getName(), e.getMessage());
+        }
+        result.record(scenario.getName(), System.nanoTime() - intendedStart, success);
+    }
+
+    /**
+     * Pick a scenario at random according to the weights.
+     *
+     * @return The scenario
+     */
+    private LoadScenario pickScenario() {
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (LoadScenario scenario : scenarios) {
+            pick -= scenario.getWeight();
+            if (pick < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    /**
+     * Wait until the given time, parking for most of the wait and spinning for the rest.
+     *
+     * @param deadline Time to return, from {@link System#nanoTime()}
+     * @throws InterruptedException If the thread is interrupted
+     */
+    private static void waitUntil(long deadline) throws InterruptedException {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > SPIN_THRESHOLD_NANOS) {
+            LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        while (deadline - System.nanoTime() > 0) {
+            Thread.onSpinWait();
+        }
+    }
+}
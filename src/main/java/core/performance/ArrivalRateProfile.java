@@ -0,0 +1,124 @@
+package core.performance;
+
+import core.config.EnvLoader;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Open-model load profile: iterations are started at a constant rate regardless of how
+ * quickly the server responds, up to a maximum number of concurrent iterations.
+ */
+public class ArrivalRateProfile {
+    private final double rate;
+    private final Duration duration;
+    private final int maxConcurrency;
+    private final Duration lateThreshold;
+    private final boolean virtualThreads;
+
+    /**
+     * Create an arrival-rate profile.
+     *
+     * @param rate           Iterations started per second
+     * @param duration       Time over which iterations are started
+     * @param maxConcurrency Maximum number of iterations in progress; further arrivals are dropped
+     * @param lateThreshold  Dispatch delay after which an arrival is counted as late
+     * @param virtualThreads Whether iterations run on virtual threads
+     */
+    public ArrivalRateProfile(double rate, Duration duration, int maxConcurrency,
+                              Duration lateThreshold, boolean virtualThreads) {
+        if (!(rate > 0)) {
+            throw new IllegalArgumentException("rate must be positive but was " + rate);
+        }
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1 but was " + maxConcurrency);
+        }
+        this.rate = rate;
+        this.duration = duration;
+        this.maxConcurrency = maxConcurrency;
+        this.lateThreshold = lateThreshold;
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Create an arrival-rate profile from {@code test_settings.performance} in config.json,
+     * using {@code arrival_rate} (per second), {@code duration} (seconds),
+     * {@code max_concurrency}, {@code late_threshold} (milliseconds) and {@code virtual_threads}.
+     *
+     * @return The arrival-rate profile
+     * @throws IOException   If the configuration file cannot be read
+     * @throws JSONException If the configuration file is not valid JSON
+     */
+    public static ArrivalRateProfile fromConfig() throws IOException, JSONException {
+        JSONObject settings = EnvLoader.getInstance().getTestSettings("performance");
+
+        return new ArrivalRateProfile(
+                settings.optDouble("arrival_rate", 10),
+                Duration.ofSeconds(settings.optLong("duration", 60)),
+                settings.optInt("max_concurrency", 20),
+                Duration.ofMillis(settings.optLong("late_threshold", 10)),
+                settings.optBoolean("virtual_threads", false));
+    }
+
+    /**
+     * Get the arrival rate.
+     *
+     * @return Iterations started per second
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * Get the time over which iterations are started.
+     *
+     * @return The duration
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Get the maximum number of iterations in progress.
+     *
+     * @return The maximum concurrency
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Get the dispatch delay after which an arrival is counted as late.
+     *
+     * @return The late threshold
+     */
+    public Duration getLateThreshold() {
+        return lateThreshold;
+    }
+
+    /**
+     * Check whether iterations run on virtual threads.
+     *
+     * @return True if virtual threads are used
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Get the number of arrivals scheduled over the duration.
+     *
+     * @return The number of scheduled arrivals
+     */
+    public long getScheduledCount() {
+        return (long) Math.ceil(duration.toNanos() / 1e9 * rate);
+    }
+
+    @Override
+    public String toString() {
+        return "ArrivalRateProfile{rate=" + rate + "/s, duration=" + duration + ", maxConcurrency=" + maxConcurrency
+                + ", lateThreshold=" + lateThreshold + ", virtualThreads=" + virtualThreads + "}";
+    }
+}
@@ -0,0 +1,161 @@
+package core.performance;
+
+import core.clients.BaseApiClient;
+import core.execution.TestExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Closed-model load generator that drives {@link BaseApiClient} calls as weighted scenarios.
+ * Each virtual user repeatedly picks a scenario by weight, runs it and waits for the think
+ * time. Users are started evenly over the ramp-up, all run during the steady state, and
+ * are stopped evenly over the ramp-down (first started, last stopped).
+ */
+public class LoadGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private final Supplier<BaseApiClient> clientFactory;
+    private final LoadProfile profile;
+    private final List<LoadScenario> scenarios = new ArrayList<>();
+    private int totalWeight;
+
+    /**
+     * Create a load generator.
+     *
+     * @param clientFactory Creates the client used by each virtual user
+     * @param profile       The load profile
+     */
+    public LoadGenerator(Supplier<BaseApiClient> clientFactory, LoadProfile profile) {
+        this.clientFactory = clientFactory;
+        this.profile = profile;
+    }
+
+    /**
+     * Add a weighted scenario.
+     *
+     * @param name   Name of the scenario
+     * @param weight Relative weight of the scenario
+     * @param action The work performed by one iteration
+     * @return This generator
+     */
+    public LoadGenerator addScenario(String name, int weight, LoadScenario.Action action) {
+        return addScenario(new LoadScenario(name, weight, action));
+    }
+
+    /**
+     * Add a weighted scenario.
+     *
+     * @param scenario The scenario
+     * @return This generator
+     */
+    public LoadGenerator addScenario(LoadScenario scenario) {
+        scenarios.add(scenario);
+        totalWeight += scenario.getWeight();
+        return this;
+    }
+
+    /**
+     * Run the load profile and wait for it to finish.
+     *
+     * @return The aggregated results
+     */
+    public LoadTestResult run() {
+        if (scenarios.isEmpty()) {
+            throw new IllegalStateException("No scenarios added. Add a scenario before running.");
+        }
+
+        logger.info("Starting load run: {}", profile);
+        LoadTestResult result = new LoadTestResult();
+        int users = profile.getUsers();
+        long start = System.nanoTime();
+        long rampUpNanos = profile.getRampUp().toNanos();
+        long rampDownNanos = profile.getRampDown().toNanos();
+        long steadyEnd = start + rampUpNanos + profile.getSteadyState().toNanos();
+
+        try (TestExecutor executor = new TestExecutor(profile.isVirtualThreads(), users)) {
+            List<CompletableFuture<Void>> virtualUsers = new ArrayList<>();
+            for (int user = 0; user < users; user++) {
+                long startAt = start + rampUpNanos * user / users;
+                long stopAt = steadyEnd + rampDownNanos * (users - user) / users;
+                virtualUsers.add(executor.submit(() -> {
+                    runVirtualUser(startAt, stopAt, result);
+                    return null;
+                }));
+            }
+            CompletableFuture.allOf(virtualUsers.toArray(new CompletableFuture<?>[0])).join();
+        }
+
+        result.setElapsed(Duration.ofNanos(System.nanoTime() - start));
+        logger.info("Load run finished: {} iterations, {} failures, {} iterations/s",
+                result.getTotalCount(), result.getTotalFailures(), String.format("%.1f", result.getThroughput()));
+        return result;
+    }
+
+    /**
+     * Run one virtual user between its start and stop times.
+     *
+     * @param startAt Time to start, from {@link System#nanoTime()}
+     * @param stopAt  Time to stop, from {@link System#nanoTime()}
+     * @param result  Where iterations are recorded
+     * @throws InterruptedException If the virtual user is interrupted
+     */
+    private void runVirtualUser(long startAt, long stopAt, LoadTestResult result) throws InterruptedException {
+        sleepUntil(startAt);
+        BaseApiClient client = clientFactory.get();
+        long thinkNanos = profile.getThinkTime().toNanos();
+
+        while (System.nanoTime() < stopAt) {
+            LoadScenario scenario = pickScenario();
+            long iterationStart = System.nanoTime();
+            boolean success = true;
+            try {
+                scenario.getAction().execute(client);
+            } catch (Exception | AssertionError e) {
+                success = false;
+                logger.debug("Scenario '{}' failed: {}", scenario.getName(), e.getMessage());
+            }
+            result.record(scenario.getName(), System.nanoTime() - iterationStart, success);
+
+            if (thinkNanos > 0) {
+                sleepUntil(Math.min(System.nanoTime() + thinkNanos, stopAt));
+            }
+        }
+    }
+
+    /**
+     * Pick a scenario at random according to the weights.
+     *
+     * @return The scenario
+     */
+    private LoadScenario pickScenario() {
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (LoadScenario scenario : scenarios) {
+            pick -= scenario.getWeight();
+            if (pick < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    /**
+     * Sleep until the given time.
+     *
+     * @param deadline Time to wake up, from {@link System#nanoTime()}
+     * @throws InterruptedException If the thread is interrupted
+     */
+    private static void sleepUntil(long deadline) throws InterruptedException {
+        long remaining = deadline - System.nanoTime();
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+}
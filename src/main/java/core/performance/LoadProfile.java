@@ -0,0 +1,142 @@
+package core.performance;
+
+import core.config.EnvLoader;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Closed-model load profile: a number of virtual users that ramp up, hold a steady
+ * state and ramp down, pausing for a think time between scenario iterations.
+ */
+public class LoadProfile {
+    private final int users;
+    private final Duration rampUp;
+    private final Duration steadyState;
+    private final Duration rampDown;
+    private final Duration thinkTime;
+    private final boolean virtualThreads;
+
+    /**
+     * Create a load profile.
+     *
+     * @param users          Number of virtual users
+     * @param rampUp         Time over which the virtual users are started
+     * @param steadyState    Time during which all virtual users are active
+     * @param rampDown       Time over which the virtual users are stopped
+     * @param thinkTime      Pause between iterations of a virtual user
+     * @param virtualThreads Whether virtual users run on virtual threads
+     */
+    public LoadProfile(int users, Duration rampUp, Duration steadyState, Duration rampDown,
+                       Duration thinkTime, boolean virtualThreads) {
+        if (users < 1) {
+            throw new IllegalArgumentException("users must be at least 1 but was " + users);
+        }
+        this.users = users;
+        this.rampUp = rampUp;
+        this.steadyState = steadyState;
+        this.rampDown = rampDown;
+        this.thinkTime = thinkTime;
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Create a load profile from {@code test_settings.performance} in config.json.
+     * As with the k6 script, {@code duration} is the total run time in seconds including
+     * ramp-up ({@code ramp_up_period}) and ramp-down ({@code ramp_down_period}).
+     *
+     * @return The load profile
+     * @throws IOException   If the configuration file cannot be read
+     * @throws JSONException If the configuration file is not valid JSON
+     */
+    public static LoadProfile fromConfig() throws IOException, JSONException {
+        JSONObject settings = EnvLoader.getInstance().getTestSettings("performance");
+
+        Duration rampUp = Duration.ofSeconds(settings.optLong("ramp_up_period", 0));
+        Duration rampDown = Duration.ofSeconds(settings.optLong("ramp_down_period", 0));
+        Duration total = Duration.ofSeconds(settings.optLong("duration", 60));
+        Duration steadyState = total.minus(rampUp).minus(rampDown);
+        if (steadyState.isNegative()) {
+            steadyState = Duration.ZERO;
+        }
+
+        return new LoadProfile(
+                settings.optInt("users", 1),
+                rampUp,
+                steadyState,
+                rampDown,
+                Duration.ofMillis(settings.optLong("think_time", 0)),
+                settings.optBoolean("virtual_threads", false));
+    }
+
+    /**
+     * Get the number of virtual users.
+     *
+     * @return The number of virtual users
+     */
+    public int getUsers() {
+        return users;
+    }
+
+    /**
+     * Get the ramp-up time.
+     *
+     * @return The ramp-up time
+     */
+    public Duration getRampUp() {
+        return rampUp;
+    }
+
+    /**
+     * Get the steady-state time.
+     *
+     * @return The steady-state time
+     */
+    public Duration getSteadyState() {
+        return steadyState;
+    }
+
+    /**
+     * Get the ramp-down time.
+     *
+     * @return The ramp-down time
+     */
+    public Duration getRampDown() {
+        return rampDown;
+    }
+
+    /**
+     * Get the think time between iterations.
+     *
+     * @return The think time
+     */
+    public Duration getThinkTime() {
+        return thinkTime;
+    }
+
+    /**
+     * Check whether virtual users run on virtual threads.
+     *
+     * @return True if virtual threads are used
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Get the total run time.
+     *
+     * @return Ramp-up plus steady state plus ramp-down
+     */
+    public Duration getTotalDuration() {
+        return rampUp.plus(steadyState).plus(rampDown);
+    }
+
+    @Override
+    public String toString() {
+        return "LoadProfile{users=" + users + ", rampUp=" + rampUp + ", steadyState=" + steadyState
+                + ", rampDown=" + rampDown + ", thinkTime=" + thinkTime + ", virtualThreads=" + virtualThreads + "}";
+    }
+}
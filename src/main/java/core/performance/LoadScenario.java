@@ -0,0 +1,71 @@
+package core.performance;
+
+import core.clients.BaseApiClient;
+
+/**
+ * A named, weighted unit of work executed repeatedly by virtual users.
+ * A scenario can make any number of client calls; it fails if it throws,
+ * including assertion errors from {@code JavaAssertions}.
+ */
+public class LoadScenario {
+    private final String name;
+    private final int weight;
+    private final Action action;
+
+    /**
+     * The work performed by one iteration of a scenario.
+     */
+    @FunctionalInterface
+    public interface Action {
+        /**
+         * Run one iteration.
+         *
+         * @param client The virtual user's client
+         * @throws Exception If the iteration fails
+         */
+        void execute(BaseApiClient client) throws Exception;
+    }
+
+    /**
+     * Create a scenario.
+     *
+     * @param name   Name of the scenario, used in results
+     * @param weight Relative weight used when picking the next scenario
+     * @param action The work performed by one iteration
+     */
+    public LoadScenario(String name, int weight, Action action) {
+        if (weight < 1) {
+            throw new IllegalArgumentException("weight must be at least 1 but was " + weight);
+        }
+        this.name = name;
+        this.weight = weight;
+        this.action = action;
+    }
+
+    /**
+     * Get the scenario name.
+     *
+     * @return The name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the scenario weight.
+     *
+     * @return The weight
+     */
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * Get the scenario action.
+     *
+     * @return The action
+     */
+    public Action getAction() {
+        return action;
+    }
+}
@@ -0,0 +1,295 @@
+package core.performance;
+
+import core.metrics.LatencyHistogram;
+import org.json.JSONObject;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregated results of a load run, per scenario.
+ * Recording is thread-safe and does not retain individual samples; percentiles come
+ * from a fixed-size {@link LatencyHistogram} per scenario. For arrival-rate runs,
+ * iteration times are measured from the scheduled start and dropped and late arrivals
+ * are counted separately.
+ */
+public class LoadTestResult {
+    private final Map<String, ScenarioStats> stats = new ConcurrentHashMap<>();
+    private volatile Duration elapsed = Duration.ZERO;
+
+    /**
+     * Record one scenario iteration.
+     *
+     * @param scenario      Scenario name
+     * @param elapsedNanos  Time taken by the iteration in nanoseconds
+     * @param success       Whether the iteration succeeded
+     */
+    public void record(String scenario, long elapsedNanos, boolean success) {
+        stats.computeIfAbsent(scenario, name -> new ScenarioStats()).record(elapsedNanos, success);
+    }
+
+    /**
+     * Record an arrival that was dropped because too many iterations were in progress.
+     *
+     * @param scenario Scenario name
+     */
+    public void recordDropped(String scenario) {
+        stats.computeIfAbsent(scenario, name -> new ScenarioStats()).dropped.increment();
+    }
+
+    /**
+     * Record an arrival that was dispatched later than scheduled.
+     *
+     * @param scenario Scenario name
+     */
+    public void recordLate(String scenario) {
+        stats.computeIfAbsent(scenario, name -> new ScenarioStats()).late.increment();
+    }
+
+    /**
+     * Set the wall-clock time of the run.
+     *
+     * @param elapsed Elapsed time
+     */
+    void setElapsed(Duration elapsed) {
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Get the wall-clock time of the run.
+     *
+     * @return Elapsed time
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Get the names of all scenarios that ran.
+     *
+     * @return Scenario names in alphabetical order
+     */
+    public Set<String> getScenarioNames() {
+        return Collections.unmodifiableSet(new TreeSet<>(stats.keySet()));
+    }
+
+    /**
+     * Get the number of iterations of a scenario.
+     *
+     * @param scenario Scenario name
+     * @return Number of iterations
+     */
+    public long getCount(String scenario) {
+        ScenarioStats s = stats.get(scenario);
+        return s == null ? 0 : s.count.sum();
+    }
+
+    /**
+     * Get the number of failed iterations of a scenario.
+     *
+     * @param scenario Scenario name
+     * @return Number of failed iterations
+     */
+    public long getFailures(String scenario) {
+        ScenarioStats s = stats.get(scenario);
+        return s == null ? 0 : s.failures.sum();
+    }
+
+    /**
+     * Get the number of dropped arrivals of a scenario.
+     *
+     * @param scenario Scenario name
+     * @return Number of dropped arrivals
+     */
+    public long getDropped(String scenario) {
+        ScenarioStats s = stats.get(scenario);
+        return s == null ? 0 : s.dropped.sum();
+    }
+
+    /**
+     * Get the number of late arrivals of a scenario.
+     *
+     * @param scenario Scenario name
+     * @return Number of late arrivals
+     */
+    public long getLate(String scenario) {
+        ScenarioStats s = stats.get(scenario);
+        return s == null ? 0 : s.late.sum();
+    }
+
+    /**
+     * Get the mean iteration time of a scenario.
+     *
+     * @param scenario Scenario name
+     * @return Mean time in milliseconds, or 0 if the scenario never ran
+     */
+    public double getMeanMillis(String scenario) {
+        ScenarioStats s = stats.get(scenario);
+        long count = s == null ? 0 : s.count.sum();
+        return count == 0 ? 0 : s.totalNanos.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Get an iteration time percentile of a scenario.
+     *
+     * @param scenario   Scenario name
+     * @param percentile The percentile as a fraction, e.g. 0.99
+     * @return The percentile in milliseconds, or 0 if the scenario never ran
+     */
+    public double getPercentileMillis(String scenario, double percentile) {
+        ScenarioStats s = stats.get(scenario);
+        return s == null ? 0 : s.latency.getPercentileMillis(percentile);
+    }
+
+    /**
+     * Get the slowest iteration time of a scenario.
+     *
+     * @param scenario Scenario name
+     * @return Maximum time in milliseconds
+     */
+    public long getMaxMillis(String scenario) {
+        ScenarioStats s = stats.get(scenario);
+        return s == null ? 0 : TimeUnit.NANOSECONDS.toMillis(s.maxNanos.get());
+    }
+
+    /**
+     * Get the total number of iterations across all scenarios.
+     *
+     * @return Total number of iterations
+     */
+    public long getTotalCount() {
+        long total = 0;
+        for (ScenarioStats s : stats.values()) {
+            total += s.count.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Get the total number of failed iterations across all scenarios.
+     *
+     * @return Total number of failures
+     */
+    public long getTotalFailures() {
+        long total = 0;
+        for (ScenarioStats s : stats.values()) {
+            total += s.failures.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Get the total number of dropped arrivals across all scenarios.
+     *
+     * @return Total number of dropped arrivals
+     */
+    public long getTotalDropped() {
+        long total = 0;
+        for (ScenarioStats s : stats.values()) {
+            total += s.dropped.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Get the total number of late arrivals across all scenarios.
+     *
+     * @return Total number of late arrivals
+     */
+    public long getTotalLate() {
+        long total = 0;
+        for (ScenarioStats s : stats.values()) {
+            total += s.late.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Get the fraction of iterations that failed.
+     *
+     * @return Error rate between 0 and 1
+     */
+    public double getErrorRate() {
+        long total = getTotalCount();
+        return total == 0 ? 0 : getTotalFailures() / (double) total;
+    }
+
+    /**
+     * Get the iteration throughput of the run.
+     *
+     * @return Iterations per second
+     */
+    public double getThroughput() {
+        double seconds = elapsed.toNanos() / 1e9;
+        return seconds == 0 ? 0 : getTotalCount() / seconds;
+    }
+
+    /**
+     * Convert the results to JSON for reporting.
+     *
+     * @return The results as a JSONObject
+     */
+    public JSONObject toJson() {
+        JSONObject scenarios = new JSONObject();
+        for (String name : getScenarioNames()) {
+            JSONObject scenario = new JSONObject();
+            scenario.put("count", getCount(name));
+            scenario.put("failures", getFailures(name));
+            scenario.put("mean_ms", getMeanMillis(name));
+            scenario.put("p50_ms", getPercentileMillis(name, 0.50));
+            scenario.put("p95_ms", getPercentileMillis(name, 0.95));
+            scenario.put("p99_ms", getPercentileMillis(name, 0.99));
+            scenario.put("max_ms", getMaxMillis(name));
+            scenario.put("dropped", getDropped(name));
+            scenario.put("late", getLate(name));
+            scenarios.put(name, scenario);
+        }
+
+        JSONObject json = new JSONObject();
+        json.put("elapsed_ms", elapsed.toMillis());
+        json.put("total_count", getTotalCount());
+        json.put("total_failures", getTotalFailures());
+        json.put("total_dropped", getTotalDropped());
+        json.put("total_late", getTotalLate());
+        json.put("error_rate", getErrorRate());
+        json.put("throughput", getThroughput());
+        json.put("scenarios", scenarios);
+        return json;
+    }
+
+    /**
+     * Running totals for one scenario.
+     */
+    private static class ScenarioStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder late = new LongAdder();
+
+        /**
+         * Record one iteration.
+         *
+         * @param elapsedNanos Time taken in nanoseconds
+         * @param success      Whether the iteration succeeded
+         */
+        void record(long elapsedNanos, boolean success) {
+            count.increment();
+            if (!success) {
+                failures.increment();
+            }
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+            latency.recordNanos(elapsedNanos);
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package core.utils;
+
+import io.restassured.RestAssured;
+import io.restassured.config.ObjectMapperConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.internal.RestAssuredResponseOptionsImpl;
+import io.restassured.path.json.JsonPath;
+import io.restassured.path.json.config.JsonPathConfig;
+import io.restassured.response.Response;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Memoizes the body of each response as a string, a parsed JSON tree and a parsed
+ * {@link JsonPath}, so assertions, extractors and reporters that look at the same response
+ * read and parse it once.
+ * <p>
+ * Entries are weakly keyed by the response and disappear once the response is no longer
+ * referenced. Responses can be shared between threads (see {@code RequestCoalescer}), so
+ * every caller gets the same parsed tree, and the tree is read-only: methods that would
+ * modify it throw {@link UnsupportedOperationException}. A caller that needs to modify the
+ * JSON takes its own copy, e.g. {@code new JSONObject(json.toMap())}.
+ */
+public final class ParsedResponseCache {
+    private static final Map<Response, ParsedBody> CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private ParsedResponseCache() {
+    }
+
+    /**
+     * Get the response body as a string.
+     *
+     * @param response The response
+     * @return The body
+     */
+    public static String getBody(Response response) {
+        return entry(response).body(response);
+    }
+
+    /**
+     * Get the response body parsed as JSON.
+     *
+     * @param response The response
+     * @return The read-only parsed body: a JSONObject, JSONArray or JSON scalar
+     * @throws JSONException If the body is not valid JSON
+     */
+    public static Object getJson(Response response) throws JSONException {
+        return entry(response).json(response);
+    }
+
+    /**
+     * Get the response body as a JSONObject.
+     *
+     * @param response The response
+     * @return The read-only parsed body
+     * @throws JSONException If the body is not a JSON object
+     */
+    public static JSONObject getJsonObject(Response response) throws JSONException {
+        Object json = entry(response).json(response);
+        if (!(json instanceof JSONObject)) {
+            throw new JSONException("Response body is not a JSON object");
+        }
+        return (JSONObject) json;
+    }
+
+    /**
+     * Get the response body as a JSONArray.
+     *
+     * @param response The response
+     * @return The read-only parsed body
+     * @throws JSONException If the body is not a JSON array
+     */
+    public static JSONArray getJsonArray(Response response) throws JSONException {
+        Object json = entry(response).json(response);
+        if (!(json instanceof JSONArray)) {
+            throw new JSONException("Response body is not a JSON array");
+        }
+        return (JSONArray) json;
+    }
+
+    /**
+     * Get a JsonPath over the response body, configured as {@link Response#jsonPath()} is.
+     * The body is parsed once per response; each call returns a view over the same parsed
+     * body with its own root path and parameters, so {@code setRootPath} on one view does not
+     * affect others. Values it returns are parts of the shared body and must not be modified.
+     *
+     * @param response The response
+     * @return A JsonPath over the parsed body
+     */
+    public static JsonPath getJsonPath(Response response) {
+        return entry(response).jsonPath(response);
+    }
+
+    /**
+     * Get the number of responses currently cached.
+     *
+     * @return The number of entries
+     */
+    public static int size() {
+        return CACHE.size();
+    }
+
+    /**
+     * Build the JsonPath configuration RestAssured uses for a response: its number return type
+     * and object mappers.
+     *
+     * @param response The response
+     * @return The configuration
+     */
+    private static JsonPathConfig jsonPathConfig(Response response) {
+        RestAssuredConfig config = response instanceof RestAssuredResponseOptionsImpl
+                ? ((RestAssuredResponseOptionsImpl<?>) response).getConfig() : null;
+        if (config == null) {
+            config = RestAssured.config();
+        }
+        ObjectMapperConfig mappers = config.getObjectMapperConfig();
+        return JsonPathConfig.jsonPathConfig()
+                .numberReturnType(config.getJsonConfig().numberReturnType())
+                .gsonObjectMapperFactory(mappers.gsonObjectMapperFactory())
+                .jackson1ObjectMapperFactory(mappers.jackson1ObjectMapperFactory())
+                .jackson2ObjectMapperFactory(mappers.jackson2ObjectMapperFactory());
+    }
+
+    /**
+     * Get or create the cache entry for a response.
+     *
+     * @param response The response
+     * @return The entry
+     */
+    private static ParsedBody entry(Response response) {
+        return CACHE.computeIfAbsent(response, key -> new ParsedBody());
+    }
+
+    /**
+     * Lazily computed views of one response body. Holds no reference to the response,
+     * so the weak key can be collected.
+     */
+    private static class ParsedBody {
+        private String body;
+        private Object json;
+        private JSONException parseError;
+        private JsonPath jsonPath;
+        private JsonPathConfig jsonPathConfig;
+
+        /**
+         * Get the body, reading it on first use.
+         *
+         * @param response The response
+         * @return The body
+         */
+        synchronized String body(Response response) {
+            if (body == null) {
+                body = response.getBody().asString();
+            }
+            return body;
+        }
+
+        /**
+         * Get the parsed body, parsing it on first use. A parse failure is remembered too.
+         *
+         * @param response The response
+         * @return The parsed body
+         * @throws JSONException If the body is not valid JSON
+         */
+        synchronized Object json(Response response) throws JSONException {
+            if (json == null && parseError == null) {
+                try {
+                    json = new ReadOnlyTokener(body(response)).nextValue();
+                } catch (JSONException e) {
+                    parseError = e;
+                }
+            }
+            if (parseError != null) {
+                throw parseError;
+            }
+            return json;
+        }
+
+        /**
+         * Get a view of the JsonPath over the body, parsing the body on first use. A JsonPath
+         * parses lazily and its copies share the parsed body, so it is parsed here, under the
+         * lock, and every caller gets a copy.
+         *
+         * @param response The response
+         * @return A JsonPath sharing the parsed body
+         */
+        synchronized JsonPath jsonPath(Response response) {
+            if (jsonPath == null) {
+                JsonPathConfig config = jsonPathConfig(response);
+                JsonPath parsed = new JsonPath(body(response)).using(config);
+                parsed.get();
+                jsonPathConfig = config;
+                jsonPath = parsed;
+            }
+            return jsonPath.using(jsonPathConfig);
+        }
+    }
+
+    /**
+     * A tokener that builds read-only objects and arrays, so a parsed tree can be shared.
+     */
+    private static class ReadOnlyTokener extends JSONTokener {
+
+        /**
+         * Create a tokener.
+         *
+         * @param text The JSON text
+         */
+        ReadOnlyTokener(String text) {
+            super(text);
+        }
+
+        @Override
+        public Object nextValue() throws JSONException {
+            char c = nextClean();
+            if (c == 0) {
+                // End of input: let JSONTokener report it
+                return super.nextValue();
+            }
+            back();
+            if (c == '{') {
+                return new ReadOnlyObject(this);
+            }
+            if (c == '[') {
+                return new ReadOnlyArray(this);
+            }
+            return super.nextValue();
+        }
+    }
+
+    /**
+     * A JSONObject that can no longer be modified once parsed. The typed {@code put} methods,
+     * {@code putOnce}, {@code putOpt}, {@code accumulate}, {@code append} and {@code increment}
+     * all go through {@code put(String, Object)}.
+     */
+    private static class ReadOnlyObject extends JSONObject {
+        private final boolean parsed;
+
+        /**
+         * Parse an object.
+         *
+         * @param tokener The tokener, positioned at the opening brace
+         * @throws JSONException If the text is not a valid object
+         */
+        ReadOnlyObject(ReadOnlyTokener tokener) throws JSONException {
+            super(tokener);
+            parsed = true;
+        }
+
+        @Override
+        public JSONObject put(String key, Object value) throws JSONException {
+            if (parsed) {
+                throw new UnsupportedOperationException("Parsed response JSON is read-only");
+            }
+            return super.put(key, value);
+        }
+
+        @Override
+        public Object remove(String key) {
+            throw new UnsupportedOperationException("Parsed response JSON is read-only");
+        }
+
+        @Override
+        public void clear() {
+            throw new UnsupportedOperationException("Parsed response JSON is read-only");
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return Collections.unmodifiableSet(super.keySet());
+        }
+    }
+
+    /**
+     * A JSONArray that cannot be modified. Values are added while parsing without going
+     * through its mutators; the typed {@code put} methods go through the two overridden here.
+     */
+    private static class ReadOnlyArray extends JSONArray {
+
+        /**
+         * Parse an array.
+         *
+         * @param tokener The tokener, positioned at the opening bracket
+         * @throws JSONException If the text is not a valid array
+         */
+        ReadOnlyArray(ReadOnlyTokener tokener) throws JSONException {
+            super(tokener);
+        }
+
+        @Override
+        public JSONArray put(Object value) {
+            throw new UnsupportedOperationException("Parsed response JSON is read-only");
+        }
+
+        @Override
+        public JSONArray put(int index, Object value) throws JSONException {
+            throw new UnsupportedOperationException("Parsed response JSON is read-only");
+        }
+
+        @Override
+        public JSONArray putAll(Collection<?> collection) {
+            throw new UnsupportedOperationException("Parsed response JSON is read-only");
+        }
+
+        @Override
+        public JSONArray putAll(Iterable<?> iter) {
+            throw new UnsupportedOperationException("Parsed response JSON is read-only");
+        }
+
+        @Override
+        public JSONArray putAll(JSONArray array) {
+            throw new UnsupportedOperationException("Parsed response JSON is read-only");
+        }
+
+        @Override
+        public JSONArray putAll(Object array) throws JSONException {
+            throw new UnsupportedOperationException("Parsed response JSON is read-only");
+        }
+
+        @Override
+        public Object remove(int index) {
+            throw new UnsupportedOperationException("Parsed response JSON is read-only");
+        }
+
+        @Override
+        public void clear() {
+            throw new UnsupportedOperationException("Parsed response JSON is read-only");
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            Iterator<Object> values = super.iterator();
+            return new Iterator<Object>() {
+                @Override
+                public boolean hasNext() {
+                    return values.hasNext();
+                }
+
+                @Override
+                public Object next() {
+                    return values.next();
+                }
+            };
+        }
+    }
+}
@@ -8,11 +8,14 @@ import io.qameta.allure.SeverityLevel;
 import io.qameta.allure.Story;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Epic("API Testing")
 @Feature("Basic Tests")
+@Execution(ExecutionMode.CONCURRENT)
 public class SimpleFunctionalTest {
 
     @Test
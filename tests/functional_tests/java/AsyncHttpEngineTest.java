@@ -0,0 +1,103 @@
+package tests.functional_tests.java;
+
+import com.sun.net.httpserver.HttpServer;
+import core.clients.AsyncHttpEngine;
+import io.qameta.allure.*;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.*;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for the in-flight window of the asynchronous HTTP engine.
+ * Uses an in-process HTTP stub so the test does not depend on a deployed environment.
+ */
+@Epic("API Testing")
+@Feature("Execution")
+public class AsyncHttpEngineTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 64);
+        server.createContext("/slow", exchange -> {
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            active.decrementAndGet();
+            byte[] body = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Requests beyond the window are queued without blocking the caller")
+    @Story("Async requests")
+    public void testFullWindowQueuesInsteadOfBlocking() {
+        AsyncHttpEngine engine = new AsyncHttpEngine(2);
+        List<CompletableFuture<Response>> responses = new ArrayList<>();
+
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < 6; i++) {
+                responses.add(engine.send("GET", baseUrl + "/slow", Collections.emptyMap(), null));
+            }
+        });
+        Assertions.assertEquals(2, engine.getInFlight());
+        Assertions.assertEquals(4, engine.getQueued());
+
+        release.countDown();
+        for (CompletableFuture<Response> response : responses) {
+            Assertions.assertEquals(200, response.join().getStatusCode());
+        }
+        Assertions.assertTrue(peak.get() <= 2, "Server saw " + peak.get() + " concurrent requests");
+        Assertions.assertEquals(0, engine.getInFlight());
+        Assertions.assertEquals(0, engine.getQueued());
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("A request that cannot be sent frees its slot for the queued ones")
+    @Story("Async requests")
+    public void testFailedRequestFreesSlot() {
+        AsyncHttpEngine engine = new AsyncHttpEngine(1);
+        release.countDown();
+
+        CompletableFuture<Response> failed = engine.send("GET", "http://localhost:1/unreachable",
+                Collections.emptyMap(), null);
+        CompletableFuture<Response> next = engine.send("GET", baseUrl + "/slow", Collections.emptyMap(), null);
+
+        Assertions.assertThrows(Exception.class, failed::join);
+        Assertions.assertEquals(200, next.join().getStatusCode());
+        Assertions.assertEquals(0, engine.getInFlight());
+    }
+}
@@ -0,0 +1,144 @@
+package tests.functional_tests.java;
+
+import com.sun.net.httpserver.HttpServer;
+import core.clients.BaseApiClient;
+import core.clients.BatchRequest;
+import core.clients.BatchResult;
+import core.clients.JdkHttpTransport;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for sending batches of requests concurrently.
+ * Uses an in-process server whose handlers take as long as the request asks.
+ */
+@Epic("API Testing")
+@Feature("Batch requests")
+public class BatchRequestTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private BaseApiClient apiClient;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 64);
+        server.createContext("/items", exchange -> {
+            int now = active.incrementAndGet();
+            maxActive.accumulateAndGet(now, Math::max);
+            try {
+                String query = exchange.getRequestURI().getQuery();
+                Thread.sleep(query != null && query.startsWith("delay=") ? Long.parseLong(query.substring(6)) : 0);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+            }
+            String path = exchange.getRequestURI().getPath();
+            if (path.endsWith("/broken")) {
+                // Drop the connection without a response
+                exchange.close();
+                return;
+            }
+            byte[] body = path.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(path.endsWith("/missing") ? 404 : 200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        String baseUrl = "http://localhost:" + server.getAddress().getPort();
+        apiClient = new BaseApiClient(baseUrl);
+        apiClient.setTransport(new JdkHttpTransport(baseUrl));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Results come back in request order, even when later requests finish first")
+    @Story("Fan-out")
+    public void testResultsAreInRequestOrder() {
+        List<BatchRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            requests.add(BatchRequest.get("/items/" + i, Map.of("delay", String.valueOf(300 - i * 50))));
+        }
+
+        long start = System.nanoTime();
+        List<BatchResult> results = apiClient.batch(requests, requests.size());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Assertions.assertEquals(requests.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            BatchResult result = results.get(i);
+            Assertions.assertSame(requests.get(i), result.getRequest());
+            Assertions.assertTrue(result.isSuccess(), "Request " + i + " failed: " + result.getError());
+            Assertions.assertEquals("/items/" + i, result.getResponse().asString());
+            Assertions.assertTrue(result.getElapsedMillis() >= 300 - i * 50,
+                    "Request " + i + " took " + result.getElapsedMillis() + "ms");
+        }
+        Assertions.assertTrue(elapsedMillis < 1050, "Six requests sent in parallel took " + elapsedMillis + "ms");
+        Assertions.assertTrue(apiClient.batch(List.of()).isEmpty());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("A request that fails is reported in its result and the rest of the batch still runs")
+    @Story("Fan-out")
+    public void testFailureDoesNotAbortBatch() {
+        List<BatchRequest> requests = List.of(
+                BatchRequest.get("/items/first"),
+                BatchRequest.get("/items/broken"),
+                BatchRequest.get("/items/missing"),
+                BatchRequest.delete("/items/last"));
+
+        List<BatchResult> results = apiClient.batch(requests, 1);
+
+        Assertions.assertTrue(results.get(0).isSuccess());
+        Assertions.assertEquals(200, results.get(0).getResponse().getStatusCode());
+
+        BatchResult broken = results.get(1);
+        Assertions.assertFalse(broken.isSuccess());
+        Assertions.assertNull(broken.getResponse());
+        Assertions.assertTrue(broken.getError() instanceof IllegalStateException, "Error was " + broken.getError());
+
+        Assertions.assertTrue(results.get(2).isSuccess(), "An error status is still a response");
+        Assertions.assertEquals(404, results.get(2).getResponse().getStatusCode());
+        Assertions.assertTrue(results.get(3).isSuccess(), "Requests after a failure are sent");
+        Assertions.assertEquals("/items/last", results.get(3).getResponse().asString());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("No more than the given number of requests are in flight at once")
+    @Story("Parallelism")
+    public void testParallelismIsCapped() {
+        List<BatchRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            requests.add(BatchRequest.get("/items/" + i, Map.of("delay", "100")));
+        }
+
+        List<BatchResult> results = apiClient.batch(requests, 3);
+
+        Assertions.assertTrue(results.stream().allMatch(BatchResult::isSuccess));
+        Assertions.assertEquals(3, maxActive.get(), "Requests in flight at once");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> apiClient.batch(requests, 0));
+    }
+}
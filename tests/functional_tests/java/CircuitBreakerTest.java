@@ -0,0 +1,204 @@
+package tests.functional_tests.java;
+
+import core.clients.BaseApiClient;
+import core.clients.CircuitBreaker;
+import core.clients.CircuitOpenException;
+import core.execution.CircuitBreakerExtension;
+import io.qameta.allure.*;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.*;
+import org.opentest4j.TestAbortedException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Tests for the per-route circuit breaker and the JUnit extension that aborts tests on an open circuit.
+ */
+@Epic("API Testing")
+@Feature("Resilience")
+public class CircuitBreakerTest {
+
+    private static CircuitBreaker breaker(Duration openDuration, int probes) {
+        return new CircuitBreaker("localhost:80 /orders/{id}", 4, 2, 0.5, openDuration, probes);
+    }
+
+    private static CircuitBreaker fullWindowBreaker() {
+        return new CircuitBreaker("localhost:80 /orders/{id}", 4, 4, 0.5, Duration.ofMinutes(1), 1);
+    }
+
+    private static void call(CircuitBreaker breaker, boolean success) {
+        breaker.record(breaker.acquirePermission("GET"), success);
+    }
+
+    private static CircuitBreaker openBreaker(Duration openDuration, int probes) {
+        CircuitBreaker breaker = breaker(openDuration, probes);
+        call(breaker, false);
+        call(breaker, false);
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("The breaker opens once the failure rate over the sliding window reaches the threshold")
+    @Story("Sliding window")
+    public void testOpensOnFailureRateOverWindow() {
+        CircuitBreaker breaker = fullWindowBreaker();
+
+        call(breaker, false);
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(), "Below minimumCalls");
+        call(breaker, true);
+        call(breaker, true);
+        call(breaker, true);
+        Assertions.assertEquals(0.25, breaker.getFailureRate());
+
+        // The window holds 4 calls, so the first failure drops out
+        call(breaker, true);
+        Assertions.assertEquals(0.0, breaker.getFailureRate());
+        call(breaker, false);
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        call(breaker, false);
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        CircuitOpenException open = Assertions.assertThrows(CircuitOpenException.class,
+                () -> breaker.acquirePermission("GET"));
+        Assertions.assertEquals("localhost:80 /orders/{id}", open.getCircuit());
+        Assertions.assertTrue(open.getRetryIn().compareTo(Duration.ofSeconds(50)) > 0);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("After the open period, successful probes close the breaker and a failed probe reopens it")
+    @Story("Half open")
+    public void testHalfOpenProbes() {
+        CircuitBreaker breaker = openBreaker(Duration.ZERO, 2);
+
+        CircuitBreaker.Permission first = breaker.acquirePermission("GET");
+        CircuitBreaker.Permission second = breaker.acquirePermission("GET");
+        Assertions.assertTrue(first.isProbe() && second.isProbe());
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        Assertions.assertThrows(CircuitOpenException.class, () -> breaker.acquirePermission("GET"),
+                "All probes are taken");
+
+        breaker.record(first, true);
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.record(second, false);
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        breaker.record(breaker.acquirePermission("GET"), true);
+        breaker.record(breaker.acquirePermission("GET"), true);
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        Assertions.assertEquals(0.0, breaker.getFailureRate());
+        Assertions.assertFalse(breaker.acquirePermission("GET").isProbe());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("A call let through while closed that completes during half open is not counted as a probe")
+    @Story("Half open")
+    public void testStaleOutcomeDoesNotCloseCircuit() {
+        CircuitBreaker breaker = breaker(Duration.ZERO, 1);
+        CircuitBreaker.Permission slow = breaker.acquirePermission("GET");
+        call(breaker, false);
+        call(breaker, false);
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        CircuitBreaker.Permission probe = breaker.acquirePermission("GET");
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.record(slow, true);
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        Assertions.assertThrows(CircuitOpenException.class, () -> breaker.acquirePermission("GET"),
+                "The probe slot must still be taken");
+
+        breaker.record(probe, true);
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Releasing a probe that was never sent frees its slot without deciding the circuit")
+    @Story("Half open")
+    public void testReleasedProbeFreesSlot() {
+        CircuitBreaker breaker = openBreaker(Duration.ZERO, 1);
+
+        breaker.release(breaker.acquirePermission("GET"));
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        CircuitBreaker.Permission probe = breaker.acquirePermission("GET");
+        Assertions.assertTrue(probe.isProbe());
+        breaker.record(probe, true);
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("An async request that cannot be built fails its future and records nothing")
+    @Story("Half open")
+    public void testAsyncRequestThatCannotBeBuiltRecordsNothing() {
+        BaseApiClient client = new BaseApiClient("http://localhost:1");
+
+        CompletableFuture<Response> response = client.getAsync("/not a valid path");
+
+        CompletionException failure = Assertions.assertThrows(CompletionException.class, response::join);
+        Assertions.assertTrue(failure.getCause() instanceof IllegalArgumentException, failure.toString());
+        CircuitBreaker breaker = CircuitBreaker.forRoute("http://localhost:1", "/not a valid path");
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        Assertions.assertEquals(0.0, breaker.getFailureRate());
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Only I/O failures and 502, 503 and 504 count as failures")
+    @Story("Sliding window")
+    public void testExecuteClassifiesOutcomes() {
+        CircuitBreaker breaker = fullWindowBreaker();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> breaker.execute("GET", () -> {
+            throw new IllegalArgumentException("Not an I/O failure");
+        }));
+        Assertions.assertThrows(UncheckedIOException.class, () -> breaker.execute("GET", () -> {
+            throw new UncheckedIOException(new IOException("Connection refused"));
+        }));
+        Assertions.assertEquals(0.5, breaker.getFailureRate());
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Tests and setup that hit an open circuit are aborted, cleanup is skipped")
+    @Story("JUnit extension")
+    public void testExtensionAbortsOnOpenCircuit() {
+        CircuitBreakerExtension extension = new CircuitBreakerExtension();
+        CircuitOpenException open = new CircuitOpenException("localhost:80 /orders/{id}", "GET", 5, 8,
+                Duration.ofSeconds(30));
+
+        TestAbortedException aborted = Assertions.assertThrows(TestAbortedException.class,
+                () -> extension.handleTestExecutionException(null, new CompletionException(open)));
+        Assertions.assertSame(open, aborted.getCause());
+        Assertions.assertEquals(open.getMessage(), aborted.getMessage());
+        Assertions.assertThrows(TestAbortedException.class,
+                () -> extension.handleBeforeEachMethodExecutionException(null, open));
+        Assertions.assertThrows(TestAbortedException.class,
+                () -> extension.handleBeforeAllMethodExecutionException(null, open));
+
+        Assertions.assertDoesNotThrow(() -> extension.handleAfterEachMethodExecutionException(null, open));
+        Assertions.assertDoesNotThrow(() -> extension.handleAfterAllMethodExecutionException(null, open));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Other failures pass through the extension unchanged")
+    @Story("JUnit extension")
+    public void testExtensionRethrowsOtherFailures() {
+        CircuitBreakerExtension extension = new CircuitBreakerExtension();
+        AssertionError failure = new AssertionError("expected 200 but was 500");
+
+        Assertions.assertSame(failure, Assertions.assertThrows(AssertionError.class,
+                () -> extension.handleTestExecutionException(null, failure)));
+        Assertions.assertSame(failure, Assertions.assertThrows(AssertionError.class,
+                () -> extension.handleAfterEachMethodExecutionException(null, failure)));
+    }
+}
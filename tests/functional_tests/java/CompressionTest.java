@@ -0,0 +1,236 @@
+package tests.functional_tests.java;
+
+import core.clients.AsyncHttpEngine;
+import core.clients.BaseApiClient;
+import core.clients.Compression;
+import core.clients.JdkHttpTransport;
+import core.metrics.LatencyRecorder;
+import core.metrics.TransferRecorder;
+import core.metrics.TransferStats;
+import io.qameta.allure.*;
+import io.restassured.response.Response;
+import org.json.JSONObject;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Tests for decoding compressed responses, gzipping request bodies and transfer accounting.
+ * Requests are answered by an {@link InMemoryHttpClient}, so the transports run unchanged
+ * without a server.
+ */
+@Epic("API Testing")
+@Feature("Compression")
+public class CompressionTest {
+
+    private static final String BASE_URL = "http://compression.test";
+    private static final byte[] BODY = "{\"items\":[\"alpha\",\"beta\",\"gamma\"]}".repeat(50)
+            .getBytes(StandardCharsets.UTF_8);
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] deflate(byte[] body, boolean zlibWrapped) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, !zlibWrapped);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(compressed, deflater)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Get a client that answers every request with the same encoded body.
+     *
+     * @param encoding The Content-Encoding, or null for none
+     * @param wire     The body as sent
+     * @return The client
+     */
+    private static InMemoryHttpClient answering(String encoding, byte[] wire) {
+        return new InMemoryHttpClient((request, body) -> {
+            InMemoryHttpClient.Reply reply = new InMemoryHttpClient.Reply(200, wire);
+            return encoding != null ? reply.header("Content-Encoding", encoding) : reply;
+        });
+    }
+
+    /**
+     * Send a request with both the blocking and the asynchronous transport.
+     *
+     * @param client The client answering the requests
+     * @param method HTTP method
+     * @param path   The request path
+     * @return The blocking response followed by the asynchronous one
+     */
+    private static Response[] sendBoth(InMemoryHttpClient client, String method, String path) {
+        Response blocking = new JdkHttpTransport(BASE_URL, client).execute(method, path, null, Map.of(), (String) null);
+        Response async = new AsyncHttpEngine(1, client).send(method, BASE_URL + path, Map.of(), null).join();
+        return new Response[]{blocking, async};
+    }
+
+    private static void assertTransfer(Response response, long wireBytes, long decodedBytes) {
+        TransferRecorder.Transfer transfer = TransferRecorder.getTransfer(response);
+        Assertions.assertNotNull(transfer, "The response transfer is recorded");
+        Assertions.assertEquals(wireBytes, transfer.getWireBytes());
+        Assertions.assertEquals(decodedBytes, transfer.getDecodedBytes());
+        Assertions.assertEquals(decodedBytes - wireBytes, transfer.getSavedBytes());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("A gzip body is decoded, and its wire and decoded sizes are recorded")
+    @Story("Response decoding")
+    public void testGzipResponseIsDecoded() {
+        byte[] wire = gzip(BODY);
+        String path = "/compression/gzip";
+
+        for (Response response : sendBoth(answering("gzip", wire), "GET", path)) {
+            Assertions.assertArrayEquals(BODY, response.asByteArray());
+            assertTransfer(response, wire.length, BODY.length);
+        }
+
+        TransferStats stats = TransferRecorder.getStats("GET", LatencyRecorder.endpointOf(path));
+        Assertions.assertEquals(2, stats.getResponses());
+        Assertions.assertEquals(2L * wire.length, stats.getResponseWireBytes());
+        Assertions.assertEquals(2L * BODY.length, stats.getResponseDecodedBytes());
+        Assertions.assertEquals(2L * (BODY.length - wire.length), stats.getSavedBytes());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("A deflate body is decoded whether or not the server wrapped it in zlib framing")
+    @Story("Response decoding")
+    public void testDeflateIsDecodedWithOrWithoutZlibWrapper() {
+        for (boolean zlibWrapped : new boolean[]{true, false}) {
+            byte[] wire = deflate(BODY, zlibWrapped);
+            for (Response response : sendBoth(answering(" Deflate ", wire), "GET", "/compression/deflate")) {
+                Assertions.assertArrayEquals(BODY, response.asByteArray(), "zlib wrapped: " + zlibWrapped);
+                assertTransfer(response, wire.length, BODY.length);
+            }
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Bodies without a decodable encoding, and empty encoded bodies, are passed through")
+    @Story("Response decoding")
+    public void testUnencodedAndEmptyBodiesArePassedThrough() {
+        for (Response response : sendBoth(answering(null, BODY), "GET", "/compression/plain")) {
+            Assertions.assertArrayEquals(BODY, response.asByteArray());
+            assertTransfer(response, BODY.length, BODY.length);
+        }
+        for (Response response : sendBoth(answering("br", BODY), "GET", "/compression/unknown")) {
+            Assertions.assertArrayEquals(BODY, response.asByteArray(), "Unknown encodings are left alone");
+        }
+        for (String encoding : new String[]{"gzip", "deflate"}) {
+            // HEAD and 204 responses carry the encoding but no body
+            for (Response response : sendBoth(answering(encoding, new byte[0]), "HEAD", "/compression/head")) {
+                Assertions.assertEquals(200, response.getStatusCode());
+                Assertions.assertEquals(0, response.asByteArray().length);
+                assertTransfer(response, 0, 0);
+            }
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("A corrupt encoded body fails the request with an IllegalStateException caused by the IOException")
+    @Story("Response decoding")
+    public void testCorruptBodyFailsRequest() {
+        byte[] gzip = gzip(BODY);
+        byte[] zlib = deflate(BODY, true);
+        byte[][] corrupt = {
+                "not gzip at all".getBytes(StandardCharsets.UTF_8),
+                Arrays.copyOf(gzip, gzip.length / 2),
+                Arrays.copyOf(zlib, zlib.length / 2)
+        };
+        String[] encodings = {"gzip", "gzip", "deflate"};
+
+        for (int i = 0; i < corrupt.length; i++) {
+            InMemoryHttpClient client = answering(encodings[i], corrupt[i]);
+
+            IllegalStateException blocking = Assertions.assertThrows(IllegalStateException.class,
+                    () -> new JdkHttpTransport(BASE_URL, client).execute("GET", "/compression/corrupt", null,
+                            Map.of(), (String) null));
+            Assertions.assertTrue(blocking.getCause() instanceof IOException, "Cause: " + blocking.getCause());
+
+            CompletionException async = Assertions.assertThrows(CompletionException.class,
+                    () -> new AsyncHttpEngine(1, client).send("GET", BASE_URL + "/compression/corrupt", Map.of(),
+                            null).join());
+            Assertions.assertTrue(async.getCause() instanceof IllegalStateException, "Cause: " + async.getCause());
+            Assertions.assertTrue(async.getCause().getCause() instanceof IOException);
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Request bodies are gzipped from the threshold up, and sent as they are below it")
+    @Story("Request compression")
+    public void testRequestBodyIsGzippedAtThreshold() throws IOException {
+        InMemoryHttpClient client = new InMemoryHttpClient((request, body) ->
+                new InMemoryHttpClient.Reply(201, new byte[0]));
+        BaseApiClient apiClient = new BaseApiClient(BASE_URL);
+        apiClient.setTransport(new JdkHttpTransport(BASE_URL, client));
+
+        String path = "/compression/upload";
+        JSONObject below = new JSONObject().put("data", "x".repeat(988));
+        JSONObject atThreshold = new JSONObject().put("data", "x".repeat(989));
+        int threshold = atThreshold.toString().length();
+        Assertions.assertEquals(threshold - 1, below.toString().length());
+        apiClient.setCompression(Compression.negotiate().withRequestCompression(threshold));
+
+        apiClient.post(path, below);
+        apiClient.post(path, atThreshold);
+
+        HttpRequest plain = client.getRequests().get(0);
+        Assertions.assertTrue(plain.headers().firstValue("Content-Encoding").isEmpty());
+        Assertions.assertEquals(Compression.ACCEPT_ENCODING,
+                plain.headers().firstValue("Accept-Encoding").orElse(null));
+        Assertions.assertEquals(below.toString(), new String(client.getRequestBodies().get(0), StandardCharsets.UTF_8));
+
+        HttpRequest gzipped = client.getRequests().get(1);
+        byte[] wire = client.getRequestBodies().get(1);
+        Assertions.assertEquals("gzip", gzipped.headers().firstValue("Content-Encoding").orElse(null));
+        Assertions.assertEquals("application/json", gzipped.headers().firstValue("Content-Type").orElse(null));
+        Assertions.assertEquals(atThreshold.toString(), new String(gunzip(wire), StandardCharsets.UTF_8));
+        Assertions.assertTrue(wire.length < threshold / 4, "Gzipped to " + wire.length + " bytes");
+
+        TransferStats stats = TransferRecorder.getStats("POST", LatencyRecorder.endpointOf(path));
+        Assertions.assertEquals(2, stats.getRequests());
+        Assertions.assertEquals(2L * threshold - 1, stats.getRequestBodyBytes());
+        Assertions.assertEquals(threshold - 1 + wire.length, stats.getRequestWireBytes());
+
+        apiClient.setCompression(Compression.NONE);
+        apiClient.post(path, atThreshold);
+        Assertions.assertTrue(client.getRequests().get(2).headers().firstValue("Accept-Encoding").isEmpty());
+        Assertions.assertTrue(client.getRequests().get(2).headers().firstValue("Content-Encoding").isEmpty());
+    }
+}
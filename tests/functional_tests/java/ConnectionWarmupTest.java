@@ -0,0 +1,133 @@
+package tests.functional_tests.java;
+
+import com.sun.net.httpserver.HttpServer;
+import core.clients.ConnectionPool;
+import core.clients.ConnectionWarmup;
+import core.clients.DnsCache;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for resolving hosts and opening connections ahead of the first request.
+ * Connections are opened to an in-process server that never sees an HTTP request.
+ */
+@Epic("API Testing")
+@Feature("Connection warm-up")
+public class ConnectionWarmupTest {
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        DnsCache.setTtl(DnsCache.DEFAULT_TTL_MS);
+    }
+
+    private String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Warm-up leaves the requested number of idle connections in the pool without sending a request")
+    @Story("Pre-opened connections")
+    public void testPreOpenLeavesIdleConnections() throws Exception {
+        ConnectionPool pool = ConnectionPool.forBaseUrl(baseUrl());
+
+        Assertions.assertEquals(3, ConnectionWarmup.warmUp(baseUrl(), 3));
+        Assertions.assertEquals(3, pool.getAvailable());
+        Assertions.assertEquals(0, pool.getLeased(), "Every connection is back in the pool");
+
+        Assertions.assertEquals(0, pool.preOpen(3), "Idle connections count towards the number");
+        Assertions.assertEquals(2, pool.preOpen(5));
+        Assertions.assertEquals(5, pool.getAvailable());
+        Assertions.assertEquals(0, requests.get(), "No HTTP requests are sent");
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("No more connections are opened than the pool allows per route")
+    @Story("Pre-opened connections")
+    public void testPreOpenIsCappedAtMaxPerRoute() throws Exception {
+        ConnectionPool pool = ConnectionPool.forBaseUrl(baseUrl());
+        pool.setMaxPerRoute(2);
+
+        Assertions.assertEquals(2, pool.preOpen(10));
+        Assertions.assertEquals(2, pool.getAvailable());
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Hosts that cannot be resolved or reached open nothing")
+    @Story("Pre-opened connections")
+    public void testUnreachableHostsOpenNothing() {
+        String baseUrl = baseUrl();
+        server.stop(0);
+        Assertions.assertEquals(0, ConnectionWarmup.warmUp(baseUrl, 2), "Refused connections are not fatal");
+        Assertions.assertEquals(0, ConnectionWarmup.warmUp("http://warmup-test.invalid", 2));
+        Assertions.assertEquals(0, ConnectionWarmup.warmUp("file:///tmp", 2));
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("A lookup is answered from the cache until its TTL runs out")
+    @Story("DNS cache")
+    public void testLookupsExpireAfterTtl() throws Exception {
+        DnsCache.setTtl(60_000);
+        Assertions.assertTrue(DnsCache.resolve("LocalHost").length > 0);
+        Assertions.assertTrue(DnsCache.isCached("localhost"), "Host names are cached case-insensitively");
+
+        DnsCache.setTtl(100);
+        DnsCache.resolve("localhost");
+        Assertions.assertTrue(DnsCache.isCached("localhost"));
+        Thread.sleep(150);
+        Assertions.assertFalse(DnsCache.isCached("localhost"), "Expired after the TTL");
+        Assertions.assertTrue(DnsCache.resolve("localhost").length > 0);
+        Assertions.assertTrue(DnsCache.isCached("localhost"), "Looked up again");
+
+        DnsCache.setTtl(0);
+        Assertions.assertFalse(DnsCache.isCached("localhost"), "A TTL of zero disables the cache");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> DnsCache.setTtl(-1));
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("A failed lookup is not cached, so the next request looks the host up again")
+    @Story("DNS cache")
+    public void testFailedLookupsAreNotCached() {
+        String host = "dns-cache-test.invalid";
+        int size = DnsCache.size();
+
+        Assertions.assertThrows(UnknownHostException.class, () -> DnsCache.resolve(host));
+        Assertions.assertFalse(DnsCache.prefetch(host));
+        Assertions.assertFalse(DnsCache.isCached(host));
+        Assertions.assertEquals(size, DnsCache.size());
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("A warm-up that fails is not remembered, so the next caller tries again")
+    @Story("Environments")
+    public void testFailedEnvironmentWarmUpIsRetried() {
+        String env = "warmup-test-missing";
+        Assertions.assertThrows(RuntimeException.class, () -> ConnectionWarmup.forEnvironment(env));
+        Assertions.assertFalse(ConnectionWarmup.isWarmedUp(env));
+        Assertions.assertThrows(RuntimeException.class, () -> ConnectionWarmup.forEnvironment(env));
+    }
+}
@@ -0,0 +1,122 @@
+package tests.functional_tests.java;
+
+import core.clients.HeaderBlock;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tests for the immutable, case-insensitive request header block.
+ */
+@Epic("API Testing")
+@Feature("Headers")
+public class HeaderBlockTest {
+
+    private static HeaderBlock block(String... namesAndValues) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            headers.put(namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return HeaderBlock.of(headers);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("A header replaces an earlier one whose name differs only in case")
+    @Story("Case insensitivity")
+    public void testCaseInsensitiveReplace() {
+        HeaderBlock headers = block("Content-Type", "text/plain", "content-type", "application/json");
+        Assertions.assertEquals(1, headers.size());
+        Assertions.assertEquals("application/json", headers.get("CONTENT-TYPE"));
+        Assertions.assertTrue(headers.containsKey("Content-type"));
+
+        HeaderBlock replaced = headers.with("CONTENT-TYPE", "text/xml");
+        Assertions.assertEquals(1, replaced.size());
+        Assertions.assertEquals("text/xml", replaced.get("content-type"));
+        Assertions.assertEquals("application/json", headers.get("content-type"), "The original is unchanged");
+
+        Assertions.assertEquals(0, replaced.without("Content-Type").size());
+        Assertions.assertSame(headers, headers.without("Accept"));
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("A block equals any map with the same headers, symmetrically and with the same hash")
+    @Story("Map contract")
+    public void testEqualsAndHashCodeFollowMapContract() {
+        HeaderBlock headers = block("Accept", "application/json", "X-Request-Id", "1");
+        Map<String, String> map = new HashMap<>(Map.of("X-Request-Id", "1", "Accept", "application/json"));
+
+        Assertions.assertEquals(headers, map);
+        Assertions.assertEquals(map, headers);
+        Assertions.assertEquals(map.hashCode(), headers.hashCode());
+        Assertions.assertEquals(headers, block("X-Request-Id", "1", "Accept", "application/json"),
+                "Order does not matter");
+
+        map.put("X-Request-Id", "2");
+        Assertions.assertNotEquals(headers, map);
+        Assertions.assertNotEquals(map, headers);
+        Assertions.assertNotEquals(headers, block("Accept", "application/json"));
+        Assertions.assertEquals(HeaderBlock.EMPTY, Map.of());
+        Assertions.assertEquals(Map.of(), HeaderBlock.EMPTY);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Blocks that differ only in the case of header names have the same identity ignoring case")
+    @Story("Case insensitivity")
+    public void testEqualsIgnoreCase() {
+        HeaderBlock first = block("Accept", "application/json", "X-Request-Id", "1");
+        HeaderBlock second = block("x-request-id", "1", "ACCEPT", "application/json");
+
+        Assertions.assertTrue(first.equalsIgnoreCase(second));
+        Assertions.assertTrue(second.equalsIgnoreCase(first));
+        Assertions.assertEquals(first.hashCodeIgnoreCase(), second.hashCodeIgnoreCase());
+
+        Assertions.assertFalse(first.equalsIgnoreCase(block("Accept", "application/json", "X-Request-Id", "2")));
+        Assertions.assertFalse(first.equalsIgnoreCase(block("Accept", "application/json")));
+        Assertions.assertFalse(first.equalsIgnoreCase(block("accept", "APPLICATION/JSON", "X-Request-Id", "1")),
+                "Values are compared exactly");
+        Assertions.assertTrue(HeaderBlock.EMPTY.equalsIgnoreCase(block()));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Overriding the same header with the same value returns the remembered block")
+    @Story("Copy on write")
+    public void testWithIsMemoised() {
+        HeaderBlock headers = block("Accept", "application/json");
+
+        HeaderBlock withToken = headers.with("Authorization", "Bearer a");
+        Assertions.assertSame(withToken, headers.with("Authorization", "Bearer a"));
+        Assertions.assertEquals("application/json", withToken.get("Accept"));
+
+        HeaderBlock rotated = headers.with("Authorization", "Bearer b");
+        Assertions.assertNotSame(withToken, rotated);
+        Assertions.assertSame(rotated, headers.with("Authorization", "Bearer b"));
+
+        Assertions.assertSame(headers, headers.with("Accept", "application/json"), "Nothing changes");
+        Assertions.assertSame(headers, HeaderBlock.of(headers));
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Header names must be non-empty tokens and values must not contain line breaks")
+    @Story("Validation")
+    public void testInvalidHeadersAreRejected() {
+        HeaderBlock headers = block("Accept", "application/json");
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> headers.with("", "x"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> headers.with(null, "x"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> headers.with("X-Bad:Name", "x"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> headers.with("X Bad", "x"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> headers.with("X-Name", null));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> headers.with("X-Name", "value\r\nX-Injected: 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> block("X-Name", "line\nbreak"));
+        Assertions.assertEquals(1, headers.size(), "A rejected header leaves the block unchanged");
+    }
+}
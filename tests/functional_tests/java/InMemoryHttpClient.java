@@ -0,0 +1,352 @@
+package tests.functional_tests.java;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+
+/**
+ * A JDK {@link HttpClient} that answers every request from a handler in memory, for testing
+ * the transports without a server. Response bodies go through the caller's body handler as
+ * one chunk, just as the real client delivers them, and every request is kept with its body.
+ */
+final class InMemoryHttpClient extends HttpClient {
+
+    /**
+     * Produces the response to a request.
+     */
+    interface Handler {
+        /**
+         * Answer a request.
+         *
+         * @param request The request
+         * @param body    The request body as sent
+         * @return The reply
+         * @throws IOException To fail the request as a broken connection would
+         */
+        Reply handle(HttpRequest request, byte[] body) throws IOException;
+    }
+
+    /**
+     * A response as sent on the wire.
+     */
+    static final class Reply {
+        private final int status;
+        private final Map<String, List<String>> headers = new LinkedHashMap<>();
+        private final byte[] body;
+
+        /**
+         * Create a reply.
+         *
+         * @param status The status code
+         * @param body   The body as sent, e.g. still compressed
+         */
+        Reply(int status, byte[] body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        /**
+         * Add a header.
+         *
+         * @param name  Header name
+         * @param value Header value
+         * @return This reply
+         */
+        Reply header(String name, String value) {
+            headers.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+            return this;
+        }
+    }
+
+    private final Handler handler;
+    private final List<HttpRequest> requests = Collections.synchronizedList(new ArrayList<>());
+    private final List<byte[]> requestBodies = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Create a client.
+     *
+     * @param handler Answers every request
+     */
+    InMemoryHttpClient(Handler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Get the requests sent so far.
+     *
+     * @return The requests, in the order they were sent
+     */
+    List<HttpRequest> getRequests() {
+        return new ArrayList<>(requests);
+    }
+
+    /**
+     * Get the bodies of the requests sent so far.
+     *
+     * @return The bodies as sent, in the order the requests were sent
+     */
+    List<byte[]> getRequestBodies() {
+        return new ArrayList<>(requestBodies);
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler)
+            throws IOException {
+        byte[] body = read(request);
+        requests.add(request);
+        requestBodies.add(body);
+        Reply reply = handler.handle(request, body);
+
+        HttpHeaders headers = HttpHeaders.of(reply.headers, (name, value) -> true);
+        HttpResponse.BodySubscriber<T> subscriber = bodyHandler.apply(new HttpResponse.ResponseInfo() {
+            @Override
+            public int statusCode() {
+                return reply.status;
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return headers;
+            }
+
+            @Override
+            public Version version() {
+                return Version.HTTP_1_1;
+            }
+        });
+        subscriber.onSubscribe(new Flow.Subscription() {
+            private boolean done;
+
+            @Override
+            public void request(long n) {
+                if (!done) {
+                    done = true;
+                    if (reply.body.length > 0) {
+                        subscriber.onNext(List.of(ByteBuffer.wrap(reply.body)));
+                    }
+                    subscriber.onComplete();
+                }
+            }
+
+            @Override
+            public void cancel() {
+                done = true;
+            }
+        });
+        T value = await(subscriber.getBody().toCompletableFuture());
+        return new InMemoryResponse<>(request, reply.status, headers, value);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                            HttpResponse.BodyHandler<T> bodyHandler) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return send(request, bodyHandler);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                            HttpResponse.BodyHandler<T> bodyHandler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        return sendAsync(request, bodyHandler);
+    }
+
+    /**
+     * Collect the body a request publishes.
+     *
+     * @param request The request
+     * @return The body, empty if it has none
+     * @throws IOException If the body cannot be read
+     */
+    private static byte[] read(HttpRequest request) throws IOException {
+        if (request.bodyPublisher().isEmpty()) {
+            return new byte[0];
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        CompletableFuture<byte[]> done = new CompletableFuture<>();
+        request.bodyPublisher().get().subscribe(new Flow.Subscriber<ByteBuffer>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                byte[] bytes = new byte[item.remaining()];
+                item.get(bytes);
+                body.write(bytes, 0, bytes.length);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(body.toByteArray());
+            }
+        });
+        return await(done);
+    }
+
+    /**
+     * Wait for a body to be read, failing as the real client would.
+     *
+     * @param future The body
+     * @param <T>    Type of the body
+     * @return The body
+     * @throws IOException If the body could not be read
+     */
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        } catch (InterruptedException | TimeoutException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Duration> connectTimeout() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Redirect followRedirects() {
+        return Redirect.NEVER;
+    }
+
+    @Override
+    public Optional<ProxySelector> proxy() {
+        return Optional.empty();
+    }
+
+    @Override
+    public SSLContext sslContext() {
+        return null;
+    }
+
+    @Override
+    public SSLParameters sslParameters() {
+        return null;
+    }
+
+    @Override
+    public Optional<Authenticator> authenticator() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Version version() {
+        return Version.HTTP_1_1;
+    }
+
+    @Override
+    public Optional<Executor> executor() {
+        return Optional.empty();
+    }
+
+    /**
+     * A response answered in memory.
+     *
+     * @param <T> Type of the body
+     */
+    private static final class InMemoryResponse<T> implements HttpResponse<T> {
+        private final HttpRequest request;
+        private final int status;
+        private final HttpHeaders headers;
+        private final T body;
+
+        /**
+         * Create a response.
+         *
+         * @param request The request it answers
+         * @param status  The status code
+         * @param headers The headers
+         * @param body    The body as produced by the caller's body handler
+         */
+        InMemoryResponse(HttpRequest request, int status, HttpHeaders headers, T body) {
+            this.request = request;
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        @Override
+        public int statusCode() {
+            return status;
+        }
+
+        @Override
+        public HttpRequest request() {
+            return request;
+        }
+
+        @Override
+        public Optional<HttpResponse<T>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return headers;
+        }
+
+        @Override
+        public T body() {
+            return body;
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        @Override
+        public URI uri() {
+            return request.uri();
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_1_1;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package tests.functional_tests.java;
+
+import com.sun.net.httpserver.HttpServer;
+import core.auth.OAuth2TokenProvider;
+import core.clients.BaseApiClient;
+import core.clients.BatchRequest;
+import core.clients.BatchResult;
+import core.clients.JdkHttpTransport;
+import core.clients.RetryBudget;
+import core.clients.RetryPolicy;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Tests for the shared OAuth2 token cache.
+ * Uses an in-process token endpoint so the test does not depend on an authorization server.
+ */
+@Epic("API Testing")
+@Feature("Authentication")
+public class OAuth2TokenProviderTest {
+
+    private HttpServer server;
+    private String tokenUrl;
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 64);
+        server.createContext("/token", exchange -> {
+            int number = tokenRequests.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = ("{\"access_token\":\"token-" + number + "\",\"expires_in\":3600}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        tokenUrl = "http://localhost:" + server.getAddress().getPort() + "/token";
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Concurrent callers share a single token request")
+    @Story("Token cache")
+    public void testConcurrentCallersShareOneFetch() {
+        OAuth2TokenProvider provider = new OAuth2TokenProvider(tokenUrl, "client", "secret", Duration.ofSeconds(10));
+
+        List<CompletableFuture<String>> tokens = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tokens.add(CompletableFuture.supplyAsync(provider::getToken));
+        }
+        release.countDown();
+
+        for (CompletableFuture<String> token : tokens) {
+            Assertions.assertEquals("token-1", token.join());
+        }
+        Assertions.assertEquals(1, tokenRequests.get());
+        Assertions.assertEquals(1, provider.getFetchCount());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("A token URL that cannot be parsed fails every call instead of hanging later ones")
+    @Story("Token cache")
+    public void testMalformedTokenUrlFailsEveryCall() {
+        OAuth2TokenProvider provider = new OAuth2TokenProvider("http://auth server/token", "client", "secret",
+                Duration.ofSeconds(10));
+
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            Assertions.assertThrows(IllegalArgumentException.class, provider::getToken);
+            Assertions.assertThrows(IllegalArgumentException.class, provider::getToken);
+        });
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("A retried request carries the token current at the retry, also when coalesced or batched")
+    @Story("Client requests")
+    public void testRetryPicksUpRefreshedToken() {
+        release.countDown();
+        OAuth2TokenProvider provider = new OAuth2TokenProvider(tokenUrl, "client", "secret", Duration.ofSeconds(10));
+        AtomicInteger attempts = new AtomicInteger();
+        InMemoryHttpClient httpClient = new InMemoryHttpClient((request, body) -> {
+            if (attempts.incrementAndGet() % 2 == 1) {
+                // The token is rotated while the first attempt is failing
+                provider.invalidate(OAuth2TokenProvider.DEFAULT_SCOPE);
+                return new InMemoryHttpClient.Reply(503, new byte[0]);
+            }
+            return new InMemoryHttpClient.Reply(200, "{}".getBytes(StandardCharsets.UTF_8));
+        });
+        BaseApiClient apiClient = new BaseApiClient("http://token-retry.test");
+        apiClient.setTransport(new JdkHttpTransport("http://token-retry.test", httpClient));
+        apiClient.setTokenProvider(provider);
+        apiClient.setRetryPolicy(new RetryPolicy(1, Duration.ZERO, Duration.ofSeconds(1), new RetryBudget(0.1, 100)));
+        apiClient.setCircuitBreakerEnabled(false);
+
+        Assertions.assertEquals(200, apiClient.get("/token-retry/plain").getStatusCode());
+        apiClient.setCoalescingEnabled(true);
+        Assertions.assertEquals(200, apiClient.get("/token-retry/coalesced").getStatusCode());
+        apiClient.setCoalescingEnabled(false);
+        List<BatchResult> results = apiClient.batch(List.of(BatchRequest.get("/token-retry/batch")));
+        Assertions.assertEquals(200, results.get(0).getResponse().getStatusCode());
+
+        List<String> tokens = httpClient.getRequests().stream()
+                .map(request -> request.headers().firstValue("Authorization").orElse(null))
+                .collect(Collectors.toList());
+        Assertions.assertEquals(List.of("Bearer token-1", "Bearer token-2", "Bearer token-2", "Bearer token-3",
+                "Bearer token-3", "Bearer token-4"), tokens);
+        Assertions.assertEquals(4, provider.getFetchCount());
+    }
+}
@@ -2,11 +2,14 @@ package tests.functional_tests.java;
 
 import core.clients.BaseApiClient;
 import core.assertions.JavaAssertions;
+import core.execution.CircuitBreakerExtension;
+import core.execution.WarmupExtension;
 import io.qameta.allure.*;
 import io.restassured.response.Response;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -17,6 +20,7 @@ import java.util.UUID;
  */
 @Epic("API Testing")
 @Feature("Order Management")
+@ExtendWith({WarmupExtension.class, CircuitBreakerExtension.class})
 public class OrderApiTest {
 
     private BaseApiClient apiClient;
@@ -0,0 +1,125 @@
+package tests.functional_tests.java;
+
+import core.utils.ParsedResponseCache;
+import io.qameta.allure.*;
+import io.restassured.config.JsonConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.internal.RestAssuredResponseOptionsImpl;
+import io.restassured.path.json.JsonPath;
+import io.restassured.path.json.config.JsonPathConfig;
+import io.restassured.response.Response;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for the per-response parse cache.
+ */
+@Epic("API Testing")
+@Feature("Assertions")
+public class ParsedResponseCacheTest {
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Every caller gets the same parsed JSONObject, and it cannot be modified")
+    @Story("Parse cache")
+    public void testJsonObjectIsSharedAndReadOnly() {
+        Response response = TestResponses.json("{\"id\":1,\"user\":{\"name\":\"Ann\"},\"tags\":[\"a\",{\"k\":1}]}");
+
+        JSONObject json = ParsedResponseCache.getJsonObject(response);
+        Assertions.assertSame(json, ParsedResponseCache.getJsonObject(response));
+        Assertions.assertSame(json, ParsedResponseCache.getJson(response));
+
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> json.put("id", 2));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> json.increment("id"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> json.remove("id"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> json.keySet().remove("id"));
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> json.getJSONObject("user").put("name", "Bob"));
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> json.getJSONArray("tags").getJSONObject(1).put("k", 2));
+        Assertions.assertTrue(json.similar(new JSONObject(response.asString())), "The tree is unchanged");
+
+        // A caller that needs to modify the JSON takes its own copy
+        JSONObject copy = new JSONObject(json.toMap());
+        copy.getJSONObject("user").put("name", "Bob");
+        Assertions.assertEquals("Ann", json.getJSONObject("user").getString("name"));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("A parsed JSONArray cannot be modified through any of its mutators")
+    @Story("Parse cache")
+    public void testJsonArrayIsReadOnly() {
+        Response response = TestResponses.json("[{\"id\":1},null,3]");
+
+        JSONArray json = ParsedResponseCache.getJsonArray(response);
+        Assertions.assertSame(json, ParsedResponseCache.getJsonArray(response));
+        Assertions.assertEquals(3, json.length());
+        Assertions.assertTrue(json.isNull(1));
+
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> json.put(4));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> json.put(0, "x"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> json.putAll(List.of(4)));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> json.remove(2));
+        Assertions.assertThrows(UnsupportedOperationException.class, json::clear);
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> {
+            Iterator<Object> values = json.iterator();
+            values.next();
+            values.remove();
+        });
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> json.getJSONObject(0).put("id", 9));
+        Assertions.assertEquals(3, json.length());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("JsonPath lookups on a response share one parsed body")
+    @Story("Parse cache")
+    public void testJsonPathParsesBodyOnce() {
+        Response response = TestResponses.json("{\"user\":{\"name\":\"Ann\"},\"items\":[1,2,3]}");
+
+        Map<String, Object> user = ParsedResponseCache.getJsonPath(response).get("user");
+        Assertions.assertSame(user, ParsedResponseCache.getJsonPath(response).get("user"),
+                "A second lookup reads the same parsed body");
+        Assertions.assertSame(ParsedResponseCache.getJsonPath(response).getList("items"),
+                ParsedResponseCache.getJsonPath(response).getList("items"));
+        Assertions.assertEquals(3, (int) ParsedResponseCache.getJsonPath(response).get("items.size()"));
+
+        // RestAssured's own jsonPath() parses again on every call
+        Assertions.assertNotSame(response.jsonPath().get("user"), response.jsonPath().get("user"));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Changing the root of a returned JsonPath does not affect other callers")
+    @Story("Parse cache")
+    public void testJsonPathViewsAreIndependent() {
+        Response response = TestResponses.json("{\"user\":{\"name\":\"Ann\"},\"name\":\"top\"}");
+
+        JsonPath first = ParsedResponseCache.getJsonPath(response);
+        first.setRootPath("user");
+        Assertions.assertEquals("Ann", first.getString("name"));
+
+        Assertions.assertEquals("top", ParsedResponseCache.getJsonPath(response).getString("name"));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("The cached JsonPath uses the response's JSON configuration, as Response.jsonPath() does")
+    @Story("Parse cache")
+    public void testJsonPathUsesResponseConfig() {
+        Response response = TestResponses.json("{\"price\":12.5}");
+        ((RestAssuredResponseOptionsImpl<?>) response).setConfig(RestAssuredConfig.config()
+                .jsonConfig(JsonConfig.jsonConfig().numberReturnType(JsonPathConfig.NumberReturnType.BIG_DECIMAL)));
+
+        Object price = ParsedResponseCache.getJsonPath(response).get("price");
+        Assertions.assertEquals(new BigDecimal("12.5"), price);
+        Assertions.assertEquals(response.jsonPath().get("price"), price);
+    }
+}
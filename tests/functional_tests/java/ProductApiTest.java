@@ -2,11 +2,15 @@ package tests.functional_tests.java;
 
 import core.clients.BaseApiClient;
 import core.assertions.JavaAssertions;
+import core.execution.CircuitBreakerExtension;
+import core.execution.WarmupExtension;
+import core.assertions.StreamingJsonAssertions;
 import io.qameta.allure.*;
 import io.restassured.response.Response;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -17,6 +21,7 @@ import java.util.UUID;
  */
 @Epic("API Testing")
 @Feature("Product Management")
+@ExtendWith({WarmupExtension.class, CircuitBreakerExtension.class})
 public class ProductApiTest {
 
     private BaseApiClient apiClient;
@@ -70,18 +75,11 @@ public class ProductApiTest {
         JavaAssertions.assertStatusCode(response, 200);
         JavaAssertions.assertJsonContentType(response);
 
-        // Verify response structure
-        JSONArray products = JavaAssertions.getResponseAsJsonArray(response);
-        Assertions.assertTrue(products.length() > 0, "Products list should not be empty");
-
-        // Verify the first product has required fields
-        if (products.length() > 0) {
-            JSONObject firstProduct = products.getJSONObject(0);
-            Assertions.assertTrue(firstProduct.has("id"), "Product should have ID");
-            Assertions.assertTrue(firstProduct.has("name"), "Product should have name");
-            Assertions.assertTrue(firstProduct.has("price"), "Product should have price");
-            Assertions.assertTrue(firstProduct.has("category"), "Product should have category");
-        }
+        // Verify every product has the required fields, streaming over the list
+        StreamingJsonAssertions.forEach(response, "$[*]")
+                .hasCountAtLeast(1)
+                .eachHasNonNull("id", "name", "price", "category")
+                .verify();
 
         // Verify response time
         JavaAssertions.assertResponseTime(response, 1000); // Max 1000ms
@@ -0,0 +1,117 @@
+package tests.functional_tests.java;
+
+import core.clients.RateLimiter;
+import core.metrics.LatencyRecorder;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for the client-side token bucket rate limiter.
+ */
+@Epic("API Testing")
+@Feature("Resilience")
+public class RateLimiterTest {
+
+    // Reservations are checked at 1 request/s, so scheduling delays between calls are negligible
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("A full bucket admits a burst at once and then refuses")
+    @Story("Token bucket")
+    public void testBurstAdmission() {
+        RateLimiter limiter = new RateLimiter(1, 5, false);
+
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertTrue(limiter.tryAcquire("/users"), "Request " + i + " of the burst");
+        }
+        Assertions.assertFalse(limiter.tryAcquire("/users"));
+        Assertions.assertEquals(0, limiter.getThrottledCount());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Once the burst is used, reservations are spaced one interval apart")
+    @Story("Token bucket")
+    public void testSteadyStatePacing() {
+        RateLimiter limiter = new RateLimiter(1, 1, false);
+
+        Assertions.assertEquals(0, limiter.reserve("/users"));
+        for (int i = 1; i <= 10; i++) {
+            long wait = limiter.reserve("/users");
+            Assertions.assertTrue(wait <= i * SECOND && wait > i * SECOND - SECOND / 2,
+                    "Reservation " + i + " waits " + wait + "ns");
+        }
+        Assertions.assertEquals(10, limiter.getThrottledCount());
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("acquire() blocks until its token is due, so requests go out at the configured rate")
+    @Story("Token bucket")
+    public void testAcquireWaitsForRate() {
+        RateLimiter limiter = new RateLimiter(100, 1, false);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 11; i++) {
+            limiter.acquire("/users");
+        }
+        long elapsed = System.nanoTime() - start;
+        Assertions.assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(95),
+                "11 requests at 100/s took " + TimeUnit.NANOSECONDS.toMillis(elapsed) + "ms");
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("tryAcquire refuses without taking a token, reserve always takes one")
+    @Story("Token bucket")
+    public void testTryAcquireDoesNotReserve() {
+        RateLimiter limiter = new RateLimiter(1, 1, false);
+        Assertions.assertTrue(limiter.tryAcquire("/users"));
+
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertFalse(limiter.tryAcquire("/users"));
+        }
+        Assertions.assertEquals(0, limiter.getThrottledCount());
+
+        // The refused attempts did not push the next token back
+        long wait = limiter.reserve("/users");
+        Assertions.assertTrue(wait > SECOND / 2 && wait <= SECOND, "First reservation waits " + wait + "ns");
+        Assertions.assertTrue(limiter.reserve("/users") > SECOND);
+        Assertions.assertEquals(2, limiter.getThrottledCount());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("A per-route limiter has one bucket per route, shared by paths with different IDs")
+    @Story("Per route")
+    public void testPerRouteIsolation() {
+        RateLimiter limiter = new RateLimiter(1, 1, true);
+
+        Assertions.assertTrue(limiter.tryAcquire("/users/1"));
+        Assertions.assertFalse(limiter.tryAcquire("/users/2?expand=true"), "Same route as /users/1");
+        Assertions.assertTrue(limiter.tryAcquire("/orders/1"));
+        Assertions.assertTrue(limiter.tryAcquire("/users"));
+
+        RateLimiter global = new RateLimiter(1, 1, false);
+        Assertions.assertTrue(global.tryAcquire("/users/1"));
+        Assertions.assertFalse(global.tryAcquire("/orders/1"));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Routes beyond MAX_ENDPOINTS share one overflow bucket, existing routes keep theirs")
+    @Story("Per route")
+    public void testRouteOverflowSharesBucket() {
+        RateLimiter limiter = new RateLimiter(1, 1, true);
+        for (int i = 0; i < LatencyRecorder.MAX_ENDPOINTS; i++) {
+            Assertions.assertTrue(limiter.tryAcquire("/route-" + i));
+        }
+
+        Assertions.assertTrue(limiter.tryAcquire("/late-a"));
+        Assertions.assertFalse(limiter.tryAcquire("/late-b"), "Shares the overflow bucket with /late-a");
+        Assertions.assertFalse(limiter.tryAcquire("/route-0"), "Keeps its own empty bucket");
+    }
+}
@@ -0,0 +1,214 @@
+package tests.functional_tests.java;
+
+import core.clients.HeaderBlock;
+import core.clients.RequestCoalescer;
+import io.qameta.allure.*;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Tests for coalescing identical concurrent reads.
+ */
+@Epic("API Testing")
+@Feature("Request coalescing")
+public class RequestCoalescerTest {
+
+    private static final int CALLERS = 8;
+    private static final AtomicInteger BASE_URLS = new AtomicInteger();
+    private static final HeaderBlock HEADERS = HeaderBlock.of(Map.of("Accept", "application/json"));
+
+    // Coalescers are shared per base URL, so each test gets its own
+    private final RequestCoalescer coalescer =
+            RequestCoalescer.forBaseUrl("http://coalescer-" + BASE_URLS.incrementAndGet() + ".test");
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Get a call that counts itself and blocks until the test releases it.
+     *
+     * @param result Produces the response or throws
+     * @return The call
+     */
+    private Supplier<Response> blockingCall(Supplier<Response> result) {
+        return () -> {
+            calls.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return result.get();
+        };
+    }
+
+    /**
+     * Send the same GET from every caller at once, then release the one that was sent once
+     * all the others are waiting for it.
+     *
+     * @param call Sends the request
+     * @return The outcome of each caller
+     */
+    private List<Future<Response>> sendConcurrently(Supplier<Response> call) throws Exception {
+        List<Future<Response>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> coalescer.execute("GET", "/users?page=1", HEADERS, call)));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalescer.getHits() < CALLERS - 1) {
+            Assertions.assertTrue(System.nanoTime() < deadline, "Only " + coalescer.getHits() + " callers waited");
+            Thread.sleep(1);
+        }
+        release.countDown();
+        return results;
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Identical concurrent GETs are sent once and every caller gets the response")
+    @Story("Coalescing")
+    public void testConcurrentIdenticalReadsAreSentOnce() throws Exception {
+        Response sent = TestResponses.ok("[{\"id\":1}]");
+        List<Future<Response>> results = sendConcurrently(blockingCall(() -> sent));
+
+        for (Future<Response> result : results) {
+            Assertions.assertSame(sent, result.get(5, TimeUnit.SECONDS));
+        }
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertEquals(1, coalescer.getMisses());
+        Assertions.assertEquals(CALLERS - 1, coalescer.getHits());
+        Assertions.assertEquals(0, coalescer.getInFlight());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("A failed request fails every caller waiting for it")
+    @Story("Coalescing")
+    public void testFailureFansOutToWaiters() throws Exception {
+        IllegalStateException failure = new IllegalStateException("Connection reset");
+        List<Future<Response>> results = sendConcurrently(blockingCall(() -> {
+            throw failure;
+        }));
+
+        for (Future<Response> result : results) {
+            ExecutionException thrown = Assertions.assertThrows(ExecutionException.class,
+                    () -> result.get(5, TimeUnit.SECONDS));
+            Assertions.assertSame(failure, thrown.getCause());
+        }
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertEquals(0, coalescer.getInFlight());
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("A completed request is forgotten, so the next identical one is sent again")
+    @Story("Coalescing")
+    public void testKeyIsRemovedAfterCompletion() {
+        coalescer.execute("GET", "/users", HEADERS, () -> TestResponses.ok("first"));
+        Assertions.assertEquals(0, coalescer.getInFlight());
+
+        Assertions.assertThrows(IllegalStateException.class, () -> coalescer.execute("GET", "/users", HEADERS, () -> {
+            throw new IllegalStateException("Connection reset");
+        }));
+        Assertions.assertEquals(0, coalescer.getInFlight());
+
+        Response response = coalescer.execute("GET", "/users", HEADERS, () -> TestResponses.ok("third"));
+        Assertions.assertEquals("third", response.asString());
+        Assertions.assertEquals(3, coalescer.getMisses());
+        Assertions.assertEquals(0, coalescer.getHits());
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Requests match on method, path, query and header values, with header names ignoring case")
+    @Story("Coalescing")
+    public void testRequestIdentity() {
+        CompletableFuture<Response> pending = new CompletableFuture<>();
+        coalescer.executeAsync("GET", "/users?page=1", HEADERS, () -> pending);
+
+        coalescer.executeAsync("GET", "/users?page=1", HeaderBlock.of(Map.of("ACCEPT", "application/json")),
+                CompletableFuture::new);
+        Assertions.assertEquals(1, coalescer.getHits(), "Header names differ only in case");
+        coalescer.executeAsync("GET", "/users?page=1", Map.of("accept", "application/json"), CompletableFuture::new);
+        Assertions.assertEquals(2, coalescer.getHits(), "Plain maps are matched ignoring case too");
+
+        coalescer.executeAsync("GET", "/users?page=2", HEADERS, CompletableFuture::new);
+        coalescer.executeAsync("HEAD", "/users?page=1", HEADERS, CompletableFuture::new);
+        coalescer.executeAsync("GET", "/users?page=1", HEADERS.with("Accept", "text/csv"), CompletableFuture::new);
+        Assertions.assertEquals(2, coalescer.getHits());
+        Assertions.assertEquals(4, coalescer.getMisses());
+        pending.complete(TestResponses.ok("done"));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Requests sent as different credentials are never coalesced, whatever their headers")
+    @Story("Coalescing")
+    public void testCredentialsArePartOfIdentity() {
+        Object alice = new Object();
+        Object bob = new Object();
+        CompletableFuture<Response> pending = new CompletableFuture<>();
+        coalescer.executeAsync("GET", "/users/me", HEADERS, alice, () -> pending);
+
+        coalescer.executeAsync("GET", "/users/me", HEADERS, alice, CompletableFuture::new);
+        Assertions.assertEquals(1, coalescer.getHits());
+
+        coalescer.executeAsync("GET", "/users/me", HEADERS, bob, CompletableFuture::new);
+        coalescer.executeAsync("GET", "/users/me", HEADERS, CompletableFuture::new);
+        Assertions.assertEquals(1, coalescer.getHits());
+        Assertions.assertEquals(3, coalescer.getMisses());
+        pending.complete(TestResponses.ok("done"));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Async callers share one request, and cancelling one caller's future does not affect the others")
+    @Story("Coalescing")
+    public void testAsyncCallersShareRequest() {
+        CompletableFuture<Response> pending = new CompletableFuture<>();
+        CompletableFuture<Response> first = coalescer.executeAsync("GET", "/users", HEADERS, () -> pending);
+        CompletableFuture<Response> second = coalescer.executeAsync("GET", "/users", HEADERS, () -> {
+            throw new AssertionError("An identical request is in flight");
+        });
+        CompletableFuture<Response> third = coalescer.executeAsync("GET", "/users", HEADERS, CompletableFuture::new);
+        Assertions.assertEquals(2, coalescer.getHits());
+
+        third.cancel(true);
+        Response sent = TestResponses.ok("[]");
+        pending.complete(sent);
+
+        Assertions.assertSame(sent, first.join());
+        Assertions.assertSame(sent, second.join());
+        Assertions.assertThrows(CancellationException.class, third::join);
+        Assertions.assertEquals(0, coalescer.getInFlight());
+
+        CompletableFuture<Response> failed = new CompletableFuture<>();
+        CompletableFuture<Response> waiter = coalescer.executeAsync("GET", "/users", HEADERS, () -> failed);
+        failed.completeExceptionally(new IllegalStateException("Connection reset"));
+        CompletionException thrown = Assertions.assertThrows(CompletionException.class, waiter::join);
+        Assertions.assertTrue(thrown.getCause() instanceof IllegalStateException);
+        Assertions.assertEquals(0, coalescer.getInFlight());
+    }
+}
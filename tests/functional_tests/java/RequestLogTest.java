@@ -0,0 +1,284 @@
+package tests.functional_tests.java;
+
+import core.metrics.LatencyRecorder;
+import core.metrics.RequestLog;
+import core.metrics.RequestSampling;
+import io.qameta.allure.*;
+import org.json.JSONObject;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for the buffered request log and its sampling rules.
+ */
+@Epic("API Testing")
+@Feature("Metrics")
+public class RequestLogTest {
+
+    @TempDir
+    Path directory;
+
+    private static List<String> lines(Path file) throws IOException {
+        return Files.readAllLines(file, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Each request is written as one tab-separated line under a header, with the route and no query string")
+    @Story("File format")
+    public void testFileFormat() throws IOException {
+        Path file = directory.resolve("logs/nested/requests.tsv");
+        long before = System.currentTimeMillis();
+        try (RequestLog log = new RequestLog(file, 16, RequestSampling.ALL)) {
+            log.record("GET", "/users?page=2", 200, 1_234_567, 0, 512);
+            log.record("POST", "/orders", 0, 30_000_000_000L, 2048, 0);
+            Assertions.assertTrue(log.flush());
+
+            List<String> lines = lines(file);
+            Assertions.assertEquals(3, lines.size());
+            Assertions.assertEquals(RequestLog.HEADER, lines.get(0));
+            Assertions.assertEquals(7, RequestLog.HEADER.split("\t").length);
+
+            String[] get = lines.get(1).split("\t", -1);
+            Assertions.assertEquals(7, get.length);
+            long timestamp = Long.parseLong(get[0]);
+            Assertions.assertTrue(timestamp >= before && timestamp <= System.currentTimeMillis());
+            Assertions.assertEquals("GET", get[1]);
+            Assertions.assertEquals(LatencyRecorder.endpointOf("/users"), get[2]);
+            Assertions.assertEquals("200", get[3]);
+            Assertions.assertEquals("1234", get[4], "Latency in microseconds");
+            Assertions.assertEquals("0", get[5]);
+            Assertions.assertEquals("512", get[6]);
+
+            String[] post = lines.get(2).split("\t", -1);
+            Assertions.assertEquals("POST", post[1]);
+            Assertions.assertEquals("0", post[3], "No response");
+            Assertions.assertEquals("30000000", post[4]);
+            Assertions.assertEquals("2048", post[5]);
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("The header is written to a new or empty file, not when appending to an existing log")
+    @Story("File format")
+    public void testHeaderOnlyOnNewFile() throws IOException {
+        Path file = directory.resolve("requests.tsv");
+        Files.createFile(file);
+
+        try (RequestLog log = new RequestLog(file, 4, RequestSampling.ALL)) {
+            log.record("GET", "/first", 200, 1000, 0, 0);
+        }
+        try (RequestLog log = new RequestLog(file, 4, RequestSampling.ALL)) {
+            log.record("GET", "/second", 200, 1000, 0, 0);
+        }
+
+        List<String> lines = lines(file);
+        Assertions.assertEquals(3, lines.size());
+        Assertions.assertEquals(RequestLog.HEADER, lines.get(0));
+        Assertions.assertTrue(lines.get(1).contains("/first"));
+        Assertions.assertTrue(lines.get(2).contains("/second"));
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("flush() returns once everything appended is in the file, and close() writes what is left")
+    @Story("Ring buffer")
+    public void testFlushAndCloseDrainBuffer() throws IOException {
+        Path file = directory.resolve("requests.tsv");
+        RequestLog log = new RequestLog(file, 64, RequestSampling.ALL);
+
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertTrue(log.append("GET", "/flushed", 200, 1000, 0, i));
+        }
+        Assertions.assertTrue(log.flush());
+        Assertions.assertEquals(10, log.getWrittenCount());
+        Assertions.assertEquals(11, lines(file).size());
+
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertTrue(log.append("GET", "/closed", 200, 1000, 0, i));
+        }
+        log.close();
+        Assertions.assertEquals(30, log.getWrittenCount());
+        List<String> lines = lines(file);
+        Assertions.assertEquals(31, lines.size());
+        Assertions.assertTrue(lines.get(30).endsWith("\t19"), "Written in order: " + lines.get(30));
+
+        Assertions.assertFalse(log.append("GET", "/late", 200, 1000, 0, 0), "A closed log accepts nothing");
+        log.close();
+        Assertions.assertEquals(30, log.getRecordedCount());
+        Assertions.assertEquals(0, log.getDroppedCount());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("When the writer falls behind, requests beyond the buffer are dropped and counted")
+    @Story("Ring buffer")
+    public void testDropsWhenFull() throws IOException {
+        Path file = directory.resolve("requests.tsv");
+        int attempts = 20_000;
+        int accepted = 0;
+        try (RequestLog log = new RequestLog(file, 4, RequestSampling.ALL)) {
+            for (int i = 0; i < attempts; i++) {
+                if (log.append("GET", "/burst", 200, 1000, 0, i)) {
+                    accepted++;
+                }
+            }
+            Assertions.assertTrue(log.getDroppedCount() > 0, "A 4-slot buffer cannot take a burst of " + attempts);
+            Assertions.assertEquals(accepted, log.getRecordedCount());
+            Assertions.assertEquals(attempts, log.getRecordedCount() + log.getDroppedCount());
+
+            Assertions.assertTrue(log.flush());
+            Assertions.assertEquals(accepted, log.getWrittenCount());
+        }
+        Assertions.assertEquals(accepted + 1, lines(file).size());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Concurrent producers on a small buffer lose nothing unaccounted: every append is written or dropped")
+    @Story("Ring buffer")
+    public void testConcurrentProducers() throws Exception {
+        Path file = directory.resolve("requests.tsv");
+        int producers = 8;
+        int perProducer = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        RequestLog log = new RequestLog(file, 64, RequestSampling.of(1, 0.5));
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<int[]>> results = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                results.add(executor.submit(() -> {
+                    int[] counts = new int[3];  // sampled out, appended, rejected
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        int status = i % 10 == 0 ? 503 : 200;
+                        if (!log.sample(status, 1000)) {
+                            counts[0]++;
+                        } else if (log.append("GET", "/producer/" + producer, status, 1000, 0, i)) {
+                            counts[1]++;
+                        } else {
+                            counts[2]++;
+                        }
+                    }
+                    return counts;
+                }));
+            }
+            start.countDown();
+
+            int sampledOut = 0;
+            int appended = 0;
+            int rejected = 0;
+            for (Future<int[]> result : results) {
+                int[] counts = result.get(30, TimeUnit.SECONDS);
+                sampledOut += counts[0];
+                appended += counts[1];
+                rejected += counts[2];
+            }
+            log.close();
+
+            Assertions.assertEquals(producers * perProducer, sampledOut + appended + rejected);
+            Assertions.assertEquals(sampledOut, log.getSampledOutCount());
+            Assertions.assertEquals(appended, log.getRecordedCount());
+            Assertions.assertEquals(rejected, log.getDroppedCount());
+            Assertions.assertEquals(log.getWrittenCount() + log.getDroppedCount(),
+                    log.getRecordedCount() + rejected);
+            Assertions.assertEquals(appended, log.getWrittenCount());
+            Assertions.assertEquals(appended + 1, lines(file).size());
+            Assertions.assertTrue(lines(file).stream().skip(1).allMatch(line -> line.split("\t").length == 7));
+        } finally {
+            executor.shutdownNow();
+            log.close();
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("The disabled log records nothing and never blocks")
+    @Story("Ring buffer")
+    public void testDisabledLog() {
+        RequestLog log = RequestLog.DISABLED;
+        Assertions.assertFalse(log.isEnabled());
+        Assertions.assertFalse(log.sample(500, 1000));
+        log.record("GET", "/users", 500, 1000, 0, 0);
+        Assertions.assertTrue(log.flush());
+        Assertions.assertEquals(0, log.getRecordedCount());
+        Assertions.assertEquals(0, log.getSampledOutCount());
+        Assertions.assertNull(log.getFile());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Errors and successes are kept at their own rates; no response and 4xx/5xx count as errors")
+    @Story("Sampling")
+    public void testSamplingRates() {
+        RequestSampling errorsOnly = RequestSampling.of(1, 0);
+        for (int status : new int[]{0, 400, 404, 500, 503}) {
+            Assertions.assertTrue(errorsOnly.shouldLog(status, 1000), "Status " + status);
+            Assertions.assertTrue(RequestSampling.isError(status));
+        }
+        for (int status : new int[]{200, 201, 204, 302, 399}) {
+            Assertions.assertFalse(errorsOnly.shouldLog(status, 1000), "Status " + status);
+            Assertions.assertFalse(RequestSampling.isError(status));
+        }
+        RequestSampling successesOnly = RequestSampling.of(0, 1);
+        Assertions.assertTrue(successesOnly.shouldLog(200, 1000));
+        Assertions.assertFalse(successesOnly.shouldLog(500, 1000));
+
+        RequestSampling quarter = RequestSampling.of(0.25, 0.75);
+        int samples = 40_000;
+        int errors = 0;
+        int successes = 0;
+        for (int i = 0; i < samples; i++) {
+            errors += quarter.shouldLog(500, 1000) ? 1 : 0;
+            successes += quarter.shouldLog(200, 1000) ? 1 : 0;
+        }
+        Assertions.assertEquals(0.25, errors / (double) samples, 0.02);
+        Assertions.assertEquals(0.75, successes / (double) samples, 0.02);
+
+        for (double invalid : new double[]{-0.1, 1.1, Double.NaN}) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> RequestSampling.of(invalid, 1));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> RequestSampling.of(1, invalid));
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Requests slower than the threshold are always kept, whatever their status")
+    @Story("Sampling")
+    public void testSlowThreshold() {
+        RequestSampling sampling = RequestSampling.of(0, 0).withSlowThreshold(100);
+        long threshold = TimeUnit.MILLISECONDS.toNanos(100);
+
+        Assertions.assertFalse(sampling.shouldLog(200, threshold), "Exactly at the threshold is not slow");
+        Assertions.assertTrue(sampling.shouldLog(200, threshold + 1));
+        Assertions.assertTrue(sampling.shouldLog(500, threshold + 1));
+        Assertions.assertFalse(sampling.shouldLog(500, 1000));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sampling.withSlowThreshold(-1));
+
+        RequestSampling defaults = RequestSampling.fromConfig(new JSONObject());
+        Assertions.assertEquals(1, defaults.getErrorRate());
+        Assertions.assertEquals(1, defaults.getSuccessRate());
+
+        RequestSampling configured = RequestSampling.fromConfig(new JSONObject()
+                .put("error_sample_rate", 1.0)
+                .put("success_sample_rate", 0.0)
+                .put("slow_threshold_ms", 2000));
+        Assertions.assertFalse(configured.shouldLog(200, TimeUnit.MILLISECONDS.toNanos(2000)));
+        Assertions.assertTrue(configured.shouldLog(200, TimeUnit.MILLISECONDS.toNanos(2001)));
+        Assertions.assertTrue(configured.shouldLog(404, 1000));
+    }
+}
@@ -0,0 +1,183 @@
+package tests.functional_tests.java;
+
+import core.clients.RetryBudget;
+import core.clients.RetryPolicy;
+import io.qameta.allure.*;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for retries with jittered backoff, Retry-After and the retry budget.
+ */
+@Epic("API Testing")
+@Feature("Resilience")
+public class RetryPolicyTest {
+
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    private static RetryPolicy policy(int maxRetries, Duration maxDelay) {
+        return new RetryPolicy(maxRetries, Duration.ZERO, maxDelay, new RetryBudget(0.1, 100));
+    }
+
+    private Response send(RetryPolicy policy, String method, Response response) {
+        return policy.execute(method, "/orders/1", () -> {
+            attempts.incrementAndGet();
+            return response;
+        });
+    }
+
+    private static String httpDate(ZonedDateTime time) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(time.withZoneSameInstant(ZoneOffset.UTC));
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Idempotent methods are retried on a retryable status, others are sent once")
+    @Story("Retries")
+    public void testOnlyIdempotentMethodsAreRetried() {
+        RetryPolicy policy = policy(2, Duration.ofSeconds(1));
+
+        Assertions.assertEquals(503, send(policy, "GET", TestResponses.status(503)).getStatusCode());
+        Assertions.assertEquals(3, attempts.getAndSet(0));
+        Assertions.assertEquals(2, policy.getRetryCount("GET", "/orders/1"));
+
+        send(policy, "POST", TestResponses.status(503));
+        Assertions.assertEquals(1, attempts.getAndSet(0));
+        send(policy, "PATCH", TestResponses.status(503));
+        Assertions.assertEquals(1, attempts.getAndSet(0));
+
+        send(policy, "PUT", TestResponses.status(404));
+        Assertions.assertEquals(1, attempts.get());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("I/O failures are retried and rethrown unwrapped; other exceptions are not retried")
+    @Story("Retries")
+    public void testIoFailuresAreRetried() {
+        RetryPolicy policy = policy(2, Duration.ofSeconds(1));
+        UncheckedIOException ioFailure = new UncheckedIOException(new IOException("Connection refused"));
+
+        UncheckedIOException thrown = Assertions.assertThrows(UncheckedIOException.class,
+                () -> policy.execute("GET", "/orders/1", () -> {
+                    attempts.incrementAndGet();
+                    throw ioFailure;
+                }));
+        Assertions.assertSame(ioFailure, thrown);
+        Assertions.assertEquals(3, attempts.getAndSet(0));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> policy.execute("GET", "/orders/1", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("Not an I/O failure");
+        }));
+        Assertions.assertEquals(1, attempts.get());
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Retry-After in seconds is honoured, and a wait longer than maxDelay returns the response")
+    @Story("Retry-After")
+    public void testRetryAfterSeconds() {
+        RetryPolicy policy = policy(1, Duration.ofSeconds(1));
+
+        send(policy, "GET", TestResponses.status(429, new Header("Retry-After", "0")));
+        Assertions.assertEquals(2, attempts.getAndSet(0));
+
+        Response response = send(policy, "GET", TestResponses.status(429, new Header("Retry-After", "3600")));
+        Assertions.assertEquals(429, response.getStatusCode());
+        Assertions.assertEquals(1, attempts.get());
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Retry-After as an HTTP date is honoured, and a date beyond maxDelay returns the response")
+    @Story("Retry-After")
+    public void testRetryAfterHttpDate() {
+        RetryPolicy policy = policy(1, Duration.ofSeconds(1));
+
+        send(policy, "GET",
+                TestResponses.status(503, new Header("Retry-After", httpDate(ZonedDateTime.now().minusMinutes(1)))));
+        Assertions.assertEquals(2, attempts.getAndSet(0));
+
+        send(policy, "GET",
+                TestResponses.status(503, new Header("Retry-After", httpDate(ZonedDateTime.now().plusHours(1)))));
+        Assertions.assertEquals(1, attempts.getAndSet(0));
+
+        // A malformed header falls back to the jittered backoff
+        send(policy, "GET", TestResponses.status(503, new Header("Retry-After", "soon")));
+        Assertions.assertEquals(2, attempts.get());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Retries stop once the budget is exhausted and are counted as skipped")
+    @Story("Retry budget")
+    public void testBudgetExhaustion() {
+        RetryPolicy policy = new RetryPolicy(3, Duration.ZERO, Duration.ofSeconds(1), new RetryBudget(0, 2));
+
+        send(policy, "GET", TestResponses.status(503));
+        Assertions.assertEquals(3, attempts.getAndSet(0));
+        Assertions.assertEquals(1, policy.getBudgetExhaustedCount());
+        Assertions.assertEquals(0, policy.getBudget().getAvailableRetries());
+
+        send(policy, "GET", TestResponses.status(503));
+        Assertions.assertEquals(1, attempts.get());
+        Assertions.assertEquals(2, policy.getBudgetExhaustedCount());
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Requests deposit a fraction of a retry, up to the reserve")
+    @Story("Retry budget")
+    public void testBudgetRefillsFromRequests() {
+        RetryBudget budget = new RetryBudget(0.5, 2);
+        Assertions.assertTrue(budget.tryAcquireRetry());
+        Assertions.assertTrue(budget.tryAcquireRetry());
+        Assertions.assertFalse(budget.tryAcquireRetry());
+
+        budget.recordRequest();
+        Assertions.assertFalse(budget.tryAcquireRetry());
+        budget.recordRequest();
+        Assertions.assertTrue(budget.tryAcquireRetry());
+
+        for (int i = 0; i < 100; i++) {
+            budget.recordRequest();
+        }
+        Assertions.assertEquals(2, budget.getAvailableRetries());
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Backoff is drawn between zero and min(maxDelay, baseDelay * 2^retry)")
+    @Story("Backoff")
+    public void testJitterBounds() {
+        long base = Duration.ofMillis(10).toNanos();
+        long max = Duration.ofMillis(70).toNanos();
+        RetryPolicy policy = new RetryPolicy(10, Duration.ofNanos(base), Duration.ofNanos(max), RetryBudget.global());
+
+        for (int retry = 0; retry < 40; retry++) {
+            long ceiling = Math.min(max, retry < 3 ? base << retry : max);
+            long lowest = Long.MAX_VALUE;
+            long highest = 0;
+            for (int i = 0; i < 2000; i++) {
+                long delay = policy.backoffNanos(retry);
+                Assertions.assertTrue(delay >= 0 && delay <= ceiling,
+                        "Retry " + retry + " waited " + delay + "ns, outside [0, " + ceiling + "]");
+                lowest = Math.min(lowest, delay);
+                highest = Math.max(highest, delay);
+            }
+            // Full jitter spreads waits over the whole range
+            Assertions.assertTrue(lowest < ceiling / 10, "Retry " + retry + " never waited less than " + lowest);
+            Assertions.assertTrue(highest > ceiling * 9 / 10, "Retry " + retry + " never waited more than " + highest);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package tests.functional_tests.java;
+
+import core.clients.BaseApiClient;
+import core.clients.BoundRoute;
+import core.clients.JdkHttpTransport;
+import core.clients.Route;
+import core.metrics.LatencyRecorder;
+import core.metrics.TransferRecorder;
+import io.qameta.allure.*;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.*;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Tests for compiled route templates and requests made through them.
+ */
+@Epic("API Testing")
+@Feature("Routes")
+public class RouteTest {
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("A template compiles into its variables, once per template")
+    @Story("Templates")
+    public void testTemplateCompilation() {
+        Route route = Route.of("/users/{userId}/orders/{orderId}");
+        Assertions.assertEquals("/users/{userId}/orders/{orderId}", route.getTemplate());
+        Assertions.assertEquals(List.of("userId", "orderId"), route.getVariables());
+        Assertions.assertSame(route, Route.of("/users/{userId}/orders/{orderId}"));
+
+        Assertions.assertEquals("/users/{id}", Route.of("users/{id}").getTemplate(), "A leading slash is added");
+        Assertions.assertEquals(List.of(), Route.of("/health").getVariables());
+        Assertions.assertEquals("/health", Route.of("/health").expand());
+        Assertions.assertEquals("/files/report%20v2/a.txt", Route.of("/files/report v2/{name}").expand("a.txt"),
+                "Literal text is encoded once at compile time");
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Malformed, duplicate and unmatched braces, and queries or fragments, are rejected")
+    @Story("Templates")
+    public void testInvalidTemplatesAreRejected() {
+        String[] invalid = {
+                "/users/{id",         // unclosed
+                "/users/{}",          // empty name
+                "/users/{a{b}",       // nested
+                "/users/{id}/{id}",   // duplicate
+                "/users/{id}}",       // unmatched after a variable
+                "/users}/{id}",       // unmatched before a variable
+                "/users/}",           // unmatched without variables
+                "/users?page=1",      // query
+                "/users/{id}?x={y}",  // query after a variable
+                "/users#top"          // fragment
+        };
+        for (String template : invalid) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Route.of(template), template);
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Values are percent-encoded as one path segment, so they cannot change the route")
+    @Story("Expansion")
+    public void testValuesCannotChangeRoute() {
+        Route route = Route.of("/users/{id}/orders");
+
+        Assertions.assertEquals("/users/42/orders", route.expand(42));
+        Assertions.assertEquals("/users/a%2Fb/orders", route.expand("a/b"));
+        Assertions.assertEquals("/users/..%2Fadmin/orders", route.expand("../admin"));
+        Assertions.assertEquals("/users/1%3Fadmin=true/orders", route.expand("1?admin=true"));
+        Assertions.assertEquals("/users/1%23top/orders", route.expand("1#top"));
+        Assertions.assertEquals("/users/100%25/orders", route.expand("100%"));
+        Assertions.assertEquals("/users/a%20b/orders", route.expand("a b"));
+        Assertions.assertEquals("/users/J%C3%BCrgen/orders", route.expand("Jürgen"));
+        Assertions.assertEquals("/users/%F0%9F%98%80/orders", route.expand("😀"));
+        Assertions.assertEquals("/users/a-b_c.d~e:f@g/orders", route.expand("a-b_c.d~e:f@g"),
+                "pchars stay as they are");
+
+        for (String value : new String[]{"a/b", "1?x=2", "x#y", "Jürgen", "%2F"}) {
+            URI uri = URI.create("http://api.test" + route.expand(value));
+            Assertions.assertNull(uri.getRawQuery(), value);
+            Assertions.assertNull(uri.getRawFragment(), value);
+            Assertions.assertEquals(4, uri.getRawPath().split("/").length, value);
+            Assertions.assertEquals("/users/" + value + "/orders", uri.getPath(), "Decodes back to " + value);
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Expansion needs exactly one non-null value per variable, by position or by name")
+    @Story("Expansion")
+    public void testExpansionArguments() {
+        Route route = Route.of("/users/{userId}/orders/{orderId}");
+
+        Assertions.assertEquals("/users/7/orders/9", route.expand(Map.of("orderId", 9, "userId", 7)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> route.expand(7));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> route.expand(7, 9, 11));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> route.expand(7, null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> route.expand(Map.of("userId", 7)));
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Requests through a bound route go to the expanded path and are recorded under the template")
+    @Story("Bound routes")
+    public void testBoundRouteRecordsUnderTemplate() {
+        InMemoryHttpClient httpClient = new InMemoryHttpClient((request, body) ->
+                new InMemoryHttpClient.Reply(200, "{}".getBytes(StandardCharsets.UTF_8)));
+        BaseApiClient apiClient = new BaseApiClient("http://routes.test");
+        apiClient.setTransport(new JdkHttpTransport("http://routes.test", httpClient));
+
+        BoundRoute orders = apiClient.route("/route-test/orders/{id}");
+        String template = orders.getRoute().getTemplate();
+        Response response = orders.get(1);
+        Assertions.assertEquals(200, response.getStatusCode());
+        orders.get("a/b");
+        orders.getWithQuery(Map.of("expand", "lines items"), 2);
+
+        List<HttpRequest> requests = httpClient.getRequests();
+        Assertions.assertEquals("/route-test/orders/1", requests.get(0).uri().getRawPath());
+        Assertions.assertEquals("/route-test/orders/a%2Fb", requests.get(1).uri().getRawPath());
+        Assertions.assertEquals("/route-test/orders/2", requests.get(2).uri().getRawPath());
+        Assertions.assertEquals("expand=lines+items", requests.get(2).uri().getRawQuery());
+
+        Assertions.assertEquals(3, LatencyRecorder.getHistogram("GET", template).getTotalCount());
+        Assertions.assertNull(LatencyRecorder.getHistogram("GET", "/route-test/orders/1"),
+                "Nothing is recorded per ID");
+        Assertions.assertEquals(3, TransferRecorder.getStats("GET", template).getResponses());
+        Assertions.assertNull(LatencyRecorder.getRoute(), "The route tag does not leak to later requests");
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> orders.get());
+        CompletionException async = Assertions.assertThrows(CompletionException.class,
+                () -> orders.getAsync(1, 2).join());
+        Assertions.assertTrue(async.getCause() instanceof IllegalArgumentException);
+        Assertions.assertEquals(3, httpClient.getRequests().size(), "Invalid values send nothing");
+    }
+}
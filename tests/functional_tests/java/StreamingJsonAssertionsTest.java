@@ -0,0 +1,157 @@
+package tests.functional_tests.java;
+
+import com.sun.net.httpserver.HttpServer;
+import core.assertions.StreamingJsonAssertions;
+import core.clients.BaseApiClient;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Tests for single-pass element assertions and their path syntax.
+ */
+@Epic("API Testing")
+@Feature("Assertions")
+public class StreamingJsonAssertionsTest {
+
+    private static final String ORDERS = "{\"data\":{\"pages\":["
+            + "{\"items\":[{\"id\":1,\"price\":5},{\"id\":2,\"price\":7.5}]},"
+            + "{\"items\":[{\"id\":3,\"price\":1,\"extra\":{\"deep\":[1,2]}}]},"
+            + "{\"items\":[]}"
+            + "]},\"items\":[{\"id\":9}]}";
+
+    private static InputStream json(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long count(String body, String path) {
+        return StreamingJsonAssertions.forEach(json(body), path).verify();
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Field, wildcard and index steps select the expected elements")
+    @Story("Path")
+    public void testPathSteps() {
+        Assertions.assertEquals(1, count(ORDERS, "$.items[*]"));
+        Assertions.assertEquals(1, count(ORDERS, "$.data"));
+        Assertions.assertEquals(3, count(ORDERS, "$.data.pages[*]"));
+        Assertions.assertEquals(2, count(ORDERS, "$.data.pages[0].items[*]"));
+        Assertions.assertEquals(1, count(ORDERS, "$.data.pages[1].items[0]"));
+        Assertions.assertEquals(3, count("[1,2,3]", "$[*]"));
+        Assertions.assertEquals(1, count("[1,2,3]", "$[ 2 ]"));
+        Assertions.assertEquals(1, count("{\"a.b\":1,\"a\":{\"b\":2}}", "$.a.b"));
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Wildcards over nested arrays visit every inner element, and fields of other elements are skipped")
+    @Story("Path")
+    public void testNestedArrays() {
+        long count = StreamingJsonAssertions.forEach(json(ORDERS), "$.data.pages[*].items[*]")
+                .hasCount(3)
+                .eachHasNonNull("id", "price")
+                .eachMatches("price", price -> ((Number) price).doubleValue() > 0, "positive price")
+                .verify();
+        Assertions.assertEquals(3, count);
+
+        Assertions.assertEquals(4, count("[[1,2],[],[3,[4,5]]]", "$[*][*]"));
+        Assertions.assertEquals(2, count("[[1,2],[],[3,[4,5]]]", "$[*][1]"));
+        Assertions.assertEquals(2, count("[[1,2],[],[3,[4,5]]]", "$[2][1][*]"));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("An empty array is found with no elements, a missing path or wrong type is not found")
+    @Story("Path")
+    public void testMissingPath() {
+        Assertions.assertEquals(0, count(ORDERS, "$.data.pages[2].items[*]"));
+        Assertions.assertEquals(0, count(ORDERS, "$.data.pages[7]"));
+
+        Assertions.assertThrows(AssertionError.class, () -> count(ORDERS, "$.missing[*]"));
+        Assertions.assertThrows(AssertionError.class, () -> count(ORDERS, "$.data[*]"), "data is an object");
+        Assertions.assertThrows(AssertionError.class, () -> count("[1,2]", "$.items"), "The root is an array");
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Malformed paths are rejected before any input is read")
+    @Story("Path")
+    public void testMalformedPathsAreRejected() {
+        String[] malformed = {
+                null, "", "items", "$items", "$.", "$..items", "$.items.", "$.items[", "$.items[*",
+                "$.items[]", "$.items[x]", "$.items[-1]", "$.items[1.5]", "$.items]", "$[*]x"
+        };
+        for (String path : malformed) {
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> StreamingJsonAssertions.forEach(json("[]"), path), "Path " + path);
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Field checks report missing, null and mismatched values with the element index")
+    @Story("Checks")
+    public void testFailuresNameTheElement() {
+        String body = "[{\"id\":1,\"a\":{\"name\":\"x\"}},{\"id\":null,\"a\":{}},{\"id\":5.0,\"a\":[1]}]";
+
+        AssertionError error = Assertions.assertThrows(AssertionError.class,
+                () -> StreamingJsonAssertions.forEach(json(body), "$[*]").eachHasNonNull("id", "a.name").verify());
+        Assertions.assertTrue(error.getMessage().contains("[1] id is null"), error.getMessage());
+        Assertions.assertTrue(error.getMessage().contains("[1] a.name is missing"), error.getMessage());
+        Assertions.assertTrue(error.getMessage().contains("[2] a.name is missing"), error.getMessage());
+        Assertions.assertFalse(error.getMessage().contains("[0]"), error.getMessage());
+
+        Assertions.assertEquals(1, StreamingJsonAssertions.forEach(json(body), "$[2]").eachEquals("id", 5).verify(),
+                "Numbers compare by value");
+        Assertions.assertEquals(1, StreamingJsonAssertions.forEach(json(body), "$[2]")
+                .eachMatches("a", value -> value == StreamingJsonAssertions.NESTED_VALUE, "nested").verify());
+        Assertions.assertThrows(AssertionError.class, () -> count("{\"items\":[1,", "$.items[*]"));
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("A streamed response body is checked as it is read from the connection, gzip included")
+    @Story("Streaming")
+    public void testStreamedResponse() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/items", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = new GZIPOutputStream(exchange.getResponseBody())) {
+                out.write('[');
+                for (int i = 0; i < 10_000; i++) {
+                    out.write(((i == 0 ? "" : ",") + "{\"id\":" + i + "}").getBytes(StandardCharsets.UTF_8));
+                }
+                out.write(']');
+            }
+            exchange.close();
+        });
+        server.createContext("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            BaseApiClient client = new BaseApiClient("http://localhost:" + server.getAddress().getPort());
+
+            long count = StreamingJsonAssertions.forEach(client.stream("/items", null), "$[*]")
+                    .eachHasNonNull("id")
+                    .verify();
+            Assertions.assertEquals(10_000, count);
+
+            IOException error = Assertions.assertThrows(IOException.class, () -> client.stream("/missing", null));
+            Assertions.assertTrue(error.getMessage().contains("404"), error.getMessage());
+        } finally {
+            server.stop(0);
+        }
+    }
+}
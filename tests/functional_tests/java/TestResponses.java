@@ -0,0 +1,67 @@
+package tests.functional_tests.java;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+/**
+ * Responses built in memory, for tests of code that handles responses without sending requests.
+ */
+final class TestResponses {
+
+    private TestResponses() {
+    }
+
+    /**
+     * Build a response.
+     *
+     * @param status      The status code
+     * @param contentType The content type, or null for none
+     * @param body        The body
+     * @param headers     Further headers
+     * @return The response
+     */
+    static Response of(int status, String contentType, String body, Header... headers) {
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(status)
+                .setStatusLine("HTTP/1.1 " + status)
+                .setHeaders(new Headers(headers))
+                .setBody(body);
+        if (contentType != null) {
+            builder.setContentType(contentType);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Build a response with an empty body.
+     *
+     * @param status  The status code
+     * @param headers The headers
+     * @return The response
+     */
+    static Response status(int status, Header... headers) {
+        return of(status, null, "", headers);
+    }
+
+    /**
+     * Build a 200 response with a plain body.
+     *
+     * @param body The body
+     * @return The response
+     */
+    static Response ok(String body) {
+        return of(200, null, body);
+    }
+
+    /**
+     * Build a 200 response with a JSON body.
+     *
+     * @param body The JSON body
+     * @return The response
+     */
+    static Response json(String body) {
+        return of(200, "application/json", body);
+    }
+}
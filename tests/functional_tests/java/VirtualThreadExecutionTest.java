@@ -0,0 +1,163 @@
+package tests.functional_tests.java;
+
+import com.sun.net.httpserver.HttpServer;
+import core.clients.BaseApiClient;
+import core.clients.ConnectionPool;
+import core.execution.TestExecutor;
+import core.execution.VirtualThreads;
+import io.qameta.allure.*;
+import io.restassured.response.Response;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.*;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for running BaseApiClient calls on virtual threads.
+ * Uses an in-process HTTP stub so the test does not depend on a deployed environment.
+ */
+@Epic("API Testing")
+@Feature("Execution")
+public class VirtualThreadExecutionTest {
+
+    private static final int REQUEST_COUNT = 500;
+
+    private HttpServer server;
+    private BaseApiClient apiClient;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 512);
+        server.createContext("/ping", exchange -> {
+            byte[] body = "{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        apiClient = new BaseApiClient("http://localhost:" + server.getAddress().getPort());
+        // Warm up outside the measured window: first use initializes Groovy and SSL classes,
+        // and class initialization always pins
+        apiClient.get("/ping");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    /**
+     * Check whether a pin was raised by the framework's own code: walking down the stack from
+     * where the virtual thread parked, a framework frame is reached before any third-party
+     * library frame. A stack cut off by the JFR stack depth before either is counted as well.
+     *
+     * @param event The jdk.VirtualThreadPinned event
+     * @return True if the pin is attributed to the framework
+     */
+    private static boolean isPinnedInFramework(RecordedEvent event) {
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith("core.") || type.startsWith("tests.")) {
+                return true;
+            }
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Client calls run on virtual threads without pinning their carrier threads")
+    @Story("Virtual thread execution")
+    public void testClientCallsDoNotPinVirtualThreads() throws Exception {
+        // Skipped on the JDK 17 build; runs on the JDK 21 leg of the CI matrix
+        Assumptions.assumeTrue(VirtualThreads.isAvailable(), "Virtual threads require JDK 21 or later");
+
+        Path recordingFile = Files.createTempFile("virtual-thread-pinning", ".jfr");
+        // Stay within the pool's per-route limit so no call waits for a connection lease
+        try (Recording recording = new Recording();
+             TestExecutor executor = new TestExecutor(true, ConnectionPool.DEFAULT_MAX_PER_ROUTE)) {
+            // Record every pin, however short. Apache HttpClient (under RestAssured) holds a monitor
+            // while it waits for its pool lock, so pins inside the library are expected; pins raised
+            // from the framework's own code are not.
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+
+            List<CompletableFuture<Response>> responses = new ArrayList<>();
+            for (int i = 0; i < REQUEST_COUNT; i++) {
+                responses.add(executor.submit(() -> {
+                    Assertions.assertTrue(VirtualThreads.isVirtual(Thread.currentThread()),
+                            "Client call should run on a virtual thread");
+                    return apiClient.get("/ping");
+                }));
+            }
+            CompletableFuture.allOf(responses.toArray(new CompletableFuture<?>[0])).join();
+
+            recording.stop();
+            recording.dump(recordingFile);
+
+            for (CompletableFuture<Response> response : responses) {
+                Assertions.assertEquals(200, response.join().getStatusCode());
+            }
+
+            List<RecordedEvent> pinnedEvents = new ArrayList<>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(recordingFile)) {
+                if ("jdk.VirtualThreadPinned".equals(event.getEventType().getName()) && isPinnedInFramework(event)) {
+                    pinnedEvents.add(event);
+                }
+            }
+            Assertions.assertTrue(pinnedEvents.isEmpty(),
+                    "Framework code pinned virtual threads " + pinnedEvents.size() + " times: " + pinnedEvents);
+        } finally {
+            Files.deleteIfExists(recordingFile);
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("The executor never runs more tasks than its concurrency cap")
+    @Story("Virtual thread execution")
+    public void testConcurrencyCapIsRespected() {
+        int cap = 8;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        try (TestExecutor executor = new TestExecutor(true, cap)) {
+            List<CompletableFuture<Response>> responses = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                responses.add(executor.submit(() -> {
+                    // Counted by the tasks themselves, independently of the executor's bookkeeping
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        // Hold the slot long enough for tasks to overlap
+                        Thread.sleep(5);
+                        return apiClient.get("/ping");
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                }));
+            }
+            CompletableFuture.allOf(responses.toArray(new CompletableFuture<?>[0])).join();
+        }
+
+        Assertions.assertTrue(peak.get() <= cap, "Peak concurrency " + peak.get() + " exceeded cap " + cap);
+        Assertions.assertTrue(peak.get() > 1, "Tasks never ran concurrently");
+    }
+}
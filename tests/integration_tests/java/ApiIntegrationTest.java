@@ -2,12 +2,15 @@ package tests.integration_tests.java;
 
 import core.clients.BaseApiClient;
 import core.assertions.JavaAssertions;
+import core.execution.CircuitBreakerExtension;
+import core.execution.WarmupExtension;
 import core.utils.CommonHelpers;
 import io.qameta.allure.*;
 import io.restassured.response.Response;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -18,6 +21,7 @@ import java.util.Map;
  */
 @Epic("API Testing")
 @Feature("API Integration")
+@ExtendWith({WarmupExtension.class, CircuitBreakerExtension.class})
 public class ApiIntegrationTest {
 
     private BaseApiClient apiClient;
@@ -1,5 +1,6 @@
 package com.apiframework.tests.functional;
 
+import core.auth.OAuth2TokenProvider;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
@@ -14,7 +15,7 @@ import java.util.Map;
 
 public class UserApiFunctionalTest {
     private static String baseUrl;
-    private static String authToken;
+    private static OAuth2TokenProvider tokenProvider;
 
     @BeforeAll
     public static void setup() {
@@ -22,21 +23,9 @@ public class UserApiFunctionalTest {
         baseUrl = System.getenv().getOrDefault("API_BASE_URL", "https://api.example.com");
         RestAssured.baseURI = baseUrl;
 
-        // Authenticate and get token
-        Map<String, String> authPayload = new HashMap<>();
-        authPayload.put("username", "testuser");
-        authPayload.put("password", "securePassword123");
-
-        Response authResponse = given()
-                .contentType(ContentType.JSON)
-                .body(authPayload)
-                .when()
-                .post("/auth/login")
-                .then()
-                .statusCode(200)
-                .extract().response();
-
-        authToken = authResponse.jsonPath().getString("token");
+        // Tokens come from the process-wide provider for the environment, shared with
+        // every other test class instead of logging in per class
+        tokenProvider = OAuth2TokenProvider.forEnvironment(null);
     }
 
     @Test
@@ -53,7 +42,7 @@ public class UserApiFunctionalTest {
         // Create user
         Response createResponse = given()
                 .contentType(ContentType.JSON)
-                .header("Authorization", "Bearer " + authToken)
+                .header("Authorization", "Bearer " + tokenProvider.getToken())
                 .body(userData)
                 .when()
                 .post("/users")
@@ -76,7 +65,7 @@ public class UserApiFunctionalTest {
 
         Response userResponse = given()
                 .contentType(ContentType.JSON)
-                .header("Authorization", "Bearer " + authToken)
+                .header("Authorization", "Bearer " + tokenProvider.getToken())
                 .when()
                 .get("/users/" + knownUserId)
                 .then()
@@ -103,7 +92,7 @@ public class UserApiFunctionalTest {
 
         Response updateResponse = given()
                 .contentType(ContentType.JSON)
-                .header("Authorization", "Bearer " + authToken)
+                .header("Authorization", "Bearer " + tokenProvider.getToken())
                 .body(updateData)
                 .when()
                 .put("/users/" + knownUserId)
@@ -127,7 +116,7 @@ public class UserApiFunctionalTest {
 
         Response createResponse = given()
                 .contentType(ContentType.JSON)
-                .header("Authorization", "Bearer " + authToken)
+                .header("Authorization", "Bearer " + tokenProvider.getToken())
                 .body(userData)
                 .when()
                 .post("/users")
@@ -140,7 +129,7 @@ public class UserApiFunctionalTest {
         // Delete the user
         given()
                 .contentType(ContentType.JSON)
-                .header("Authorization", "Bearer " + authToken)
+                .header("Authorization", "Bearer " + tokenProvider.getToken())
                 .when()
                 .delete("/users/" + userIdToDelete)
                 .then()
@@ -149,7 +138,7 @@ public class UserApiFunctionalTest {
         // Verify user is deleted
         given()
                 .contentType(ContentType.JSON)
-                .header("Authorization", "Bearer " + authToken)
+                .header("Authorization", "Bearer " + tokenProvider.getToken())
                 .when()
                 .get("/users/" + userIdToDelete)
                 .then()
@@ -166,7 +155,7 @@ public class UserApiFunctionalTest {
 
         given()
                 .contentType(ContentType.JSON)
-                .header("Authorization", "Bearer " + authToken)
+                .header("Authorization", "Bearer " + tokenProvider.getToken())
                 .body(invalidUserData)
                 .when()
                 .post("/users")
@@ -0,0 +1,155 @@
+package tests.performance_tests.java;
+
+import core.assertions.JavaAssertions;
+import core.clients.BaseApiClient;
+import core.clients.HttpTransport;
+import core.config.EnvLoader;
+import core.metrics.LatencyRecorder;
+import core.performance.ArrivalRateGenerator;
+import core.performance.ArrivalRateProfile;
+import core.performance.LoadGenerator;
+import core.performance.LoadProfile;
+import core.performance.LoadTestResult;
+import core.utils.CommonHelpers;
+import io.qameta.allure.*;
+import io.restassured.response.Response;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.*;
+
+/**
+ * Load test for the User, Product and Order APIs.
+ * Runs the same scenarios as the k6, JMeter and Locust scripts with the native Java
+ * load generator, using the profile in test_settings.performance.
+ */
+@Epic("API Testing")
+@Feature("Performance")
+public class ApiLoadTest {
+
+    private static final double MAX_ERROR_RATE = 0.01;
+
+    private String baseUrl;
+    private String transport;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        baseUrl = System.getenv("API_BASE_URL");
+        if (baseUrl == null || baseUrl.isEmpty()) {
+            baseUrl = "https://api-dev.example.com"; // Default to dev environment
+        }
+        transport = EnvLoader.getInstance().getTestSettings("performance")
+                .optString("transport", HttpTransport.REST_ASSURED);
+        LatencyRecorder.reset();
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Load the User, Product and Order APIs with weighted scenarios")
+    @Story("API Load")
+    public void testApiLoad() throws Exception {
+        LoadTestResult result = new LoadGenerator(this::createClient, LoadProfile.fromConfig())
+                .addScenario("Users API", 3, this::usersScenario)
+                .addScenario("Products API", 5, this::productsScenario)
+                .addScenario("Orders API", 2, this::ordersScenario)
+                .run();
+
+        JSONObject report = result.toJson();
+        CommonHelpers.saveJsonFile(report, "reports/performance/java_load_test.json");
+        Allure.addAttachment("Load Test Results", report.toString(2));
+        Allure.addAttachment("Endpoint Latencies", LatencyRecorder.toJson().toString(2));
+
+        Assertions.assertTrue(result.getTotalCount() > 0, "No scenario iterations were executed");
+        Assertions.assertTrue(result.getErrorRate() < MAX_ERROR_RATE,
+                "Error rate " + result.getErrorRate() + " exceeded " + MAX_ERROR_RATE);
+        JavaAssertions.assertPercentileThresholds();
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Load the User, Product and Order APIs at a constant arrival rate")
+    @Story("API Load")
+    public void testApiArrivalRate() throws Exception {
+        LoadTestResult result = new ArrivalRateGenerator(createClient(), ArrivalRateProfile.fromConfig())
+                .addScenario("Users API", 3, this::usersScenario)
+                .addScenario("Products API", 5, this::productsScenario)
+                .addScenario("Orders API", 2, this::ordersScenario)
+                .run();
+
+        JSONObject report = result.toJson();
+        CommonHelpers.saveJsonFile(report, "reports/performance/java_arrival_rate_test.json");
+        Allure.addAttachment("Arrival Rate Test Results", report.toString(2));
+        Allure.addAttachment("Endpoint Latencies", LatencyRecorder.toJson().toString(2));
+
+        Assertions.assertEquals(0, result.getTotalDropped(),
+                "Arrivals were dropped; the server could not keep up with the target rate");
+        Assertions.assertTrue(result.getErrorRate() < MAX_ERROR_RATE,
+                "Error rate " + result.getErrorRate() + " exceeded " + MAX_ERROR_RATE);
+        JavaAssertions.assertPercentileThresholds();
+    }
+
+    private BaseApiClient createClient() {
+        BaseApiClient client = new BaseApiClient(baseUrl);
+        client.setTransport(HttpTransport.forName(transport, baseUrl));
+
+        String apiKey = System.getenv("API_KEY");
+        if (apiKey != null && !apiKey.isEmpty()) {
+            client.addHeader("X-API-Key", apiKey);
+        }
+        return client;
+    }
+
+    private void usersScenario(BaseApiClient client) {
+        Response allUsers = client.get("/users");
+        JavaAssertions.assertStatusCode(allUsers, 200);
+
+        Response user = client.route("/users/{id}").get(1);
+        JavaAssertions.assertStatusCode(user, 200);
+
+        JSONObject userData = new JSONObject();
+        userData.put("name", "Test User " + CommonHelpers.generateRandomString(5));
+        userData.put("email", CommonHelpers.generateRandomEmail());
+        userData.put("phone", CommonHelpers.generateRandomPhone());
+
+        Response created = client.post("/users", userData);
+        JavaAssertions.assertStatusCode(created, 201);
+    }
+
+    private void productsScenario(BaseApiClient client) {
+        Response allProducts = client.get("/products");
+        JavaAssertions.assertStatusCode(allProducts, 200);
+
+        JSONArray products = JavaAssertions.getResponseAsJsonArray(allProducts);
+        if (products.length() > 0) {
+            String productId = products.getJSONObject(0).get("id").toString();
+            JavaAssertions.assertStatusCode(client.route("/products/{id}").get(productId), 200);
+        }
+
+        JavaAssertions.assertStatusCode(client.get("/products?category=test"), 200);
+    }
+
+    private void ordersScenario(BaseApiClient client) {
+        JSONObject item = new JSONObject();
+        item.put("product_id", 1);
+        item.put("quantity", 1);
+        item.put("price", 10.99);
+
+        JSONObject shippingAddress = new JSONObject();
+        shippingAddress.put("street", "123 Main St");
+        shippingAddress.put("city", "Test City");
+        shippingAddress.put("state", "TS");
+        shippingAddress.put("zip", "12345");
+        shippingAddress.put("country", "Test Country");
+
+        JSONObject orderData = new JSONObject();
+        orderData.put("customer_id", 123);
+        orderData.put("items", new JSONArray().put(item));
+        orderData.put("shipping_address", shippingAddress);
+
+        Response created = client.post("/orders", orderData);
+        JavaAssertions.assertStatusCode(created, 201);
+
+        String orderId = JavaAssertions.getResponseAsJsonObject(created).get("id").toString();
+        JavaAssertions.assertStatusCode(client.route("/orders/{id}").get(orderId), 200);
+        client.route("/orders/{id}").delete(orderId);
+    }
+}
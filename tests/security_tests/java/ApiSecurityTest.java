@@ -1,6 +1,8 @@
 package tests.security_tests.java;
 
 import core.clients.BaseApiClient;
+import core.clients.BatchRequest;
+import core.clients.BatchResult;
 import core.assertions.JavaAssertions;
 import core.utils.CommonHelpers;
 import io.qameta.allure.*;
@@ -9,7 +11,9 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.jupiter.api.*;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -60,14 +64,23 @@ public class ApiSecurityTest {
             "/docs"
         };
         
-        // Act & Assert
+        // Act
+        List<BatchRequest> requests = new ArrayList<>();
         for (String endpoint : publicEndpoints) {
-            Response response = apiClient.get(endpoint);
-            
+            requests.add(BatchRequest.get(endpoint));
+        }
+        List<BatchResult> results = apiClient.batch(requests);
+
+        // Assert
+        for (BatchResult result : results) {
+            Assertions.assertTrue(result.isSuccess(),
+                    "Request to " + result.getRequest() + " failed: " + result.getError());
+            Response response = result.getResponse();
+
             // Should return 2xx status
             JavaAssertions.assertStatusCode(response, response.getStatusCode());
             Assertions.assertTrue(response.getStatusCode() >= 200 && response.getStatusCode() <= 299,
-                    "Public endpoint " + endpoint + " should be accessible without authentication");
+                    "Public endpoint " + result.getRequest().getPath() + " should be accessible without authentication");
         }
     }
 
@@ -83,17 +96,25 @@ public class ApiSecurityTest {
             "/products/admin"
         };
         
-        // Act & Assert
+        // Act
+        List<BatchRequest> requests = new ArrayList<>();
         for (String endpoint : protectedEndpoints) {
-            try {
-                Response response = apiClient.get(endpoint);
+            requests.add(BatchRequest.get(endpoint));
+        }
+        List<BatchResult> results = apiClient.batch(requests);
+
+        // Assert
+        for (BatchResult result : results) {
+            if (result.isSuccess()) {
                 // If request succeeds, verify it's not a 2xx status (should be 401 or 403)
-                Assertions.assertTrue(response.getStatusCode() == 401 || response.getStatusCode() == 403,
-                        "Protected endpoint " + endpoint + " should require authentication");
-            } catch (Exception e) {
+                int statusCode = result.getResponse().getStatusCode();
+                Assertions.assertTrue(statusCode == 401 || statusCode == 403,
+                        "Protected endpoint " + result.getRequest().getPath() + " should require authentication");
+            } else {
                 // Exception is expected if the request fails with an error
                 // Verify it's the expected error type
-                Assertions.assertTrue(e.getMessage().contains("401") || e.getMessage().contains("403"),
+                String message = String.valueOf(result.getError().getMessage());
+                Assertions.assertTrue(message.contains("401") || message.contains("403"),
                         "Protected endpoint should return 401 or 403");
             }
         }
@@ -260,7 +281,7 @@ public class ApiSecurityTest {
     }
 
     @Test
-    @Severity(SeverityLevel.HIGH)
+    @Severity(SeverityLevel.CRITICAL)
     @Description("Test API rate limiting")
     @Story("Rate Limiting")
     public void testRateLimiting() {
@@ -393,7 +414,7 @@ public class ApiSecurityTest {
     }
 
     @Test
-    @Severity(SeverityLevel.HIGH)
+    @Severity(SeverityLevel.CRITICAL)
     @Description("Test prevention of HTTP method tampering")
     @Story("Method Restrictions")
     public void testHttpMethodTampering() {
@@ -404,26 +425,20 @@ public class ApiSecurityTest {
         };
         
         // Try to use mutation methods on endpoints that should be read-only
+        JSONObject emptyData = new JSONObject();
+        List<BatchRequest> requests = new ArrayList<>();
         for (String endpoint : readOnlyEndpoints) {
-            // DELETE
-            try {
-                Response response = apiClient.delete(endpoint);
-                // DELETE on collection should be rejected
-                Assertions.assertTrue(response.getStatusCode() >= 400, 
-                        "DELETE on " + endpoint + " collection should be rejected");
-            } catch (Exception e) {
-                // Exception is expected
-            }
-            
-            // PUT
-            JSONObject emptyData = new JSONObject();
-            try {
-                Response response = apiClient.put(endpoint, emptyData);
-                // PUT on collection should be rejected
-                Assertions.assertTrue(response.getStatusCode() >= 400, 
-                        "PUT on " + endpoint + " collection should be rejected");
-            } catch (Exception e) {
-                // Exception is expected
+            requests.add(BatchRequest.delete(endpoint));
+            requests.add(BatchRequest.put(endpoint, emptyData));
+        }
+
+        for (BatchResult result : apiClient.batch(requests)) {
+            // An exception is expected too; only a received response is checked
+            if (result.isSuccess()) {
+                // DELETE or PUT on a collection should be rejected
+                Assertions.assertTrue(result.getResponse().getStatusCode() >= 400,
+                        result.getRequest().getMethod() + " on " + result.getRequest().getPath()
+                                + " collection should be rejected");
             }
         }
     }